@@ -0,0 +1,61 @@
+package io.malicki.bankingsystem.benchmarks;
+
+import io.malicki.bankingsystem.domain.account.Account;
+import io.malicki.bankingsystem.exception.InsufficientFundsException;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// The balance arithmetic ExecutionConsumer runs under the account locks
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountBenchmark {
+
+    private final BigDecimal amount = new BigDecimal("125.50");
+    private final BigDecimal tooMuch = new BigDecimal("1000000000.00");
+    private Account from;
+    private Account to;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        from = account("ACC001", "1000000.00");
+        to = account("ACC002", "1000000.00");
+    }
+
+    // Balances stay constant: money moves there and back
+    @Benchmark
+    public BigDecimal withdrawAndDeposit() {
+        from.withdraw(amount);
+        to.deposit(amount);
+        to.withdraw(amount);
+        from.deposit(amount);
+        return from.getBalance();
+    }
+
+    // Rejected withdrawal - includes building the exception and its stack trace
+    @Benchmark
+    public Object insufficientFunds() {
+        try {
+            from.withdraw(tooMuch);
+            return from;
+        } catch (InsufficientFundsException e) {
+            return e;
+        }
+    }
+
+    private static Account account(String number, String balance) {
+        Account account = new Account();
+        account.setAccountNumber(number);
+        account.setOwnerName("Benchmark");
+        account.setBalance(new BigDecimal(balance));
+        account.setActive(true);
+        account.setCreatedAt(Instant.now());
+        return account;
+    }
+}
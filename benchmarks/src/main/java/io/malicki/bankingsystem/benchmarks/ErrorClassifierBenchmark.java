@@ -0,0 +1,50 @@
+package io.malicki.bankingsystem.benchmarks;
+
+import io.malicki.bankingsystem.exception.InsufficientFundsException;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorClassifier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// ErrorHandler classifies every failure three times (classify, shouldRetry,
+// getRetryDelay); the message-matching branches are the expensive ones
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorClassifierBenchmark {
+
+    private final ErrorClassifier classifier = new ErrorClassifier();
+
+    private final Exception business = new InsufficientFundsException("ACC001", BigDecimal.TEN, BigDecimal.ONE);
+    private final Exception transient_ = new RuntimeException("Could not open JDBC Connection for transaction");
+    private final Exception unknown = new RuntimeException("Something unexpected happened in the outbox processor");
+
+    @Benchmark
+    public ErrorCategory business() {
+        return classifier.classify(business);
+    }
+
+    @Benchmark
+    public ErrorCategory transientMessage() {
+        return classifier.classify(transient_);
+    }
+
+    @Benchmark
+    public ErrorCategory unknown() {
+        return classifier.classify(unknown);
+    }
+
+    // What ErrorHandler.handleError does per failed record
+    @Benchmark
+    public void handleErrorPath(Blackhole blackhole) {
+        blackhole.consume(classifier.classify(transient_));
+        blackhole.consume(classifier.shouldRetry(transient_, 1));
+        blackhole.consume(classifier.getRetryDelay(transient_, 1));
+    }
+}
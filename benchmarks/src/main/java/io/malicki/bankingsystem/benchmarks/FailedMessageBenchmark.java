@@ -0,0 +1,68 @@
+package io.malicki.bankingsystem.benchmarks;
+
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.FailedMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// DLT envelope (de)serialisation - DeadLetterTopicService producing,
+// DltMonitorConsumer and DltReplayEngine consuming
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FailedMessageBenchmark {
+
+    private static final String TOPIC = "transfer-validation-dlt";
+
+    private FailedMessage message;
+    private byte[] payload;
+    private JsonSerializer<FailedMessage> serializer;
+    private JsonDeserializer<FailedMessage> deserializer;
+
+    @Setup
+    public void setUp() {
+        message = new FailedMessage(
+                "transfer-validation", 1, 4711L, "ACC001",
+                "{\"transferId\":\"9b1f3a52-3f0e-4b7c-a4a1-7d0c2f1e8a11\",\"fromAccountNumber\":\"ACC001\","
+                        + "\"toAccountNumber\":\"ACC002\",\"amount\":125.50,\"description\":\"Rent\","
+                        + "\"status\":\"PENDING\",\"timestamp\":\"2025-01-01T12:00:00Z\"}",
+                "io.malicki.bankingsystem.exception.InsufficientFundsException",
+                "Insufficient funds in account ACC001. Balance: 10.00, Requested: 125.50",
+                "0324a3e6cfb9f4f7",
+                1,
+                Instant.now(),
+                "banking-system",
+                Map.of("__TypeId__", "io.malicki.bankingsystem.domain.transfer.TransferEvent"),
+                ErrorCategory.BUSINESS_VALIDATION,
+                false);
+
+        serializer = new JsonSerializer<>();
+        serializer.setAddTypeInfo(false);
+        deserializer = new JsonDeserializer<>(FailedMessage.class, false);
+        payload = serializer.serialize(TOPIC, message);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, message);
+    }
+
+    @Benchmark
+    public FailedMessage deserialize() {
+        return deserializer.deserialize(TOPIC, payload);
+    }
+}
@@ -0,0 +1,73 @@
+package io.malicki.bankingsystem.benchmarks;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// TransferEvent as it goes over the wire: built from the entity, then
+// (de)serialised by the same spring-kafka Json(De)Serializer the app uses
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferEventBenchmark {
+
+    private static final String TOPIC = "transfer-validation";
+
+    private Transfer transfer;
+    private TransferEvent event;
+    private byte[] payload;
+    private JsonSerializer<TransferEvent> serializer;
+    private JsonDeserializer<TransferEvent> deserializer;
+
+    @Setup
+    public void setUp() {
+        transfer = new Transfer();
+        transfer.setId(42L);
+        transfer.setTransferId(UUID.randomUUID().toString());
+        transfer.setFromAccountNumber("ACC001");
+        transfer.setToAccountNumber("ACC002");
+        transfer.setAmount(new BigDecimal("125.50"));
+        transfer.setStatus(TransferStatus.PENDING);
+        transfer.setDescription("Rent");
+        transfer.setCreatedAt(Instant.now());
+
+        serializer = new JsonSerializer<>();
+        serializer.setAddTypeInfo(false);
+        deserializer = new JsonDeserializer<>(TransferEvent.class, false);
+
+        event = TransferEvent.from(transfer);
+        payload = serializer.serialize(TOPIC, event);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public TransferEvent fromEntity() {
+        return TransferEvent.from(transfer);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public TransferEvent deserialize() {
+        return deserializer.deserialize(TOPIC, payload);
+    }
+}
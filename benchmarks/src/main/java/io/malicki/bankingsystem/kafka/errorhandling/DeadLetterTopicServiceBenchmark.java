@@ -0,0 +1,68 @@
+package io.malicki.bankingsystem.kafka.errorhandling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import io.malicki.bankingsystem.exception.InsufficientFundsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Building the DLT envelope for a failed record: fingerprinting the stack
+// trace and re-serialising the original value. Lives in the service's
+// package because buildFailedMessage is package-private.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeadLetterTopicServiceBenchmark {
+
+    private Path fingerprints;
+    private DeadLetterTopicService service;
+    private ConsumerRecord<String, TransferEvent> record;
+    private Exception exception;
+
+    @Setup
+    public void setUp() throws Exception {
+        fingerprints = Files.createTempDirectory("fingerprints");
+        StackTraceFingerprinter fingerprinter = new StackTraceFingerprinter(fingerprints.toString(), new SimpleMeterRegistry());
+        fingerprinter.open();
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        // No template/replay engine needed - only the envelope is built
+        service = new DeadLetterTopicService(null, objectMapper, null, fingerprinter);
+
+        TransferEvent event = new TransferEvent(UUID.randomUUID().toString(), "ACC001", "ACC002",
+                new BigDecimal("125.50"), "Rent", TransferStatus.PENDING, Instant.now());
+        record = new ConsumerRecord<>("transfer-validation", 1, 4711L, "ACC001", event);
+        record.headers().add("__TypeId__", TransferEvent.class.getName().getBytes(StandardCharsets.UTF_8));
+
+        exception = new InsufficientFundsException("ACC001", BigDecimal.TEN, new BigDecimal("125.50"));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        FileSystemUtils.deleteRecursively(fingerprints);
+    }
+
+    @Benchmark
+    public FailedMessage buildFailedMessage() {
+        return service.buildFailedMessage(record, exception, "banking-system", 1, ErrorCategory.BUSINESS_VALIDATION);
+    }
+}
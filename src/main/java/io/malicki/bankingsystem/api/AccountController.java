@@ -0,0 +1,92 @@
+package io.malicki.bankingsystem.api;
+
+import io.malicki.bankingsystem.domain.account.AccountBalance;
+import io.malicki.bankingsystem.domain.account.AccountBalanceProjection;
+import io.malicki.bankingsystem.domain.transfer.history.HistoryCursor;
+import io.malicki.bankingsystem.domain.transfer.history.TransferHistoryService;
+import io.malicki.bankingsystem.velocity.VelocitySnapshot;
+import io.malicki.bankingsystem.velocity.VelocityTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/accounts")
+@Slf4j
+public class AccountController {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final TransferHistoryService transferHistoryService;
+    private final AccountBalanceProjection balanceProjection;
+    private final VelocityTracker velocityTracker;
+
+    public AccountController(
+        TransferHistoryService transferHistoryService,
+        AccountBalanceProjection balanceProjection,
+        VelocityTracker velocityTracker
+    ) {
+        this.transferHistoryService = transferHistoryService;
+        this.balanceProjection = balanceProjection;
+        this.velocityTracker = velocityTracker;
+    }
+
+    @GetMapping("/{accountNumber}/balance")
+    public ResponseEntity<AccountBalance> getBalance(@PathVariable String accountNumber) {
+        if (!balanceProjection.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return balanceProjection.getBalance(accountNumber)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Unknown accounts are left out of the result
+    @GetMapping("/balances")
+    public ResponseEntity<Map<String, AccountBalance>> getBalances(
+        @RequestParam List<String> accountNumbers
+    ) {
+        if (!balanceProjection.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        return ResponseEntity.ok(balanceProjection.getBalances(accountNumbers));
+    }
+
+    // Completed transfers per window; 404 = no activity within the longest window
+    @GetMapping("/{accountNumber}/velocity")
+    public ResponseEntity<VelocitySnapshot> getVelocity(@PathVariable String accountNumber) {
+        return velocityTracker.getSnapshot(accountNumber)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{accountNumber}/transfers")
+    public ResponseEntity<StreamingResponseBody> getTransfers(
+        @PathVariable String accountNumber,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        HistoryCursor position;
+        try {
+            position = HistoryCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        StreamingResponseBody body = out ->
+            transferHistoryService.writeHistoryPage(accountNumber, position, pageSize, out);
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+}
@@ -0,0 +1,43 @@
+package io.malicki.bankingsystem.api;
+
+import io.malicki.bankingsystem.audit.AuditLog;
+import io.malicki.bankingsystem.audit.AuditRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/audit")
+@Slf4j
+public class AuditController {
+
+    private static final int MAX_RESULTS = 1000;
+
+    private final AuditLog auditLog;
+
+    public AuditController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @GetMapping("/{transferId}")
+    public ResponseEntity<List<AuditRecord>> getTransferAudit(@PathVariable String transferId) {
+        List<AuditRecord> records = auditLog.findByTransferId(transferId);
+        if (records.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(records);
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AuditRecord>> getAuditBetween(
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+        @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(auditLog.findBetween(from, to, Math.min(limit, MAX_RESULTS)));
+    }
+}
@@ -0,0 +1,40 @@
+package io.malicki.bankingsystem.api;
+
+import io.malicki.bankingsystem.capture.CaptureStatus;
+import io.malicki.bankingsystem.capture.TrafficCapture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/capture")
+@Slf4j
+public class CaptureController {
+
+    private final TrafficCapture trafficCapture;
+
+    public CaptureController(TrafficCapture trafficCapture) {
+        this.trafficCapture = trafficCapture;
+    }
+
+    @PostMapping("/start")
+    public CaptureStatus start() throws IOException {
+        trafficCapture.start();
+        return trafficCapture.getStatus();
+    }
+
+    @PostMapping("/stop")
+    public CaptureStatus stop() throws InterruptedException {
+        trafficCapture.stop();
+        return trafficCapture.getStatus();
+    }
+
+    @GetMapping("/status")
+    public CaptureStatus status() {
+        return trafficCapture.getStatus();
+    }
+}
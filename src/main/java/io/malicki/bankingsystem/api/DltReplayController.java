@@ -0,0 +1,38 @@
+package io.malicki.bankingsystem.api;
+
+import io.malicki.bankingsystem.kafka.replay.DltReplayEngine;
+import io.malicki.bankingsystem.kafka.replay.DltReplayStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dlt/replay")
+@Slf4j
+public class DltReplayController {
+
+    private final DltReplayEngine replayEngine;
+
+    public DltReplayController(DltReplayEngine replayEngine) {
+        this.replayEngine = replayEngine;
+    }
+
+    @PostMapping("/start")
+    public DltReplayStatus start() {
+        replayEngine.start();
+        return replayEngine.getStatus();
+    }
+
+    @PostMapping("/pause")
+    public DltReplayStatus pause() {
+        replayEngine.pause("paused by operator");
+        return replayEngine.getStatus();
+    }
+
+    @GetMapping("/status")
+    public DltReplayStatus status() {
+        return replayEngine.getStatus();
+    }
+}
@@ -1,78 +1,135 @@
 package io.malicki.bankingsystem.api;
 
-import io.malicki.bankingsystem.kafka.consumer.DltMonitorConsumer;
+import io.malicki.bankingsystem.api.dto.DltRecordSummary;
+import io.malicki.bankingsystem.domain.dlt.DltCursor;
+import io.malicki.bankingsystem.domain.dlt.DltRecord;
+import io.malicki.bankingsystem.domain.dlt.DltStat;
+import io.malicki.bankingsystem.domain.dlt.DltStore;
 import io.malicki.bankingsystem.kafka.errorhandling.DeadLetterTopicService;
 import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.StackTraceFingerprinter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/dlt")
 @Slf4j
 public class DltStatsController {
+
+    private static final int MAX_PAGE_SIZE = 500;
     
-    private final DltMonitorConsumer dltMonitorConsumer;
+    private final DltStore dltStore;
     private final DeadLetterTopicService dltService;
+    private final StackTraceFingerprinter fingerprinter;
+    private final Duration healthWindow;
+    private final long healthThreshold;
     
     public DltStatsController(
-        DltMonitorConsumer dltMonitorConsumer,
-        DeadLetterTopicService dltService
+        DltStore dltStore,
+        DeadLetterTopicService dltService,
+        StackTraceFingerprinter fingerprinter,
+        @Value("${banking.dlt.health.window-minutes:15}") long healthWindowMinutes,
+        @Value("${banking.dlt.health.threshold:100}") long healthThreshold
     ) {
-        this.dltMonitorConsumer = dltMonitorConsumer;
+        this.dltStore = dltStore;
         this.dltService = dltService;
+        this.fingerprinter = fingerprinter;
+        this.healthWindow = Duration.ofMinutes(healthWindowMinutes);
+        this.healthThreshold = healthThreshold;
     }
     
     @GetMapping("/stats")
     public Map<String, Object> getStats() {
         Map<String, Object> stats = new HashMap<>();
+        Map<String, Map<String, Long>> counters = dltStore.getStats();
         
-        // Total messages sent to DLT
+        // Sent to DLT by this instance since startup
         stats.put("totalSentToDlt", dltService.getDltMessageCount());
-        
-        // By topic
-        Map<String, Long> byTopic = dltMonitorConsumer.getDltCountByTopic()
-            .entrySet()
-            .stream()
-            .collect(Collectors.toMap(
-                Map.Entry::getKey,
-                e -> e.getValue().get()
-            ));
-        stats.put("byTopic", byTopic);
-        
-        // By category
-        Map<String, Long> byCategory = dltMonitorConsumer.getDltCountByCategory()
-            .entrySet()
-            .stream()
-            .collect(Collectors.toMap(
-                e -> e.getKey().name(),
-                e -> e.getValue().get()
-            ));
-        stats.put("byCategory", byCategory);
+
+        // Stored DLT records (all time, survives restarts)
+        stats.put("totalStored", dltStore.getTotal());
+        stats.put("byTopic", counters.getOrDefault(DltStat.TOPIC, Map.of()));
+        stats.put("byCategory", counters.getOrDefault(DltStat.CATEGORY, Map.of()));
+        stats.put("byException", counters.getOrDefault(DltStat.EXCEPTION, Map.of()));
+        stats.put("byFingerprint", counters.getOrDefault(DltStat.FINGERPRINT, Map.of()));
         
         return stats;
     }
+
+    // Newest first; pass nextCursor back to get the following page
+    @GetMapping("/records")
+    public ResponseEntity<Map<String, Object>> getRecords(
+        @RequestParam(required = false) String topic,
+        @RequestParam(required = false) ErrorCategory category,
+        @RequestParam(required = false) String exceptionType,
+        @RequestParam(required = false) String fingerprint,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(defaultValue = "50") int limit
+    ) {
+        DltCursor position;
+        try {
+            position = DltCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<DltRecord> records = dltStore.find(topic, category, exceptionType, fingerprint, from, to, position, pageSize);
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("records", records.stream().map(DltRecordSummary::from).toList());
+        if (records.size() == pageSize) {
+            page.put("nextCursor", DltCursor.after(records.get(records.size() - 1)).encode());
+        }
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/records/{id}")
+    public ResponseEntity<DltRecord> getRecord(@PathVariable Long id) {
+        return dltStore.findById(id)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    // Printed stack trace of the first exception seen with this fingerprint
+    @GetMapping(value = "/fingerprints/{fingerprint}", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> getStackTrace(@PathVariable String fingerprint) {
+        return fingerprinter.findTrace(fingerprint)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
     
+    // Judged on recent failures only - the all-time total never goes down, so an
+    // incident that is long over would keep this WARNING forever
     @GetMapping("/health")
     public Map<String, Object> getHealth() {
         Map<String, Object> health = new HashMap<>();
         
-        long totalDlt = dltService.getDltMessageCount();
+        long recentDlt = dltStore.countFailedSince(Instant.now().minus(healthWindow));
         
-        health.put("status", totalDlt < 100 ? "HEALTHY" : "WARNING");
-        health.put("totalDltMessages", totalDlt);
-        health.put("threshold", 100);
+        health.put("status", recentDlt < healthThreshold ? "HEALTHY" : "WARNING");
+        health.put("recentDltMessages", recentDlt);
+        health.put("windowMinutes", healthWindow.toMinutes());
+        health.put("threshold", healthThreshold);
+        health.put("totalDltMessages", dltStore.getTotal());
         
-        if (totalDlt >= 100) {
+        if (recentDlt >= healthThreshold) {
             health.put("alert", "High number of DLT messages - investigation required!");
         }
         
         return health;
     }
-}
\ No newline at end of file
+}
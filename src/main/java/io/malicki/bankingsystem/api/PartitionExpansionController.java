@@ -0,0 +1,42 @@
+package io.malicki.bankingsystem.api;
+
+import io.malicki.bankingsystem.kafka.partitioning.PartitionExpansion;
+import io.malicki.bankingsystem.kafka.partitioning.PartitionExpansionStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/kafka/partitions")
+@Slf4j
+public class PartitionExpansionController {
+
+    private final PartitionExpansion partitionExpansion;
+
+    public PartitionExpansionController(PartitionExpansion partitionExpansion) {
+        this.partitionExpansion = partitionExpansion;
+    }
+
+    // Runs in the background - poll /status until COMPLETED or FAILED
+    @PostMapping("/expand")
+    public ResponseEntity<?> expand(@RequestParam int partitions) throws Exception {
+        try {
+            partitionExpansion.start(partitions);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+        return ResponseEntity.accepted().body(partitionExpansion.getStatus());
+    }
+
+    @GetMapping("/status")
+    public PartitionExpansionStatus status() {
+        return partitionExpansion.getStatus();
+    }
+}
@@ -0,0 +1,44 @@
+package io.malicki.bankingsystem.api;
+
+import io.malicki.bankingsystem.api.dto.ScheduledTransferRequest;
+import io.malicki.bankingsystem.api.dto.ScheduledTransferResponse;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransfer;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransferService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/scheduled-transfers")
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService scheduledTransferService;
+
+    public ScheduledTransferController(ScheduledTransferService scheduledTransferService) {
+        this.scheduledTransferService = scheduledTransferService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ScheduledTransferResponse> schedule(@Valid @RequestBody ScheduledTransferRequest request) {
+        ScheduledTransfer schedule = scheduledTransferService.create(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ScheduledTransferResponse.from(schedule));
+    }
+
+    @GetMapping("/{scheduleId}")
+    public ResponseEntity<ScheduledTransferResponse> getSchedule(@PathVariable String scheduleId) {
+        return scheduledTransferService.getSchedule(scheduleId)
+            .map(ScheduledTransferResponse::from)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 200 with the schedule as it is now - CANCELLED, or COMPLETED if it had already run out
+    @DeleteMapping("/{scheduleId}")
+    public ResponseEntity<ScheduledTransferResponse> cancel(@PathVariable String scheduleId) {
+        return scheduledTransferService.cancel(scheduleId)
+            .map(ScheduledTransferResponse::from)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -2,33 +2,95 @@ package io.malicki.bankingsystem.api;
 
 import io.malicki.bankingsystem.api.dto.TransferRequest;
 import io.malicki.bankingsystem.api.dto.TransferResponse;
+import io.malicki.bankingsystem.capture.TrafficCapture;
 import io.malicki.bankingsystem.domain.transfer.Transfer;
 import io.malicki.bankingsystem.domain.transfer.TransferService;
+import io.malicki.bankingsystem.ratelimit.AdmissionControl;
+import io.malicki.bankingsystem.ratelimit.AdmissionDecision;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/transfers")
 @Slf4j
 public class TransferController {
     
     private final TransferService transferService;
+    private final AdmissionControl admissionControl;
+    private final TrafficCapture trafficCapture;
+    private final MeterRegistry meterRegistry;
     
-    public TransferController(TransferService transferService) {
+    public TransferController(
+        TransferService transferService,
+        AdmissionControl admissionControl,
+        TrafficCapture trafficCapture,
+        MeterRegistry meterRegistry
+    ) {
         this.transferService = transferService;
+        this.admissionControl = admissionControl;
+        this.trafficCapture = trafficCapture;
+        this.meterRegistry = meterRegistry;
     }
     
+    // mode=sync: 201 COMPLETED, 422 FAILED, or 202 PENDING when the async
+    // pipeline took over - the deadline (banking.transfer.sync.deadline-ms)
+    // ran out, or the attempt failed on something it would retry (lock wait
+    // timeout, DB error)
     @PostMapping
     public ResponseEntity<TransferResponse> createTransfer(
-        @Valid @RequestBody TransferRequest request
+        @Valid @RequestBody TransferRequest request,
+        @RequestParam(name = "mode", defaultValue = "async") String mode,
+        HttpServletRequest httpRequest
     ) {
-        log.info("🏦 POST /api/transfers | From: {} → To: {} | Amount: {}", 
-                request.getFromAccountNumber(),
-                request.getToAccountNumber(),
-                request.getAmount());
+        long startedNanos = System.nanoTime();
+        // Only what the server established - a client-supplied id would let a
+        // caller pick a fresh bucket for every request
+        String client = httpRequest.getUserPrincipal() != null
+            ? httpRequest.getUserPrincipal().getName()
+            : httpRequest.getRemoteAddr();
+        
+        // Captured as offered, so a replay also reproduces what admission rejected
+        trafficCapture.record(request, client);
+        
+        // Rate limit before anything is written
+        AdmissionDecision admission = admissionControl.tryAdmit(client, request.getFromAccountNumber());
+        if (!admission.isAdmitted()) {
+            return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(admission.getRetryAfterSeconds()))
+                .build();
+        }
+        
+        if ("sync".equals(mode)) {
+            // One id for the attempt and the fallback, so they can't both create the transfer
+            String transferId = UUID.randomUUID().toString();
+            Transfer transfer;
+            try {
+                transfer = transferService.createTransferSync(transferId, request, startedNanos);
+            } catch (RuntimeException e) {
+                // Business rejections are answered inside; anything else rolled the attempt back
+                // whole - unless it failed at commit and the commit went through anyway
+                log.warn("⏱️ [SYNC] Attempt failed ({}), transfer continues asynchronously", e.getMessage());
+                transfer = transferService.createTransferAfterFailedSync(transferId, request);
+            }
+            HttpStatus status = switch (transfer.getStatus()) {
+                case COMPLETED -> HttpStatus.CREATED;
+                case FAILED -> HttpStatus.UNPROCESSABLE_ENTITY;
+                default -> HttpStatus.ACCEPTED;
+            };
+            meterRegistry.timer("banking.transfers.sync", "status", transfer.getStatus().name())
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+            return ResponseEntity.status(status).body(TransferResponse.from(transfer));
+        }
         
         Transfer transfer = transferService.createTransfer(request);
         
@@ -36,4 +98,12 @@ public class TransferController {
             .status(HttpStatus.CREATED)
             .body(TransferResponse.from(transfer));
     }
-}
\ No newline at end of file
+    
+    @GetMapping("/{transferId}")
+    public ResponseEntity<TransferResponse> getTransfer(@PathVariable String transferId) {
+        return transferService.findTransfer(transferId)
+            .map(TransferResponse::from)
+            .map(ResponseEntity::ok)
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,46 @@
+package io.malicki.bankingsystem.api.dto;
+
+import io.malicki.bankingsystem.domain.dlt.DltRecord;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+// List view of a DLT record - payload only on GET /api/dlt/records/{id}
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DltRecordSummary {
+
+    private Long id;
+    private String originalTopic;
+    private Integer originalPartition;
+    private Long originalOffset;
+    private String originalKey;
+    private ErrorCategory errorCategory;
+    private String exceptionType;
+    private String exceptionMessage;
+    private String stackTraceFingerprint;
+    private Integer attemptCount;
+    private boolean retryable;
+    private Instant failedAt;
+
+    public static DltRecordSummary from(DltRecord record) {
+        return new DltRecordSummary(
+            record.getId(),
+            record.getOriginalTopic(),
+            record.getOriginalPartition(),
+            record.getOriginalOffset(),
+            record.getOriginalKey(),
+            record.getErrorCategory(),
+            record.getExceptionType(),
+            record.getExceptionMessage(),
+            record.getStackTraceFingerprint(),
+            record.getAttemptCount(),
+            record.isRetryable(),
+            record.getFailedAt()
+        );
+    }
+}
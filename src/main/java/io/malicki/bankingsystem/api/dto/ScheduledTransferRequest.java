@@ -0,0 +1,39 @@
+package io.malicki.bankingsystem.api.dto;
+
+import io.malicki.bankingsystem.domain.schedule.ScheduleFrequency;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransferRequest {
+
+    @NotBlank(message = "From account is required")
+    private String fromAccountNumber;
+
+    @NotBlank(message = "To account is required")
+    private String toAccountNumber;
+
+    @NotNull(message = "Amount is required")
+    @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    private BigDecimal amount;
+
+    private String description;
+
+    @NotNull(message = "Execution time is required")
+    private Instant executeAt;  // first execution; in the past - as soon as possible
+
+    private ScheduleFrequency frequency = ScheduleFrequency.ONCE;
+
+    @Positive(message = "Max executions must be greater than 0")
+    private Integer maxExecutions;  // null - until cancelled
+}
@@ -0,0 +1,47 @@
+package io.malicki.bankingsystem.api.dto;
+
+import io.malicki.bankingsystem.domain.schedule.ScheduleFrequency;
+import io.malicki.bankingsystem.domain.schedule.ScheduleStatus;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransfer;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransferResponse {
+
+    private String scheduleId;
+    private String fromAccountNumber;
+    private String toAccountNumber;
+    private BigDecimal amount;
+    private String description;
+    private ScheduleFrequency frequency;
+    private Integer maxExecutions;
+    private ScheduleStatus status;
+    private Instant nextExecutionAt;
+    private int executionCount;
+    private Instant lastExecutedAt;
+    private Instant createdAt;
+
+    public static ScheduledTransferResponse from(ScheduledTransfer schedule) {
+        return new ScheduledTransferResponse(
+            schedule.getScheduleId(),
+            schedule.getFromAccountNumber(),
+            schedule.getToAccountNumber(),
+            schedule.getAmount(),
+            schedule.getDescription(),
+            schedule.getFrequency(),
+            schedule.getMaxExecutions(),
+            schedule.getStatus(),
+            schedule.getNextExecutionAt(),
+            schedule.getExecutionCount(),
+            schedule.getLastExecutedAt(),
+            schedule.getCreatedAt()
+        );
+    }
+}
@@ -19,6 +19,7 @@ public class TransferResponse {
     private BigDecimal amount;
     private String description;
     private TransferStatus status;
+    private String failureReason;
     private Instant createdAt;
     
     public static TransferResponse from(io.malicki.bankingsystem.domain.transfer.Transfer transfer) {
@@ -29,6 +30,7 @@ public class TransferResponse {
             transfer.getAmount(),
             transfer.getDescription(),
             transfer.getStatus(),
+            transfer.getFailureReason(),
             transfer.getCreatedAt()
         );
     }
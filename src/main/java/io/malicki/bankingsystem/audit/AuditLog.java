@@ -0,0 +1,186 @@
+package io.malicki.bankingsystem.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// Append-only audit trail of every transfer event, kept outside the
+// relational DB. Appends go to memory-mapped segments (so they survive a
+// process crash as soon as they are written) and are fsynced every
+// fsync-interval-ms against machine crashes.
+@Component
+@Slf4j
+public class AuditLog {
+
+    private static final int MAX_RECORD_BYTES = 8 * 1024;
+
+    private final Path directory;
+    private final int segmentSizeBytes;
+    private final int recordsPerBlock;
+    private final Counter appended;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final List<AuditSegment> segments = new CopyOnWriteArrayList<>();
+    private final ByteBuffer scratch = ByteBuffer.allocate(MAX_RECORD_BYTES);
+
+    private volatile AuditSegment active;
+    private volatile boolean dirty;
+    private long nextSegmentNumber;
+
+    public AuditLog(
+            @Value("${banking.audit.directory:./data/audit}") String directory,
+            @Value("${banking.audit.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${banking.audit.records-per-block:1024}") int recordsPerBlock,
+            MeterRegistry meterRegistry
+    ) {
+        this.directory = Path.of(directory);
+        this.segmentSizeBytes = segmentSizeMb * 1024 * 1024;
+        this.recordsPerBlock = recordsPerBlock;
+        this.appended = meterRegistry.counter("banking.audit.appended");
+        meterRegistry.gauge("banking.audit.segments", segments, List::size);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(f -> f.getFileName().toString().startsWith(AuditSegment.PREFIX))
+                    .filter(f -> f.getFileName().toString().endsWith(AuditSegment.EXTENSION))
+                    .sorted()
+                    .toList();
+        }
+
+        for (Path file : files) {
+            segments.add(AuditSegment.open(file, recordsPerBlock));
+        }
+        for (int i = 0; i < segments.size() - 1; i++) {
+            segments.get(i).seal();
+        }
+        nextSegmentNumber = files.size();
+
+        active = segments.isEmpty() ? roll() : segments.get(segments.size() - 1);
+
+        log.info("📋 Audit log opened: {} segments in {}", segments.size(), directory);
+    }
+
+    public void append(List<AuditRecord> records) {
+        appendLock.lock();
+        try {
+            for (AuditRecord record : records) {
+                scratch.clear();
+                AuditRecordCodec.encode(record, scratch);
+                scratch.flip();
+
+                long timestamp = record.getTimestamp().toEpochMilli();
+                if (!active.tryAppend(scratch, timestamp, record.getTransferId())) {
+                    active.seal();
+                    active.force();
+                    active = roll();
+                    if (!active.tryAppend(scratch, timestamp, record.getTransferId())) {
+                        throw new IllegalStateException("Audit record larger than a segment");
+                    }
+                }
+            }
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to roll audit segment", e);
+        } finally {
+            appendLock.unlock();
+        }
+        appended.increment(records.size());
+    }
+
+    // Called under appendLock (or before the log is shared)
+    private AuditSegment roll() throws IOException {
+        // Skip numbers already taken, e.g. by a segment that was empty at startup
+        while (Files.exists(directory.resolve(
+                String.format("%s%019d%s", AuditSegment.PREFIX, nextSegmentNumber, AuditSegment.EXTENSION)))) {
+            nextSegmentNumber++;
+        }
+        AuditSegment segment = AuditSegment.create(directory, nextSegmentNumber++, segmentSizeBytes, recordsPerBlock);
+        segments.add(segment);
+        log.debug("📋 New audit segment: {}", segment.getPath().getFileName());
+        return segment;
+    }
+
+    // force() runs outside the append lock - msync doesn't block writers
+    @Scheduled(fixedDelayString = "${banking.audit.fsync-interval-ms:1000}")
+    public void flush() {
+        if (dirty) {
+            dirty = false;
+            active.force();
+        }
+    }
+
+    public List<AuditRecord> findByTransferId(String transferId) {
+        List<AuditRecord> found = new ArrayList<>();
+        for (AuditSegment segment : segments) {
+            for (AuditSegment.Block block : segment.blocks()) {
+                if (block.mightContain(transferId)) {
+                    segment.scan(block, record -> {
+                        if (transferId.equals(record.getTransferId())) {
+                            found.add(record);
+                        }
+                    });
+                }
+            }
+        }
+        return found;
+    }
+
+    // Oldest first, up to limit records
+    public List<AuditRecord> findBetween(Instant from, Instant to, int limit) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<AuditRecord> found = new ArrayList<>();
+
+        for (AuditSegment segment : segments) {
+            for (AuditSegment.Block block : segment.blocks()) {
+                if (found.size() >= limit) {
+                    return found;
+                }
+                if (block.overlaps(fromMillis, toMillis)) {
+                    segment.scan(block, record -> {
+                        long timestamp = record.getTimestamp().toEpochMilli();
+                        if (found.size() < limit && timestamp >= fromMillis && timestamp <= toMillis) {
+                            found.add(record);
+                        }
+                    });
+                }
+            }
+        }
+        return found;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            for (AuditSegment segment : segments) {
+                segment.close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+}
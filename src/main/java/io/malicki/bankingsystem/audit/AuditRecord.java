@@ -0,0 +1,39 @@
+package io.malicki.bankingsystem.audit;
+
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class AuditRecord {
+
+    private final Instant timestamp;  // when the audit consumer appended it
+    private final String topic;
+    private final int partition;
+    private final long offset;
+    private final String transferId;
+    private final String status;
+    private final String fromAccountNumber;
+    private final String toAccountNumber;
+    private final BigDecimal amount;
+
+    public static AuditRecord from(ConsumerRecord<String, TransferEvent> record, Instant timestamp) {
+        TransferEvent event = record.value();
+        return new AuditRecord(
+                timestamp,
+                record.topic(),
+                record.partition(),
+                record.offset(),
+                event.getTransferId(),
+                event.getStatus() != null ? event.getStatus().name() : null,
+                event.getFromAccountNumber(),
+                event.getToAccountNumber(),
+                event.getAmount()
+        );
+    }
+}
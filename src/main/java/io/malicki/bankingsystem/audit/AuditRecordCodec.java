@@ -0,0 +1,83 @@
+package io.malicki.bankingsystem.audit;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+// Record body layout (big-endian):
+//   long timestampMillis | int partition | long offset |
+//   str topic | str transferId | str status | str from | str to | str amount
+// where str = short length (-1 for null) + UTF-8 bytes.
+final class AuditRecordCodec {
+
+    private AuditRecordCodec() {
+    }
+
+    static void encode(AuditRecord record, ByteBuffer out) {
+        out.putLong(record.getTimestamp().toEpochMilli());
+        out.putInt(record.getPartition());
+        out.putLong(record.getOffset());
+        putString(out, record.getTopic());
+        putString(out, record.getTransferId());
+        putString(out, record.getStatus());
+        putString(out, record.getFromAccountNumber());
+        putString(out, record.getToAccountNumber());
+        putString(out, record.getAmount() != null ? record.getAmount().toPlainString() : null);
+    }
+
+    static AuditRecord decode(ByteBuffer in) {
+        Instant timestamp = Instant.ofEpochMilli(in.getLong());
+        int partition = in.getInt();
+        long offset = in.getLong();
+        String topic = getString(in);
+        String transferId = getString(in);
+        String status = getString(in);
+        String from = getString(in);
+        String to = getString(in);
+        String amount = getString(in);
+        return new AuditRecord(timestamp, topic, partition, offset, transferId, status, from, to,
+                amount != null ? new BigDecimal(amount) : null);
+    }
+
+    // Index fields only - used while rebuilding the block index on startup
+    static long decodeTimestamp(ByteBuffer in) {
+        return in.getLong(in.position());
+    }
+
+    static String decodeTransferId(ByteBuffer in) {
+        in.position(in.position() + Long.BYTES + Integer.BYTES + Long.BYTES);
+        skipString(in);
+        return getString(in);
+    }
+
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Audit field too long: " + bytes.length + " bytes");
+        }
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length > 0) {
+            in.position(in.position() + length);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package io.malicki.bankingsystem.audit;
+
+import io.malicki.bankingsystem.domain.transfer.archive.BloomFilter;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// One pre-allocated, memory-mapped log file. Records are framed as
+//   int length | body | int crc32(body)
+// and the length is written last, so a torn append leaves a zero length
+// (the file starts zero-filled) and recovery stops there.
+//
+// Every recordsPerBlock records form a block with min/max timestamp and a
+// Bloom filter over transferIds - the sparse index used for lookups.
+// Appends are serialised by AuditLog; reads run concurrently and only look
+// at bytes below a block's published end.
+class AuditSegment {
+
+    static final String PREFIX = "audit-";
+    static final String EXTENSION = ".log";
+
+    private static final int FRAME_OVERHEAD = Integer.BYTES * 2;
+
+    @Getter
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int recordsPerBlock;
+    private final List<Block> blocks = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+
+    private int writePosition;
+    private Block current;
+
+    private AuditSegment(Path path, FileChannel channel, MappedByteBuffer buffer, int recordsPerBlock) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.recordsPerBlock = recordsPerBlock;
+    }
+
+    static AuditSegment create(Path directory, long number, int sizeBytes, int recordsPerBlock) throws IOException {
+        Path path = directory.resolve(String.format("%s%019d%s", PREFIX, number, EXTENSION));
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+        return new AuditSegment(path, channel, buffer, recordsPerBlock);
+    }
+
+    // Maps an existing file and rebuilds its block index, stopping at the
+    // first empty or corrupt frame (the next append goes there)
+    static AuditSegment open(Path path, int recordsPerBlock) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        AuditSegment segment = new AuditSegment(path, channel, buffer, recordsPerBlock);
+        segment.recover();
+        return segment;
+    }
+
+    private void recover() {
+        int position = 0;
+        while (position + FRAME_OVERHEAD <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + FRAME_OVERHEAD + length > buffer.capacity()) {
+                break;
+            }
+
+            ByteBuffer body = buffer.slice(position + Integer.BYTES, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES + length)) {
+                break;
+            }
+
+            index(position, position + FRAME_OVERHEAD + length,
+                    AuditRecordCodec.decodeTimestamp(body), AuditRecordCodec.decodeTransferId(body));
+            position += FRAME_OVERHEAD + length;
+        }
+        writePosition = position;
+    }
+
+    // body holds one encoded record between position and limit
+    boolean tryAppend(ByteBuffer body, long timestamp, String transferId) {
+        int length = body.remaining();
+        if (writePosition + FRAME_OVERHEAD + length > buffer.capacity()) {
+            return false;
+        }
+
+        crc.reset();
+        crc.update(body.duplicate());
+        int bodyStart = writePosition + Integer.BYTES;
+        buffer.put(bodyStart, body, body.position(), length);
+        buffer.putInt(bodyStart + length, (int) crc.getValue());
+        buffer.putInt(writePosition, length);  // commit marker
+
+        int end = writePosition + FRAME_OVERHEAD + length;
+        index(writePosition, end, timestamp, transferId);
+        writePosition = end;
+        return true;
+    }
+
+    private void index(int start, int end, long timestamp, String transferId) {
+        if (current == null || current.count == recordsPerBlock) {
+            if (current != null) {
+                current.sealed = true;
+            }
+            current = new Block(start, new BloomFilter(recordsPerBlock));
+            synchronized (blocks) {
+                blocks.add(current);
+            }
+        }
+        current.add(timestamp, transferId, end);
+    }
+
+    // No more appends - lets lookups trust the last block's Bloom filter too
+    void seal() {
+        if (current != null) {
+            current.sealed = true;
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    List<Block> blocks() {
+        synchronized (blocks) {
+            return List.copyOf(blocks);
+        }
+    }
+
+    // Decodes every record of the block, in append order
+    void scan(Block block, Consumer<AuditRecord> consumer) {
+        int position = block.start;
+        int end = block.end;
+        while (position < end) {
+            int length = buffer.getInt(position);
+            consumer.accept(AuditRecordCodec.decode(buffer.slice(position + Integer.BYTES, length)));
+            position += FRAME_OVERHEAD + length;
+        }
+    }
+
+    static class Block {
+
+        private final int start;
+        private final BloomFilter transferIds;
+        private volatile int end;
+        private volatile long minTimestamp = Long.MAX_VALUE;
+        private volatile long maxTimestamp = Long.MIN_VALUE;
+        // The Bloom filter is only trusted once the block is full and sealed;
+        // the open block is always scanned.
+        private volatile boolean sealed;
+        private int count;
+
+        private Block(int start, BloomFilter transferIds) {
+            this.start = start;
+            this.end = start;
+            this.transferIds = transferIds;
+        }
+
+        private void add(long timestamp, String transferId, int recordEnd) {
+            if (transferId != null) {
+                transferIds.add(transferId);
+            }
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            count++;
+            end = recordEnd;  // publishes the record to readers
+        }
+
+        boolean mightContain(String transferId) {
+            return !sealed || transferIds.mightContain(transferId);
+        }
+
+        boolean overlaps(long fromMillis, long toMillis) {
+            return end > start && maxTimestamp >= fromMillis && minTimestamp <= toMillis;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.malicki.bankingsystem.capture;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CaptureStatus {
+
+    private final boolean capturing;
+    private final String file;
+    private final long captured;
+    private final long dropped;
+}
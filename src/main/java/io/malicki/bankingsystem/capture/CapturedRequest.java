@@ -0,0 +1,18 @@
+package io.malicki.bankingsystem.capture;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// One POST /api/transfers as it arrived, before admission control
+@Getter
+@AllArgsConstructor
+public class CapturedRequest {
+
+    private final long offsetMicros;  // since the capture started
+    private final String clientId;    // principal or remote address, as used for admission
+    private final String fromAccountNumber;
+    private final String toAccountNumber;
+    private final BigDecimal amount;
+}
@@ -0,0 +1,96 @@
+package io.malicki.bankingsystem.capture;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads a file written by TraceWriter, one record at a time
+public class TraceReader implements Closeable {
+
+    private final DataInputStream in;
+    private final Instant startedAt;
+    private final List<String> dictionary = new ArrayList<>();
+    private long offsetMicros;
+
+    public TraceReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        if (in.readInt() != TraceWriter.MAGIC) {
+            in.close();
+            throw new IOException("Not a transfer trace: " + file);
+        }
+        byte version = in.readByte();
+        if (version != TraceWriter.VERSION) {
+            in.close();
+            throw new IOException("Unsupported trace version " + version + ": " + file);
+        }
+        this.startedAt = Instant.ofEpochMilli(in.readLong());
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    // null at the end of the trace; a record cut off by a crash also ends it
+    public CapturedRequest next() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        try {
+            offsetMicros += readSigned(first);
+            String client = readRef();
+            String from = readRef();
+            String to = readRef();
+            int scale = (int) readSigned(in.readUnsignedByte());
+            long unscaled = readSigned(in.readUnsignedByte());
+            return new CapturedRequest(offsetMicros, client.isEmpty() ? null : client, from, to,
+                    new BigDecimal(BigInteger.valueOf(unscaled), scale));
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readRef() throws IOException {
+        int index = (int) readUnsigned(in.readUnsignedByte());
+        if (index < dictionary.size()) {
+            return dictionary.get(index);
+        }
+        byte[] bytes = new byte[(int) readUnsigned(in.readUnsignedByte())];
+        in.readFully(bytes);
+        String value = new String(bytes, StandardCharsets.UTF_8);
+        dictionary.add(value);
+        return value;
+    }
+
+    private long readSigned(int first) throws IOException {
+        long value = readUnsigned(first);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private long readUnsigned(int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7;
+        int current = first;
+        while ((current & 0x80) != 0) {
+            current = in.readUnsignedByte();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,87 @@
+package io.malicki.bankingsystem.capture;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// Trace file layout:
+//   header: int magic "BKTR" | byte version | long startEpochMillis
+//   record: zigzag deltaMicros | ref client | ref from | ref to | zigzag scale | zigzag unscaledAmount
+// Numbers are LEB128 varints. A ref is an index into a dictionary built while
+// writing; the index equal to the dictionary size means "new entry" and is
+// followed by varint length + UTF-8 bytes. Account numbers and client ids
+// repeat a lot, so a typical record is around 10 bytes.
+//
+// Not thread-safe - TrafficCapture writes from a single thread.
+public class TraceWriter implements Closeable {
+
+    static final int MAGIC = 0x424B5452;
+    static final byte VERSION = 1;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private long lastOffsetMicros;
+
+    public TraceWriter(Path file, long startEpochMillis) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(startEpochMillis);
+    }
+
+    public void write(CapturedRequest request) throws IOException {
+        // Requests are stamped on the API threads, so they can be queued
+        // slightly out of order - the delta may be negative
+        writeSigned(request.getOffsetMicros() - lastOffsetMicros);
+        lastOffsetMicros = request.getOffsetMicros();
+
+        writeRef(request.getClientId() != null ? request.getClientId() : "");
+        writeRef(request.getFromAccountNumber());
+        writeRef(request.getToAccountNumber());
+
+        BigDecimal amount = request.getAmount();
+        writeSigned(amount.scale());
+        writeSigned(amount.unscaledValue().longValueExact());
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeRef(String value) throws IOException {
+        Integer index = dictionary.get(value);
+        if (index != null) {
+            writeUnsigned(index);
+            return;
+        }
+        writeUnsigned(dictionary.size());
+        dictionary.put(value, dictionary.size());
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsigned(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeSigned(long value) throws IOException {
+        writeUnsigned((value << 1) ^ (value >> 63));
+    }
+
+    private void writeUnsigned(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
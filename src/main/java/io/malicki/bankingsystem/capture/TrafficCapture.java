@@ -0,0 +1,158 @@
+package io.malicki.bankingsystem.capture;
+
+import io.malicki.bankingsystem.api.dto.TransferRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Tees incoming transfer requests into a binary trace file (TraceWriter),
+// so real account skew and burst shape can be replayed offline.
+//
+// The request thread only stamps the request and offers it to a bounded
+// queue; a single writer thread encodes and writes. When the queue is full
+// the request is dropped from the trace (never delayed) and counted.
+@Component
+@Slf4j
+public class TrafficCapture {
+
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final boolean enabledOnStartup;
+    private final int queueCapacity;
+    private final Counter captured;
+    private final Counter dropped;
+
+    private volatile Session session;
+
+    public TrafficCapture(
+            @Value("${banking.capture.directory:./data/capture}") String directory,
+            @Value("${banking.capture.enabled:false}") boolean enabledOnStartup,
+            @Value("${banking.capture.queue-capacity:100000}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.directory = Path.of(directory);
+        this.enabledOnStartup = enabledOnStartup;
+        this.queueCapacity = queueCapacity;
+        this.captured = meterRegistry.counter("banking.capture.captured");
+        this.dropped = meterRegistry.counter("banking.capture.dropped");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() throws IOException {
+        if (enabledOnStartup) {
+            start();
+        }
+    }
+
+    public void record(TransferRequest request, String clientId) {
+        Session current = session;
+        if (current == null) {
+            return;
+        }
+        CapturedRequest captured = new CapturedRequest(
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - current.startNanos),
+                clientId, request.getFromAccountNumber(), request.getToAccountNumber(), request.getAmount());
+        if (!current.queue.offer(captured)) {
+            dropped.increment();
+        }
+    }
+
+    public synchronized void start() throws IOException {
+        if (session != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        Path file = directory.resolve("transfers-" + LocalDateTime.now().format(FILE_NAME) + ".trace");
+        session = new Session(file, new TraceWriter(file, System.currentTimeMillis()));
+        session.writer.start();
+        log.info("🎥 Traffic capture started: {}", file);
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        Session current = session;
+        if (current == null) {
+            return;
+        }
+        session = null;
+        current.stopped = true;
+        current.writer.join();
+        log.info("🎥 Traffic capture stopped: {} ({} requests)", current.file, current.written);
+    }
+
+    public CaptureStatus getStatus() {
+        Session current = session;
+        return new CaptureStatus(current != null, current != null ? current.file.toString() : null,
+                (long) captured.count(), (long) dropped.count());
+    }
+
+    private final class Session {
+
+        private final Path file;
+        private final TraceWriter trace;
+        private final long startNanos = System.nanoTime();
+        private final BlockingQueue<CapturedRequest> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread writer = new Thread(this::drain, "traffic-capture");
+        private volatile boolean stopped;
+        private long written;
+
+        private Session(Path file, TraceWriter trace) {
+            this.file = file;
+            this.trace = trace;
+            writer.setDaemon(true);
+        }
+
+        // Runs until stopped and the queue is empty; flushes whenever it goes idle
+        private void drain() {
+            List<CapturedRequest> batch = new ArrayList<>(1024);
+            try (trace) {
+                while (!stopped || !queue.isEmpty()) {
+                    CapturedRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        trace.flush();
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, 1023);
+                    for (CapturedRequest request : batch) {
+                        write(request);
+                    }
+                    batch.clear();
+                }
+            } catch (IOException e) {
+                log.error("❌ Traffic capture failed, trace {} is cut short: {}", file, e.getMessage());
+                session = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void write(CapturedRequest request) throws IOException {
+            try {
+                trace.write(request);
+                written++;
+                captured.increment();
+            } catch (ArithmeticException e) {
+                // Amount does not fit a long - the request is rejected by validation anyway
+                dropped.increment();
+            }
+        }
+    }
+}
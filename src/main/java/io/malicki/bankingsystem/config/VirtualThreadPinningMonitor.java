@@ -0,0 +1,86 @@
+package io.malicki.bankingsystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Pinning = a virtual thread blocking inside synchronized/native code (H2 does
+// this on the JDBC path), which holds its carrier thread for the whole wait.
+@Component
+@Profile("virtual-threads")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${banking.virtual-threads.pinning-threshold-ms:20}") long thresholdMs
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+
+        log.info("📌 Virtual thread pinning monitor started (threshold: {}ms)", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String frame = firstApplicationFrame(event);
+
+        meterRegistry.counter("banking.virtualthreads.pinned", "frame", frame).increment();
+
+        log.warn("📌 Virtual thread pinned for {}ms | Thread: {} | At: {}",
+                event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "?",
+                frame);
+    }
+
+    private String firstApplicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+
+        String fallback = "unknown";
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String location = frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+            if (location.startsWith("io.malicki.bankingsystem")) {
+                return location;
+            }
+            if ("unknown".equals(fallback) && !location.startsWith("java.")) {
+                fallback = location;
+            }
+        }
+        return fallback;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.malicki.bankingsystem.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// @Transactional(readOnly = true) work goes to the replica pool, everything else
+// to the primary. LazyConnectionDataSourceProxy delays fetching the physical
+// connection until the first statement, by which time the transaction manager
+// has already marked it read-only.
+@Configuration
+@ConditionalOnProperty(name = "banking.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+        @Value("${banking.datasource.replica.url}") String url,
+        @Value("${banking.datasource.replica.username:sa}") String username,
+        @Value("${banking.datasource.replica.password:}") String password,
+        @Value("${banking.datasource.replica.maximum-pool-size:10}") int maximumPoolSize
+    ) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagTracker replicaLagTracker(
+        @Value("${banking.datasource.replica.max-lag-ms:2000}") long maxLagMs,
+        MeterRegistry meterRegistry
+    ) {
+        return new ReplicaLagTracker(Duration.ofMillis(maxLagMs), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") DataSource primary,
+        @Qualifier("replicaDataSource") DataSource replica,
+        ReplicaLagTracker lagTracker,
+        MeterRegistry meterRegistry
+    ) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(
+            new ReplicaRoutingDataSource(replica, primary, lagTracker, meterRegistry));
+        return dataSource;
+    }
+}
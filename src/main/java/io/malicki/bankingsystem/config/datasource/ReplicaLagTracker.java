@@ -0,0 +1,38 @@
+package io.malicki.bankingsystem.config.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// How far behind the primary the replica is. Fed by whatever replicates
+// (ReplicationStandIn locally): each successful sync reports the primary
+// time its data is consistent with.
+public class ReplicaLagTracker {
+
+    private final Duration maxLag;
+    private volatile Instant replicatedUpTo;
+
+    public ReplicaLagTracker(Duration maxLag, MeterRegistry meterRegistry) {
+        this.maxLag = maxLag;
+
+        Gauge.builder("banking.datasource.replica.lag", this, t -> t.getLag().toMillis() / 1000.0)
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    public void markReplicated(Instant primaryTime) {
+        replicatedUpTo = primaryTime;
+    }
+
+    public Duration getLag() {
+        Instant upTo = replicatedUpTo;
+        return upTo == null ? Duration.ofDays(1) : Duration.between(upTo, Instant.now());
+    }
+
+    // Never synced, or synced too long ago - read from primary instead
+    public boolean isReplicaUsable() {
+        return replicatedUpTo != null && getLag().compareTo(maxLag) <= 0;
+    }
+}
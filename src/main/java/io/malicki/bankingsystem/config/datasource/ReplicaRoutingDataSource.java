@@ -0,0 +1,45 @@
+package io.malicki.bankingsystem.config.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Target for read-only transactions: the replica while it is within the lag
+// budget, otherwise the primary.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String REPLICA = "replica";
+    private static final String PRIMARY = "primary";
+
+    private final ReplicaLagTracker lagTracker;
+    private final Counter replicaReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(
+            DataSource replica,
+            DataSource primary,
+            ReplicaLagTracker lagTracker,
+            MeterRegistry meterRegistry
+    ) {
+        this.lagTracker = lagTracker;
+        this.replicaReads = meterRegistry.counter("banking.datasource.reads", "target", REPLICA);
+        this.fallbackReads = meterRegistry.counter("banking.datasource.reads", "target", PRIMARY);
+
+        setTargetDataSources(Map.of(REPLICA, replica, PRIMARY, primary));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (lagTracker.isReplicaUsable()) {
+            replicaReads.increment();
+            return REPLICA;
+        }
+        fallbackReads.increment();
+        return PRIMARY;
+    }
+}
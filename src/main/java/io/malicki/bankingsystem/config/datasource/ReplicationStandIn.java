@@ -0,0 +1,258 @@
+package io.malicki.bankingsystem.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Local stand-in for real replication (dev/tests only): copies accounts and
+// transfers from the primary H2 into the replica H2 on a timer and reports the
+// resulting lag to ReplicaLagTracker. Those are the only tables read-only
+// transactions touch - DLT and schedule reads are not readOnly and stay on the
+// primary. Only changed rows are written, and rows deleted on the primary
+// (e.g. archived transfers) are deleted from the replica too.
+@Component
+@ConditionalOnProperty(
+    name = {"banking.datasource.replica.enabled", "banking.datasource.replica.stand-in.enabled"},
+    havingValue = "true"
+)
+@Slf4j
+public class ReplicationStandIn {
+
+    private static final int IN_CLAUSE_CHUNK = 500;
+
+    // Replica transfer ids checked against the primary per pass, for deletes
+    private static final int DELETE_SWEEP_CHUNK = 5000;
+
+    // Transfers are re-read from a little before the last sync so rows that
+    // committed late (created earlier, committed after the previous pass) are not missed.
+    private static final Duration COMMIT_SKEW = Duration.ofSeconds(10);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagTracker lagTracker;
+    private final boolean copySchema;
+
+    private boolean schemaReady = false;
+    private Instant lastSync = Instant.EPOCH;
+    private long deleteSweepFrom = 0;
+
+    public ReplicationStandIn(
+        @Qualifier("primaryDataSource") DataSource primary,
+        @Qualifier("replicaDataSource") DataSource replica,
+        ReplicaLagTracker lagTracker,
+        @Value("${banking.datasource.replica.stand-in.copy-schema:true}") boolean copySchema
+    ) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagTracker = lagTracker;
+        this.copySchema = copySchema;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.datasource.replica.stand-in.interval-ms:500}")
+    public void replicate() {
+        Instant snapshotTime = Instant.now();
+
+        try (Connection source = primary.getConnection();
+             Connection target = replica.getConnection()) {
+
+            if (!schemaReady) {
+                if (copySchema) {
+                    copySchema(source, target);
+                }
+                schemaReady = true;
+            }
+
+            target.setAutoCommit(false);
+
+            syncAccounts(source, target);
+            copyRows(source, target, "transfers",
+                "SELECT * FROM transfers WHERE created_at >= ?",
+                List.of(Timestamp.from(lastSync.minus(COMMIT_SKEW))));
+            refreshInFlightTransfers(source, target);
+            sweepDeletedTransfers(source, target);
+
+            target.commit();
+
+            lastSync = snapshotTime;
+            lagTracker.markReplicated(snapshotTime);
+
+        } catch (SQLException e) {
+            log.warn("⚠️ Replica sync failed, reads fall back to primary once lag exceeds the limit: {}",
+                    e.getMessage());
+        }
+    }
+
+    private void copySchema(Connection source, Connection target) throws SQLException {
+        List<String> ddl = new ArrayList<>();
+        try (Statement script = source.createStatement();
+             ResultSet rs = script.executeQuery("SCRIPT NODATA")) {
+            while (rs.next()) {
+                ddl.add(rs.getString(1));
+            }
+        }
+
+        try (Statement create = target.createStatement()) {
+            for (String statement : ddl) {
+                create.execute(statement);
+            }
+        }
+        log.info("📑 Replica schema created ({} statements)", ddl.size());
+    }
+
+    // Every balance change bumps the version, so comparing (id, version) finds
+    // the accounts to copy without reading or rewriting the others
+    private void syncAccounts(Connection source, Connection target) throws SQLException {
+        Map<Long, Long> primaryVersions = versions(source);
+        Map<Long, Long> replicaVersions = versions(target);
+
+        List<Long> changed = new ArrayList<>();
+        primaryVersions.forEach((id, version) -> {
+            if (!replicaVersions.containsKey(id) || !Objects.equals(replicaVersions.get(id), version)) {
+                changed.add(id);
+            }
+        });
+        List<Long> deleted = new ArrayList<>(replicaVersions.keySet());
+        deleted.removeAll(primaryVersions.keySet());
+
+        copyRowsById(source, target, "accounts", changed);
+        deleteRows(target, "accounts", deleted);
+    }
+
+    private Map<Long, Long> versions(Connection connection) throws SQLException {
+        Map<Long, Long> versions = new HashMap<>();
+        try (Statement query = connection.createStatement();
+             ResultSet rs = query.executeQuery("SELECT id, version FROM accounts")) {
+            while (rs.next()) {
+                versions.put(rs.getLong(1), rs.getObject(2, Long.class));
+            }
+        }
+        return versions;
+    }
+
+    // Walks the replica's transfer ids a chunk per pass and drops the ones the
+    // primary no longer has. A replica row was copied from the primary, so if
+    // the primary does not have it now it has been deleted since.
+    private void sweepDeletedTransfers(Connection source, Connection target) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement query = target.prepareStatement(
+                "SELECT id FROM transfers WHERE id > ? ORDER BY id LIMIT " + DELETE_SWEEP_CHUNK)) {
+            query.setLong(1, deleteSweepFrom);
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            deleteSweepFrom = 0;
+            return;
+        }
+
+        Set<Long> present = new HashSet<>();
+        try (PreparedStatement query = source.prepareStatement(
+                "SELECT id FROM transfers WHERE id BETWEEN ? AND ?")) {
+            query.setLong(1, ids.get(0));
+            query.setLong(2, ids.get(ids.size() - 1));
+            try (ResultSet rs = query.executeQuery()) {
+                while (rs.next()) {
+                    present.add(rs.getLong(1));
+                }
+            }
+        }
+
+        List<Long> deleted = ids.stream().filter(id -> !present.contains(id)).toList();
+        deleteRows(target, "transfers", deleted);
+        if (!deleted.isEmpty()) {
+            log.debug("🧹 Replica: {} deleted transfers removed", deleted.size());
+        }
+        deleteSweepFrom = ids.size() < DELETE_SWEEP_CHUNK ? 0 : ids.get(ids.size() - 1);
+    }
+
+    // Rows that are not final in the replica may have moved on in the primary
+    private void refreshInFlightTransfers(Connection source, Connection target) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (Statement query = target.createStatement();
+             ResultSet rs = query.executeQuery(
+                 "SELECT id FROM transfers WHERE status NOT IN ('COMPLETED', 'FAILED')")) {
+            while (rs.next()) {
+                ids.add(rs.getLong(1));
+            }
+        }
+
+        copyRowsById(source, target, "transfers", ids);
+    }
+
+    private void copyRowsById(Connection source, Connection target, String table, List<Long> ids) throws SQLException {
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            copyRows(source, target, table,
+                "SELECT * FROM " + table + " WHERE id IN (" + placeholders + ")",
+                new ArrayList<>(chunk));
+        }
+    }
+
+    private void deleteRows(Connection target, String table, List<Long> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement delete = target.prepareStatement("DELETE FROM " + table + " WHERE id = ?")) {
+            for (Long id : ids) {
+                delete.setLong(1, id);
+                delete.addBatch();
+            }
+            delete.executeBatch();
+        }
+    }
+
+    private void copyRows(
+        Connection source,
+        Connection target,
+        String table,
+        String query,
+        List<Object> params
+    ) throws SQLException {
+        try (PreparedStatement select = source.prepareStatement(query)) {
+            for (int i = 0; i < params.size(); i++) {
+                select.setObject(i + 1, params.get(i));
+            }
+
+            try (ResultSet rs = select.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                String placeholders = String.join(",", Collections.nCopies(columns, "?"));
+
+                try (PreparedStatement merge = target.prepareStatement(
+                        "MERGE INTO " + table + " KEY(id) VALUES (" + placeholders + ")")) {
+                    while (rs.next()) {
+                        for (int c = 1; c <= columns; c++) {
+                            merge.setObject(c, rs.getObject(c));
+                        }
+                        merge.addBatch();
+                    }
+                    merge.executeBatch();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.malicki.bankingsystem.domain.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// Immutable balance snapshot served by AccountBalanceProjection
+@Getter
+@AllArgsConstructor
+public class AccountBalance {
+
+    private final String accountNumber;
+    private final BigDecimal balance;
+    private final boolean active;
+    private final Long version;  // Account @Version this snapshot was taken at
+
+    public static AccountBalance of(Account account) {
+        return new AccountBalance(
+            account.getAccountNumber(),
+            account.getBalance(),
+            account.isActive(),
+            account.getVersion()
+        );
+    }
+
+    public boolean isNewerThan(AccountBalance other) {
+        return version != null && (other.version == null || version > other.version);
+    }
+}
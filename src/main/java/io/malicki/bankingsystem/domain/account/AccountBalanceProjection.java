@@ -0,0 +1,91 @@
+package io.malicki.bankingsystem.domain.account;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+// In-memory balance read model. Built once from the accounts table at startup,
+// then kept current from transfer-completed by BalanceProjectionConsumer -
+// on every node, whichever one executed the transfer. Reads never touch the
+// database; until the feed has caught up they are refused (not ready).
+@Component
+@Slf4j
+public class AccountBalanceProjection {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<String, AccountBalance> balances = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public AccountBalanceProjection(
+            AccountRepository accountRepository,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.accountRepository = accountRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // Returns when the read started - changes committed after it may be missing
+    public Instant rebuild() {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        AtomicLong loaded = new AtomicLong();
+
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<AccountBalance> rows = accountRepository.streamBalances()) {
+                rows.forEach(balance -> {
+                    apply(balance);
+                    loaded.incrementAndGet();
+                });
+            }
+        });
+
+        log.info("💼 Balance projection rebuilt: {} accounts in {}ms",
+                loaded.get(), (System.nanoTime() - start) / 1_000_000);
+        return startedAt;
+    }
+
+    // Version guard: a late rebuild row, a replayed or out-of-order change
+    // never overwrites a newer snapshot.
+    public void apply(AccountBalance balance) {
+        balances.merge(
+            balance.getAccountNumber(),
+            balance,
+            (current, incoming) -> incoming.isNewerThan(current) ? incoming : current
+        );
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Optional<AccountBalance> getBalance(String accountNumber) {
+        return Optional.ofNullable(balances.get(accountNumber));
+    }
+
+    public Map<String, AccountBalance> getBalances(Collection<String> accountNumbers) {
+        Map<String, AccountBalance> result = new LinkedHashMap<>();
+        for (String accountNumber : accountNumbers) {
+            AccountBalance balance = balances.get(accountNumber);
+            if (balance != null) {
+                result.put(accountNumber, balance);
+            }
+        }
+        return result;
+    }
+}
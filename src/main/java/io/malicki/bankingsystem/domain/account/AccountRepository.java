@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -18,4 +19,9 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
     Optional<Account> findByAccountNumberWithLock(@Param("accountNumber") String accountNumber);
+
+    // Balance projection rebuild - scalar columns only, no entity hydration
+    @Query("SELECT new io.malicki.bankingsystem.domain.account.AccountBalance(" +
+           "a.accountNumber, a.balance, a.active, a.version) FROM Account a")
+    Stream<AccountBalance> streamBalances();
 }
\ No newline at end of file
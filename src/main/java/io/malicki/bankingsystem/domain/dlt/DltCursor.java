@@ -0,0 +1,56 @@
+package io.malicki.bankingsystem.domain.dlt;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+// Opaque keyset position in the DLT records: (failedAt, id) of the last record
+// already returned. Prefixed so a transfer history cursor is rejected here.
+@Getter
+public class DltCursor {
+
+    private static final String PREFIX = "dlt|";
+
+    // First page - sorts after every real record
+    public static final DltCursor START =
+            new DltCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    private final Instant failedAt;
+    private final long id;
+
+    public DltCursor(Instant failedAt, long id) {
+        this.failedAt = failedAt;
+        this.id = id;
+    }
+
+    public static DltCursor after(DltRecord record) {
+        return new DltCursor(record.getFailedAt(), record.getId());
+    }
+
+    public static DltCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new IllegalArgumentException("Not a DLT cursor");
+            }
+            int separator = raw.lastIndexOf('|');
+            return new DltCursor(
+                    Instant.parse(raw.substring(PREFIX.length(), separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid DLT cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = PREFIX + failedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package io.malicki.bankingsystem.domain.dlt;
+
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity
+@Table(
+    name = "dlt_records",
+    indexes = {
+        // Triage queries filter on one dimension and page by (failedAt, id)
+        @Index(name = "idx_dlt_failed_at", columnList = "failedAt, id"),
+        @Index(name = "idx_dlt_topic_failed_at", columnList = "originalTopic, failedAt, id"),
+        @Index(name = "idx_dlt_category_failed_at", columnList = "errorCategory, failedAt, id"),
+        @Index(name = "idx_dlt_exception_failed_at", columnList = "exceptionType, failedAt, id"),
+        @Index(name = "idx_dlt_fingerprint_failed_at", columnList = "stackTraceFingerprint, failedAt, id"),
+        @Index(name = "idx_dlt_original", columnList = "originalTopic, originalPartition, originalOffset")
+    },
+    uniqueConstraints = {
+        // A redelivered DLT message is stored once
+        @UniqueConstraint(name = "uk_dlt_position", columnNames = {"dltTopic", "dltPartition", "dltOffset"})
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DltRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "dlt_records_seq")
+    @SequenceGenerator(name = "dlt_records_seq", sequenceName = "dlt_records_seq", allocationSize = 50)
+    private Long id;
+
+    // Position in the DLT topic
+    @Column(nullable = false)
+    private String dltTopic;
+
+    @Column(nullable = false)
+    private Integer dltPartition;
+
+    @Column(nullable = false)
+    private Long dltOffset;
+
+    // Original message
+    @Column(nullable = false)
+    private String originalTopic;
+
+    private Integer originalPartition;
+
+    private Long originalOffset;
+
+    private String originalKey;
+
+    @Column(columnDefinition = "TEXT")
+    private String originalValue;
+
+    // Failure
+    @Enumerated(EnumType.STRING)
+    @Column(length = 30)
+    private ErrorCategory errorCategory;
+
+    @Column(length = 255)
+    private String exceptionType;
+
+    @Column(length = 1000)
+    private String exceptionMessage;
+
+    @Column(length = 16)
+    private String stackTraceFingerprint;
+
+    private Integer attemptCount;
+
+    private String consumerGroupId;
+
+    private boolean retryable;
+
+    @Column(nullable = false)
+    private Instant failedAt;
+
+    @Column(nullable = false)
+    private Instant storedAt;
+}
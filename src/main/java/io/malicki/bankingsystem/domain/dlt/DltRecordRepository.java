@@ -0,0 +1,25 @@
+package io.malicki.bankingsystem.domain.dlt;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DltRecordRepository extends JpaRepository<DltRecord, Long>, JpaSpecificationExecutor<DltRecord> {
+
+    @Query("SELECT r.dltOffset FROM DltRecord r " +
+           "WHERE r.dltTopic = :topic AND r.dltPartition = :partition AND r.dltOffset IN :offsets")
+    List<Long> findStoredOffsets(
+            @Param("topic") String topic,
+            @Param("partition") Integer partition,
+            @Param("offsets") Collection<Long> offsets);
+
+    // Served by idx_dlt_failed_at
+    long countByFailedAtGreaterThanEqual(Instant since);
+}
@@ -0,0 +1,39 @@
+package io.malicki.bankingsystem.domain.dlt;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Running DLT counters, one row per (dimension, value) - e.g. (category, TECHNICAL_TRANSIENT).
+// Incremented per stored batch, never recomputed from dlt_records.
+@Entity
+@Table(name = "dlt_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DltStat {
+
+    public static final String TOTAL = "total";
+    public static final String TOPIC = "topic";
+    public static final String CATEGORY = "category";
+    public static final String EXCEPTION = "exception";
+    public static final String FINGERPRINT = "fingerprint";
+
+    @Id
+    @Column(length = 320)
+    private String statKey;  // dimension:value
+
+    @Column(nullable = false, length = 30)
+    private String dimension;
+
+    @Column(nullable = false)
+    private String statValue;
+
+    @Column(nullable = false)
+    private long messageCount;
+
+    public static String key(String dimension, String value) {
+        return dimension + ":" + value;
+    }
+}
@@ -0,0 +1,15 @@
+package io.malicki.bankingsystem.domain.dlt;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DltStatRepository extends JpaRepository<DltStat, String> {
+
+    @Modifying
+    @Query("UPDATE DltStat s SET s.messageCount = s.messageCount + :delta WHERE s.statKey = :statKey")
+    int increment(@Param("statKey") String statKey, @Param("delta") long delta);
+}
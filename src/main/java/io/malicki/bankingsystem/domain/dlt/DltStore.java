@@ -0,0 +1,199 @@
+package io.malicki.bankingsystem.domain.dlt;
+
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.FailedMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Durable DLT history: every DLT message once, plus running counters.
+// Reads are not readOnly on purpose - read-only transactions are routed to
+// the replica, which only carries accounts and transfers.
+@Service
+@Slf4j
+public class DltStore {
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final DltRecordRepository recordRepository;
+    private final DltStatRepository statRepository;
+
+    public DltStore(DltRecordRepository recordRepository, DltStatRepository statRepository) {
+        this.recordRepository = recordRepository;
+        this.statRepository = statRepository;
+    }
+
+    // One transaction per polled batch: rows + counter deltas commit together,
+    // and redelivered DLT offsets are skipped, so the counters never drift.
+    @Transactional
+    public List<DltRecord> storeBatch(List<ConsumerRecord<String, FailedMessage>> records) {
+        Map<String, List<ConsumerRecord<String, FailedMessage>>> byPartition = records.stream()
+                .filter(r -> r.value() != null)
+                .collect(Collectors.groupingBy(r -> r.topic() + "-" + r.partition(), LinkedHashMap::new, Collectors.toList()));
+
+        List<DltRecord> toStore = new ArrayList<>();
+        for (List<ConsumerRecord<String, FailedMessage>> partitionRecords : byPartition.values()) {
+            ConsumerRecord<String, FailedMessage> first = partitionRecords.get(0);
+            Set<Long> stored = new HashSet<>(recordRepository.findStoredOffsets(
+                    first.topic(),
+                    first.partition(),
+                    partitionRecords.stream().map(ConsumerRecord::offset).toList()));
+
+            for (ConsumerRecord<String, FailedMessage> record : partitionRecords) {
+                if (!stored.contains(record.offset())) {
+                    toStore.add(toDltRecord(record));
+                }
+            }
+        }
+
+        if (toStore.isEmpty()) {
+            return toStore;
+        }
+
+        recordRepository.saveAll(toStore);
+        applyStatDeltas(toStore);
+        return toStore;
+    }
+
+    private void applyStatDeltas(List<DltRecord> stored) {
+        Map<String, String[]> dimensions = new TreeMap<>();  // key -> {dimension, value}; sorted = stable lock order
+        Map<String, Long> deltas = new TreeMap<>();
+
+        for (DltRecord record : stored) {
+            count(deltas, dimensions, DltStat.TOTAL, "all");
+            count(deltas, dimensions, DltStat.TOPIC, record.getOriginalTopic());
+            count(deltas, dimensions, DltStat.CATEGORY,
+                    record.getErrorCategory() != null ? record.getErrorCategory().name() : "NONE");
+            count(deltas, dimensions, DltStat.EXCEPTION, String.valueOf(record.getExceptionType()));
+            count(deltas, dimensions, DltStat.FINGERPRINT, String.valueOf(record.getStackTraceFingerprint()));
+        }
+
+        deltas.forEach((key, delta) -> {
+            if (statRepository.increment(key, delta) == 0) {
+                String[] dimension = dimensions.get(key);
+                statRepository.save(new DltStat(key, dimension[0], dimension[1], delta));
+            }
+        });
+    }
+
+    private void count(Map<String, Long> deltas, Map<String, String[]> dimensions, String dimension, String value) {
+        String key = DltStat.key(dimension, value);
+        deltas.merge(key, 1L, Long::sum);
+        dimensions.putIfAbsent(key, new String[] {dimension, value});
+    }
+
+    private DltRecord toDltRecord(ConsumerRecord<String, FailedMessage> record) {
+        FailedMessage failed = record.value();
+
+        DltRecord dltRecord = new DltRecord();
+        dltRecord.setDltTopic(record.topic());
+        dltRecord.setDltPartition(record.partition());
+        dltRecord.setDltOffset(record.offset());
+        dltRecord.setOriginalTopic(failed.getOriginalTopic() != null ? failed.getOriginalTopic() : record.topic());
+        dltRecord.setOriginalPartition(failed.getOriginalPartition());
+        dltRecord.setOriginalOffset(failed.getOriginalOffset());
+        dltRecord.setOriginalKey(failed.getOriginalKey());
+        dltRecord.setOriginalValue(failed.getOriginalValue());
+        dltRecord.setErrorCategory(failed.getErrorCategory());
+        dltRecord.setExceptionType(failed.getExceptionType());
+        dltRecord.setExceptionMessage(truncate(failed.getExceptionMessage()));
+        dltRecord.setStackTraceFingerprint(failed.getStackTraceFingerprint());
+        dltRecord.setAttemptCount(failed.getAttemptCount());
+        dltRecord.setConsumerGroupId(failed.getConsumerGroupId());
+        dltRecord.setRetryable(failed.isRetryable());
+        dltRecord.setFailedAt(failed.getFailedAt() != null ? failed.getFailedAt() : Instant.ofEpochMilli(record.timestamp()));
+        dltRecord.setStoredAt(Instant.now());
+        return dltRecord;
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_MESSAGE_LENGTH
+                ? message.substring(0, MAX_MESSAGE_LENGTH)
+                : message;
+    }
+
+    // Newest first, keyset-paginated on (failedAt, id). Only the filters
+    // that are set end up in the SQL, so each can use its own index.
+    @Transactional
+    public List<DltRecord> find(
+            String originalTopic,
+            ErrorCategory category,
+            String exceptionType,
+            String fingerprint,
+            Instant from,
+            Instant to,
+            DltCursor cursor,
+            int limit
+    ) {
+        List<Specification<DltRecord>> filters = new ArrayList<>();
+        if (originalTopic != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("originalTopic"), originalTopic));
+        }
+        if (category != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("errorCategory"), category));
+        }
+        if (exceptionType != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("exceptionType"), exceptionType));
+        }
+        if (fingerprint != null) {
+            filters.add((root, query, cb) -> cb.equal(root.get("stackTraceFingerprint"), fingerprint));
+        }
+        if (from != null) {
+            filters.add((root, query, cb) -> cb.greaterThanOrEqualTo(root.get("failedAt"), from));
+        }
+        if (to != null) {
+            filters.add((root, query, cb) -> cb.lessThan(root.get("failedAt"), to));
+        }
+        filters.add((root, query, cb) -> cb.or(
+                cb.lessThan(root.get("failedAt"), cursor.getFailedAt()),
+                cb.and(
+                        cb.equal(root.get("failedAt"), cursor.getFailedAt()),
+                        cb.lessThan(root.get("id"), cursor.getId()))));
+
+        return recordRepository.findBy(Specification.allOf(filters), query -> query
+                .sortBy(Sort.by(Sort.Order.desc("failedAt"), Sort.Order.desc("id")))
+                .limit(limit)
+                .all());
+    }
+
+    @Transactional
+    public Optional<DltRecord> findById(Long id) {
+        return recordRepository.findById(id);
+    }
+
+    // dimension -> value -> count
+    @Transactional
+    public Map<String, Map<String, Long>> getStats() {
+        return statRepository.findAll().stream()
+                .collect(Collectors.groupingBy(
+                        DltStat::getDimension,
+                        TreeMap::new,
+                        Collectors.toMap(DltStat::getStatValue, DltStat::getMessageCount, Long::sum, TreeMap::new)));
+    }
+
+    @Transactional
+    public long countFailedSince(Instant since) {
+        return recordRepository.countByFailedAtGreaterThanEqual(since);
+    }
+
+    @Transactional
+    public long getTotal() {
+        return statRepository.findById(DltStat.key(DltStat.TOTAL, "all"))
+                .map(DltStat::getMessageCount)
+                .orElse(0L);
+    }
+}
@@ -21,7 +21,8 @@ import java.time.Instant;
 public class OutboxEvent {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -0,0 +1,24 @@
+package io.malicki.bankingsystem.domain.schedule;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+public enum ScheduleFrequency {
+    ONCE,
+    DAILY,
+    WEEKLY,
+    MONTHLY;
+
+    // n-th execution (0 = the first), or null when there is none. Counted from
+    // the first one, so a monthly order on the 31st runs on the 30th in
+    // April and on the 31st again in May. Calendar arithmetic is in UTC.
+    public Instant occurrence(Instant first, int n) {
+        return switch (this) {
+            case ONCE -> n == 0 ? first : null;
+            case DAILY -> first.plus(n, ChronoUnit.DAYS);
+            case WEEKLY -> first.plus(7L * n, ChronoUnit.DAYS);
+            case MONTHLY -> first.atZone(ZoneOffset.UTC).plusMonths(n).toInstant();
+        };
+    }
+}
@@ -0,0 +1,8 @@
+package io.malicki.bankingsystem.domain.schedule;
+
+public enum ScheduleStatus {
+    ACTIVE,      // has a next execution
+    COMPLETED,   // last execution done
+    CANCELLED,
+    SUSPENDED    // kept failing, taken out of the scheduler
+}
@@ -0,0 +1,15 @@
+package io.malicki.bankingsystem.domain.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// What the scheduler keeps in memory for a schedule - the rest stays in the table
+@Getter
+@AllArgsConstructor
+public class ScheduleTimer {
+
+    private final Long id;
+    private final Instant nextExecutionAt;
+}
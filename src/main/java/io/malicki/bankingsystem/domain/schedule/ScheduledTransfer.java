@@ -0,0 +1,91 @@
+package io.malicki.bankingsystem.domain.schedule;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(
+    name = "scheduled_transfers",
+    indexes = {
+        @Index(name = "idx_schedule_id", columnList = "scheduleId", unique = true),
+        // Scheduler loader (keyset pagination on nextExecutionAt, id)
+        @Index(name = "idx_schedule_due", columnList = "status, nextExecutionAt, id")
+    }
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransfer {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_transfers_seq")
+    @SequenceGenerator(name = "scheduled_transfers_seq", sequenceName = "scheduled_transfers_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 36)
+    private String scheduleId;  // UUID
+
+    @Column(nullable = false)
+    private String fromAccountNumber;
+
+    @Column(nullable = false)
+    private String toAccountNumber;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(length = 200)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ScheduleFrequency frequency;
+
+    @Column
+    private Integer maxExecutions;  // null - until cancelled
+
+    @Column(nullable = false)
+    private Instant firstExecutionAt;
+
+    @Column
+    private Instant nextExecutionAt;  // null once COMPLETED or CANCELLED
+
+    @Column(nullable = false)
+    private int executionCount;
+
+    @Column
+    private Instant lastExecutedAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ScheduleStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Version
+    private Long version;
+
+    // Execution after `executions` have run, or null when that was the last
+    public Instant occurrenceAfter(int executions) {
+        if (maxExecutions != null && executions >= maxExecutions) {
+            return null;
+        }
+        return frequency.occurrence(firstExecutionAt, executions);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = Instant.now();
+        }
+        if (status == null) {
+            status = ScheduleStatus.ACTIVE;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.malicki.bankingsystem.domain.schedule;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+
+    Optional<ScheduledTransfer> findByScheduleId(String scheduleId);
+
+    // Scheduler loader - schedules due before `until`, keyset on (nextExecutionAt, id)
+    @Query("SELECT new io.malicki.bankingsystem.domain.schedule.ScheduleTimer(s.id, s.nextExecutionAt) " +
+           "FROM ScheduledTransfer s WHERE s.status = :status AND s.nextExecutionAt < :until " +
+           "AND (s.nextExecutionAt > :nextExecutionAt OR (s.nextExecutionAt = :nextExecutionAt AND s.id > :id)) " +
+           "ORDER BY s.nextExecutionAt, s.id")
+    List<ScheduleTimer> findDueBefore(
+            @Param("status") ScheduleStatus status,
+            @Param("until") Instant until,
+            @Param("nextExecutionAt") Instant nextExecutionAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    // Compare-and-set on nextExecutionAt - 0 rows means the execution already
+    // happened (or the schedule was cancelled)
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.nextExecutionAt = :next, s.status = :to, " +
+           "s.executionCount = s.executionCount + 1, s.lastExecutedAt = :executedAt, s.version = s.version + 1 " +
+           "WHERE s.id = :id AND s.status = :from AND s.nextExecutionAt = :due")
+    int advance(
+            @Param("id") Long id,
+            @Param("due") Instant due,
+            @Param("from") ScheduleStatus from,
+            @Param("next") Instant next,
+            @Param("to") ScheduleStatus to,
+            @Param("executedAt") Instant executedAt);
+
+    // nextExecutionAt is kept - the execution it got stuck on
+    @Modifying
+    @Query("UPDATE ScheduledTransfer s SET s.status = :to, s.version = s.version + 1 " +
+           "WHERE s.id = :id AND s.status = :from")
+    int suspend(
+            @Param("id") Long id,
+            @Param("from") ScheduleStatus from,
+            @Param("to") ScheduleStatus to);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ScheduledTransfer s SET s.status = :to, s.nextExecutionAt = NULL, s.version = s.version + 1 " +
+           "WHERE s.scheduleId = :scheduleId AND s.status = :from")
+    int cancel(
+            @Param("scheduleId") String scheduleId,
+            @Param("from") ScheduleStatus from,
+            @Param("to") ScheduleStatus to);
+}
@@ -0,0 +1,119 @@
+package io.malicki.bankingsystem.domain.schedule;
+
+import io.malicki.bankingsystem.api.dto.ScheduledTransferRequest;
+import io.malicki.bankingsystem.api.dto.TransferRequest;
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class ScheduledTransferService {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final TransferService transferService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ScheduledTransferService(
+            ScheduledTransferRepository scheduledTransferRepository,
+            TransferService transferService,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.transferService = transferService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public ScheduledTransfer create(ScheduledTransferRequest request) {
+        ScheduleFrequency frequency = request.getFrequency() != null ? request.getFrequency() : ScheduleFrequency.ONCE;
+        // Millis - the timing wheel's resolution, and what the fire CAS compares against
+        Instant first = request.getExecuteAt().truncatedTo(ChronoUnit.MILLIS);
+
+        ScheduledTransfer schedule = new ScheduledTransfer();
+        schedule.setScheduleId(UUID.randomUUID().toString());
+        schedule.setFromAccountNumber(request.getFromAccountNumber());
+        schedule.setToAccountNumber(request.getToAccountNumber());
+        schedule.setAmount(request.getAmount());
+        schedule.setDescription(request.getDescription());
+        schedule.setFrequency(frequency);
+        schedule.setMaxExecutions(frequency == ScheduleFrequency.ONCE ? Integer.valueOf(1) : request.getMaxExecutions());
+        schedule.setFirstExecutionAt(first);
+        schedule.setNextExecutionAt(first);
+        schedule.setStatus(ScheduleStatus.ACTIVE);
+
+        ScheduledTransfer saved = scheduledTransferRepository.save(schedule);
+        eventPublisher.publishEvent(new TransferScheduledEvent(saved.getId(), saved.getNextExecutionAt()));
+
+        log.info("📅 Transfer scheduled: {} | {} → {} | Amount: {} | {} from {}",
+                saved.getScheduleId(), saved.getFromAccountNumber(), saved.getToAccountNumber(),
+                saved.getAmount(), frequency, first);
+        return saved;
+    }
+
+    // Not readOnly: that would route it to the replica, which has no schedules
+    @Transactional
+    public Optional<ScheduledTransfer> getSchedule(String scheduleId) {
+        return scheduledTransferRepository.findByScheduleId(scheduleId);
+    }
+
+    // A timer still in the scheduler's wheel finds the schedule cancelled and is dropped
+    @Transactional
+    public Optional<ScheduledTransfer> cancel(String scheduleId) {
+        if (scheduledTransferRepository.cancel(scheduleId, ScheduleStatus.ACTIVE, ScheduleStatus.CANCELLED) > 0) {
+            log.info("🚫 Scheduled transfer cancelled: {}", scheduleId);
+        }
+        return scheduledTransferRepository.findByScheduleId(scheduleId);
+    }
+
+    @Transactional
+    public boolean suspend(Long id) {
+        return scheduledTransferRepository.suspend(id, ScheduleStatus.ACTIVE, ScheduleStatus.SUSPENDED) > 0;
+    }
+
+    // One transaction per batch: the CAS on nextExecutionAt and the transfer
+    // it creates commit together. An execution that committed can't run again
+    // - a second timer for it (restart, another instance, a retry) matches no
+    // row; one that rolled back is still due and runs on the next attempt.
+    //
+    // Returns the schedules that ran, with their next execution (null after the last).
+    @Transactional
+    public Map<Long, Instant> fire(Collection<Long> ids, Instant now) {
+        Map<Long, Instant> fired = new LinkedHashMap<>();
+        for (ScheduledTransfer schedule : scheduledTransferRepository.findAllById(ids)) {
+            Instant due = schedule.getNextExecutionAt();
+            // Cancelled, completed, or already run by someone else
+            if (schedule.getStatus() != ScheduleStatus.ACTIVE || due == null || due.isAfter(now)) {
+                continue;
+            }
+
+            int executions = schedule.getExecutionCount() + 1;
+            Instant next = schedule.occurrenceAfter(executions);
+            ScheduleStatus status = next != null ? ScheduleStatus.ACTIVE : ScheduleStatus.COMPLETED;
+            if (scheduledTransferRepository.advance(schedule.getId(), due, ScheduleStatus.ACTIVE, next, status, now) == 0) {
+                continue;
+            }
+
+            Transfer transfer = transferService.createTransfer(new TransferRequest(
+                    schedule.getFromAccountNumber(),
+                    schedule.getToAccountNumber(),
+                    schedule.getAmount(),
+                    schedule.getDescription() != null ? schedule.getDescription() : "Scheduled transfer " + schedule.getScheduleId()));
+            log.info("⏰ Scheduled transfer {} #{} due {} → transfer {}",
+                    schedule.getScheduleId(), executions, due, transfer.getTransferId());
+            fired.put(schedule.getId(), next);
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,16 @@
+package io.malicki.bankingsystem.domain.schedule;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// Published inside the transaction that created the schedule; the scheduler
+// picks it up after commit when it is due within the loaded horizon
+@Getter
+@AllArgsConstructor
+public class TransferScheduledEvent {
+
+    private final Long id;
+    private final Instant nextExecutionAt;
+}
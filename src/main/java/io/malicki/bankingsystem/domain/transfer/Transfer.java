@@ -14,7 +14,10 @@ import java.time.Instant;
     indexes = {
         @Index(name = "idx_transfer_id", columnList = "transferId", unique = true),
         @Index(name = "idx_status", columnList = "status"),
-        @Index(name = "idx_created_at", columnList = "createdAt")
+        @Index(name = "idx_created_at", columnList = "createdAt"),
+        // Account history (keyset pagination on createdAt, id)
+        @Index(name = "idx_from_account_created", columnList = "fromAccountNumber, createdAt, id"),
+        @Index(name = "idx_to_account_created", columnList = "toAccountNumber, createdAt, id")
     }
 )
 @Data
@@ -23,7 +26,8 @@ import java.time.Instant;
 public class Transfer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfers_seq")
+    @SequenceGenerator(name = "transfers_seq", sequenceName = "transfers_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true, length = 36)
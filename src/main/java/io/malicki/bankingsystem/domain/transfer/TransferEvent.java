@@ -1,5 +1,7 @@
 package io.malicki.bankingsystem.domain.transfer;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.malicki.bankingsystem.domain.account.Account;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -20,6 +22,30 @@ public class TransferEvent implements Serializable {
     private String description;
     private TransferStatus status;
     private Instant timestamp;
+
+    // Balances right after the transfer, with the account @Version they were
+    // committed at - on TransferCompleted only (not on a re-sent one)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal fromBalance;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long fromAccountVersion;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal toBalance;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long toAccountVersion;
+
+    public TransferEvent(
+        String transferId,
+        String fromAccountNumber,
+        String toAccountNumber,
+        BigDecimal amount,
+        String description,
+        TransferStatus status,
+        Instant timestamp
+    ) {
+        this(transferId, fromAccountNumber, toAccountNumber, amount, description, status, timestamp,
+            null, null, null, null);
+    }
     
     public static TransferEvent from(Transfer transfer) {
         return new TransferEvent(
@@ -32,4 +58,37 @@ public class TransferEvent implements Serializable {
             transfer.getCreatedAt()
         );
     }
-}
\ No newline at end of file
+
+    public TransferEvent withStatus(TransferStatus newStatus) {
+        return new TransferEvent(
+            transferId,
+            fromAccountNumber,
+            toAccountNumber,
+            amount,
+            description,
+            newStatus,
+            timestamp,
+            fromBalance,
+            fromAccountVersion,
+            toBalance,
+            toAccountVersion
+        );
+    }
+
+    // The accounts must be flushed, so their @Version is the one being committed
+    public TransferEvent completed(Account from, Account to) {
+        return new TransferEvent(
+            transferId,
+            fromAccountNumber,
+            toAccountNumber,
+            amount,
+            description,
+            TransferStatus.COMPLETED,
+            timestamp,
+            from.getBalance(),
+            from.getVersion(),
+            to.getBalance(),
+            to.getVersion()
+        );
+    }
+}
@@ -0,0 +1,94 @@
+package io.malicki.bankingsystem.domain.transfer;
+
+import io.malicki.bankingsystem.domain.account.Account;
+import io.malicki.bankingsystem.domain.account.AccountRepository;
+import io.malicki.bankingsystem.exception.AccountNotFoundException;
+import io.malicki.bankingsystem.jfr.AccountLockEvent;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// Moves the money of a transfer under pessimistic row locks. Must run inside
+// the caller's transaction, which holds the locks until it commits.
+@Component
+@Slf4j
+public class TransferExecutor {
+
+    private final AccountRepository accountRepository;
+
+    public TransferExecutor(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    public TransferEvent execute(TransferEvent transfer) {
+        return apply(transfer, lock(transfer));
+    }
+
+    // Always in account number order, so A -> B and B -> A running at the
+    // same time cannot each hold one row and wait for the other
+    public LockedAccounts lock(TransferEvent transfer) {
+        String from = transfer.getFromAccountNumber();
+        String to = transfer.getToAccountNumber();
+        if (from.compareTo(to) <= 0) {
+            Account fromAccount = lockAccount(transfer.getTransferId(), from);
+            return new LockedAccounts(fromAccount, lockAccount(transfer.getTransferId(), to));
+        }
+        Account toAccount = lockAccount(transfer.getTransferId(), to);
+        return new LockedAccounts(lockAccount(transfer.getTransferId(), from), toAccount);
+    }
+
+    // Returns the TransferCompleted to publish, with the post-transfer balances
+    public TransferEvent apply(TransferEvent transfer, LockedAccounts accounts) {
+        log.debug("Executing transfer: {}", transfer.getTransferId());
+
+        Account fromAccount = accounts.getFrom();
+        Account toAccount = accounts.getTo();
+
+        // Perform transfer
+        fromAccount.withdraw(transfer.getAmount());
+        toAccount.deposit(transfer.getAmount());
+
+        // Save updated balances - flushed now, so the completion carries the
+        // @Versions they are committed at (AccountBalanceProjection's guard)
+        accountRepository.save(fromAccount);
+        accountRepository.save(toAccount);
+        accountRepository.flush();
+
+        log.debug("✅ Transfer executed: {} | From: {} ({}) → To: {} ({})",
+                transfer.getTransferId(),
+                fromAccount.getAccountNumber(),
+                fromAccount.getBalance(),
+                toAccount.getAccountNumber(),
+                toAccount.getBalance());
+
+        return transfer.completed(fromAccount, toAccount);
+    }
+
+    private Account lockAccount(String transferId, String accountNumber) {
+        AccountLockEvent lock = new AccountLockEvent();
+        lock.begin();
+        Optional<Account> account = accountRepository.findByAccountNumberWithLock(accountNumber);
+        lock.end();
+        if (lock.shouldCommit()) {
+            lock.transferId = transferId;
+            lock.accountNumber = accountNumber;
+            lock.found = account.isPresent();
+            lock.commit();
+        }
+        return account.orElseThrow(() -> new AccountNotFoundException(accountNumber));
+    }
+
+    @Getter
+    public static class LockedAccounts {
+
+        private final Account from;
+        private final Account to;
+
+        private LockedAccounts(Account from, Account to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
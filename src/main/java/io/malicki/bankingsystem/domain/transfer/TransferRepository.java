@@ -1,9 +1,20 @@
 package io.malicki.bankingsystem.domain.transfer;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
@@ -11,4 +22,53 @@ public interface TransferRepository extends JpaRepository<Transfer, Long> {
     Optional<Transfer> findByTransferId(String transferId);
     
     boolean existsByTransferId(String transferId);
-}
\ No newline at end of file
+
+    @Query("SELECT t.status FROM Transfer t WHERE t.transferId = :transferId")
+    Optional<TransferStatus> findStatusByTransferId(@Param("transferId") String transferId);
+
+    // Guarded status transitions (see TransferStateMachine) - 0 rows means the
+    // transfer is not in any of the expected source states
+    @Modifying
+    @Query("UPDATE Transfer t SET t.status = :to, t.version = t.version + 1 " +
+           "WHERE t.transferId = :transferId AND t.status IN :from")
+    int transition(
+            @Param("transferId") String transferId,
+            @Param("from") Collection<TransferStatus> from,
+            @Param("to") TransferStatus to);
+
+    @Modifying
+    @Query("UPDATE Transfer t SET t.status = :to, t.processedAt = :processedAt, t.version = t.version + 1 " +
+           "WHERE t.transferId = :transferId AND t.status IN :from")
+    int transitionProcessed(
+            @Param("transferId") String transferId,
+            @Param("from") Collection<TransferStatus> from,
+            @Param("to") TransferStatus to,
+            @Param("processedAt") Instant processedAt);
+
+    // Archiver batches
+    List<Transfer> findByStatusInAndCreatedAtBeforeOrderByIdAsc(
+            Collection<TransferStatus> statuses,
+            Instant createdBefore,
+            Limit limit);
+
+    // Keyset pagination - each side uses its own (account, createdAt, id) index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT t FROM Transfer t WHERE t.fromAccountNumber = :account " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Stream<Transfer> streamSentBefore(
+            @Param("account") String account,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT t FROM Transfer t WHERE t.toAccountNumber = :account " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Stream<Transfer> streamReceivedBefore(
+            @Param("account") String account,
+            @Param("createdAt") Instant createdAt,
+            @Param("id") Long id,
+            Limit limit);
+}
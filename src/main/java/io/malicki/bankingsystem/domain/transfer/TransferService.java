@@ -1,13 +1,23 @@
 package io.malicki.bankingsystem.domain.transfer;
 
 import io.malicki.bankingsystem.api.dto.TransferRequest;
+import io.malicki.bankingsystem.domain.transfer.archive.TransferArchive;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorClassifier;
 import io.malicki.bankingsystem.kafka.outbox.OutboxService;
+import io.malicki.bankingsystem.logging.TransferLogSampler;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import static io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC;
 import static io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig.TRANSFER_VALIDATION_TOPIC;
 
 @Service
@@ -16,52 +26,180 @@ public class TransferService {
 
     private final TransferRepository transferRepository;
     private final OutboxService outboxService;
+    private final TransferArchive transferArchive;
+    private final TransferValidator transferValidator;
+    private final TransferExecutor transferExecutor;
+    private final ErrorClassifier errorClassifier;
+    private final long syncDeadlineNanos;
 
     public TransferService(
             TransferRepository transferRepository,
-            OutboxService outboxService
+            OutboxService outboxService,
+            TransferArchive transferArchive,
+            TransferValidator transferValidator,
+            TransferExecutor transferExecutor,
+            ErrorClassifier errorClassifier,
+            @Value("${banking.transfer.sync.deadline-ms:20}") long syncDeadlineMs
     ) {
         this.transferRepository = transferRepository;
         this.outboxService = outboxService;
+        this.transferArchive = transferArchive;
+        this.transferValidator = transferValidator;
+        this.transferExecutor = transferExecutor;
+        this.errorClassifier = errorClassifier;
+        this.syncDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(syncDeadlineMs);
     }
 
     @Transactional
     public Transfer createTransfer(TransferRequest request) {
         // Generate unique ID (idempotency key)
-        String transferId = UUID.randomUUID().toString();
-
-        log.info("Creating transfer: {} | From: {} → To: {} | Amount: {}",
-                transferId,
-                request.getFromAccountNumber(),
-                request.getToAccountNumber(),
-                request.getAmount());
-
-        // Create transfer entity
-        Transfer transfer = new Transfer();
-        transfer.setTransferId(transferId);
-        transfer.setFromAccountNumber(request.getFromAccountNumber());
-        transfer.setToAccountNumber(request.getToAccountNumber());
-        transfer.setAmount(request.getAmount());
-        transfer.setDescription(request.getDescription());
-        transfer.setStatus(TransferStatus.PENDING);
-
-        // Save to database
-        Transfer saved = transferRepository.save(transfer);
-        log.info("✅ Transfer saved to DB: {}", transferId);
-
-        TransferEvent event = TransferEvent.from(saved);
+        return createTransfer(UUID.randomUUID().toString(), request);
+    }
+
+    // After a failed sync attempt under the same transferId. A failure at
+    // commit can be ambiguous - the attempt may have committed after all - so
+    // its row is looked up first (read-write, so on the primary). An attempt
+    // whose commit is still in flight is stopped by the unique transfer_id.
+    @Transactional
+    public Transfer createTransferAfterFailedSync(String transferId, TransferRequest request) {
+        Optional<Transfer> committed = transferRepository.findByTransferId(transferId);
+        if (committed.isPresent()) {
+            log.warn("⚠️ [SYNC] Attempt {} committed despite the failure, not creating it again", transferId);
+            return committed.get();
+        }
+        return createTransfer(transferId, request);
+    }
+
+    private Transfer createTransfer(String transferId, TransferRequest request) {
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(TransferLogSampler.MDC_KEY, transferId)) {
+            log.info("Creating transfer: {} | From: {} → To: {} | Amount: {}",
+                    transferId,
+                    request.getFromAccountNumber(),
+                    request.getToAccountNumber(),
+                    request.getAmount());
+
+            // Create transfer entity
+            Transfer transfer = new Transfer();
+            transfer.setTransferId(transferId);
+            transfer.setFromAccountNumber(request.getFromAccountNumber());
+            transfer.setToAccountNumber(request.getToAccountNumber());
+            transfer.setAmount(request.getAmount());
+            transfer.setDescription(request.getDescription());
+            transfer.setStatus(TransferStatus.PENDING);
+
+            // Save to database
+            Transfer saved = transferRepository.save(transfer);
+            log.info("✅ Transfer saved to DB: {}", transferId);
+
+            TransferEvent event = TransferEvent.from(saved);
+            outboxService.saveOutboxEvent(
+                    saved.getTransferId(),
+                    "TransferCreated",
+                    TRANSFER_VALIDATION_TOPIC,
+                    saved.getFromAccountNumber(),
+                    event
+            );
+
+            log.info("✅ Transfer event saved to outbox: {}", transferId);
+            log.debug("📋 Event will be sent to Kafka by OutboxProcessor");
+
+            // OutboxProcessor will send it to Kafka within 3 seconds
+            return saved;
+        }
+    }
+
+    // POST /api/transfers?mode=sync - validate and execute in this request,
+    // under the row locks, like the fast path. The deadline (counted from
+    // startedNanos, the request's arrival) is checked before each step that can
+    // wait; once missed, the transfer is handed to the async pipeline as a
+    // normal PENDING one. Past the money move there is no way back, so the
+    // last checkpoint is right before it.
+    //
+    // Returns the transfer as committed: COMPLETED (TransferCompleted is in
+    // the outbox for downstream consumers), FAILED (business rule violated,
+    // nothing moved) or PENDING (deadline missed, TransferCreated in the outbox).
+    // Any other failure (lock wait timeout, DB error) is thrown and rolls the
+    // whole attempt back; TransferController then falls back to
+    // createTransferAfterFailedSync with the same transferId.
+    @Transactional
+    public Transfer createTransferSync(String transferId, TransferRequest request, long startedNanos) {
+        try (MDC.MDCCloseable ignored = MDC.putCloseable(TransferLogSampler.MDC_KEY, transferId)) {
+            Transfer transfer = new Transfer();
+            transfer.setTransferId(transferId);
+            transfer.setFromAccountNumber(request.getFromAccountNumber());
+            transfer.setToAccountNumber(request.getToAccountNumber());
+            transfer.setAmount(request.getAmount());
+            transfer.setDescription(request.getDescription());
+            transfer.setStatus(TransferStatus.PENDING);
+            Transfer saved = transferRepository.save(transfer);
+            TransferEvent event = TransferEvent.from(saved);
+
+            if (deadlineMissed(startedNanos)) {
+                return deferToPipeline(saved, event, "before locking");
+            }
+
+            TransferExecutor.LockedAccounts accounts;
+            try {
+                accounts = transferExecutor.lock(event);
+                transferValidator.validate(event, accounts.getFrom(), accounts.getTo());
+            } catch (RuntimeException e) {
+                if (errorClassifier.classify(e) != ErrorCategory.BUSINESS_VALIDATION) {
+                    throw e;
+                }
+                // Nothing has moved - the rejection is final and recorded on the new row
+                saved.setStatus(TransferStatus.FAILED);
+                saved.setFailureReason(e.getMessage());
+                saved.setProcessedAt(Instant.now());
+                log.info("❌ [SYNC] Transfer rejected: {} | {}", transferId, e.getMessage());
+                return saved;
+            }
+
+            // Lock waits are the slow part - give up before moving any money
+            if (deadlineMissed(startedNanos)) {
+                return deferToPipeline(saved, event, "after locking");
+            }
+
+            TransferEvent completed = transferExecutor.apply(event, accounts);
+
+            // PENDING -> COMPLETED in one go, the row is not visible to anyone before commit
+            saved.setStatus(TransferStatus.COMPLETED);
+            saved.setProcessedAt(Instant.now());
+            outboxService.saveOutboxEvent(
+                    transferId,
+                    "TransferCompleted",
+                    TRANSFER_COMPLETED_TOPIC,
+                    saved.getFromAccountNumber(),
+                    completed
+            );
+
+            log.info("✅ [SYNC] Transfer completed: {} in {}µs", transferId,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startedNanos));
+            return saved;
+        }
+    }
+
+    private boolean deadlineMissed(long startedNanos) {
+        return System.nanoTime() - startedNanos > syncDeadlineNanos;
+    }
+
+    private Transfer deferToPipeline(Transfer transfer, TransferEvent event, String checkpoint) {
         outboxService.saveOutboxEvent(
-                saved.getTransferId(),
+                transfer.getTransferId(),
                 "TransferCreated",
                 TRANSFER_VALIDATION_TOPIC,
-                saved.getFromAccountNumber(),
+                transfer.getFromAccountNumber(),
                 event
         );
+        log.warn("⏱️ [SYNC] Deadline missed {}, transfer {} continues asynchronously",
+                checkpoint, transfer.getTransferId());
+        return transfer;
+    }
 
-        log.info("✅ Transfer event saved to outbox: {}", transferId);
-        log.info("📋 Event will be sent to Kafka by OutboxProcessor");
-
-        // OutboxProcessor will send it to Kafka within 3 seconds
-        return saved;
+    // Status lookups - read-only, so they may be served by the replica.
+    // Archived (old, finalised) transfers are found in the archive segments.
+    @Transactional(readOnly = true)
+    public Optional<Transfer> findTransfer(String transferId) {
+        Optional<Transfer> hot = transferRepository.findByTransferId(transferId);
+        return hot.isPresent() ? hot : transferArchive.findByTransferId(transferId);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package io.malicki.bankingsystem.domain.transfer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Set;
+
+// Status transitions as single guarded UPDATEs instead of load + save.
+// A claim that updates 0 rows is resolved with one status lookup:
+// already past this stage -> false (duplicate delivery), anything else -> error.
+@Component
+@Slf4j
+public class TransferStateMachine {
+
+    private static final Set<TransferStatus> VALIDATION_DONE =
+            Set.of(TransferStatus.VALIDATED, TransferStatus.EXECUTING, TransferStatus.COMPLETED);
+    private static final Set<TransferStatus> EXECUTION_DONE =
+            Set.of(TransferStatus.COMPLETED);
+
+    private final TransferRepository transferRepository;
+    private final boolean recordIntermediateStates;
+
+    public TransferStateMachine(
+            TransferRepository transferRepository,
+            @Value("${banking.transfer.record-intermediate-states:true}") boolean recordIntermediateStates
+    ) {
+        this.transferRepository = transferRepository;
+        this.recordIntermediateStates = recordIntermediateStates;
+    }
+
+    // PENDING -> VALIDATING, or straight to VALIDATED when intermediate
+    // states are off (the claim is rolled back if validation fails)
+    public boolean claimForValidation(String transferId) {
+        TransferStatus target = recordIntermediateStates ? TransferStatus.VALIDATING : TransferStatus.VALIDATED;
+        int updated = transferRepository.transition(
+                transferId, Set.of(TransferStatus.PENDING, TransferStatus.VALIDATING), target);
+        return updated == 1 || resolve(transferId, VALIDATION_DONE, "validate");
+    }
+
+    public void markValidated(String transferId) {
+        if (recordIntermediateStates) {
+            require(transferRepository.transition(
+                    transferId, Set.of(TransferStatus.VALIDATING), TransferStatus.VALIDATED), transferId);
+        }
+    }
+
+    // VALIDATED -> EXECUTING, or straight to COMPLETED when intermediate
+    // states are off. Must succeed before any money moves.
+    public boolean claimForExecution(String transferId) {
+        Set<TransferStatus> from = Set.of(TransferStatus.VALIDATED, TransferStatus.EXECUTING);
+        int updated = recordIntermediateStates
+                ? transferRepository.transition(transferId, from, TransferStatus.EXECUTING)
+                : transferRepository.transitionProcessed(transferId, from, TransferStatus.COMPLETED, Instant.now());
+        return updated == 1 || resolve(transferId, EXECUTION_DONE, "execute");
+    }
+
+    public void markCompleted(String transferId) {
+        if (recordIntermediateStates) {
+            require(transferRepository.transitionProcessed(
+                    transferId, Set.of(TransferStatus.EXECUTING), TransferStatus.COMPLETED, Instant.now()), transferId);
+        }
+    }
+
+    // Fast path: PENDING -> COMPLETED in one step. Validation, the balance
+    // changes and the outbox row commit (or roll back) with the claim, so
+    // intermediate states would never be visible to anyone.
+    public boolean claimForFastPath(String transferId) {
+        int updated = transferRepository.transitionProcessed(transferId,
+                Set.of(TransferStatus.PENDING, TransferStatus.VALIDATING), TransferStatus.COMPLETED, Instant.now());
+        return updated == 1 || resolve(transferId, VALIDATION_DONE, "validate");
+    }
+
+    private boolean resolve(String transferId, Set<TransferStatus> done, String stage) {
+        TransferStatus current = transferRepository.findStatusByTransferId(transferId)
+                .orElseThrow(() -> new RuntimeException("Transfer not found: " + transferId));
+
+        if (done.contains(current)) {
+            log.debug("Transfer {} already {}, skipping {}", transferId, current, stage);
+            return false;
+        }
+        throw new IllegalStateException("Cannot " + stage + " transfer " + transferId + " in status " + current);
+    }
+
+    // The claim in the same transaction guarantees the row is ours
+    private void require(int updated, String transferId) {
+        if (updated != 1) {
+            throw new IllegalStateException("Lost status claim on transfer " + transferId);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package io.malicki.bankingsystem.domain.transfer;
+
+import io.malicki.bankingsystem.domain.account.Account;
+import io.malicki.bankingsystem.domain.account.AccountRepository;
+import io.malicki.bankingsystem.exception.AccountNotFoundException;
+import io.malicki.bankingsystem.exception.InsufficientFundsException;
+import io.malicki.bankingsystem.exception.InvalidAccountException;
+import io.malicki.bankingsystem.velocity.VelocityTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+// Business rules of a transfer. The staged pipeline checks them against a
+// plain read of the accounts; the fast path against the rows it has locked.
+@Component
+@Slf4j
+public class TransferValidator {
+
+    private final AccountRepository accountRepository;
+    private final VelocityTracker velocityTracker;
+
+    public TransferValidator(AccountRepository accountRepository, VelocityTracker velocityTracker) {
+        this.accountRepository = accountRepository;
+        this.velocityTracker = velocityTracker;
+    }
+
+    public void validate(TransferEvent transfer) {
+        // 1. Check if accounts exist
+        Account fromAccount = accountRepository.findByAccountNumber(transfer.getFromAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException(transfer.getFromAccountNumber()));
+
+        Account toAccount = accountRepository.findByAccountNumber(transfer.getToAccountNumber())
+                .orElseThrow(() -> new AccountNotFoundException(transfer.getToAccountNumber()));
+
+        validate(transfer, fromAccount, toAccount);
+    }
+
+    public void validate(TransferEvent transfer, Account fromAccount, Account toAccount) {
+        // 2. Check if accounts are active
+        if (!fromAccount.isActive()) {
+            throw new InvalidAccountException(
+                    fromAccount.getAccountNumber(),
+                    "Account is not active"
+            );
+        }
+
+        if (!toAccount.isActive()) {
+            throw new InvalidAccountException(
+                    toAccount.getAccountNumber(),
+                    "Account is not active"
+            );
+        }
+
+        // 3. Check if sufficient funds
+        if (fromAccount.getBalance().compareTo(transfer.getAmount()) < 0) {
+            throw new InsufficientFundsException(
+                    fromAccount.getAccountNumber(),
+                    fromAccount.getBalance(),
+                    transfer.getAmount()
+            );
+        }
+
+        // 4. Check if not same account
+        if (fromAccount.getAccountNumber().equals(toAccount.getAccountNumber())) {
+            throw new InvalidAccountException(
+                    fromAccount.getAccountNumber(),
+                    "Cannot transfer to the same account"
+            );
+        }
+
+        // 5. Check if amount is positive
+        if (transfer.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException(
+                    "Transfer amount must be positive: " + transfer.getAmount()
+            );
+        }
+
+        // 6. Check velocity limit (in-memory window totals, no SQL)
+        velocityTracker.checkLimit(fromAccount.getAccountNumber(), transfer.getAmount());
+
+        log.debug("✅ Business rules validated for transfer: {}", transfer.getTransferId());
+    }
+}
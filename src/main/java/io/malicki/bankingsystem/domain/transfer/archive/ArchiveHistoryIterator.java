@@ -0,0 +1,107 @@
+package io.malicki.bankingsystem.domain.transfer.archive;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.history.HistoryCursor;
+import io.malicki.bankingsystem.domain.transfer.history.TransferMergeIterator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// Account history from the archive, newest first. Segments are opened lazily in
+// maxCreatedAt order: a segment is only read once the next row to emit could
+// have come from it. As a LazySource, not even the first one is opened while
+// the hot rows alone fill the page.
+class ArchiveHistoryIterator implements TransferMergeIterator.LazySource {
+
+    private final String accountNumber;
+    private final HistoryCursor cursor;
+    private final Deque<ArchiveSegment> unopened;
+    private final PriorityQueue<SegmentRows> open = new PriorityQueue<>(
+            (a, b) -> TransferMergeIterator.NEWEST_FIRST.compare(a.current, b.current));
+
+    ArchiveHistoryIterator(List<ArchiveSegment> segments, String accountNumber, HistoryCursor cursor) {
+        this.accountNumber = accountNumber;
+        this.cursor = cursor;
+        this.unopened = new ArrayDeque<>(segments.stream()
+                .filter(s -> s.mightContainAccount(accountNumber))
+                .filter(s -> !s.getMinCreatedAt().isAfter(cursor.getCreatedAt()))
+                .sorted(Comparator.comparing(ArchiveSegment::getMaxCreatedAt).reversed())
+                .toList());
+    }
+
+    @Override
+    public Instant newestPossible() {
+        if (!open.isEmpty()) {
+            return open.peek().current.getCreatedAt();
+        }
+        if (unopened.isEmpty()) {
+            return null;
+        }
+        Instant newest = unopened.peek().getMaxCreatedAt();
+        return newest.isAfter(cursor.getCreatedAt()) ? cursor.getCreatedAt() : newest;
+    }
+
+    @Override
+    public boolean hasNext() {
+        openSegmentsThatMayHoldNext();
+        return !open.isEmpty();
+    }
+
+    @Override
+    public Transfer next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SegmentRows head = open.poll();
+        Transfer transfer = head.current;
+        if (head.advance()) {
+            open.add(head);
+        }
+        return transfer;
+    }
+
+    private void openSegmentsThatMayHoldNext() {
+        while (!unopened.isEmpty()
+                && (open.isEmpty() || !unopened.peek().getMaxCreatedAt().isBefore(open.peek().current.getCreatedAt()))) {
+            SegmentRows rows = new SegmentRows(load(unopened.poll()));
+            if (rows.advance()) {
+                open.add(rows);
+            }
+        }
+    }
+
+    private Iterator<Transfer> load(ArchiveSegment segment) {
+        try {
+            return segment.readRows().stream()
+                    .filter(t -> accountNumber.equals(t.getFromAccountNumber())
+                            || accountNumber.equals(t.getToAccountNumber()))
+                    .filter(cursor::isAfter)
+                    .sorted(TransferMergeIterator.NEWEST_FIRST)
+                    .iterator();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read archive segment " + segment.getPath(), e);
+        }
+    }
+
+    private static class SegmentRows {
+        private final Iterator<Transfer> rows;
+        private Transfer current;
+
+        private SegmentRows(Iterator<Transfer> rows) {
+            this.rows = rows;
+        }
+
+        private boolean advance() {
+            current = rows.hasNext() ? rows.next() : null;
+            return current != null;
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package io.malicki.bankingsystem.domain.transfer.archive;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// One immutable archive file. Rows are sorted by id and stored column by column,
+// each column deflated on its own; account numbers and statuses are dictionary
+// encoded. The uncompressed header carries the min/max index and Bloom filters,
+// which is all that is kept in memory.
+@Getter
+public class ArchiveSegment {
+
+    static final String EXTENSION = ".seg";
+
+    private static final int MAGIC = 0x54534547;  // "TSEG"
+    private static final short FORMAT_VERSION = 1;
+
+    private final Path path;
+    private final int rowCount;
+    private final long minId;
+    private final long maxId;
+    private final Instant minCreatedAt;
+    private final Instant maxCreatedAt;
+    private final BloomFilter transferIds;
+    private final BloomFilter accounts;
+
+    private ArchiveSegment(
+            Path path,
+            int rowCount,
+            long minId,
+            long maxId,
+            Instant minCreatedAt,
+            Instant maxCreatedAt,
+            BloomFilter transferIds,
+            BloomFilter accounts
+    ) {
+        this.path = path;
+        this.rowCount = rowCount;
+        this.minId = minId;
+        this.maxId = maxId;
+        this.minCreatedAt = minCreatedAt;
+        this.maxCreatedAt = maxCreatedAt;
+        this.transferIds = transferIds;
+        this.accounts = accounts;
+    }
+
+    // ---- Index checks (header only, no I/O) ----
+
+    public boolean mightContainTransfer(String transferId) {
+        return transferIds.mightContain(transferId);
+    }
+
+    public boolean mightContainAccount(String accountNumber) {
+        return accounts.mightContain(accountNumber);
+    }
+
+    public boolean coversId(long id) {
+        return id >= minId && id <= maxId;
+    }
+
+    // ---- Row access (reads and inflates the file) ----
+
+    public List<Transfer> readRows() throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            readHeader(in);
+
+            int columnCount = in.readInt();
+            Map<String, byte[]> columns = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            List<int[]> lengths = new ArrayList<>();
+            for (int i = 0; i < columnCount; i++) {
+                names.add(in.readUTF());
+                lengths.add(new int[]{in.readInt(), in.readInt()});
+            }
+            for (int i = 0; i < columnCount; i++) {
+                byte[] compressed = in.readNBytes(lengths.get(i)[0]);
+                columns.put(names.get(i), inflate(compressed, lengths.get(i)[1]));
+            }
+
+            return decodeRows(columns);
+        }
+    }
+
+    public Optional<Transfer> findByTransferId(String transferId) throws IOException {
+        if (!mightContainTransfer(transferId)) {
+            return Optional.empty();
+        }
+        return readRows().stream()
+                .filter(t -> t.getTransferId().equals(transferId))
+                .findFirst();
+    }
+
+    // ---- Writing ----
+
+    // Writes to a temp file, fsyncs, then renames - a segment is either complete or absent
+    public static ArchiveSegment write(Path directory, List<Transfer> rows) throws IOException {
+        List<Transfer> sorted = new ArrayList<>(rows);
+        sorted.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+
+        BloomFilter transferIds = new BloomFilter(sorted.size());
+        BloomFilter accounts = new BloomFilter(sorted.size() * 2);
+        Instant minCreatedAt = Instant.MAX;
+        Instant maxCreatedAt = Instant.MIN;
+        for (Transfer transfer : sorted) {
+            transferIds.add(transfer.getTransferId());
+            accounts.add(transfer.getFromAccountNumber());
+            accounts.add(transfer.getToAccountNumber());
+            if (transfer.getCreatedAt().isBefore(minCreatedAt)) minCreatedAt = transfer.getCreatedAt();
+            if (transfer.getCreatedAt().isAfter(maxCreatedAt)) maxCreatedAt = transfer.getCreatedAt();
+        }
+
+        long minId = sorted.get(0).getId();
+        long maxId = sorted.get(sorted.size() - 1).getId();
+        Map<String, byte[]> columns = encodeColumns(sorted);
+
+        Path target = directory.resolve(String.format("transfers-%019d-%019d%s", minId, maxId, EXTENSION));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(
+                Files.newOutputStream(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeInt(sorted.size());
+            out.writeLong(minId);
+            out.writeLong(maxId);
+            writeInstant(out, minCreatedAt);
+            writeInstant(out, maxCreatedAt);
+            transferIds.writeTo(out);
+            accounts.writeTo(out);
+
+            List<byte[]> compressed = new ArrayList<>();
+            out.writeInt(columns.size());
+            for (Map.Entry<String, byte[]> column : columns.entrySet()) {
+                byte[] deflated = deflate(column.getValue());
+                compressed.add(deflated);
+                out.writeUTF(column.getKey());
+                out.writeInt(deflated.length);
+                out.writeInt(column.getValue().length);
+            }
+            for (byte[] block : compressed) {
+                out.write(block);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+
+        return new ArchiveSegment(target, sorted.size(), minId, maxId,
+                minCreatedAt, maxCreatedAt, transferIds, accounts);
+    }
+
+    public static ArchiveSegment open(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return readHeader(in, path);
+        }
+    }
+
+    private void readHeader(DataInputStream in) throws IOException {
+        readHeader(in, path);
+    }
+
+    private static ArchiveSegment readHeader(DataInputStream in, Path path) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an archive segment: " + path);
+        }
+        short version = in.readShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported segment format " + version + ": " + path);
+        }
+        int rowCount = in.readInt();
+        long minId = in.readLong();
+        long maxId = in.readLong();
+        Instant minCreatedAt = readInstant(in);
+        Instant maxCreatedAt = readInstant(in);
+        BloomFilter transferIds = BloomFilter.readFrom(in);
+        BloomFilter accounts = BloomFilter.readFrom(in);
+
+        return new ArchiveSegment(path, rowCount, minId, maxId,
+                minCreatedAt, maxCreatedAt, transferIds, accounts);
+    }
+
+    // ---- Column encoding ----
+
+    private static Map<String, byte[]> encodeColumns(List<Transfer> rows) throws IOException {
+        Map<String, byte[]> columns = new LinkedHashMap<>();
+
+        columns.put("id", column(out -> {
+            long previous = 0;
+            for (Transfer t : rows) {
+                out.writeLong(t.getId() - previous);  // small deltas compress well
+                previous = t.getId();
+            }
+        }));
+        columns.put("transferId", column(out -> {
+            for (Transfer t : rows) out.writeUTF(t.getTransferId());
+        }));
+        columns.put("fromAccountNumber", dictionaryColumn(rows, Transfer::getFromAccountNumber));
+        columns.put("toAccountNumber", dictionaryColumn(rows, Transfer::getToAccountNumber));
+        columns.put("status", dictionaryColumn(rows, t -> t.getStatus().name()));
+        columns.put("amount", column(out -> {
+            for (Transfer t : rows) {
+                byte[] unscaled = t.getAmount().unscaledValue().toByteArray();
+                out.writeByte(t.getAmount().scale());
+                out.writeByte(unscaled.length);
+                out.write(unscaled);
+            }
+        }));
+        columns.put("createdAt", column(out -> {
+            for (Transfer t : rows) writeInstant(out, t.getCreatedAt());
+        }));
+        columns.put("processedAt", column(out -> {
+            for (Transfer t : rows) {
+                out.writeBoolean(t.getProcessedAt() != null);
+                if (t.getProcessedAt() != null) writeInstant(out, t.getProcessedAt());
+            }
+        }));
+        columns.put("failureReason", nullableStringColumn(rows, Transfer::getFailureReason));
+        columns.put("description", nullableStringColumn(rows, Transfer::getDescription));
+        columns.put("version", column(out -> {
+            for (Transfer t : rows) out.writeLong(t.getVersion() != null ? t.getVersion() : 0);
+        }));
+
+        return columns;
+    }
+
+    private static List<Transfer> decodeRows(Map<String, byte[]> columns) throws IOException {
+        List<Transfer> transfers = new ArrayList<>();
+
+        DataInputStream ids = reader(columns, "id");
+        DataInputStream transferIds = reader(columns, "transferId");
+        String[] from = readDictionaryColumn(columns, "fromAccountNumber");
+        String[] to = readDictionaryColumn(columns, "toAccountNumber");
+        String[] statuses = readDictionaryColumn(columns, "status");
+        DataInputStream amounts = reader(columns, "amount");
+        DataInputStream createdAt = reader(columns, "createdAt");
+        DataInputStream processedAt = reader(columns, "processedAt");
+        DataInputStream failureReasons = reader(columns, "failureReason");
+        DataInputStream descriptions = reader(columns, "description");
+        DataInputStream versions = reader(columns, "version");
+
+        long id = 0;
+        for (int i = 0; i < from.length; i++) {
+            Transfer transfer = new Transfer();
+            id += ids.readLong();
+            transfer.setId(id);
+            transfer.setTransferId(transferIds.readUTF());
+            transfer.setFromAccountNumber(from[i]);
+            transfer.setToAccountNumber(to[i]);
+            transfer.setStatus(TransferStatus.valueOf(statuses[i]));
+
+            int scale = amounts.readByte();
+            byte[] unscaled = amounts.readNBytes(amounts.readUnsignedByte());
+            transfer.setAmount(new BigDecimal(new BigInteger(unscaled), scale));
+
+            transfer.setCreatedAt(readInstant(createdAt));
+            transfer.setProcessedAt(processedAt.readBoolean() ? readInstant(processedAt) : null);
+            transfer.setFailureReason(failureReasons.readBoolean() ? failureReasons.readUTF() : null);
+            transfer.setDescription(descriptions.readBoolean() ? descriptions.readUTF() : null);
+            transfer.setVersion(versions.readLong());
+            transfers.add(transfer);
+        }
+        return transfers;
+    }
+
+    private static byte[] dictionaryColumn(List<Transfer> rows, Function<Transfer, String> value) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (Transfer t : rows) {
+            dictionary.putIfAbsent(value.apply(t), dictionary.size());
+        }
+        return column(out -> {
+            out.writeInt(dictionary.size());
+            for (String entry : dictionary.keySet()) out.writeUTF(entry);
+            out.writeInt(rows.size());
+            for (Transfer t : rows) out.writeInt(dictionary.get(value.apply(t)));
+        });
+    }
+
+    private static String[] readDictionaryColumn(Map<String, byte[]> columns, String name) throws IOException {
+        DataInputStream in = reader(columns, name);
+        String[] dictionary = new String[in.readInt()];
+        for (int i = 0; i < dictionary.length; i++) dictionary[i] = in.readUTF();
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) values[i] = dictionary[in.readInt()];
+        return values;
+    }
+
+    private static byte[] nullableStringColumn(List<Transfer> rows, Function<Transfer, String> value) throws IOException {
+        return column(out -> {
+            for (Transfer t : rows) {
+                String s = value.apply(t);
+                out.writeBoolean(s != null);
+                if (s != null) out.writeUTF(s);
+            }
+        });
+    }
+
+    private interface ColumnEncoder {
+        void encode(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] column(ColumnEncoder encoder) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            encoder.encode(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static DataInputStream reader(Map<String, byte[]> columns, String name) throws IOException {
+        byte[] column = columns.get(name);
+        if (column == null) {
+            throw new IOException("Segment is missing column: " + name);
+        }
+        return new DataInputStream(new ByteArrayInputStream(column));
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant instant) throws IOException {
+        out.writeLong(instant.getEpochSecond());
+        out.writeInt(instant.getNano());
+    }
+
+    private static Instant readInstant(DataInputStream in) throws IOException {
+        return Instant.ofEpochSecond(in.readLong(), in.readInt());
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[rawLength];
+            int read = 0;
+            while (read < rawLength && !inflater.finished()) {
+                read += inflater.inflate(raw, read, rawLength - read);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt segment column", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
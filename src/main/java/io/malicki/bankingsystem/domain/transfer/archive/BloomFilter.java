@@ -0,0 +1,68 @@
+package io.malicki.bankingsystem.domain.transfer.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+// Small fixed-size Bloom filter (~10 bits per key, 1% false positives). Used by
+// archive segment headers and the audit log block index.
+public class BloomFilter {
+
+    private static final int HASHES = 7;
+
+    private final long[] bits;
+
+    public BloomFilter(int expectedKeys) {
+        this.bits = new long[Math.max(1, (expectedKeys * 10 + 63) / 64)];
+    }
+
+    private BloomFilter(long[] bits) {
+        this.bits = bits;
+    }
+
+    public void add(String key) {
+        long hash1 = key.hashCode();
+        long hash2 = secondHash(key);
+        long size = bits.length * 64L;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, size);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash1 = key.hashCode();
+        long hash2 = secondHash(key);
+        long size = bits.length * 64L;
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, size);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(bits.length);
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    public static BloomFilter readFrom(DataInput in) throws IOException {
+        long[] bits = new long[in.readInt()];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        return new BloomFilter(bits);
+    }
+
+    private static long secondHash(String key) {
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue() | 1;  // odd, so probes never collapse onto one bit
+    }
+}
@@ -0,0 +1,104 @@
+package io.malicki.bankingsystem.domain.transfer.archive;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.history.HistoryCursor;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+// Cold tier for finalised transfers. Only segment headers (min/max + Bloom
+// filters) are held in memory; rows are read from disk on demand.
+@Component
+@Slf4j
+public class TransferArchive {
+
+    private final Path directory;
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+
+    public TransferArchive(@Value("${banking.archive.directory:./data/archive}") String directory) {
+        this.directory = Path.of(directory);
+    }
+
+    @PostConstruct
+    public void loadSegments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(ArchiveSegment.EXTENSION)).toList()) {
+                segments.add(ArchiveSegment.open(file));
+            }
+        }
+
+        log.info("🗄️ Transfer archive loaded: {} segments, {} transfers",
+                segments.size(), segments.stream().mapToLong(ArchiveSegment::getRowCount).sum());
+    }
+
+    public ArchiveSegment append(List<Transfer> transfers) throws IOException {
+        Files.createDirectories(directory);
+        ArchiveSegment segment = ArchiveSegment.write(directory, transfers);
+        segments.add(segment);
+        return segment;
+    }
+
+    public Optional<Transfer> findByTransferId(String transferId) {
+        for (ArchiveSegment segment : segments) {
+            try {
+                Optional<Transfer> found = segment.findByTransferId(transferId);
+                if (found.isPresent()) {
+                    return found;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read archive segment " + segment.getPath(), e);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Ids already in a segment - left behind if a crash hit between writing a
+    // segment and deleting its rows. Each covering segment is read once.
+    public Set<Long> findArchivedIds(Collection<Long> ids) {
+        Set<Long> archived = new HashSet<>();
+        for (ArchiveSegment segment : segments) {
+            if (ids.stream().noneMatch(segment::coversId)) {
+                continue;
+            }
+            try {
+                segment.readRows().stream()
+                        .map(Transfer::getId)
+                        .filter(ids::contains)
+                        .forEach(archived::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read archive segment " + segment.getPath(), e);
+            }
+        }
+        return archived;
+    }
+
+    public Iterator<Transfer> history(String accountNumber, HistoryCursor cursor) {
+        if (segments.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        return new ArchiveHistoryIterator(List.copyOf(segments), accountNumber, cursor);
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+}
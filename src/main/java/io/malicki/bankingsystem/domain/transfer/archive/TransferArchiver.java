@@ -0,0 +1,99 @@
+package io.malicki.bankingsystem.domain.transfer.archive;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferRepository;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+// Moves finalised transfers older than min-age-days out of the hot table into
+// archive segments, one batch (= one segment) per transaction.
+@Component
+@ConditionalOnProperty(name = "banking.archive.enabled", havingValue = "true")
+@Slf4j
+public class TransferArchiver {
+
+    private static final List<TransferStatus> FINAL_STATUSES =
+            List.of(TransferStatus.COMPLETED, TransferStatus.FAILED);
+
+    private final TransferRepository transferRepository;
+    private final TransferArchive archive;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+
+    public TransferArchiver(
+            TransferRepository transferRepository,
+            TransferArchive archive,
+            PlatformTransactionManager transactionManager,
+            @Value("${banking.archive.min-age-days:30}") long minAgeDays,
+            @Value("${banking.archive.batch-size:10000}") int batchSize
+    ) {
+        this.transferRepository = transferRepository;
+        this.archive = archive;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.minAge = Duration.ofDays(minAgeDays);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(
+        initialDelayString = "${banking.archive.initial-delay-ms:60000}",
+        fixedDelayString = "${banking.archive.interval-ms:3600000}"
+    )
+    public void archiveFinalisedTransfers() {
+        Instant cutoff = Instant.now().minus(minAge);
+        long archived = 0;
+
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += moved;
+        } while (moved == batchSize);
+
+        if (archived > 0) {
+            log.info("🗄️ Archived {} transfers older than {} ({} segments total)",
+                    archived, cutoff, archive.getSegmentCount());
+        }
+    }
+
+    // The segment is fsynced before the rows are deleted. If the delete never
+    // commits, the next run finds the ids already archived and only deletes them.
+    private int archiveBatch(Instant cutoff) {
+        List<Transfer> batch = transferRepository
+                .findByStatusInAndCreatedAtBeforeOrderByIdAsc(FINAL_STATUSES, cutoff, Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = batch.stream().map(Transfer::getId).toList();
+        Set<Long> alreadyArchived = archive.findArchivedIds(ids);
+        List<Transfer> toWrite = batch.stream()
+                .filter(t -> !alreadyArchived.contains(t.getId()))
+                .toList();
+
+        if (!toWrite.isEmpty()) {
+            try {
+                ArchiveSegment segment = archive.append(toWrite);
+                log.debug("🗄️ Wrote segment {} ({} rows)", segment.getPath().getFileName(), toWrite.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write archive segment", e);
+            }
+        }
+
+        transferRepository.deleteAllByIdInBatch(ids);
+        return batch.size();
+    }
+}
@@ -0,0 +1,57 @@
+package io.malicki.bankingsystem.domain.transfer.history;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+// Opaque keyset position: (createdAt, id) of the last transfer already returned
+@Getter
+public class HistoryCursor {
+
+    // First page - sorts after every real row
+    public static final HistoryCursor START =
+            new HistoryCursor(Instant.parse("9999-12-31T23:59:59Z"), Long.MAX_VALUE);
+
+    private final Instant createdAt;
+    private final long id;
+
+    public HistoryCursor(Instant createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static HistoryCursor after(Transfer transfer) {
+        return new HistoryCursor(transfer.getCreatedAt(), transfer.getId());
+    }
+
+    public static HistoryCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new HistoryCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid history cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Newest first: true if the transfer comes after this cursor in history order
+    public boolean isAfter(Transfer transfer) {
+        int cmp = transfer.getCreatedAt().compareTo(createdAt);
+        return cmp < 0 || (cmp == 0 && transfer.getId() < id);
+    }
+}
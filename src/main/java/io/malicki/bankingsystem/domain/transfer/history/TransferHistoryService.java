@@ -0,0 +1,91 @@
+package io.malicki.bankingsystem.domain.transfer.history;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.malicki.bankingsystem.api.dto.TransferResponse;
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferRepository;
+import io.malicki.bankingsystem.domain.transfer.archive.TransferArchive;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class TransferHistoryService {
+
+    private final TransferRepository transferRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TransferArchive transferArchive;
+
+    public TransferHistoryService(
+            TransferRepository transferRepository,
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            TransferArchive transferArchive
+    ) {
+        this.transferRepository = transferRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.transferArchive = transferArchive;
+    }
+
+    // Streams one page straight to the response - rows are written and detached
+    // one at a time, never collected into a list.
+    @Transactional(readOnly = true)
+    public void writeHistoryPage(
+            String accountNumber,
+            HistoryCursor cursor,
+            int limit,
+            OutputStream out
+    ) throws IOException {
+        Limit rowLimit = Limit.of(limit);
+
+        try (Stream<Transfer> sent = transferRepository.streamSentBefore(
+                     accountNumber, cursor.getCreatedAt(), cursor.getId(), rowLimit);
+             Stream<Transfer> received = transferRepository.streamReceivedBefore(
+                     accountNumber, cursor.getCreatedAt(), cursor.getId(), rowLimit);
+             JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+
+            // Hot rows and archived rows in one ordering - the archive is a
+            // LazySource, no segment is read unless the page gets down to its rows
+            TransferMergeIterator history = new TransferMergeIterator(List.of(
+                    sent.iterator(),
+                    received.iterator(),
+                    transferArchive.history(accountNumber, cursor)));
+
+            json.writeStartObject();
+            json.writeStringField("accountNumber", accountNumber);
+            json.writeArrayFieldStart("transfers");
+
+            int written = 0;
+            Transfer last = null;
+            while (written < limit && history.hasNext()) {
+                last = history.next();
+                json.writeObject(TransferResponse.from(last));
+                if (entityManager.contains(last)) {
+                    entityManager.detach(last);
+                }
+                written++;
+            }
+
+            json.writeEndArray();
+            if (written == limit) {
+                json.writeStringField("nextCursor", HistoryCursor.after(last).encode());
+            } else {
+                json.writeNullField("nextCursor");
+            }
+            json.writeEndObject();
+
+            log.debug("📜 History page for {}: {} transfers", accountNumber, written);
+        }
+    }
+}
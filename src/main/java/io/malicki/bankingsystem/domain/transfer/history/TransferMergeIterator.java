@@ -0,0 +1,101 @@
+package io.malicki.bankingsystem.domain.transfer.history;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// K-way merge of sources that are each sorted newest first (createdAt DESC, id DESC).
+// Holds one row per source, so memory does not depend on history length.
+// A transfer present in more than one source (e.g. ACC001 -> ACC001) is emitted once.
+// A LazySource is not read at all until its newest possible row could be the
+// next one emitted.
+public class TransferMergeIterator implements Iterator<Transfer> {
+
+    public static final Comparator<Transfer> NEWEST_FIRST = Comparator
+            .comparing(Transfer::getCreatedAt)
+            .thenComparing(Transfer::getId)
+            .reversed();
+
+    private final PriorityQueue<Head> heads = new PriorityQueue<>(
+            (a, b) -> NEWEST_FIRST.compare(a.current, b.current));
+    private final List<LazySource> deferred = new ArrayList<>();
+    private Long lastEmittedId;
+
+    public TransferMergeIterator(List<? extends Iterator<Transfer>> sources) {
+        for (Iterator<Transfer> source : sources) {
+            if (source instanceof LazySource lazy) {
+                deferred.add(lazy);
+            } else {
+                advance(new Head(source));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (true) {
+            pullDeferred();
+            if (heads.isEmpty() || !heads.peek().current.getId().equals(lastEmittedId)) {
+                return !heads.isEmpty();
+            }
+            // Duplicate of the row just emitted
+            advance(heads.poll());
+        }
+    }
+
+    @Override
+    public Transfer next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Head head = heads.poll();
+        Transfer transfer = head.current;
+        lastEmittedId = transfer.getId();
+        advance(head);
+        return transfer;
+    }
+
+    private void pullDeferred() {
+        deferred.removeIf(source -> {
+            Instant newest = source.newestPossible();
+            if (newest == null) {
+                return true;
+            }
+            if (heads.isEmpty() || !newest.isBefore(heads.peek().current.getCreatedAt())) {
+                advance(new Head(source));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void advance(Head head) {
+        if (head.source.hasNext()) {
+            head.current = head.source.next();
+            heads.add(head);
+        }
+    }
+
+    // A source that is expensive to start reading
+    public interface LazySource extends Iterator<Transfer> {
+
+        // Upper bound on the createdAt of its next row, known without reading
+        // any; null if there is none
+        Instant newestPossible();
+    }
+
+    private static class Head {
+        private final Iterator<Transfer> source;
+        private Transfer current;
+
+        private Head(Iterator<Transfer> source) {
+            this.source = source;
+        }
+    }
+}
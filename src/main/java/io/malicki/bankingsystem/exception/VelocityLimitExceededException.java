@@ -0,0 +1,24 @@
+package io.malicki.bankingsystem.exception;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Getter
+public class VelocityLimitExceededException extends RuntimeException {
+
+    private final String accountNumber;
+    private final Duration window;
+    private final BigDecimal sentAmount;
+    private final long sentCount;
+
+    public VelocityLimitExceededException(String accountNumber, Duration window, BigDecimal sentAmount, long sentCount) {
+        super(String.format("Velocity limit exceeded for account %s: %s sent in %d transfers within %s",
+                accountNumber, sentAmount, sentCount, window));
+        this.accountNumber = accountNumber;
+        this.window = window;
+        this.sentAmount = sentAmount;
+        this.sentCount = sentCount;
+    }
+}
@@ -0,0 +1,19 @@
+package io.malicki.bankingsystem.exception;
+
+import lombok.Getter;
+
+// The sender's velocity windows are held by another node (or not warmed yet).
+// Transient: the validation consumer owning the partition can check it.
+@Getter
+public class VelocityStateUnavailableException extends RuntimeException {
+
+    private final String accountNumber;
+    private final int partition;
+
+    public VelocityStateUnavailableException(String accountNumber, int partition) {
+        super(String.format("Velocity windows of account %s (partition %d) are not held by this node",
+                accountNumber, partition));
+        this.accountNumber = accountNumber;
+        this.partition = partition;
+    }
+}
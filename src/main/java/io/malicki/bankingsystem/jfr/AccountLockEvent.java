@@ -0,0 +1,25 @@
+package io.malicki.bankingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// SELECT ... FOR UPDATE on one account - the time spent waiting for another
+// transfer holding the same row shows up here
+@Name("banking.AccountLock")
+@Label("Account Lock")
+@Category({"Banking", "Transfers"})
+@StackTrace(false)
+public class AccountLockEvent extends Event {
+
+    @Label("Transfer Id")
+    public String transferId;
+
+    @Label("Account Number")
+    public String accountNumber;
+
+    @Label("Found")
+    public boolean found;
+}
@@ -0,0 +1,34 @@
+package io.malicki.bankingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// Building the FailedMessage (fingerprint, payload JSON) and handing it to the
+// producer; the broker ack is asynchronous and not included
+@Name("banking.DltSend")
+@Label("DLT Send")
+@Category({"Banking", "Errors"})
+@StackTrace(false)
+public class DltSendEvent extends Event {
+
+    @Label("Transfer Id")
+    public String transferId;
+
+    @Label("Original Topic")
+    public String originalTopic;
+
+    @Label("Partition")
+    public int partition;
+
+    @Label("Offset")
+    public long offset;
+
+    @Label("Category")
+    public String category;
+
+    @Label("Exception Type")
+    public String exceptionType;
+}
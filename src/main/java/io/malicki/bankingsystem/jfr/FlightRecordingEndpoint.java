@@ -0,0 +1,60 @@
+package io.malicki.bankingsystem.jfr;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+// GET  /actuator/flightrecordings               - recordings started here
+// GET  /actuator/flightrecordings/{name}
+// POST /actuator/flightrecordings/{name}/start  {"settings": "profile", "maxAgeSeconds": 300,
+//                                                 "maxSizeMb": 64, "durationSeconds": 60} - all optional
+// POST /actuator/flightrecordings/{name}/dump   - snapshot to banking.jfr.directory, keeps recording
+// POST /actuator/flightrecordings/{name}/stop   - final dump, then closed
+// Open the .jfr files in JDK Mission Control or with `jfr print --events banking.* <file>`.
+@Component
+@Endpoint(id = "flightrecordings")
+public class FlightRecordingEndpoint {
+
+    private final FlightRecordings flightRecordings;
+
+    public FlightRecordingEndpoint(FlightRecordings flightRecordings) {
+        this.flightRecordings = flightRecordings;
+    }
+
+    @ReadOperation
+    public List<FlightRecordingStatus> recordings() {
+        return flightRecordings.list();
+    }
+
+    @ReadOperation
+    public FlightRecordingStatus recording(@Selector String name) {
+        return flightRecordings.getStatus(name);
+    }
+
+    @WriteOperation
+    public FlightRecordingStatus control(
+            @Selector String name,
+            @Selector String action,
+            @Nullable String settings,
+            @Nullable Long maxAgeSeconds,
+            @Nullable Long maxSizeMb,
+            @Nullable Long durationSeconds
+    ) throws IOException {
+        return switch (action) {
+            case "start" -> flightRecordings.start(name, settings,
+                    maxAgeSeconds != null ? Duration.ofSeconds(maxAgeSeconds) : null, maxSizeMb,
+                    durationSeconds != null ? Duration.ofSeconds(durationSeconds) : null);
+            case "dump" -> flightRecordings.dump(name);
+            case "stop" -> flightRecordings.stop(name);
+            default -> throw new InvalidEndpointRequestException("Unknown action: " + action, "unknown action");
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package io.malicki.bankingsystem.jfr;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class FlightRecordingStatus {
+
+    private final String name;
+    private final String state;
+    private final String settings;
+    private final Instant startedAt;
+    private final long maxAgeSeconds;
+    private final long maxSizeMb;
+    private final long sizeBytes;
+    private final String lastFile;
+}
@@ -0,0 +1,212 @@
+package io.malicki.bankingsystem.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Named, bounded JFR recordings: a JDK settings file (default is ~1% overhead)
+// plus the banking.* events. Every recording is capped by max-age and
+// max-size, so one left running keeps only the recent past, ready to dump
+// when latency spikes.
+@Component
+@Slf4j
+public class FlightRecordings {
+
+    public static final List<Class<? extends Event>> EVENTS = List.of(
+            TransferValidationEvent.class,
+            TransferExecutionEvent.class,
+            AccountLockEvent.class,
+            OutboxPollEvent.class,
+            OutboxRelayEvent.class,
+            DltSendEvent.class);
+
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final String defaultSettings;
+    private final Duration threshold;
+    private final Duration maxAge;
+    private final long maxSizeMb;
+    private final int maxRecordings;
+    private final boolean continuous;
+
+    private final Map<String, Managed> recordings = new LinkedHashMap<>();
+
+    public FlightRecordings(
+            @Value("${banking.jfr.directory:./data/jfr}") String directory,
+            @Value("${banking.jfr.settings:default}") String defaultSettings,
+            @Value("${banking.jfr.threshold-ms:0}") long thresholdMs,
+            @Value("${banking.jfr.max-age-minutes:15}") long maxAgeMinutes,
+            @Value("${banking.jfr.max-size-mb:256}") long maxSizeMb,
+            @Value("${banking.jfr.max-recordings:4}") int maxRecordings,
+            @Value("${banking.jfr.continuous:false}") boolean continuous
+    ) {
+        this.directory = Path.of(directory);
+        this.defaultSettings = defaultSettings;
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.maxAge = Duration.ofMinutes(maxAgeMinutes);
+        this.maxSizeMb = maxSizeMb;
+        this.maxRecordings = maxRecordings;
+        this.continuous = continuous;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (continuous) {
+            start("continuous", null, null, null, null);
+        }
+    }
+
+    // maxAge / maxSizeMb above the configured caps are capped; duration null = until stopped
+    public synchronized FlightRecordingStatus start(String name, String settings, Duration maxAge, Long maxSizeMb,
+                                                    Duration duration) {
+        // Part of the file name
+        if (!name.matches("[A-Za-z0-9_-]{1,64}")) {
+            throw new InvalidEndpointRequestException("Recording names are letters, digits, - and _", "invalid name");
+        }
+        if (recordings.containsKey(name)) {
+            throw new InvalidEndpointRequestException("Recording " + name + " already exists", "already exists");
+        }
+        if (recordings.size() >= maxRecordings) {
+            throw new InvalidEndpointRequestException(
+                    "At most " + maxRecordings + " recordings, stop one first", "too many recordings");
+        }
+        String settingsName = settings != null ? settings : defaultSettings;
+
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration(settingsName));
+        } catch (IOException | ParseException e) {
+            throw new InvalidEndpointRequestException("Unknown JFR settings: " + settingsName, "unknown settings");
+        }
+        for (Class<? extends Event> event : EVENTS) {
+            recording.enable(event).withThreshold(threshold);
+        }
+        recording.setName(name);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge == null || maxAge.compareTo(this.maxAge) > 0 ? this.maxAge : maxAge);
+        recording.setMaxSize(Math.min(maxSizeMb != null ? maxSizeMb : this.maxSizeMb, this.maxSizeMb) * 1024 * 1024);
+        // Written on stop, on expiry of duration and on JVM exit (JFR's own
+        // shutdown hook may close the recording before ours runs)
+        recording.setDumpOnExit(true);
+        try {
+            recording.setDestination(newFile(name, ""));
+        } catch (IOException e) {
+            recording.close();
+            throw new IllegalStateException("Cannot write to " + directory, e);
+        }
+        if (duration != null) {
+            recording.setDuration(duration);
+        }
+        Managed managed = new Managed(recording, settingsName);
+        recording.start();
+        recordings.put(name, managed);
+
+        log.info("✈️ Flight recording {} started | Settings: {} | Max age: {}s | Max size: {}MB | Duration: {}",
+                name, settingsName, recording.getMaxAge().toSeconds(), recording.getMaxSize() / 1024 / 1024,
+                duration != null ? duration.toSeconds() + "s" : "until stopped");
+        return status(name, managed);
+    }
+
+    // Snapshot of what the recording holds so far; it keeps running
+    public synchronized FlightRecordingStatus dump(String name) throws IOException {
+        Managed managed = get(name);
+        if (managed.recording.getState() == RecordingState.RUNNING) {
+            managed.lastFile = newFile(name, "-snapshot");
+            managed.recording.dump(managed.lastFile);
+            log.info("✈️ Flight recording {} dumped to {}", name, managed.lastFile);
+        }
+        return status(name, managed);
+    }
+
+    // Final dump, then the recording is discarded
+    public synchronized FlightRecordingStatus stop(String name) throws IOException {
+        Managed managed = get(name);
+        if (managed.recording.getState() == RecordingState.RUNNING) {
+            managed.recording.stop();
+        }
+        managed.lastFile = managed.recording.getDestination();
+        FlightRecordingStatus status = status(name, managed);
+        managed.recording.close();
+        recordings.remove(name);
+        log.info("✈️ Flight recording {} stopped: {}", name, managed.lastFile);
+        return status;
+    }
+
+    public synchronized List<FlightRecordingStatus> list() {
+        List<FlightRecordingStatus> statuses = new ArrayList<>(recordings.size());
+        recordings.forEach((name, managed) -> statuses.add(status(name, managed)));
+        return statuses;
+    }
+
+    public synchronized FlightRecordingStatus getStatus(String name) {
+        Managed managed = recordings.get(name);
+        return managed != null ? status(name, managed) : null;
+    }
+
+    @PreDestroy
+    public synchronized void stopAll() {
+        for (String name : List.copyOf(recordings.keySet())) {
+            try {
+                stop(name);
+            } catch (IOException | IllegalStateException e) {
+                log.error("❌ Flight recording {} could not be written: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private Managed get(String name) {
+        Managed managed = recordings.get(name);
+        if (managed == null) {
+            throw new InvalidEndpointRequestException("No recording named " + name, "no such recording");
+        }
+        return managed;
+    }
+
+    private Path newFile(String name, String suffix) throws IOException {
+        Files.createDirectories(directory);
+        return directory.resolve(name + "-" + LocalDateTime.now().format(FILE_NAME) + suffix + ".jfr");
+    }
+
+    private FlightRecordingStatus status(String name, Managed managed) {
+        Recording recording = managed.recording;
+        // Once it stops (duration ran out, JVM exit) the destination is the latest file
+        boolean active = recording.getState() == RecordingState.NEW || recording.getState() == RecordingState.RUNNING;
+        Path file = active ? managed.lastFile : recording.getDestination();
+        return new FlightRecordingStatus(name, recording.getState().name(), managed.settings, recording.getStartTime(),
+                recording.getMaxAge().toSeconds(), recording.getMaxSize() / 1024 / 1024, recording.getSize(),
+                file != null ? file.toString() : null);
+    }
+
+    private static final class Managed {
+
+        private final Recording recording;
+        private final String settings;
+        private Path lastFile;
+
+        private Managed(Recording recording, String settings) {
+            this.recording = recording;
+            this.settings = settings;
+        }
+    }
+}
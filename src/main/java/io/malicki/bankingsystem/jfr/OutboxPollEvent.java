@@ -0,0 +1,18 @@
+package io.malicki.bankingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// The pending-events query of one OutboxProcessor run
+@Name("banking.OutboxPoll")
+@Label("Outbox Poll")
+@Category({"Banking", "Outbox"})
+@StackTrace(false)
+public class OutboxPollEvent extends Event {
+
+    @Label("Batch Size")
+    public int batchSize;
+}
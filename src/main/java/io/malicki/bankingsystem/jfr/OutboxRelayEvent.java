@@ -0,0 +1,39 @@
+package io.malicki.bankingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+// One outbox row relayed to Kafka: JSON read, send until acked, row update.
+// sendDuration is the Kafka part, the rest is mostly JSON and JPA.
+@Name("banking.OutboxRelay")
+@Label("Outbox Relay")
+@Category({"Banking", "Outbox"})
+@StackTrace(false)
+public class OutboxRelayEvent extends Event {
+
+    @Label("Transfer Id")
+    public String transferId;
+
+    @Label("Event Type")
+    public String eventType;
+
+    @Label("Topic")
+    public String topic;
+
+    @Label("Partition")
+    public int partition = -1;
+
+    @Label("Retry Count")
+    public int retryCount;
+
+    @Label("Send Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long sendDuration;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,9 @@
+package io.malicki.bankingsystem.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("banking.TransferExecution")
+@Label("Transfer Execution")
+public class TransferExecutionEvent extends TransferStageEvent {
+}
@@ -0,0 +1,42 @@
+package io.malicki.bankingsystem.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+
+// One listener invocation for a transfer, from claim to outbox write. The
+// duration includes the DB work; lock waits are broken out in AccountLockEvent.
+@Category({"Banking", "Transfers"})
+@StackTrace(false)
+public abstract class TransferStageEvent extends Event {
+
+    @Label("Transfer Id")
+    public String transferId;
+
+    @Label("Partition")
+    public int partition;
+
+    @Label("Offset")
+    public long offset;
+
+    @Label("Attempt")
+    public int attempt;
+
+    @Label("Outcome")
+    public String outcome;
+
+    // Fields are only filled in when the event is actually recorded
+    public void complete(ConsumerRecord<?, ?> record, String transferId, int attempt, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.transferId = transferId;
+            this.partition = record.partition();
+            this.offset = record.offset();
+            this.attempt = attempt;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
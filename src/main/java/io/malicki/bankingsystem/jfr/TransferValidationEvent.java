@@ -0,0 +1,9 @@
+package io.malicki.bankingsystem.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("banking.TransferValidation")
+@Label("Transfer Validation")
+public class TransferValidationEvent extends TransferStageEvent {
+}
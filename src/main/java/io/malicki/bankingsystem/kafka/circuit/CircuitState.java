@@ -0,0 +1,7 @@
+package io.malicki.bankingsystem.kafka.circuit;
+
+public enum CircuitState {
+    CLOSED,     // records flow normally
+    HALF_OPEN,  // containers resumed, a few trial records decide
+    OPEN        // containers paused, records nacked
+}
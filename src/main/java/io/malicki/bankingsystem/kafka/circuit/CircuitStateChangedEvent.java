@@ -0,0 +1,12 @@
+package io.malicki.bankingsystem.kafka.circuit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CircuitStateChangedEvent {
+
+    private final CircuitState state;
+    private final String reason;
+}
@@ -0,0 +1,312 @@
+package io.malicki.bankingsystem.kafka.circuit;
+
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Stops the DB-bound listeners (validation, execution) from turning a
+// database outage into retries and a DLT flood.
+//
+// Fed by classified failures (ErrorHandler), successes (consumers) and a
+// periodic DB health probe. Opens when the transient-failure rate over the
+// last window-size outcomes crosses the threshold, or when the probe fails:
+// the containers are paused and records already polled are nacked. After
+// open-duration-ms and a healthy probe it goes half-open - containers resume
+// and half-open-trials records decide whether it closes or opens again.
+@Component
+@Slf4j
+public class DownstreamCircuitBreaker {
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final DataSource dataSource;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final List<String> listenerIds;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenTrials;
+    private final long probeIntervalMs;
+    private final int probeTimeoutSeconds;
+    private final Duration retryBackoff;
+
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private volatile Set<String> guardedTopics;
+
+    // Guarded by this
+    private final boolean[] outcomes;  // true = failure, ring over the last window-size calls
+    private int position;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private ScheduledExecutorService prober;
+
+    public DownstreamCircuitBreaker(
+            KafkaListenerEndpointRegistry registry,
+            DataSource dataSource,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${banking.circuit-breaker.enabled:true}") boolean enabled,
+            @Value("${banking.circuit-breaker.listener-ids:validation,execution}") List<String> listenerIds,
+            @Value("${banking.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${banking.circuit-breaker.min-calls:10}") int minCalls,
+            @Value("${banking.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${banking.circuit-breaker.open-duration-ms:10000}") long openDurationMs,
+            @Value("${banking.circuit-breaker.half-open-trials:3}") int halfOpenTrials,
+            @Value("${banking.circuit-breaker.probe-interval-ms:2000}") long probeIntervalMs,
+            @Value("${banking.circuit-breaker.probe-timeout-seconds:2}") int probeTimeoutSeconds,
+            @Value("${banking.circuit-breaker.retry-backoff-ms:1000}") long retryBackoffMs
+    ) {
+        this.registry = registry;
+        this.dataSource = dataSource;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.listenerIds = listenerIds;
+        this.outcomes = new boolean[windowSize];
+        this.minCalls = Math.min(minCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.halfOpenTrials = halfOpenTrials;
+        this.probeIntervalMs = probeIntervalMs;
+        this.probeTimeoutSeconds = probeTimeoutSeconds;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+
+        // 0 = closed, 1 = half-open, 2 = open
+        meterRegistry.gauge("banking.circuit.state", this, breaker -> breaker.state.ordinal());
+    }
+
+    // Own thread: getConnection() can block for the pool's connection timeout
+    // while the DB is down, which would stall every @Scheduled task.
+    @EventListener(ApplicationReadyEvent.class)
+    public void startProbing() {
+        if (!enabled || dataSource == null) {
+            return;
+        }
+        prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "circuit-breaker-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        prober.scheduleWithFixedDelay(() -> onProbe(probeDatabase()), probeIntervalMs, probeIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("🔌 Circuit breaker guarding listeners {} (probe every {}ms)", listenerIds, probeIntervalMs);
+    }
+
+    private boolean probeDatabase() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(probeTimeoutSeconds);
+        } catch (Exception e) {
+            log.debug("🔌 DB probe failed: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    void onProbe(boolean healthy) {
+        CircuitStateChangedEvent event = null;
+        synchronized (this) {
+            if (!healthy && state != CircuitState.OPEN) {
+                event = open("database health probe failed");
+            } else if (healthy && state == CircuitState.OPEN && System.nanoTime() - openedAt >= openDurationNanos) {
+                event = halfOpen();
+            } else if (healthy && state == CircuitState.HALF_OPEN && trialsStarted == 0
+                    && System.nanoTime() - openedAt >= 2 * openDurationNanos) {
+                // No traffic to trial with - the probe is all we have
+                event = close("database healthy, no records to trial");
+            }
+        }
+        publish(event);
+    }
+
+    // Called before a guarded record is processed. While half-open only
+    // half-open-trials records get through; the rest are nacked.
+    public synchronized boolean tryAcquirePermission() {
+        if (!enabled || state == CircuitState.CLOSED) {
+            return true;
+        }
+        if (state == CircuitState.HALF_OPEN && trialsStarted < halfOpenTrials) {
+            trialsStarted++;
+            return true;
+        }
+        return false;
+    }
+
+    public void onSuccess() {
+        if (!enabled) {
+            return;
+        }
+        CircuitStateChangedEvent event;
+        synchronized (this) {
+            event = succeeded();
+        }
+        publish(event);
+    }
+
+    // Only transient technical errors say anything about the downstream -
+    // a business rejection means the DB answered.
+    public void onFailure(ErrorCategory category) {
+        if (!enabled) {
+            return;
+        }
+        CircuitStateChangedEvent event = null;
+        synchronized (this) {
+            if (category != ErrorCategory.TECHNICAL_TRANSIENT) {
+                event = succeeded();
+            } else if (state == CircuitState.HALF_OPEN) {
+                event = open("trial record failed");
+            } else {
+                record(true);
+                if (state == CircuitState.CLOSED && calls >= minCalls && failures >= failureRateThreshold * calls) {
+                    event = open(String.format("%d of the last %d records failed", failures, calls));
+                }
+            }
+        }
+        publish(event);
+    }
+
+    private CircuitStateChangedEvent succeeded() {
+        if (state == CircuitState.HALF_OPEN) {
+            return ++trialsSucceeded >= halfOpenTrials ? close(halfOpenTrials + " trial records succeeded") : null;
+        }
+        record(false);
+        return null;
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % outcomes.length;
+    }
+
+    private void resetWindow() {
+        Arrays.fill(outcomes, false);
+        position = 0;
+        calls = 0;
+        failures = 0;
+    }
+
+    private CircuitStateChangedEvent open(String reason) {
+        CircuitState previous = state;
+        state = CircuitState.OPEN;
+        openedAt = System.nanoTime();
+        resetWindow();
+        forEachContainer(MessageListenerContainer::pause);
+        return transitioned(previous, reason);
+    }
+
+    private CircuitStateChangedEvent halfOpen() {
+        CircuitState previous = state;
+        state = CircuitState.HALF_OPEN;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        forEachContainer(MessageListenerContainer::resume);
+        return transitioned(previous, "database healthy again");
+    }
+
+    private CircuitStateChangedEvent close(String reason) {
+        CircuitState previous = state;
+        state = CircuitState.CLOSED;
+        resetWindow();
+        return transitioned(previous, reason);
+    }
+
+    private CircuitStateChangedEvent transitioned(CircuitState previous, String reason) {
+        meterRegistry.counter("banking.circuit.transitions", "to", state.name()).increment();
+        if (state == CircuitState.CLOSED) {
+            log.info("🔌 Circuit {} → {}: {}", previous, state, reason);
+        } else {
+            log.warn("🔌 Circuit {} → {}: {}", previous, state, reason);
+        }
+        return new CircuitStateChangedEvent(state, reason);
+    }
+
+    // Outside the lock - listeners (e.g. the DLT replay engine) may stop/start containers
+    private void publish(CircuitStateChangedEvent event) {
+        if (event != null) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private void forEachContainer(Consumer<MessageListenerContainer> action) {
+        for (String id : listenerIds) {
+            MessageListenerContainer container = registry.getListenerContainer(id);
+            if (container == null) {
+                log.warn("🔌 Listener container {} not found", id);
+                continue;
+            }
+            action.accept(container);
+        }
+    }
+
+    // Topics of the guarded listeners - ErrorHandler only reports failures from these
+    public boolean guards(String topic) {
+        if (!enabled) {
+            return false;
+        }
+        Set<String> topics = guardedTopics;
+        if (topics == null) {
+            topics = new HashSet<>();
+            for (String id : listenerIds) {
+                MessageListenerContainer container = registry.getListenerContainer(id);
+                if (container != null && container.getContainerProperties().getTopics() != null) {
+                    topics.addAll(Arrays.asList(container.getContainerProperties().getTopics()));
+                }
+            }
+            guardedTopics = topics;
+        }
+        return topics.contains(topic);
+    }
+
+    public boolean isClosed() {
+        return state == CircuitState.CLOSED;
+    }
+
+    public CircuitState getState() {
+        return state;
+    }
+
+    // How long a nacked record waits before it is redelivered
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+    }
+}
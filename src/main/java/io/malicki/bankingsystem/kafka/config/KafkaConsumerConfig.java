@@ -2,10 +2,18 @@ package io.malicki.bankingsystem.kafka.config;
 
 import io.malicki.bankingsystem.domain.transfer.TransferEvent;
 import io.malicki.bankingsystem.kafka.errorhandling.FailedMessage;
+import io.malicki.bankingsystem.kafka.rebalance.PartitionStateRebalanceListener;
+import io.malicki.bankingsystem.logging.TransferMdcRecordInterceptor;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.CooperativeStickyAssignor;
+import org.apache.kafka.clients.consumer.RangeAssignor;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
@@ -13,28 +21,45 @@ import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 
 @Configuration
 public class KafkaConsumerConfig {
+
+    private final Environment environment;
+    private final String bootstrapServers;
+    private final List<String> assignmentStrategy;
+
+    public KafkaConsumerConfig(
+        Environment environment,
+        @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers,
+        @Value("${banking.kafka.assignment-strategy:range}") List<String> assignmentStrategy
+    ) {
+        this.environment = environment;
+        this.bootstrapServers = bootstrapServers;
+        this.assignmentStrategy = assignmentStrategy;
+    }
     
     @Bean
     public ConsumerFactory<String, TransferEvent> consumerFactory() {
         Map<String, Object> config = new HashMap<>();
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "banking-system");
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);  // Manual commit
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         config.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
+        config.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, assignors());
         
         return new DefaultKafkaConsumerFactory<>(config);
     }
     
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, TransferEvent> 
-        kafkaListenerContainerFactory() {
+        kafkaListenerContainerFactory(PartitionStateRebalanceListener rebalanceListener) {
         
         ConcurrentKafkaListenerContainerFactory<String, TransferEvent> factory = 
             new ConcurrentKafkaListenerContainerFactory<>();
@@ -42,16 +67,56 @@ public class KafkaConsumerConfig {
         
         // MANUAL ACK MODE (for exactly-once)
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // Warms/evicts partition-scoped state (PartitionScopedState) as partitions move
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceListener);
+        factory.setRecordInterceptor(new TransferMdcRecordInterceptor());
+        applyVirtualThreads(factory, "kafka-listener-");
         
         return factory;
     }
 
+    // Audit appends whole polls at once - one lock/encode loop per batch
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TransferEvent>
+        auditKafkaListenerContainerFactory() {
+
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, "1000");
+
+        ConcurrentKafkaListenerContainerFactory<String, TransferEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setKafkaConsumerProperties(overrides);
+        applyVirtualThreads(factory, "kafka-audit-listener-");
+
+        return factory;
+    }
+
+    // Notifications are acked from the dispatcher's workers, out of order -
+    // async acks commit only up to the first record still being delivered
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, TransferEvent>
+        notificationKafkaListenerContainerFactory() {
+
+        ConcurrentKafkaListenerContainerFactory<String, TransferEvent> factory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        factory.setRecordInterceptor(new TransferMdcRecordInterceptor());
+        applyVirtualThreads(factory, "kafka-notification-listener-");
+
+        return factory;
+    }
+
     // W KafkaConsumerConfig.java - DODAJ na końcu:
 
     @Bean
     public ConsumerFactory<String, FailedMessage> dltConsumerFactory() {
         Map<String, Object> config = new HashMap<>();
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, "dlt-monitor");
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
@@ -72,7 +137,54 @@ public class KafkaConsumerConfig {
         ConcurrentKafkaListenerContainerFactory<String, FailedMessage> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(dltConsumerFactory());
+        factory.setBatchListener(true);  // DLT records are stored one batch per transaction
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        applyVirtualThreads(factory, "kafka-dlt-listener-");
         return factory;
     }
+
+    // DLT replay: one record at a time, acked from the send callback once the
+    // republish is confirmed. Async acks let those arrive out of order; the
+    // container only commits up to the first gap.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, FailedMessage> dltReplayKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, FailedMessage> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(dltConsumerFactory());
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        applyVirtualThreads(factory, "kafka-dlt-replay-");
+        return factory;
+    }
+
+    // In order of preference; the group uses the first one every member lists.
+    // cooperative-sticky only revokes the partitions that move, but a member
+    // listing only it can't join a group running range - a running group is
+    // moved over with two rolling restarts (README, "Cooperative rebalancing").
+    private List<String> assignors() {
+        return assignmentStrategy.stream()
+                .map(String::trim)
+                .map(strategy -> switch (strategy) {
+                    case "cooperative-sticky" -> CooperativeStickyAssignor.class.getName();
+                    case "range" -> RangeAssignor.class.getName();
+                    default -> throw new IllegalArgumentException(
+                            "Unknown banking.kafka.assignment-strategy: " + strategy);
+                })
+                .toList();
+    }
+
+    // Our own factories make Boot's auto-configured one back off, so the
+    // virtual-thread executor it would install has to be applied here.
+    private void applyVirtualThreads(
+            ConcurrentKafkaListenerContainerFactory<?, ?> factory,
+            String threadNamePrefix
+    ) {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            return;
+        }
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        factory.getContainerProperties().setListenerTaskExecutor(executor);
+    }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package io.malicki.bankingsystem.kafka.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -15,11 +16,18 @@ public class KafkaTopicsConfig {
     public static final String TRANSFER_EXECUTION_DLT_TOPIC = "transfer-execution-dlt";
 
     private static final String RETENTION_30_DAYS = "2592000000";
+
+    // Only applies when a topic is created - a running cluster grows through PartitionExpansion
+    private final int partitions;
+
+    public KafkaTopicsConfig(@Value("${banking.kafka.partitions:3}") int partitions) {
+        this.partitions = partitions;
+    }
     
     @Bean
     public NewTopic transferValidationTopic() {
         return TopicBuilder.name(TRANSFER_VALIDATION_TOPIC)
-            .partitions(3)
+            .partitions(partitions)
             .replicas(1)
             .build();
     }
@@ -27,7 +35,7 @@ public class KafkaTopicsConfig {
     @Bean
     public NewTopic transferExecutionTopic() {
         return TopicBuilder.name(TRANSFER_EXECUTION_TOPIC)
-            .partitions(3)
+            .partitions(partitions)
             .replicas(1)
             .build();
     }
@@ -35,7 +43,7 @@ public class KafkaTopicsConfig {
     @Bean
     public NewTopic transferCompletedTopic() {
         return TopicBuilder.name(TRANSFER_COMPLETED_TOPIC)
-            .partitions(3)
+            .partitions(partitions)
             .replicas(1)
             .build();
     }
@@ -43,7 +51,7 @@ public class KafkaTopicsConfig {
     @Bean
     public NewTopic transferValidationDltTopic() {
         return TopicBuilder.name(TRANSFER_VALIDATION_DLT_TOPIC)
-            .partitions(3)
+            .partitions(partitions)
             .replicas(1)
             .config("retention.ms", RETENTION_30_DAYS)
             .build();
@@ -52,7 +60,7 @@ public class KafkaTopicsConfig {
     @Bean
     public NewTopic transferExecutionDltTopic() {
         return TopicBuilder.name(TRANSFER_EXECUTION_DLT_TOPIC)
-            .partitions(3)
+            .partitions(partitions)
             .replicas(1)
             .config("retention.ms", RETENTION_30_DAYS)
             .build();
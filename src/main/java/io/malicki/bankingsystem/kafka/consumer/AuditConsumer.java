@@ -1,14 +1,27 @@
 package io.malicki.bankingsystem.kafka.consumer;
 
+import io.malicki.bankingsystem.audit.AuditLog;
+import io.malicki.bankingsystem.audit.AuditRecord;
 import io.malicki.bankingsystem.domain.transfer.TransferEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @Slf4j
 public class AuditConsumer {
+
+    private final AuditLog auditLog;
+
+    public AuditConsumer(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
     
     @KafkaListener(
         topics = {
@@ -17,19 +30,32 @@ public class AuditConsumer {
             "transfer-completed"
         },
         groupId = "audit-group",  // Different group
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "auditKafkaListenerContainerFactory"
     )
-    public void auditEvent(ConsumerRecord<String, TransferEvent> record) {
-        TransferEvent event = record.value();
-        
-        log.info("📋 [AUDIT] Topic: {} | TransferID: {} | Status: {} | Partition: {} | Offset: {}",
-                record.topic(),
-                event.getTransferId(),
-                event.getStatus(),
-                record.partition(),
-                record.offset());
-        
-        // TODO: Save to audit database/log file
+    public void auditEvents(List<ConsumerRecord<String, TransferEvent>> records, Acknowledgment ack) {
+        Instant now = Instant.now();
+        List<AuditRecord> batch = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, TransferEvent> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
+            batch.add(AuditRecord.from(record, now));
+
+            log.debug("📋 [AUDIT] Topic: {} | TransferID: {} | Status: {} | Partition: {} | Offset: {}",
+                    record.topic(),
+                    record.value().getTransferId(),
+                    record.value().getStatus(),
+                    record.partition(),
+                    record.offset());
+        }
+
+        auditLog.append(batch);
+
         // This consumer has its OWN offsets independent of banking-system group.
+        // Committed once the batch is in the (mapped) audit log.
+        ack.acknowledge();
+
+        log.info("📋 [AUDIT] Appended {} records", batch.size());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,163 @@
+package io.malicki.bankingsystem.kafka.consumer;
+
+import io.malicki.bankingsystem.domain.account.AccountBalance;
+import io.malicki.bankingsystem.domain.account.AccountBalanceProjection;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Feeds AccountBalanceProjection from transfer-completed. A transfer is
+// executed by the node holding its sender's partition, so every node reads
+// all partitions - a group-less consumer, like the velocity feed - and
+// applies the post-transfer balances each TransferCompleted carries.
+//
+// The projection is rebuilt from the accounts table first; the feed then
+// starts a little before the rebuild (record timestamps come from the
+// relaying node's clock), so a transfer committed while the table was read
+// is not missed - the version guard drops the ones it already had. The
+// projection is ready once the feed has read up to the end offsets it saw
+// at the start.
+@Component
+@Slf4j
+public class BalanceProjectionConsumer {
+
+    private static final String TOPIC = KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC;
+    private static final Duration CLOCK_SKEW = Duration.ofSeconds(30);
+    // Partitions added by PartitionExpansion are picked up this often
+    private static final Duration PARTITION_REFRESH = Duration.ofSeconds(30);
+
+    private final AccountBalanceProjection projection;
+    private final ConsumerFactory<String, TransferEvent> consumerFactory;
+    // Partition -> next offset to read; feed thread only
+    private final Map<Integer, Long> positions = new HashMap<>();
+    // End offsets when the feed started, until it has read up to them
+    private Map<TopicPartition, Long> catchUpTo;
+
+    private Thread feed;
+    private volatile boolean running = true;
+
+    public BalanceProjectionConsumer(
+            AccountBalanceProjection projection,
+            ConsumerFactory<String, TransferEvent> consumerFactory
+    ) {
+        this.projection = projection;
+        this.consumerFactory = consumerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long from = projection.rebuild().minus(CLOCK_SKEW).toEpochMilli();
+        feed = new Thread(() -> follow(from), "balance-feed");
+        feed.setDaemon(true);
+        feed.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (feed != null) {
+            feed.join(5000);
+        }
+    }
+
+    private void follow(long from) {
+        while (running) {
+            try (Consumer<String, TransferEvent> consumer = consumerFactory.createConsumer(null, "balance-feed", "")) {
+                follow(consumer, from);
+            } catch (RuntimeException e) {
+                // A new consumer continues every partition from its position
+                log.error("❌ [BALANCE] Feed failed, restarting: {}", e.getMessage(), e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void follow(Consumer<String, TransferEvent> consumer, long from) {
+        List<TopicPartition> assigned = List.of();
+        long refreshAt = System.nanoTime();
+        while (running) {
+            if (System.nanoTime() - refreshAt >= 0) {
+                assigned = assign(consumer, assigned, from);
+                refreshAt = System.nanoTime() + PARTITION_REFRESH.toNanos();
+            }
+
+            for (ConsumerRecord<String, TransferEvent> record : consumer.poll(Duration.ofMillis(200))) {
+                apply(record.value());
+                positions.put(record.partition(), record.offset() + 1);
+            }
+
+            if (catchUpTo != null && caughtUp(consumer)) {
+                catchUpTo = null;
+                projection.markReady();
+                log.info("💼 [BALANCE] Projection caught up with {}", TOPIC);
+            }
+        }
+    }
+
+    // A partition seen for the first time starts at `from` (a new one: at its start)
+    private List<TopicPartition> assign(Consumer<String, TransferEvent> consumer, List<TopicPartition> assigned, long from) {
+        List<TopicPartition> partitions = consumer.partitionsFor(TOPIC).stream()
+                .map(info -> new TopicPartition(TOPIC, info.partition()))
+                .sorted(Comparator.comparingInt(TopicPartition::partition))
+                .toList();
+        if (partitions.equals(assigned)) {
+            return assigned;
+        }
+
+        consumer.assign(partitions);
+        Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+        for (TopicPartition partition : partitions) {
+            Long position = positions.get(partition.partition());
+            if (position == null) {
+                OffsetAndTimestamp start = consumer.offsetsForTimes(Map.of(partition, from)).get(partition);
+                position = start != null ? start.offset() : ends.get(partition);
+                positions.put(partition.partition(), position);
+            }
+            consumer.seek(partition, position);
+        }
+        if (!projection.isReady() && catchUpTo == null) {
+            catchUpTo = ends;
+        }
+        return partitions;
+    }
+
+    private boolean caughtUp(Consumer<String, TransferEvent> consumer) {
+        for (Map.Entry<TopicPartition, Long> end : catchUpTo.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Transfers only complete between active accounts
+    private void apply(TransferEvent event) {
+        if (event == null || event.getFromAccountVersion() == null || event.getToAccountVersion() == null) {
+            return;
+        }
+        projection.apply(new AccountBalance(
+                event.getFromAccountNumber(), event.getFromBalance(), true, event.getFromAccountVersion()));
+        projection.apply(new AccountBalance(
+                event.getToAccountNumber(), event.getToBalance(), true, event.getToAccountVersion()));
+    }
+}
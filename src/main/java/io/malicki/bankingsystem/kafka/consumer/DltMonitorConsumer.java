@@ -1,70 +1,57 @@
 package io.malicki.bankingsystem.kafka.consumer;
 
-import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.domain.dlt.DltRecord;
+import io.malicki.bankingsystem.domain.dlt.DltStore;
 import io.malicki.bankingsystem.kafka.errorhandling.FailedMessage;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.List;
 
 @Component
 @Slf4j
 public class DltMonitorConsumer {
-    
-    // Statistics
-    private final Map<String, AtomicLong> dltCountByTopic = new ConcurrentHashMap<>();
-    private final Map<ErrorCategory, AtomicLong> dltCountByCategory = new ConcurrentHashMap<>();
+
+    private final DltStore dltStore;
+
+    public DltMonitorConsumer(DltStore dltStore) {
+        this.dltStore = dltStore;
+    }
     
     @KafkaListener(
         topics = {"transfer-validation-dlt", "transfer-execution-dlt", "transfer-completed-dlt"},
         groupId = "dlt-monitor",
         containerFactory = "dltKafkaListenerContainerFactory"
     )
-    public void consumeDlt(FailedMessage failedMessage, Acknowledgment ack) {
-        
-        log.warn("📮 [DLT MONITOR] Received failed message:");
-        log.warn("   Original Topic: {}", failedMessage.getOriginalTopic());
-        log.warn("   Original Offset: {}", failedMessage.getOriginalOffset());
-        log.warn("   Error Category: {}", failedMessage.getErrorCategory());
-        log.warn("   Exception: {}", failedMessage.getExceptionType());
-        log.warn("   Message: {}", failedMessage.getExceptionMessage());
-        log.warn("   Attempt Count: {}", failedMessage.getAttemptCount());
-        log.warn("   Failed At: {}", failedMessage.getFailedAt());
-        log.warn("   Retryable: {}", failedMessage.isRetryable());
-        log.warn("   Original Value: {}", failedMessage.getOriginalValue());
-        
-        // Update statistics
-        dltCountByTopic.computeIfAbsent(
-            failedMessage.getOriginalTopic(), 
-            k -> new AtomicLong(0)
-        ).incrementAndGet();
-        
-        dltCountByCategory.computeIfAbsent(
-            failedMessage.getErrorCategory(), 
-            k -> new AtomicLong(0)
-        ).incrementAndGet();
-        
-        // Log summary
-        log.info("📊 [DLT STATS] Total by topic: {}", dltCountByTopic);
-        log.info("📊 [DLT STATS] Total by category: {}", dltCountByCategory);
-        
+    public void consumeDlt(List<ConsumerRecord<String, FailedMessage>> records, Acknowledgment ack) {
+        // If the DB is down this throws, nothing is acked and the batch is redelivered
+        List<DltRecord> stored = dltStore.storeBatch(records);
+
+        for (DltRecord record : stored) {
+            log.warn("📮 [DLT MONITOR] #{} | {}-{}@{} | {} | {}: {} | Trace: {} | Attempts: {} | Retryable: {}",
+                    record.getId(),
+                    record.getOriginalTopic(),
+                    record.getOriginalPartition(),
+                    record.getOriginalOffset(),
+                    record.getErrorCategory(),
+                    record.getExceptionType(),
+                    record.getExceptionMessage(),
+                    record.getStackTraceFingerprint(),
+                    record.getAttemptCount(),
+                    record.isRetryable());
+        }
+
+        if (stored.size() < records.size()) {
+            log.debug("📮 [DLT MONITOR] Skipped {} already stored DLT records", records.size() - stored.size());
+        }
+
         // TODO: In production:
-        // - Save to database for analysis
         // - Send alert if threshold exceeded
         // - Auto-retry for technical errors (if system healthy)
         
         ack.acknowledge();
     }
-    
-    public Map<String, AtomicLong> getDltCountByTopic() {
-        return new ConcurrentHashMap<>(dltCountByTopic);
-    }
-    
-    public Map<ErrorCategory, AtomicLong> getDltCountByCategory() {
-        return new ConcurrentHashMap<>(dltCountByCategory);
-    }
-}
\ No newline at end of file
+}
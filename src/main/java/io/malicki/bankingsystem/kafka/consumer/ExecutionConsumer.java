@@ -1,24 +1,21 @@
 package io.malicki.bankingsystem.kafka.consumer;
 
-import io.malicki.bankingsystem.domain.account.Account;
-import io.malicki.bankingsystem.domain.account.AccountRepository;
-import io.malicki.bankingsystem.domain.transfer.Transfer;
 import io.malicki.bankingsystem.domain.transfer.TransferEvent;
-import io.malicki.bankingsystem.domain.transfer.TransferRepository;
+import io.malicki.bankingsystem.domain.transfer.TransferExecutor;
+import io.malicki.bankingsystem.domain.transfer.TransferStateMachine;
 import io.malicki.bankingsystem.domain.transfer.TransferStatus;
-import io.malicki.bankingsystem.exception.AccountNotFoundException;
+import io.malicki.bankingsystem.jfr.TransferExecutionEvent;
+import io.malicki.bankingsystem.kafka.circuit.DownstreamCircuitBreaker;
 import io.malicki.bankingsystem.kafka.errorhandling.ErrorHandler;
 import io.malicki.bankingsystem.kafka.outbox.OutboxService;
-import jakarta.persistence.LockModeType;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.data.jpa.repository.Lock;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
-import java.time.Instant;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -26,27 +23,31 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class ExecutionConsumer {
 
-    private final TransferRepository transferRepository;
-    private final AccountRepository accountRepository;
+    private final TransferStateMachine stateMachine;
+    private final TransferExecutor transferExecutor;
     private final OutboxService outboxService;
     private final ErrorHandler errorHandler;
+    private final DownstreamCircuitBreaker circuitBreaker;
 
     // Track retry attempts per offset
     private final Map<Long, Integer> retryAttempts = new ConcurrentHashMap<>();
 
     public ExecutionConsumer(
-            TransferRepository transferRepository,
-            AccountRepository accountRepository,
+            TransferStateMachine stateMachine,
+            TransferExecutor transferExecutor,
             OutboxService outboxService,
-            ErrorHandler errorHandler
+            ErrorHandler errorHandler,
+            DownstreamCircuitBreaker circuitBreaker
     ) {
-        this.transferRepository = transferRepository;
-        this.accountRepository = accountRepository;
+        this.stateMachine = stateMachine;
+        this.transferExecutor = transferExecutor;
         this.outboxService = outboxService;
         this.errorHandler = errorHandler;
+        this.circuitBreaker = circuitBreaker;
     }
 
     @KafkaListener(
+            id = "execution",
             topics = "transfer-execution",
             groupId = "banking-system",
             containerFactory = "kafkaListenerContainerFactory"
@@ -65,61 +66,53 @@ public class ExecutionConsumer {
                 record.offset(),
                 currentAttempt + 1);
 
-        try {
-            // Find transfer
-            Transfer transfer = transferRepository.findByTransferId(transferId)
-                    .orElseThrow(() -> new RuntimeException("Transfer not found: " + transferId));
+        // Downstream outage - leave the record for after recovery, without using up a retry
+        if (!circuitBreaker.tryAcquirePermission()) {
+            ack.nack(circuitBreaker.getRetryBackoff());
+            return;
+        }
 
-            // Idempotency check
-            if (transfer.getStatus() == TransferStatus.COMPLETED) {
+        TransferExecutionEvent stage = new TransferExecutionEvent();
+        stage.begin();
+        String outcome = "failed";
+        try {
+            // Idempotency check - claim the transfer before any money moves
+            if (!stateMachine.claimForExecution(transferId)) {
                 log.info("⚠️  Transfer {} already COMPLETED, re-sending to outbox", transferId);
 
-                TransferEvent completedEvent = TransferEvent.from(transfer);
-                outboxService.saveOutboxEvent(
-                        transfer.getTransferId(),
-                        "TransferCompleted",
-                        "transfer-completed",
-                        transfer.getFromAccountNumber(),
-                        completedEvent
-                );
+                saveCompletedToOutbox(event.withStatus(TransferStatus.COMPLETED));
 
                 ack.acknowledge();
                 retryAttempts.remove(record.offset());
+                circuitBreaker.onSuccess();
+                outcome = "already-completed";
                 return;
             }
 
-            // Update status
-            transfer.setStatus(TransferStatus.EXECUTING);
-            transferRepository.save(transfer);
-
             // Execute transfer with pessimistic locking
-            executeTransfer(transfer);
+            TransferEvent completed = transferExecutor.execute(event);
 
             // Mark as completed
-            transfer.setStatus(TransferStatus.COMPLETED);
-            transfer.setProcessedAt(Instant.now());
-            transferRepository.save(transfer);
+            stateMachine.markCompleted(transferId);
 
             // Save to outbox
-            TransferEvent completedEvent = TransferEvent.from(transfer);
-            outboxService.saveOutboxEvent(
-                    transfer.getTransferId(),
-                    "TransferCompleted",
-                    "transfer-completed",
-                    transfer.getFromAccountNumber(),
-                    completedEvent
-            );
+            saveCompletedToOutbox(completed);
 
             log.info("✅ [EXECUTION] Transfer completed + saved to outbox: {}", transferId);
 
             // Acknowledge and clean up
             ack.acknowledge();
             retryAttempts.remove(record.offset());
+            circuitBreaker.onSuccess();
+            outcome = "completed";
 
         } catch (Exception e) {
             log.error("❌ [EXECUTION] Error processing transfer {}: {}",
                     transferId, e.getMessage());
 
+            // Undo the claim and any balance changes so a retry starts clean
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+
             // Increment retry attempt
             retryAttempts.put(record.offset(), currentAttempt + 1);
 
@@ -131,32 +124,18 @@ public class ExecutionConsumer {
                     "banking-system",
                     currentAttempt
             );
+        } finally {
+            stage.complete(record, transferId, currentAttempt + 1, outcome);
         }
     }
 
-    private void executeTransfer(Transfer transfer) {
-        log.debug("Executing transfer: {}", transfer.getTransferId());
-
-        // Lock accounts (pessimistic locking to prevent concurrent modifications)
-        Account fromAccount = accountRepository.findByAccountNumberWithLock(transfer.getFromAccountNumber())
-                .orElseThrow(() -> new AccountNotFoundException(transfer.getFromAccountNumber()));
-
-        Account toAccount = accountRepository.findByAccountNumberWithLock(transfer.getToAccountNumber())
-                .orElseThrow(() -> new AccountNotFoundException(transfer.getToAccountNumber()));
-
-        // Perform transfer
-        fromAccount.withdraw(transfer.getAmount());
-        toAccount.deposit(transfer.getAmount());
-
-        // Save updated balances
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
-
-        log.debug("✅ Transfer executed: {} | From: {} ({}) → To: {} ({})",
-                transfer.getTransferId(),
-                fromAccount.getAccountNumber(),
-                fromAccount.getBalance(),
-                toAccount.getAccountNumber(),
-                toAccount.getBalance());
+    private void saveCompletedToOutbox(TransferEvent completed) {
+        outboxService.saveOutboxEvent(
+                completed.getTransferId(),
+                "TransferCompleted",
+                "transfer-completed",
+                completed.getFromAccountNumber(),
+                completed
+        );
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package io.malicki.bankingsystem.kafka.consumer;
 
 import io.malicki.bankingsystem.domain.transfer.TransferEvent;
 import io.malicki.bankingsystem.kafka.errorhandling.ErrorHandler;
+import io.malicki.bankingsystem.notification.NotificationDispatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -15,17 +16,22 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class NotificationConsumer {
 
+    private final NotificationDispatcher dispatcher;
     private final ErrorHandler errorHandler;
     private final Map<Long, Integer> retryAttempts = new ConcurrentHashMap<>();
 
-    public NotificationConsumer(ErrorHandler errorHandler) {
+    public NotificationConsumer(NotificationDispatcher dispatcher, ErrorHandler errorHandler) {
+        this.dispatcher = dispatcher;
         this.errorHandler = errorHandler;
     }
 
+    // Hands the record to the dispatcher and returns - the dispatcher acks it
+    // once delivered, so the listener thread never waits on the provider
     @KafkaListener(
+            id = "notification",
             topics = "transfer-completed",
             groupId = "banking-system",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "notificationKafkaListenerContainerFactory"
     )
     public void consume(ConsumerRecord<String, TransferEvent> record, Acknowledgment ack) {
         TransferEvent event = record.value();
@@ -36,19 +42,17 @@ public class NotificationConsumer {
                 currentAttempt + 1);
 
         try {
-            // Send notification (mock implementation)
-            sendSuccessNotification(event);
-
-            log.info("✅ [NOTIFICATION] Success notification sent for transfer: {}",
-                    event.getTransferId());
-
-            ack.acknowledge();
+            dispatcher.dispatch(record, ack);
             retryAttempts.remove(record.offset());
 
         } catch (Exception e) {
-            log.error("❌ [NOTIFICATION] Error sending notification for {}: {}",
+            log.error("❌ [NOTIFICATION] Error queueing notification for {}: {}",
                     event.getTransferId(), e.getMessage());
 
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+
             retryAttempts.put(record.offset(), currentAttempt + 1);
 
             errorHandler.handleError(
@@ -60,19 +64,4 @@ public class NotificationConsumer {
             );
         }
     }
-
-    private void sendSuccessNotification(TransferEvent event) {
-        // Mock notification - in production: send email, SMS, push notification, etc.
-        log.info("📨 Sending notification: Transfer {} completed | Amount: {} | From: {} → To: {}",
-                event.getTransferId(),
-                event.getAmount(),
-                event.getFromAccountNumber(),
-                event.getToAccountNumber());
-
-        // Simulate potential failure (for testing)
-        // Uncomment to test error handling:
-        // if (Math.random() < 0.3) {
-        //     throw new RuntimeException("Notification service unavailable");
-        // }
-    }
-}
\ No newline at end of file
+}
@@ -1,52 +1,67 @@
 package io.malicki.bankingsystem.kafka.consumer;
 
-import io.malicki.bankingsystem.domain.account.Account;
-import io.malicki.bankingsystem.domain.account.AccountRepository;
-import io.malicki.bankingsystem.domain.transfer.Transfer;
 import io.malicki.bankingsystem.domain.transfer.TransferEvent;
-import io.malicki.bankingsystem.domain.transfer.TransferRepository;
+import io.malicki.bankingsystem.domain.transfer.TransferExecutor;
+import io.malicki.bankingsystem.domain.transfer.TransferStateMachine;
 import io.malicki.bankingsystem.domain.transfer.TransferStatus;
-import io.malicki.bankingsystem.exception.AccountNotFoundException;
-import io.malicki.bankingsystem.exception.InsufficientFundsException;
-import io.malicki.bankingsystem.exception.InvalidAccountException;
+import io.malicki.bankingsystem.domain.transfer.TransferValidator;
+import io.malicki.bankingsystem.jfr.TransferValidationEvent;
+import io.malicki.bankingsystem.kafka.circuit.DownstreamCircuitBreaker;
 import io.malicki.bankingsystem.kafka.errorhandling.ErrorHandler;
 import io.malicki.bankingsystem.kafka.outbox.OutboxService;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
-import java.math.BigDecimal;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+// banking.transfer.pipeline=fast-path: the rules run against the locked rows
+// and the money moves in this same transaction, so a transfer goes straight to
+// transfer-completed without the transfer-execution hop. Duplicates of
+// transfers already past validation still take the staged route, which is why
+// ExecutionConsumer keeps listening in both modes.
 @Component
 @Slf4j
 public class ValidationConsumer {
 
-    private final TransferRepository transferRepository;
-    private final AccountRepository accountRepository;
+    private final TransferStateMachine stateMachine;
+    private final TransferValidator transferValidator;
+    private final TransferExecutor transferExecutor;
     private final OutboxService outboxService;
     private final ErrorHandler errorHandler;
+    private final DownstreamCircuitBreaker circuitBreaker;
+    private final boolean fastPath;
 
     // Track retry attempts per offset
     private final Map<Long, Integer> retryAttempts = new ConcurrentHashMap<>();
 
     public ValidationConsumer(
-            TransferRepository transferRepository,
-            AccountRepository accountRepository,
+            TransferStateMachine stateMachine,
+            TransferValidator transferValidator,
+            TransferExecutor transferExecutor,
             OutboxService outboxService,
-            ErrorHandler errorHandler
+            ErrorHandler errorHandler,
+            DownstreamCircuitBreaker circuitBreaker,
+            @Value("${banking.transfer.pipeline:staged}") String pipeline
     ) {
-        this.transferRepository = transferRepository;
-        this.accountRepository = accountRepository;
+        this.stateMachine = stateMachine;
+        this.transferValidator = transferValidator;
+        this.transferExecutor = transferExecutor;
         this.outboxService = outboxService;
         this.errorHandler = errorHandler;
+        this.circuitBreaker = circuitBreaker;
+        this.fastPath = "fast-path".equals(pipeline);
+        log.info("🔀 Transfer pipeline: {}", fastPath ? "fast-path (validate + execute in one transaction)" : "staged");
     }
 
     @KafkaListener(
+            id = "validation",
             topics = "transfer-validation",
             groupId = "banking-system",
             containerFactory = "kafkaListenerContainerFactory"
@@ -65,65 +80,72 @@ public class ValidationConsumer {
                 record.offset(),
                 currentAttempt + 1);
 
+        // Downstream outage - leave the record for after recovery, without using up a retry
+        if (!circuitBreaker.tryAcquirePermission()) {
+            ack.nack(circuitBreaker.getRetryBackoff());
+            return;
+        }
+
+        TransferValidationEvent stage = new TransferValidationEvent();
+        stage.begin();
+        String outcome = "failed";
         try {
-            // Find transfer
-            Transfer transfer = transferRepository.findByTransferId(transferId)
-                    .orElseThrow(() -> new RuntimeException("Transfer not found: " + transferId));
-
-            // Idempotency check
-            if (transfer.getStatus() == TransferStatus.VALIDATED ||
-                    transfer.getStatus() == TransferStatus.EXECUTING ||
-                    transfer.getStatus() == TransferStatus.COMPLETED) {
-
-                log.info("⚠️  Transfer {} already {}, re-sending to outbox",
-                        transferId, transfer.getStatus());
-
-                TransferEvent validatedEvent = TransferEvent.from(transfer);
-                outboxService.saveOutboxEvent(
-                        transfer.getTransferId(),
-                        "TransferValidated",
-                        "transfer-execution",
-                        transfer.getFromAccountNumber(),
-                        validatedEvent
-                );
+            // Idempotency check - the guarded claim fails if already past validation
+            boolean claimed = fastPath
+                    ? stateMachine.claimForFastPath(transferId)
+                    : stateMachine.claimForValidation(transferId);
+            if (!claimed) {
+                log.info("⚠️  Transfer {} already validated, re-sending to outbox", transferId);
+
+                saveValidatedToOutbox(event);
 
                 ack.acknowledge();
                 retryAttempts.remove(record.offset()); // Clean up
+                circuitBreaker.onSuccess();
+                outcome = "already-validated";
                 return;
             }
 
-            // Update status
-            transfer.setStatus(TransferStatus.VALIDATING);
-            transferRepository.save(transfer);
+            if (fastPath) {
+                // Rules against the locked rows, then move the money - one transaction
+                TransferExecutor.LockedAccounts accounts = transferExecutor.lock(event);
+                transferValidator.validate(event, accounts.getFrom(), accounts.getTo());
+                saveCompletedToOutbox(transferExecutor.apply(event, accounts));
+
+                log.info("✅ [VALIDATION] Transfer validated + executed + saved to outbox: {}", transferId);
+
+                ack.acknowledge();
+                retryAttempts.remove(record.offset());
+                circuitBreaker.onSuccess();
+                outcome = "completed";
+                return;
+            }
 
             // Validate business rules
             log.debug("Validating business rules for transfer: {}", transferId);
-            validateBusinessRules(transfer);
+            transferValidator.validate(event);
 
             // Mark as validated
-            transfer.setStatus(TransferStatus.VALIDATED);
-            transferRepository.save(transfer);
+            stateMachine.markValidated(transferId);
 
             // Save to outbox
-            TransferEvent validatedEvent = TransferEvent.from(transfer);
-            outboxService.saveOutboxEvent(
-                    transfer.getTransferId(),
-                    "TransferValidated",
-                    "transfer-execution",
-                    transfer.getFromAccountNumber(),
-                    validatedEvent
-            );
+            saveValidatedToOutbox(event);
 
             log.info("✅ [VALIDATION] Transfer validated + saved to outbox: {}", transferId);
 
             // Acknowledge and clean up retry tracking
             ack.acknowledge();
             retryAttempts.remove(record.offset());
+            circuitBreaker.onSuccess();
+            outcome = "validated";
 
         } catch (Exception e) {
             log.error("❌ [VALIDATION] Error processing transfer {}: {}",
                     transferId, e.getMessage());
 
+            // Undo the status claim - a retry (or replay) must be able to claim again
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+
             // Increment retry attempt
             retryAttempts.put(record.offset(), currentAttempt + 1);
 
@@ -135,56 +157,28 @@ public class ValidationConsumer {
                     "banking-system",
                     currentAttempt
             );
+        } finally {
+            stage.complete(record, transferId, currentAttempt + 1, outcome);
         }
     }
 
-    private void validateBusinessRules(Transfer transfer) {
-        // 1. Check if accounts exist
-        Account fromAccount = accountRepository.findByAccountNumber(transfer.getFromAccountNumber())
-                .orElseThrow(() -> new AccountNotFoundException(transfer.getFromAccountNumber()));
-
-        Account toAccount = accountRepository.findByAccountNumber(transfer.getToAccountNumber())
-                .orElseThrow(() -> new AccountNotFoundException(transfer.getToAccountNumber()));
-
-        // 2. Check if accounts are active
-        if (!fromAccount.isActive()) {
-            throw new InvalidAccountException(
-                    fromAccount.getAccountNumber(),
-                    "Account is not active"
-            );
-        }
-
-        if (!toAccount.isActive()) {
-            throw new InvalidAccountException(
-                    toAccount.getAccountNumber(),
-                    "Account is not active"
-            );
-        }
-
-        // 3. Check if sufficient funds
-        if (fromAccount.getBalance().compareTo(transfer.getAmount()) < 0) {
-            throw new InsufficientFundsException(
-                    fromAccount.getAccountNumber(),
-                    fromAccount.getBalance(),
-                    transfer.getAmount()
-            );
-        }
-
-        // 4. Check if not same account
-        if (fromAccount.getAccountNumber().equals(toAccount.getAccountNumber())) {
-            throw new InvalidAccountException(
-                    fromAccount.getAccountNumber(),
-                    "Cannot transfer to the same account"
-            );
-        }
-
-        // 5. Check if amount is positive
-        if (transfer.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException(
-                    "Transfer amount must be positive: " + transfer.getAmount()
-            );
-        }
+    private void saveValidatedToOutbox(TransferEvent event) {
+        outboxService.saveOutboxEvent(
+                event.getTransferId(),
+                "TransferValidated",
+                "transfer-execution",
+                event.getFromAccountNumber(),
+                event.withStatus(TransferStatus.VALIDATED)
+        );
+    }
 
-        log.debug("✅ Business rules validated for transfer: {}", transfer.getTransferId());
+    private void saveCompletedToOutbox(TransferEvent completed) {
+        outboxService.saveOutboxEvent(
+                completed.getTransferId(),
+                "TransferCompleted",
+                "transfer-completed",
+                completed.getFromAccountNumber(),
+                completed
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,299 @@
+package io.malicki.bankingsystem.kafka.consumer;
+
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig;
+import io.malicki.bankingsystem.kafka.rebalance.PartitionScopedState;
+import io.malicki.bankingsystem.velocity.VelocityTracker;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Feeds completed transfers into the velocity windows of the senders this
+// node validates. The limit is checked by ValidationConsumer (and by sync
+// transfers), so the windows follow banking-system's transfer-validation
+// assignment: both topics are keyed by sender and have the same partition
+// count, so the senders of transfer-validation N are counted from
+// transfer-completed N.
+//
+// An assigned partition is warmed before its first transfer is validated, by
+// replaying one horizon (the longest window) of transfer-completed N with a
+// separate consumer; after that the feed thread - a group-less consumer
+// assigned exactly the held partitions - keeps it current. A revoked one is
+// dropped. Offsets already applied are skipped, so a transfer is never
+// counted twice.
+//
+// After PartitionExpansion most senders hash to another partition, and their
+// transfers of the last horizon sit in the partition they used to hash to. So
+// when the partition layout may have changed within the horizon, the warm-up
+// scans every partition and keeps the senders validated on N under the
+// current count.
+@Component
+@Slf4j
+public class VelocityConsumer implements PartitionScopedState {
+
+    private static final String GROUP_ID = "banking-system";
+    private static final String TOPIC = KafkaTopicsConfig.TRANSFER_VALIDATION_TOPIC;
+    private static final String COMPLETED_TOPIC = KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC;
+
+    private final VelocityTracker velocityTracker;
+    private final ConsumerFactory<String, TransferEvent> consumerFactory;
+    private final Duration warmupTimeout;
+    // Held partitions -> last applied transfer-completed offset
+    private final Map<Integer, Long> appliedOffsets = new ConcurrentHashMap<>();
+    // Warmed since the feed last looked - it continues them from the applied offset
+    private final Queue<Integer> warmed = new ConcurrentLinkedQueue<>();
+
+    private Thread feed;
+    private volatile boolean running = true;
+
+    public VelocityConsumer(
+            VelocityTracker velocityTracker,
+            ConsumerFactory<String, TransferEvent> consumerFactory,
+            @Value("${banking.velocity.warmup-timeout-ms:60000}") long warmupTimeoutMs
+    ) {
+        this.velocityTracker = velocityTracker;
+        this.consumerFactory = consumerFactory;
+        this.warmupTimeout = Duration.ofMillis(warmupTimeoutMs);
+    }
+
+    @PostConstruct
+    public void start() {
+        feed = new Thread(this::follow, "velocity-feed");
+        feed.setDaemon(true);
+        feed.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        feed.join(5000);
+    }
+
+    @Override
+    public String getName() {
+        return "velocity";
+    }
+
+    @Override
+    public String getGroupId() {
+        return GROUP_ID;
+    }
+
+    @Override
+    public String getTopic() {
+        return TOPIC;
+    }
+
+    // Runs on the validation consumer's thread, so its first transfer waits for this
+    @Override
+    public void warm(TopicPartition validationPartition) {
+        int validated = validationPartition.partition();
+        TopicPartition partition = new TopicPartition(COMPLETED_TOPIC, validated);
+        long horizonStart = Instant.now().minus(velocityTracker.getHorizon()).toEpochMilli();
+        long deadline = System.nanoTime() + warmupTimeout.toNanos();
+        int replayed = 0;
+
+        // Left over from an earlier ownership - not followed since
+        velocityTracker.evictPartition(validated);
+
+        try (Consumer<String, TransferEvent> consumer =
+                     consumerFactory.createConsumer(null, "velocity-warmup", "-" + validated)) {
+            List<TopicPartition> partitions = consumer.partitionsFor(COMPLETED_TOPIC).stream()
+                    .map(info -> new TopicPartition(COMPLETED_TOPIC, info.partition()))
+                    .toList();
+            int partitionCount = partitions.size();
+            Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+            Map<TopicPartition, OffsetAndTimestamp> starts = consumer.offsetsForTimes(
+                    partitions.stream().collect(Collectors.toMap(Function.identity(), key -> horizonStart)));
+
+            // Nothing within the horizon: everything before `end` is too old to count
+            long end = ends.get(partition);
+            long applied = end - 1;
+            OffsetAndTimestamp start = starts.get(partition);
+            if (start != null) {
+                replayed += replay(consumer, partition, start.offset(), end, deadline, validated, partitionCount);
+                applied = Math.min(consumer.position(partition), end) - 1;
+            }
+
+            // Senders that moved here sent their older transfers to another partition
+            if (relaidWithinHorizon(consumer, partitions, ends, starts)) {
+                log.info("📈 [VELOCITY] Partition count may have changed within the horizon, scanning all {} partitions for {}",
+                        partitionCount, partition);
+                for (TopicPartition other : partitions) {
+                    OffsetAndTimestamp otherStart = starts.get(other);
+                    if (!other.equals(partition) && otherStart != null) {
+                        replayed += replay(consumer, other, otherStart.offset(), ends.get(other), deadline,
+                                validated, partitionCount);
+                    }
+                }
+            }
+
+            appliedOffsets.put(validated, applied);
+            warmed.add(validated);
+            velocityTracker.hold(validated, partitionCount);
+        }
+
+        log.info("📈 [VELOCITY] Replayed {} transfers for {} from {}", replayed, partition, Instant.ofEpochMilli(horizonStart));
+    }
+
+    // Applies [from, end) of one partition to the windows of `validated`
+    private int replay(Consumer<String, TransferEvent> consumer, TopicPartition partition, long from, long end,
+                       long deadline, int validated, int partitionCount) {
+        consumer.assign(List.of(partition));
+        consumer.seek(partition, from);
+        int replayed = 0;
+        while (consumer.position(partition) < end && System.nanoTime() < deadline) {
+            for (ConsumerRecord<String, TransferEvent> record : consumer.poll(Duration.ofMillis(200))) {
+                if (record.offset() < end) {
+                    replay(record, validated, partitionCount);
+                    replayed++;
+                }
+            }
+        }
+        if (consumer.position(partition) < end) {
+            // The feed continues from here; the senders' totals are low until it catches up
+            log.warn("⚠️ [VELOCITY] Warm-up of {} timed out at offset {} of {}", partition, consumer.position(partition), end);
+        }
+        return replayed;
+    }
+
+    // A sender is counted by the partition it is validated on now, a receiver by
+    // the one the transfer was published to - each side lands in exactly one place
+    private void replay(ConsumerRecord<String, TransferEvent> record, int validated, int partitionCount) {
+        TransferEvent event = record.value();
+        if (event == null) {
+            return;
+        }
+
+        Instant at = Instant.ofEpochMilli(record.timestamp());
+        if (VelocityTracker.partitionOf(event.getFromAccountNumber(), partitionCount) == validated) {
+            velocityTracker.recordSent(validated, event.getFromAccountNumber(), event.getAmount(), at);
+        }
+        if (record.partition() == validated) {
+            velocityTracker.recordReceived(validated, event.getToAccountNumber(), event.getAmount(), at);
+        }
+    }
+
+    // A partition whose whole history lies within the horizon may have been added
+    // by PartitionExpansion within it. Also true of a young or idle topic - that
+    // only costs a longer warm-up.
+    private boolean relaidWithinHorizon(Consumer<String, TransferEvent> consumer, List<TopicPartition> partitions,
+                                        Map<TopicPartition, Long> ends, Map<TopicPartition, OffsetAndTimestamp> starts) {
+        Map<TopicPartition, Long> beginnings = consumer.beginningOffsets(partitions);
+        for (TopicPartition partition : partitions) {
+            OffsetAndTimestamp start = starts.get(partition);
+            if (beginnings.get(partition) == 0 && (ends.get(partition) == 0 || start != null && start.offset() == 0)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void evict(TopicPartition validationPartition) {
+        int partition = validationPartition.partition();
+        // Waits for a record the feed is applying to it; none lands after this
+        appliedOffsets.remove(partition);
+        int evicted = velocityTracker.evictPartition(partition);
+        log.info("📈 [VELOCITY] Dropped {} accounts of {}-{}", evicted, COMPLETED_TOPIC, partition);
+    }
+
+    private void follow() {
+        while (running) {
+            try (Consumer<String, TransferEvent> consumer = consumerFactory.createConsumer(null, "velocity-feed", "")) {
+                follow(consumer);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("❌ [VELOCITY] Feed failed, restarting: {}", e.getMessage(), e);
+                // A new consumer continues every held partition from its applied offset
+                warmed.addAll(appliedOffsets.keySet());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void follow(Consumer<String, TransferEvent> consumer) throws InterruptedException {
+        Set<Integer> assigned = Set.of();
+        while (running) {
+            // Drained before reading the held set: a warmed partition is already in it
+            Set<Integer> continued = new HashSet<>();
+            for (Integer partition = warmed.poll(); partition != null; partition = warmed.poll()) {
+                continued.add(partition);
+            }
+
+            Set<Integer> held = Set.copyOf(appliedOffsets.keySet());
+            if (!held.equals(assigned)) {
+                consumer.assign(held.stream().map(partition -> new TopicPartition(COMPLETED_TOPIC, partition)).toList());
+                assigned = held;
+            }
+            for (Integer partition : continued) {
+                Long applied = appliedOffsets.get(partition);
+                if (applied != null && assigned.contains(partition)) {
+                    consumer.seek(new TopicPartition(COMPLETED_TOPIC, partition), applied + 1);
+                }
+            }
+
+            if (assigned.isEmpty()) {
+                Thread.sleep(100);
+                continue;
+            }
+            for (ConsumerRecord<String, TransferEvent> record : consumer.poll(Duration.ofMillis(200))) {
+                // Atomic with evict(); a partition no longer held is skipped
+                appliedOffsets.computeIfPresent(record.partition(), (partition, applied) -> {
+                    if (record.offset() <= applied) {
+                        return applied;
+                    }
+                    apply(record);
+                    return record.offset();
+                });
+            }
+        }
+    }
+
+    private void apply(ConsumerRecord<String, TransferEvent> record) {
+        TransferEvent event = record.value();
+        if (event == null) {
+            return;
+        }
+
+        // Kafka record time = when the completion was published
+        velocityTracker.record(
+                record.partition(),
+                event.getFromAccountNumber(),
+                event.getToAccountNumber(),
+                event.getAmount(),
+                Instant.ofEpochMilli(record.timestamp()));
+
+        log.debug("📈 [VELOCITY] Recorded transfer: {} | {} → {} | Amount: {}",
+                event.getTransferId(),
+                event.getFromAccountNumber(),
+                event.getToAccountNumber(),
+                event.getAmount());
+    }
+}
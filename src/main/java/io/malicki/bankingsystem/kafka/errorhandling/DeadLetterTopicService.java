@@ -1,13 +1,16 @@
 package io.malicki.bankingsystem.kafka.errorhandling;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.jfr.DltSendEvent;
+import io.malicki.bankingsystem.kafka.replay.DltReplayEngine;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
 import org.springframework.stereotype.Service;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
@@ -19,14 +22,20 @@ public class DeadLetterTopicService {
     
     private final KafkaTemplate<String, FailedMessage> dltKafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final DltReplayEngine replayEngine;
+    private final StackTraceFingerprinter fingerprinter;
     private final AtomicLong dltMessageCount = new AtomicLong(0);
     
     public DeadLetterTopicService(
         KafkaTemplate<String, FailedMessage> dltKafkaTemplate,
-        ObjectMapper objectMapper
+        ObjectMapper objectMapper,
+        DltReplayEngine replayEngine,
+        StackTraceFingerprinter fingerprinter
     ) {
         this.dltKafkaTemplate = dltKafkaTemplate;
         this.objectMapper = objectMapper;
+        this.replayEngine = replayEngine;
+        this.fingerprinter = fingerprinter;
     }
     
     public void sendToDeadLetterTopic(
@@ -37,7 +46,14 @@ public class DeadLetterTopicService {
         ErrorCategory category
     ) {
         String dltTopicName = record.topic() + "-dlt";
+
+        // A replayed message failing again - feeds the replay engine's error rate
+        if (record.headers().lastHeader(DltReplayEngine.REPLAY_COUNT_HEADER) != null) {
+            replayEngine.onReplayedMessageFailed();
+        }
         
+        DltSendEvent send = new DltSendEvent();
+        send.begin();
         try {
             FailedMessage failedMessage = buildFailedMessage(
                 record, 
@@ -66,10 +82,22 @@ public class DeadLetterTopicService {
         } catch (Exception e) {
             log.error("💥 CRITICAL: Failed to send to DLT! Message lost: {}", 
                     record, e);
+        } finally {
+            send.end();
+            if (send.shouldCommit()) {
+                send.transferId = record.value() instanceof TransferEvent event ? event.getTransferId() : null;
+                send.originalTopic = record.topic();
+                send.partition = record.partition();
+                send.offset = record.offset();
+                send.category = category.name();
+                send.exceptionType = exception.getClass().getName();
+                send.commit();
+            }
         }
     }
     
-    private FailedMessage buildFailedMessage(
+    // Package-private for the benchmarks module
+    FailedMessage buildFailedMessage(
         ConsumerRecord<?, ?> record,
         Exception exception,
         String consumerGroupId,
@@ -84,17 +112,12 @@ public class DeadLetterTopicService {
         failedMessage.setOriginalOffset(record.offset());
         failedMessage.setOriginalKey(record.key() != null ? record.key().toString() : null);
         
-        // Serialize value to JSON string
-        try {
-            failedMessage.setOriginalValue(objectMapper.writeValueAsString(record.value()));
-        } catch (Exception e) {
-            failedMessage.setOriginalValue(record.value() != null ? record.value().toString() : null);
-        }
+        failedMessage.setOriginalValue(originalValue(record, exception));
         
-        // Error details
+        // Error details - the trace itself is stored once per fingerprint
         failedMessage.setExceptionType(exception.getClass().getName());
         failedMessage.setExceptionMessage(exception.getMessage());
-        failedMessage.setStackTrace(getStackTraceAsString(exception));
+        failedMessage.setStackTraceFingerprint(fingerprinter.fingerprint(exception));
         failedMessage.setAttemptCount(attemptCount);
         
         // Metadata
@@ -115,11 +138,23 @@ public class DeadLetterTopicService {
         return failedMessage;
     }
     
-    private String getStackTraceAsString(Exception e) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        e.printStackTrace(pw);
-        return sw.toString();
+    // Raw bytes where we still have them; only deserialized objects are re-serialized to JSON
+    private String originalValue(ConsumerRecord<?, ?> record, Exception exception) {
+        if (exception instanceof DeserializationException deserialization && deserialization.getData() != null) {
+            return new String(deserialization.getData(), StandardCharsets.UTF_8);
+        }
+        Object value = record.value();
+        if (value == null || value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            return value.toString();
+        }
     }
     
     public long getDltMessageCount() {
@@ -3,9 +3,13 @@ package io.malicki.bankingsystem.kafka.errorhandling;
 import io.malicki.bankingsystem.exception.AccountNotFoundException;
 import io.malicki.bankingsystem.exception.InsufficientFundsException;
 import io.malicki.bankingsystem.exception.InvalidAccountException;
+import io.malicki.bankingsystem.exception.VelocityLimitExceededException;
+import io.malicki.bankingsystem.exception.VelocityStateUnavailableException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Locale;
+
 @Component
 @Slf4j
 public class ErrorClassifier {
@@ -16,6 +20,7 @@ public class ErrorClassifier {
         if (exception instanceof AccountNotFoundException ||
             exception instanceof InsufficientFundsException ||
             exception instanceof InvalidAccountException ||
+            exception instanceof VelocityLimitExceededException ||
             exception instanceof IllegalArgumentException ||
             exception instanceof IllegalStateException) {
             
@@ -35,16 +40,20 @@ public class ErrorClassifier {
         }
         
         // Technical transient errors (3-5 retry with backoff)
+        String message = exception.getMessage() != null
+            ? exception.getMessage().toLowerCase(Locale.ROOT)
+            : null;
         if (exception instanceof java.sql.SQLException ||
             exception instanceof java.sql.SQLTransientException ||
             exception instanceof java.net.SocketTimeoutException ||
             exception instanceof java.net.ConnectException ||
             exception instanceof org.springframework.dao.TransientDataAccessException ||
             exception instanceof org.springframework.dao.QueryTimeoutException ||
-            (exception.getMessage() != null && 
-                (exception.getMessage().toLowerCase().contains("timeout") ||
-                 exception.getMessage().toLowerCase().contains("connection") ||
-                 exception.getMessage().toLowerCase().contains("lock")))) {
+            exception instanceof VelocityStateUnavailableException ||
+            (message != null &&
+                (message.contains("timeout") ||
+                 message.contains("connection") ||
+                 message.contains("lock")))) {
             
             log.debug("Classified as TECHNICAL_TRANSIENT: {}", 
                     exception.getClass().getSimpleName());
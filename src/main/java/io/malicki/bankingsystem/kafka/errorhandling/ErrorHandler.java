@@ -1,5 +1,6 @@
 package io.malicki.bankingsystem.kafka.errorhandling;
 
+import io.malicki.bankingsystem.kafka.circuit.DownstreamCircuitBreaker;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.support.Acknowledgment;
@@ -11,13 +12,16 @@ public class ErrorHandler {
     
     private final DeadLetterTopicService dltService;
     private final ErrorClassifier errorClassifier;
+    private final DownstreamCircuitBreaker circuitBreaker;
     
     public ErrorHandler(
         DeadLetterTopicService dltService,
-        ErrorClassifier errorClassifier
+        ErrorClassifier errorClassifier,
+        DownstreamCircuitBreaker circuitBreaker
     ) {
         this.dltService = dltService;
         this.errorClassifier = errorClassifier;
+        this.circuitBreaker = circuitBreaker;
     }
     
     public void handleError(
@@ -37,6 +41,21 @@ public class ErrorHandler {
                 category.name(),
                 exception.getMessage());
         
+        if (circuitBreaker.guards(record.topic())) {
+            circuitBreaker.onFailure(category);
+            
+            // Downstream outage - don't burn retries or flood the DLT,
+            // the record is redelivered once the breaker lets it through
+            if (category == ErrorCategory.TECHNICAL_TRANSIENT && !circuitBreaker.isClosed()) {
+                log.warn("🔌 Circuit {} - record will be redelivered | Topic: {} | Offset: {}",
+                       circuitBreaker.getState(),
+                       record.topic(),
+                       record.offset());
+                ack.nack(circuitBreaker.getRetryBackoff());
+                return;
+            }
+        }
+        
         // Check if we should retry
         if (errorClassifier.shouldRetry(exception, currentAttempt)) {
             long retryDelay = errorClassifier.getRetryDelay(exception, currentAttempt);
@@ -24,7 +24,7 @@ public class FailedMessage implements Serializable {
     // Error details
     private String exceptionType;
     private String exceptionMessage;
-    private String stackTrace;
+    private String stackTraceFingerprint;  // trace text via GET /api/dlt/fingerprints/{id}
     private Integer attemptCount;
     
     // Metadata
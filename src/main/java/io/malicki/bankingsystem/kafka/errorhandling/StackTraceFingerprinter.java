@@ -0,0 +1,152 @@
+package io.malicki.bankingsystem.kafka.errorhandling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Reduces an exception to a stable id: a hash of the exception types and
+// frames of the whole cause chain, without messages, line numbers or
+// generated class/method suffixes. The printed trace is kept once per id
+// in a local dictionary directory; DLT messages only carry the id.
+@Component
+@Slf4j
+public class StackTraceFingerprinter {
+
+    private static final String EXTENSION = ".trace";
+    private static final Pattern FINGERPRINT = Pattern.compile("[0-9a-f]{16}");
+
+    // Generated names that change between runs/JVMs for the same code
+    private static final Pattern CGLIB = Pattern.compile("\\$\\$SpringCGLIB\\$\\$\\d+");
+    private static final Pattern LAMBDA_CLASS = Pattern.compile("\\$\\$Lambda[$/].*");
+    private static final Pattern PROXY = Pattern.compile("\\$Proxy\\d+");
+    private static final Pattern ACCESSOR = Pattern.compile("(Generated\\w*Accessor)\\d+");
+    private static final Pattern LAMBDA_METHOD = Pattern.compile("(lambda\\$.+)\\$\\d+");
+
+    private final Path directory;
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+    private final Counter newFingerprints;
+
+    public StackTraceFingerprinter(
+            @Value("${banking.dlt.fingerprint-directory:./data/fingerprints}") String directory,
+            MeterRegistry meterRegistry
+    ) {
+        this.directory = Path.of(directory);
+        this.newFingerprints = meterRegistry.counter("banking.dlt.fingerprints.new");
+        meterRegistry.gauge("banking.dlt.fingerprints", known, Set::size);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.map(f -> f.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .map(name -> name.substring(0, name.length() - EXTENSION.length()))
+                    .forEach(known::add);
+        }
+        log.info("🔖 Stack trace dictionary opened: {} fingerprints in {}", known.size(), directory);
+    }
+
+    // Fingerprints the exception and stores its trace if this is the first occurrence
+    public String fingerprint(Throwable exception) {
+        String fingerprint = compute(exception);
+        if (known.add(fingerprint)) {
+            try {
+                store(fingerprint, exception);
+                newFingerprints.increment();
+                log.info("🔖 New stack trace fingerprint {} ({})", fingerprint, exception.getClass().getName());
+            } catch (IOException e) {
+                known.remove(fingerprint);
+                log.error("❌ Failed to store stack trace {}: {}", fingerprint, e.getMessage());
+            }
+        }
+        return fingerprint;
+    }
+
+    public Optional<String> findTrace(String fingerprint) {
+        if (fingerprint == null || !FINGERPRINT.matcher(fingerprint).matches() || !known.contains(fingerprint)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readString(directory.resolve(fingerprint + EXTENSION)));
+        } catch (IOException e) {
+            log.error("❌ Failed to read stack trace {}: {}", fingerprint, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    static String compute(Throwable exception) {
+        MessageDigest digest = sha256();
+        Set<Throwable> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (Throwable current = exception; current != null && seen.add(current); current = current.getCause()) {
+            update(digest, normalizeClass(current.getClass().getName()));
+            for (StackTraceElement frame : current.getStackTrace()) {
+                update(digest, normalizeClass(frame.getClassName()));
+                update(digest, normalizeMethod(frame.getMethodName()));
+            }
+        }
+
+        byte[] hash = digest.digest();
+        StringBuilder hex = new StringBuilder(16);
+        for (int i = 0; i < 8; i++) {
+            hex.append(Character.forDigit((hash[i] >> 4) & 0xF, 16)).append(Character.forDigit(hash[i] & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    static String normalizeClass(String className) {
+        String normalized = CGLIB.matcher(className).replaceAll("");
+        normalized = LAMBDA_CLASS.matcher(normalized).replaceAll("\\$\\$Lambda");
+        normalized = PROXY.matcher(normalized).replaceAll("\\$Proxy");
+        return ACCESSOR.matcher(normalized).replaceAll("$1");
+    }
+
+    static String normalizeMethod(String methodName) {
+        return LAMBDA_METHOD.matcher(methodName).replaceAll("$1");
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Written to a temp file and moved, so readers never see a partial trace
+    private void store(String fingerprint, Throwable exception) throws IOException {
+        StringWriter trace = new StringWriter();
+        exception.printStackTrace(new PrintWriter(trace));
+
+        Path target = directory.resolve(fingerprint + EXTENSION);
+        Path temp = Files.createTempFile(directory, fingerprint, ".tmp");
+        Files.writeString(temp, trace.toString());
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -4,8 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.malicki.bankingsystem.domain.outbox.OutboxEvent;
 import io.malicki.bankingsystem.domain.outbox.OutboxRepository;
 import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.jfr.OutboxPollEvent;
+import io.malicki.bankingsystem.jfr.OutboxRelayEvent;
+import io.malicki.bankingsystem.kafka.partitioning.ProducerFence;
+import io.malicki.bankingsystem.logging.TransferLogSampler;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,22 +26,44 @@ public class OutboxProcessor {
     private final OutboxRepository outboxRepository;
     private final KafkaTemplate<String, TransferEvent> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final ProducerFence producerFence;
     
     public OutboxProcessor(
         OutboxRepository outboxRepository,
         KafkaTemplate<String, TransferEvent> kafkaTemplate,
-        ObjectMapper objectMapper
+        ObjectMapper objectMapper,
+        ProducerFence producerFence
     ) {
         this.outboxRepository = outboxRepository;
         this.kafkaTemplate = kafkaTemplate;
         this.objectMapper = objectMapper;
+        this.producerFence = producerFence;
     }
     
-    @Scheduled(fixedDelay = 3000)  // every 3 sec
+    @Scheduled(fixedDelayString = "${banking.outbox.poll-interval-ms:3000}")
     @Transactional
     public void processOutbox() {
+        // Partition expansion in progress - events wait here, in order
+        if (!producerFence.tryEnter()) {
+            return;
+        }
+        try {
+            relayPending();
+        } finally {
+            producerFence.exit();
+        }
+    }
+    
+    private void relayPending() {
+        OutboxPollEvent poll = new OutboxPollEvent();
+        poll.begin();
         List<OutboxEvent> pendingEvents = outboxRepository
             .findTop100ByProcessedFalseOrderByCreatedAtAsc();
+        poll.end();
+        if (poll.shouldCommit()) {
+            poll.batchSize = pendingEvents.size();
+            poll.commit();
+        }
         
         if (pendingEvents.isEmpty()) {
             return;
@@ -44,6 +72,12 @@ public class OutboxProcessor {
         log.debug("📤 Processing {} outbox events", pendingEvents.size());
         
         for (OutboxEvent event : pendingEvents) {
+            MDC.put(TransferLogSampler.MDC_KEY, event.getAggregateId());
+            OutboxRelayEvent relay = new OutboxRelayEvent();
+            relay.begin();
+            long sendStarted = 0;
+            long sendEnded = 0;
+            SendResult<String, TransferEvent> result = null;
             try {
                 // Deserialize payload
                 TransferEvent transferEvent = objectMapper.readValue(
@@ -52,11 +86,13 @@ public class OutboxProcessor {
                 );
                 
                 // Send to Kafka (synchronous - wait for confirmation)
-                kafkaTemplate.send(
+                sendStarted = System.nanoTime();
+                result = kafkaTemplate.send(
                     event.getDestinationTopic(),
                     event.getRoutingKey(),
                     transferEvent
                 ).get();  // Blocks until Kafka confirms
+                sendEnded = System.nanoTime();
                 
                 // Mark as processed
                 event.setProcessed(true);
@@ -76,10 +112,34 @@ public class OutboxProcessor {
                 event.setRetryCount(event.getRetryCount() + 1);
                 outboxRepository.save(event);
                 
+            } finally {
+                recordRelay(relay, event, result, sendStarted, sendEnded);
+                MDC.remove(TransferLogSampler.MDC_KEY);
             }
         }
     }
     
+    private void recordRelay(OutboxRelayEvent relay, OutboxEvent event, SendResult<String, TransferEvent> result,
+                             long sendStarted, long sendEnded) {
+        relay.end();
+        if (!relay.shouldCommit()) {
+            return;
+        }
+        relay.transferId = event.getAggregateId();
+        relay.eventType = event.getEventType();
+        relay.topic = event.getDestinationTopic();
+        relay.retryCount = event.getRetryCount();
+        relay.succeeded = event.isProcessed();
+        if (result != null) {
+            relay.partition = result.getRecordMetadata().partition();
+        }
+        // A failed send counts until now (timeout, broker error)
+        if (sendStarted != 0) {
+            relay.sendDuration = (sendEnded != 0 ? sendEnded : System.nanoTime()) - sendStarted;
+        }
+        relay.commit();
+    }
+    
     // Monitor pending events
     @Scheduled(fixedDelay = 60000)  // every minute
     public void monitorOutbox() {
@@ -0,0 +1,12 @@
+package io.malicki.bankingsystem.kafka.partitioning;
+
+public enum ExpansionPhase {
+    IDLE,
+    FENCING,              // waiting for sends in progress, then flushing the producer
+    DRAINING,             // every active group catching up on the old partitions
+    EXPANDING,            // createPartitions, waiting for the new count to show up
+    SWITCHING_PRODUCERS,  // producer factory reset - the next producer sees the new count
+    SCALING_CONSUMERS,    // listener containers restarted with matching concurrency
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,288 @@
+package io.malicki.bankingsystem.kafka.partitioning;
+
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.ConsumerGroupState;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig.*;
+
+// Grows the transfer topics of a running cluster without breaking per-account
+// ordering. Records are keyed by sender account, so a new partition count
+// moves most accounts to another partition - and a transfer sent to the new
+// one must not overtake one still waiting on the old one:
+//   1. fence the producers (outbox relay, DLT replay); new events wait in the outbox table
+//   2. drain: every active consumer group reads the old partitions to the end
+//   3. createPartitions
+//   4. reset the producer factory, so the next producer sees the new count
+//   5. restart the listener containers on these topics, the scaled ones with matching concurrency
+//   6. release the fence; the outbox relays the backlog in order, on the new layout
+// A failure before step 3 changes nothing. Fences this instance only - other
+// instances relaying the same outbox have to be stopped first.
+@Service
+@Slf4j
+public class PartitionExpansion {
+
+    static final List<String> TOPICS = List.of(
+            TRANSFER_VALIDATION_TOPIC,
+            TRANSFER_EXECUTION_TOPIC,
+            TRANSFER_COMPLETED_TOPIC);
+
+    private final KafkaAdmin kafkaAdmin;
+    private final ProducerFence fence;
+    private final ProducerFactory<String, TransferEvent> producerFactory;
+    private final KafkaTemplate<String, TransferEvent> kafkaTemplate;
+    private final KafkaListenerEndpointRegistry registry;
+
+    private final Duration fenceTimeout;
+    private final Duration drainTimeout;
+    private final List<String> scaledListenerIds;
+    private final int maxListenerConcurrency;
+
+    private volatile ExpansionPhase phase = ExpansionPhase.IDLE;
+    private volatile int fromPartitions;
+    private volatile int toPartitions;
+    private volatile long remainingLag;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private Thread worker;
+
+    public PartitionExpansion(
+            KafkaAdmin kafkaAdmin,
+            ProducerFence fence,
+            ProducerFactory<String, TransferEvent> producerFactory,
+            KafkaTemplate<String, TransferEvent> kafkaTemplate,
+            KafkaListenerEndpointRegistry registry,
+            @Value("${banking.kafka.expansion.fence-timeout-ms:30000}") long fenceTimeoutMs,
+            @Value("${banking.kafka.expansion.drain-timeout-ms:120000}") long drainTimeoutMs,
+            @Value("${banking.kafka.expansion.scale-listener-ids:validation,execution}") List<String> scaledListenerIds,
+            @Value("${banking.kafka.expansion.max-listener-concurrency:12}") int maxListenerConcurrency
+    ) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.fence = fence;
+        this.producerFactory = producerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.registry = registry;
+        this.fenceTimeout = Duration.ofMillis(fenceTimeoutMs);
+        this.drainTimeout = Duration.ofMillis(drainTimeoutMs);
+        this.scaledListenerIds = List.copyOf(scaledListenerIds);
+        this.maxListenerConcurrency = maxListenerConcurrency;
+    }
+
+    public synchronized void start(int partitions) throws Exception {
+        if (worker != null && worker.isAlive()) {
+            throw new IllegalStateException("Partition expansion already running (" + phase + ")");
+        }
+
+        int current;
+        try (Admin admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            current = describe(admin).values().stream().mapToInt(topic -> topic.partitions().size()).max().orElse(0);
+        }
+        if (partitions <= current) {
+            throw new IllegalArgumentException("Transfer topics already have " + current + " partitions");
+        }
+
+        fromPartitions = current;
+        toPartitions = partitions;
+        remainingLag = 0;
+        startedAt = Instant.now();
+        finishedAt = null;
+        error = null;
+        phase = ExpansionPhase.FENCING;
+
+        log.warn("🧩 Expanding {} from {} to {} partitions", TOPICS, current, partitions);
+        worker = new Thread(() -> run(partitions), "partition-expansion");
+        worker.start();
+    }
+
+    private void run(int partitions) {
+        try (Admin admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            if (!fence.close(fenceTimeout)) {
+                finish(ExpansionPhase.FAILED, "Sends in progress did not finish within " + fenceTimeout);
+                return;
+            }
+
+            boolean expanding = false;
+            try {
+                kafkaTemplate.flush();  // nothing partitioned the old way left in the producer buffer
+
+                phase = ExpansionPhase.DRAINING;
+                if (!drain(admin)) {
+                    finish(ExpansionPhase.FAILED, String.format(
+                            "Consumers did not drain within %s (%d records left), partitions unchanged",
+                            drainTimeout, remainingLag));
+                    return;
+                }
+
+                phase = ExpansionPhase.EXPANDING;
+                expanding = true;
+                expand(admin, partitions);
+
+                phase = ExpansionPhase.SWITCHING_PRODUCERS;
+                producerFactory.reset();
+
+                phase = ExpansionPhase.SCALING_CONSUMERS;
+                scaleConsumers(partitions);
+
+                finish(ExpansionPhase.COMPLETED, null);
+            } finally {
+                // Some topics may have grown before a failure - don't keep relaying on stale metadata
+                if (expanding && phase != ExpansionPhase.COMPLETED) {
+                    producerFactory.reset();
+                }
+                fence.open();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(ExpansionPhase.FAILED, "Interrupted while " + phase);
+        } catch (Exception e) {
+            finish(ExpansionPhase.FAILED, phase + " failed: " + e.getMessage());
+        }
+    }
+
+    private boolean drain(Admin admin) throws Exception {
+        long deadline = System.nanoTime() + drainTimeout.toNanos();
+        while (true) {
+            remainingLag = lag(admin);
+            if (remainingLag == 0) {
+                return true;
+            }
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    // Unconsumed records on the transfer topics, summed over the active groups
+    // that have committed offsets on them
+    private long lag(Admin admin) throws Exception {
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        for (TopicDescription topic : describe(admin).values()) {
+            topic.partitions().forEach(partition ->
+                    latest.put(new TopicPartition(topic.name(), partition.partition()), OffsetSpec.latest()));
+        }
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> ends = admin.listOffsets(latest).all().get();
+
+        long lag = 0;
+        for (ConsumerGroupListing group : admin.listConsumerGroups().all().get()) {
+            // No members (stopped apps, old test runs) - would never catch up
+            boolean active = group.state()
+                    .map(state -> state != ConsumerGroupState.EMPTY && state != ConsumerGroupState.DEAD)
+                    .orElse(false);
+            if (!active) {
+                continue;
+            }
+
+            Map<TopicPartition, OffsetAndMetadata> committed =
+                    admin.listConsumerGroupOffsets(group.groupId()).partitionsToOffsetAndMetadata().get();
+            Set<String> consumed = committed.keySet().stream()
+                    .map(TopicPartition::topic)
+                    .filter(TOPICS::contains)
+                    .collect(Collectors.toSet());
+            for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> end : ends.entrySet()) {
+                if (consumed.contains(end.getKey().topic())) {
+                    OffsetAndMetadata offset = committed.get(end.getKey());
+                    lag += Math.max(0, end.getValue().offset() - (offset != null ? offset.offset() : 0));
+                }
+            }
+        }
+        return lag;
+    }
+
+    private void expand(Admin admin, int partitions) throws Exception {
+        Map<String, NewPartitions> increases = new HashMap<>();
+        for (TopicDescription topic : describe(admin).values()) {
+            if (topic.partitions().size() < partitions) {
+                increases.put(topic.name(), NewPartitions.increaseTo(partitions));
+            }
+        }
+        admin.createPartitions(increases).all().get();
+
+        // New partitions reach every broker's metadata asynchronously
+        long deadline = System.nanoTime() + fenceTimeout.toNanos();
+        while (describe(admin).values().stream().anyMatch(topic -> topic.partitions().size() < partitions)) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("New partitions not visible after " + fenceTimeout);
+            }
+            Thread.sleep(200);
+        }
+        log.info("🧩 {} now have {} partitions", increases.keySet(), partitions);
+    }
+
+    // A restart makes every consumer on these topics rejoin with fresh metadata
+    // instead of noticing the new partitions at the next metadata refresh
+    private void scaleConsumers(int partitions) {
+        int concurrency = Math.min(partitions, maxListenerConcurrency);
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            String[] topics = container.getContainerProperties().getTopics();
+            if (!container.isRunning() || topics == null || Collections.disjoint(Arrays.asList(topics), TOPICS)) {
+                continue;
+            }
+
+            container.stop();
+            if (scaledListenerIds.contains(container.getListenerId())
+                    && container instanceof ConcurrentMessageListenerContainer<?, ?> concurrent) {
+                concurrent.setConcurrency(concurrency);
+                log.info("🧩 Listener {} scaled to {} consumers", container.getListenerId(), concurrency);
+            }
+            container.start();
+        }
+    }
+
+    private static Map<String, TopicDescription> describe(Admin admin) throws Exception {
+        return admin.describeTopics(TOPICS).allTopicNames().get();
+    }
+
+    private void finish(ExpansionPhase outcome, String failure) {
+        error = failure;
+        finishedAt = Instant.now();
+        phase = outcome;
+        if (outcome == ExpansionPhase.COMPLETED) {
+            log.warn("🧩 Partition expansion to {} completed in {}ms",
+                    toPartitions, Duration.between(startedAt, finishedAt).toMillis());
+        } else {
+            log.error("❌ Partition expansion to {} failed: {}", toPartitions, failure);
+        }
+    }
+
+    public PartitionExpansionStatus getStatus() {
+        return new PartitionExpansionStatus(
+                phase,
+                TOPICS,
+                fromPartitions,
+                toPartitions,
+                remainingLag,
+                startedAt,
+                finishedAt,
+                error
+        );
+    }
+}
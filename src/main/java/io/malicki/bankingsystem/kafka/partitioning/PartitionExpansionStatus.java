@@ -0,0 +1,21 @@
+package io.malicki.bankingsystem.kafka.partitioning;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PartitionExpansionStatus {
+
+    private final ExpansionPhase phase;
+    private final List<String> topics;
+    private final int fromPartitions;
+    private final int toPartitions;
+    private final long remainingLag;  // while DRAINING: records the active groups still have to consume
+    private final Instant startedAt;
+    private final Instant finishedAt;
+    private final String error;
+}
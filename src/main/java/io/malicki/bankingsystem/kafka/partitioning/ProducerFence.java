@@ -0,0 +1,54 @@
+package io.malicki.bankingsystem.kafka.partitioning;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Stops everything that produces to the transfer topics at one point in time,
+// so a partition expansion can drain the old layout first. Producers hold it
+// shared around each send (the partition is picked inside send()) and skip
+// the send while it is closed.
+@Component
+@Slf4j
+public class ProducerFence {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ProducerFence(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    public boolean tryEnter() {
+        return lock.readLock().tryLock();
+    }
+
+    public void exit() {
+        lock.readLock().unlock();
+    }
+
+    // Waits for sends in progress. Owned by the calling thread until open().
+    boolean close(Duration timeout) throws InterruptedException {
+        eventPublisher.publishEvent(new ProducerFenceChangedEvent(true));
+        if (lock.writeLock().tryLock(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("🚧 Producers fenced");
+            return true;
+        }
+        eventPublisher.publishEvent(new ProducerFenceChangedEvent(false));
+        return false;
+    }
+
+    void open() {
+        lock.writeLock().unlock();
+        eventPublisher.publishEvent(new ProducerFenceChangedEvent(false));
+        log.info("🚧 Producers released");
+    }
+
+    public boolean isClosed() {
+        return lock.isWriteLocked();
+    }
+}
@@ -0,0 +1,11 @@
+package io.malicki.bankingsystem.kafka.partitioning;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProducerFenceChangedEvent {
+
+    private final boolean fenced;
+}
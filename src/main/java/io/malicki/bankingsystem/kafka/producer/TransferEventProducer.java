@@ -1,8 +1,10 @@
 package io.malicki.bankingsystem.kafka.producer;
 
 import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.kafka.partitioning.ProducerFence;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.util.concurrent.CompletableFuture;
@@ -14,9 +16,11 @@ import static io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig.*;
 public class TransferEventProducer {
     
     private final KafkaTemplate<String, TransferEvent> kafkaTemplate;
+    private final ProducerFence producerFence;
     
-    public TransferEventProducer(KafkaTemplate<String, TransferEvent> kafkaTemplate) {
+    public TransferEventProducer(KafkaTemplate<String, TransferEvent> kafkaTemplate, ProducerFence producerFence) {
         this.kafkaTemplate = kafkaTemplate;
+        this.producerFence = producerFence;
     }
     
     public void sendToValidation(TransferEvent event) {
@@ -25,8 +29,8 @@ public class TransferEventProducer {
         log.info("📤 Sending to {} | Key: {} | TransferID: {}", 
                 TRANSFER_VALIDATION_TOPIC, key, event.getTransferId());
         
-        CompletableFuture<org.springframework.kafka.support.SendResult<String, TransferEvent>> future = 
-            kafkaTemplate.send(TRANSFER_VALIDATION_TOPIC, key, event);
+        CompletableFuture<SendResult<String, TransferEvent>> future = 
+            send(TRANSFER_VALIDATION_TOPIC, key, event);
         
         future.whenComplete((result, ex) -> {
             if (ex != null) {
@@ -46,7 +50,7 @@ public class TransferEventProducer {
         log.info("📤 Sending to {} | Key: {} | TransferID: {}", 
                 TRANSFER_EXECUTION_TOPIC, key, event.getTransferId());
         
-        kafkaTemplate.send(TRANSFER_EXECUTION_TOPIC, key, event);
+        send(TRANSFER_EXECUTION_TOPIC, key, event);
     }
     
     public void sendToCompleted(TransferEvent event) {
@@ -55,6 +59,18 @@ public class TransferEventProducer {
         log.info("📤 Sending to {} | Key: {} | TransferID: {}", 
                 TRANSFER_COMPLETED_TOPIC, key, event.getTransferId());
         
-        kafkaTemplate.send(TRANSFER_COMPLETED_TOPIC, key, event);
+        send(TRANSFER_COMPLETED_TOPIC, key, event);
+    }
+    
+    // During a partition expansion the send would pick a partition from the old layout
+    private CompletableFuture<SendResult<String, TransferEvent>> send(String topic, String key, TransferEvent event) {
+        if (!producerFence.tryEnter()) {
+            throw new IllegalStateException("Producers are fenced for a partition expansion, not sending to " + topic);
+        }
+        try {
+            return kafkaTemplate.send(topic, key, event);
+        } finally {
+            producerFence.exit();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package io.malicki.bankingsystem.kafka.rebalance;
+
+import org.apache.kafka.common.TopicPartition;
+
+// In-process state built from one topic's partitions in one consumer group
+// (caches, running aggregates). PartitionStateRebalanceListener keeps it in
+// step with partition ownership; all callbacks run on the consumer thread.
+public interface PartitionScopedState {
+
+    String getName();
+
+    String getGroupId();
+
+    String getTopic();
+
+    // Newly assigned - runs before the partition's first record is delivered
+    void warm(TopicPartition partition);
+
+    // Being revoked, offsets not committed yet - persist what the next owner needs
+    default void flush(TopicPartition partition) {
+    }
+
+    // No longer owned (revoked or lost)
+    void evict(TopicPartition partition);
+}
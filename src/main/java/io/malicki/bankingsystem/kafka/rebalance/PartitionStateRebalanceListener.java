@@ -0,0 +1,89 @@
+package io.malicki.bankingsystem.kafka.rebalance;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Rebalance callbacks of the kafkaListenerContainerFactory containers, passed
+// on to the PartitionScopedState beans of the rebalancing group. With
+// cooperative-sticky assignment the callbacks only carry the partitions that
+// moved, so state for the partitions a node keeps stays warm.
+@Component
+@Slf4j
+public class PartitionStateRebalanceListener implements ConsumerAwareRebalanceListener {
+
+    private final ObjectProvider<PartitionScopedState> states;
+    private final MeterRegistry meterRegistry;
+
+    public PartitionStateRebalanceListener(ObjectProvider<PartitionScopedState> states, MeterRegistry meterRegistry) {
+        this.states = states;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (PartitionScopedState state : statesOf(consumer)) {
+            for (TopicPartition partition : partitions) {
+                if (!partition.topic().equals(state.getTopic())) {
+                    continue;
+                }
+
+                long started = System.nanoTime();
+                state.warm(partition);
+                long elapsed = System.nanoTime() - started;
+
+                Timer.builder("banking.partition.warmup")
+                        .tag("state", state.getName())
+                        .tag("topic", partition.topic())
+                        .tag("partition", String.valueOf(partition.partition()))
+                        .register(meterRegistry)
+                        .record(elapsed, TimeUnit.NANOSECONDS);
+                log.info("🔥 [REBALANCE] {} warmed {} in {}ms",
+                        state.getName(), partition, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        for (PartitionScopedState state : statesOf(consumer)) {
+            partitions.stream().filter(partition -> partition.topic().equals(state.getTopic())).forEach(state::flush);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        evict(consumer, partitions, "revoked");
+    }
+
+    // Already someone else's - nothing to flush, just drop it
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        evict(consumer, partitions, "lost");
+    }
+
+    private void evict(Consumer<?, ?> consumer, Collection<TopicPartition> partitions, String reason) {
+        for (PartitionScopedState state : statesOf(consumer)) {
+            for (TopicPartition partition : partitions) {
+                if (partition.topic().equals(state.getTopic())) {
+                    state.evict(partition);
+                    log.info("🧹 [REBALANCE] {} evicted {} ({})", state.getName(), partition, reason);
+                }
+            }
+        }
+    }
+
+    private List<PartitionScopedState> statesOf(Consumer<?, ?> consumer) {
+        String groupId = consumer.groupMetadata().groupId();
+        return states.orderedStream().filter(state -> state.getGroupId().equals(groupId)).toList();
+    }
+}
@@ -0,0 +1,347 @@
+package io.malicki.bankingsystem.kafka.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.kafka.circuit.CircuitState;
+import io.malicki.bankingsystem.kafka.circuit.CircuitStateChangedEvent;
+import io.malicki.bankingsystem.kafka.circuit.DownstreamCircuitBreaker;
+import io.malicki.bankingsystem.kafka.errorhandling.FailedMessage;
+import io.malicki.bankingsystem.kafka.partitioning.ProducerFence;
+import io.malicki.bankingsystem.kafka.partitioning.ProducerFenceChangedEvent;
+import io.malicki.bankingsystem.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Republishes retryable DLT records (ErrorCategory.autoRetryFromDlt) to their
+// original topic, throttled by a token bucket and a cap on in-flight sends.
+//
+// Checkpointing is the dlt-replay group's committed offset: a record is acked
+// only once its republish is confirmed (async acks commit contiguous offsets),
+// so a restart resumes right after the last confirmed replay.
+//
+// Pauses itself when replayed messages come back to the DLT faster than
+// max-error-rate (the underlying problem is not fixed yet) or when a send fails,
+// and follows the downstream circuit breaker: paused while it is not closed,
+// resumed when it closes again.
+@Component
+@Slf4j
+public class DltReplayEngine {
+
+    public static final String LISTENER_ID = "dlt-replay";
+    public static final String REPLAY_COUNT_HEADER = "x-dlt-replay-count";
+
+    private static final String CIRCUIT_OPEN = "downstream circuit breaker open";
+    private static final String FENCED = "producers fenced for partition expansion";
+
+    private final KafkaTemplate<String, TransferEvent> kafkaTemplate;
+    private final KafkaListenerEndpointRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final DownstreamCircuitBreaker circuitBreaker;
+    private final ProducerFence producerFence;
+
+    private final double ratePerSecond;
+    private final int maxInFlight;
+    private final int maxReplays;
+    private final long errorWindowNanos;
+    private final double maxErrorRate;
+    private final int minSamples;
+
+    private final TokenBucket rateLimit;
+    private final Semaphore inFlight;
+
+    private final Counter replayed;
+    private final Counter skipped;
+    private final Counter exhausted;
+    private final Counter sendFailures;
+    private final Counter failedAgain;
+
+    private volatile String pauseReason;
+    private volatile boolean uncommittedGap;  // a send failed and its offset was never acked
+
+    // Tumbling error-rate window - guarded by this
+    private long windowStart = System.nanoTime();
+    private long windowReplayed;
+    private long windowFailedAgain;
+
+    public DltReplayEngine(
+            KafkaTemplate<String, TransferEvent> kafkaTemplate,
+            KafkaListenerEndpointRegistry registry,
+            ObjectMapper objectMapper,
+            DownstreamCircuitBreaker circuitBreaker,
+            ProducerFence producerFence,
+            MeterRegistry meterRegistry,
+            @Value("${banking.dlt-replay.rate-per-second:50}") double ratePerSecond,
+            @Value("${banking.dlt-replay.burst:50}") int burst,
+            @Value("${banking.dlt-replay.max-in-flight:20}") int maxInFlight,
+            @Value("${banking.dlt-replay.max-replays:3}") int maxReplays,
+            @Value("${banking.dlt-replay.error-window-ms:60000}") long errorWindowMs,
+            @Value("${banking.dlt-replay.max-error-rate:0.2}") double maxErrorRate,
+            @Value("${banking.dlt-replay.min-samples:10}") int minSamples
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+        this.circuitBreaker = circuitBreaker;
+        this.producerFence = producerFence;
+        this.ratePerSecond = ratePerSecond;
+        this.maxInFlight = maxInFlight;
+        this.maxReplays = maxReplays;
+        this.errorWindowNanos = TimeUnit.MILLISECONDS.toNanos(errorWindowMs);
+        this.maxErrorRate = maxErrorRate;
+        this.minSamples = minSamples;
+
+        this.rateLimit = new TokenBucket(ratePerSecond, burst, System.nanoTime());
+        this.inFlight = new Semaphore(maxInFlight);
+
+        this.replayed = meterRegistry.counter("banking.dlt.replay", "outcome", "replayed");
+        this.skipped = meterRegistry.counter("banking.dlt.replay", "outcome", "skipped");
+        this.exhausted = meterRegistry.counter("banking.dlt.replay", "outcome", "exhausted");
+        this.sendFailures = meterRegistry.counter("banking.dlt.replay", "outcome", "send-failed");
+        this.failedAgain = meterRegistry.counter("banking.dlt.replay", "outcome", "failed-again");
+    }
+
+    @KafkaListener(
+            id = LISTENER_ID,
+            groupId = "dlt-replay",
+            topics = {"transfer-validation-dlt", "transfer-execution-dlt", "transfer-completed-dlt"},
+            containerFactory = "dltReplayKafkaListenerContainerFactory",
+            autoStartup = "${banking.dlt-replay.auto-start:false}"
+    )
+    public void replay(ConsumerRecord<String, FailedMessage> record, Acknowledgment ack) {
+        // Paused with the rest of the poll still to go - not acked, re-read
+        // from the checkpoint when the container is restarted on resume
+        if (pauseReason != null) {
+            uncommittedGap = true;
+            return;
+        }
+
+        FailedMessage failed = record.value();
+
+        if (failed == null || !failed.isRetryable()) {
+            skipped.increment();
+            ack.acknowledge();
+            return;
+        }
+
+        int replayCount = replayCount(failed);
+        if (replayCount >= maxReplays) {
+            exhausted.increment();
+            log.warn("🔁 [DLT REPLAY] Giving up on {}-{}@{} after {} replays",
+                    failed.getOriginalTopic(), failed.getOriginalPartition(), failed.getOriginalOffset(), replayCount);
+            ack.acknowledge();
+            return;
+        }
+
+        TransferEvent event;
+        try {
+            event = objectMapper.readValue(failed.getOriginalValue(), TransferEvent.class);
+        } catch (Exception e) {
+            skipped.increment();
+            log.error("🔁 [DLT REPLAY] Cannot read original value of {}@{}: {}",
+                    record.topic(), record.offset(), e.getMessage());
+            ack.acknowledge();
+            return;
+        }
+
+        // Replaying into an outage would only send the records back to the DLT
+        if (!circuitBreaker.isClosed()) {
+            uncommittedGap = true;
+            if (pauseReason == null) {
+                pause(CIRCUIT_OPEN);
+            }
+            return;
+        }
+
+        throttle();
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;  // container stopping - not acked, replayed again after restart
+        }
+
+        ProducerRecord<String, TransferEvent> replay =
+                new ProducerRecord<>(failed.getOriginalTopic(), failed.getOriginalKey(), event);
+        replay.headers().add(REPLAY_COUNT_HEADER,
+                String.valueOf(replayCount + 1).getBytes(StandardCharsets.UTF_8));
+
+        // Fenced after the record was polled - not acked, resumed once the expansion is done
+        if (!producerFence.tryEnter()) {
+            inFlight.release();
+            uncommittedGap = true;
+            if (pauseReason == null) {
+                pause(FENCED);
+            }
+            return;
+        }
+        try {
+            send(replay, failed, event, replayCount, ack);
+        } finally {
+            producerFence.exit();
+        }
+    }
+
+    private void send(ProducerRecord<String, TransferEvent> replay, FailedMessage failed, TransferEvent event,
+                      int replayCount, Acknowledgment ack) {
+        kafkaTemplate.send(replay).whenComplete((result, ex) -> {
+            inFlight.release();
+            if (ex != null) {
+                sendFailures.increment();
+                uncommittedGap = true;
+                pause("send to " + failed.getOriginalTopic() + " failed: " + ex.getMessage());
+                return;
+            }
+            replayed.increment();
+            countReplayed();
+            ack.acknowledge();
+            log.debug("🔁 [DLT REPLAY] {} → {} (replay #{})",
+                    event.getTransferId(), failed.getOriginalTopic(), replayCount + 1);
+        });
+    }
+
+    private int replayCount(FailedMessage failed) {
+        String count = failed.getHeaders() != null ? failed.getHeaders().get(REPLAY_COUNT_HEADER) : null;
+        try {
+            return count != null ? Integer.parseInt(count.trim()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // Blocks the listener thread until a token is free - backpressure on the poll loop
+    private void throttle() {
+        long waitNanos;
+        while ((waitNanos = rateLimit.tryAcquire(System.nanoTime())) > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    // Called by DeadLetterTopicService when a message carrying the replay header fails again
+    public void onReplayedMessageFailed() {
+        failedAgain.increment();
+
+        boolean tooManyFailures;
+        long replayedInWindow;
+        long failedInWindow;
+        synchronized (this) {
+            rotateWindow();
+            windowFailedAgain++;
+            replayedInWindow = windowReplayed;
+            failedInWindow = windowFailedAgain;
+            tooManyFailures = failedInWindow >= minSamples
+                    && failedInWindow > maxErrorRate * Math.max(1, replayedInWindow);
+        }
+
+        if (tooManyFailures && pauseReason == null) {
+            pause(String.format("%d of %d replayed messages failed again", failedInWindow, replayedInWindow));
+        }
+    }
+
+    private synchronized void countReplayed() {
+        rotateWindow();
+        windowReplayed++;
+    }
+
+    private void rotateWindow() {
+        long now = System.nanoTime();
+        if (now - windowStart > errorWindowNanos) {
+            windowStart = now;
+            windowReplayed = 0;
+            windowFailedAgain = 0;
+        }
+    }
+
+    // Starts the listener, or resumes it after a pause. After a failed send
+    // the container is restarted so it re-reads from the last checkpoint.
+    public synchronized void start() {
+        MessageListenerContainer container = container();
+        windowStart = System.nanoTime();
+        windowReplayed = 0;
+        windowFailedAgain = 0;
+
+        if (container.isRunning() && uncommittedGap) {
+            container.stop();
+        }
+        uncommittedGap = false;
+        pauseReason = null;
+
+        if (!container.isRunning()) {
+            container.start();
+        }
+        container.resume();
+        log.info("🔁 [DLT REPLAY] Started | Rate: {}/s | Max in flight: {}", ratePerSecond, maxInFlight);
+    }
+
+    public void pause(String reason) {
+        pauseReason = reason;
+        container().pause();
+        log.warn("⏸️ [DLT REPLAY] Paused: {}", reason);
+    }
+
+    @EventListener
+    public void onCircuitStateChanged(CircuitStateChangedEvent event) {
+        MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+        if (event.getState() == CircuitState.OPEN && pauseReason == null) {
+            pause(CIRCUIT_OPEN);
+        } else if (event.getState() == CircuitState.CLOSED && CIRCUIT_OPEN.equals(pauseReason)) {
+            start();
+        }
+    }
+
+    @EventListener
+    public void onProducerFenceChanged(ProducerFenceChangedEvent event) {
+        MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+        if (event.isFenced() && pauseReason == null) {
+            pause(FENCED);
+        } else if (!event.isFenced() && FENCED.equals(pauseReason)) {
+            start();
+        }
+    }
+
+    public DltReplayStatus getStatus() {
+        MessageListenerContainer container = container();
+        return new DltReplayStatus(
+                container.isRunning(),
+                container.isPauseRequested(),
+                pauseReason,
+                ratePerSecond,
+                maxInFlight,
+                maxInFlight - inFlight.availablePermits(),
+                (long) replayed.count(),
+                (long) skipped.count(),
+                (long) exhausted.count(),
+                (long) sendFailures.count(),
+                (long) failedAgain.count()
+        );
+    }
+
+    private MessageListenerContainer container() {
+        MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+        if (container == null) {
+            throw new IllegalStateException("Listener container " + LISTENER_ID + " not registered");
+        }
+        return container;
+    }
+}
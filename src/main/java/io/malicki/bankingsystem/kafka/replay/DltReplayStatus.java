@@ -0,0 +1,21 @@
+package io.malicki.bankingsystem.kafka.replay;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class DltReplayStatus {
+
+    private final boolean running;
+    private final boolean paused;
+    private final String pauseReason;
+    private final double ratePerSecond;
+    private final int maxInFlight;
+    private final int inFlight;
+    private final long replayed;
+    private final long skipped;
+    private final long exhausted;
+    private final long sendFailures;
+    private final long failedAgain;
+}
@@ -0,0 +1,44 @@
+package io.malicki.bankingsystem.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+// GET  /actuator/logsampling                      - current rate and async queue depth
+// POST /actuator/logsampling {"sampleRate": 100}  - keep 1 in 100 transfers (1 = all)
+// Levels themselves are switched through /actuator/loggers.
+@Component
+@Endpoint(id = "logsampling")
+@Slf4j
+public class LogSamplingEndpoint {
+
+    private final TransferLogSampler sampler;
+
+    public LogSamplingEndpoint(TransferLogSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @ReadOperation
+    public LogSamplingStatus status() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        if (context.getLogger(Logger.ROOT_LOGGER_NAME).getAppender("ASYNC") instanceof AsyncAppender async) {
+            return new LogSamplingStatus(sampler.getSampleRate(), sampler.getDropped(),
+                    async.getNumberOfElementsInQueue(), async.getRemainingCapacity());
+        }
+        return new LogSamplingStatus(sampler.getSampleRate(), sampler.getDropped(), null, null);
+    }
+
+    @WriteOperation
+    public LogSamplingStatus setSampleRate(int sampleRate) {
+        int previous = sampler.getSampleRate();
+        sampler.setSampleRate(sampleRate);
+        log.warn("🪵 Transfer log sampling: 1 in {} → 1 in {}", previous, sampler.getSampleRate());
+        return status();
+    }
+}
@@ -0,0 +1,14 @@
+package io.malicki.bankingsystem.logging;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class LogSamplingStatus {
+
+    private final int sampleRate;        // 1 in N transfers keep their INFO/DEBUG lines
+    private final long dropped;          // lines dropped by sampling since startup
+    private final Integer asyncQueued;   // events waiting for the async appender, null without one
+    private final Integer asyncRemaining;
+}
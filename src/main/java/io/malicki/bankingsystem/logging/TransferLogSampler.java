@@ -0,0 +1,85 @@
+package io.malicki.bankingsystem.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Keeps the log lines of 1 in sample-rate transfers and drops the rest,
+// before the message is formatted. The decision is a hash of the transferId
+// in the MDC, so a kept transfer keeps all of its lines across stages and
+// threads. WARN and above, and anything logged without a transferId, always
+// pass. Switched at runtime through LogSamplingEndpoint.
+//
+// Registered with logback from here rather than logback-spring.xml: under
+// devtools the XML-created instance would come from another class loader.
+@Component
+public class TransferLogSampler extends TurboFilter {
+
+    public static final String MDC_KEY = "transferId";
+
+    private volatile int sampleRate;  // 1 = keep everything
+    private final LongAdder dropped = new LongAdder();
+
+    public TransferLogSampler(@Value("${banking.logging.sample-rate:1}") int sampleRate) {
+        setSampleRate(sampleRate);
+    }
+
+    @PostConstruct
+    public void install() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        setContext(context);
+        start();
+        context.addTurboFilter(this);
+    }
+
+    @PreDestroy
+    public void uninstall() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).getTurboFilterList().remove(this);
+        stop();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        int rate = sampleRate;
+        if (rate <= 1 || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Turbo filters run before the level check - leave disabled levels to it
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        String transferId = MDC.get(MDC_KEY);
+        if (transferId == null || isSampled(transferId, rate)) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.increment();
+        return FilterReply.DENY;
+    }
+
+    static boolean isSampled(String transferId, int rate) {
+        return Math.floorMod(transferId.hashCode(), rate) == 0;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,27 @@
+package io.malicki.bankingsystem.logging;
+
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.MDC;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+// Puts the record's transferId in the MDC for the listener call, so every
+// line it logs (including Hibernate's and the error handler's) is sampled
+// with the transfer - see TransferLogSampler
+public class TransferMdcRecordInterceptor implements RecordInterceptor<String, TransferEvent> {
+
+    @Override
+    public ConsumerRecord<String, TransferEvent> intercept(ConsumerRecord<String, TransferEvent> record,
+                                                         Consumer<String, TransferEvent> consumer) {
+        if (record.value() != null && record.value().getTransferId() != null) {
+            MDC.put(TransferLogSampler.MDC_KEY, record.value().getTransferId());
+        }
+        return record;
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<String, TransferEvent> record, Consumer<String, TransferEvent> consumer) {
+        MDC.remove(TransferLogSampler.MDC_KEY);
+    }
+}
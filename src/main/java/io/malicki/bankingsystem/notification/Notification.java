@@ -0,0 +1,21 @@
+package io.malicki.bankingsystem.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class Notification {
+
+    public enum Type { DEBIT, CREDIT }
+
+    private final String recipient;  // account number
+    private final Type type;
+    private final String transferId;
+    private final String counterparty;
+    private final BigDecimal amount;
+    private final Instant occurredAt;
+}
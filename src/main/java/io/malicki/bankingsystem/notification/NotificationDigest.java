@@ -0,0 +1,15 @@
+package io.malicki.bankingsystem.notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Everything one recipient gets in one coalescing window - one email/SMS/push
+@Getter
+@AllArgsConstructor
+public class NotificationDigest {
+
+    private final String recipient;
+    private final List<Notification> notifications;
+}
@@ -0,0 +1,241 @@
+package io.malicki.bankingsystem.notification;
+
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.kafka.errorhandling.DeadLetterTopicService;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorClassifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Takes provider latency off the transfer-completed listener thread.
+//
+// Each completed transfer becomes a DEBIT notification for the sender and a
+// CREDIT one for the receiver. Notifications are coalesced per recipient for
+// coalesce-window-ms (one digest per recipient per window), and the digests
+// go to the provider in batches on a fixed pool of worker threads.
+//
+// A record is acked once both its notifications are delivered (or it has been
+// sent to the DLT); with async acks the container commits only contiguous
+// ranges, so a crash redelivers everything not yet delivered. max-pending
+// bounds undelivered notifications - when full, the listener thread blocks.
+@Component
+@Slf4j
+public class NotificationDispatcher {
+
+    private final NotificationProvider provider;
+    private final DeadLetterTopicService dltService;
+    private final ErrorClassifier errorClassifier;
+
+    private final long coalesceWindowMs;
+    private final int maxBatchSize;
+    private final int concurrency;
+    private final Semaphore pendingPermits;
+
+    private final Counter delivered;
+    private final Counter failed;
+    private final Timer providerLatency;
+
+    // recipient -> notifications waiting for the next flush; guarded by this
+    private Map<String, List<PendingNotification>> pending = new LinkedHashMap<>();
+
+    private ScheduledExecutorService flusher;
+    private ThreadPoolExecutor workers;
+
+    public NotificationDispatcher(
+            NotificationProvider provider,
+            DeadLetterTopicService dltService,
+            ErrorClassifier errorClassifier,
+            MeterRegistry meterRegistry,
+            @Value("${banking.notification.coalesce-window-ms:200}") long coalesceWindowMs,
+            @Value("${banking.notification.max-batch-size:100}") int maxBatchSize,
+            @Value("${banking.notification.concurrency:8}") int concurrency,
+            @Value("${banking.notification.max-pending:10000}") int maxPending
+    ) {
+        this.provider = provider;
+        this.dltService = dltService;
+        this.errorClassifier = errorClassifier;
+        this.coalesceWindowMs = coalesceWindowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.concurrency = concurrency;
+        this.pendingPermits = new Semaphore(maxPending);
+
+        this.delivered = meterRegistry.counter("banking.notification.delivered");
+        this.failed = meterRegistry.counter("banking.notification.failed");
+        this.providerLatency = meterRegistry.timer("banking.notification.provider.latency");
+        meterRegistry.gauge("banking.notification.pending", pendingPermits,
+                permits -> maxPending - permits.availablePermits());
+    }
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger workerNumber = new AtomicInteger();
+        // Every pending notification holds a permit, so the queue can never
+        // hold more than max-pending single-notification batches
+        workers = new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, pendingPermits.availablePermits())),
+                runnable -> new Thread(runnable, "notification-" + workerNumber.incrementAndGet()));
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, coalesceWindowMs, coalesceWindowMs, TimeUnit.MILLISECONDS);
+
+        log.info("📧 Notification dispatcher started | Window: {}ms | Batch: {} | Workers: {}",
+                coalesceWindowMs, maxBatchSize, concurrency);
+    }
+
+    // Called on the listener thread; returns once the notifications are queued
+    public void dispatch(ConsumerRecord<String, TransferEvent> record, Acknowledgment ack) throws InterruptedException {
+        TransferEvent event = record.value();
+        List<Notification> notifications = List.of(
+                new Notification(event.getFromAccountNumber(), Notification.Type.DEBIT, event.getTransferId(),
+                        event.getToAccountNumber(), event.getAmount(), event.getTimestamp()),
+                new Notification(event.getToAccountNumber(), Notification.Type.CREDIT, event.getTransferId(),
+                        event.getFromAccountNumber(), event.getAmount(), event.getTimestamp()));
+
+        pendingPermits.acquire(notifications.size());
+
+        PendingRecord pendingRecord = new PendingRecord(record, ack, notifications.size());
+        synchronized (this) {
+            for (Notification notification : notifications) {
+                pending.computeIfAbsent(notification.getRecipient(), recipient -> new ArrayList<>())
+                        .add(new PendingNotification(notification, pendingRecord));
+            }
+        }
+    }
+
+    private void flush() {
+        Map<String, List<PendingNotification>> window;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            window = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        List<Map.Entry<String, List<PendingNotification>>> batch = new ArrayList<>(maxBatchSize);
+        for (Map.Entry<String, List<PendingNotification>> recipient : window.entrySet()) {
+            batch.add(recipient);
+            if (batch.size() == maxBatchSize) {
+                submit(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            submit(batch);
+        }
+    }
+
+    private void submit(List<Map.Entry<String, List<PendingNotification>>> batch) {
+        workers.execute(() -> deliver(batch));
+    }
+
+    private void deliver(List<Map.Entry<String, List<PendingNotification>>> batch) {
+        List<NotificationDigest> digests = new ArrayList<>(batch.size());
+        for (Map.Entry<String, List<PendingNotification>> recipient : batch) {
+            digests.add(new NotificationDigest(recipient.getKey(),
+                    recipient.getValue().stream().map(PendingNotification::notification).toList()));
+        }
+
+        Exception failure = null;
+        long start = System.nanoTime();
+        try {
+            provider.deliver(digests);
+        } catch (Exception e) {
+            failure = e;
+            log.error("❌ [NOTIFICATION] Provider failed for {} recipients: {}", digests.size(), e.getMessage());
+        }
+        providerLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        for (Map.Entry<String, List<PendingNotification>> recipient : batch) {
+            for (PendingNotification notification : recipient.getValue()) {
+                pendingPermits.release();
+                if (failure == null) {
+                    delivered.increment();
+                    notification.record().delivered();
+                } else {
+                    failed.increment();
+                    notification.record().failed(failure);
+                }
+            }
+        }
+    }
+
+    // Flushes what is queued and waits for the workers; records not acked by
+    // then are redelivered after restart.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(coalesceWindowMs * 2, TimeUnit.MILLISECONDS);
+        flush();
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("⚠️ Notification workers still busy at shutdown");
+            workers.shutdownNow();
+        }
+    }
+
+    private record PendingNotification(Notification notification, PendingRecord record) {
+    }
+
+    // One transfer-completed record waiting for all of its notifications
+    private final class PendingRecord {
+
+        private final ConsumerRecord<String, TransferEvent> record;
+        private final Acknowledgment ack;
+        private final AtomicInteger remaining;
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        private PendingRecord(ConsumerRecord<String, TransferEvent> record, Acknowledgment ack, int notifications) {
+            this.record = record;
+            this.ack = ack;
+            this.remaining = new AtomicInteger(notifications);
+        }
+
+        void delivered() {
+            complete();
+        }
+
+        void failed(Exception e) {
+            failure.compareAndSet(null, e);
+            complete();
+        }
+
+        // The DLT message keeps the original record, so a replay re-sends both notifications
+        private void complete() {
+            if (remaining.decrementAndGet() > 0) {
+                return;
+            }
+            Exception e = failure.get();
+            if (e != null) {
+                dltService.sendToDeadLetterTopic(record, e, "banking-system", 1, errorClassifier.classify(e));
+            } else {
+                log.debug("✅ [NOTIFICATION] Delivered for transfer: {}", record.value().getTransferId());
+            }
+            ack.acknowledge();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.malicki.bankingsystem.notification;
+
+import java.util.List;
+
+// Delivery SPI (email/SMS/push gateway). Called from the dispatcher's worker
+// threads with up to max-batch-size digests; blocking is fine. Throwing fails
+// every digest of the call.
+public interface NotificationProvider {
+
+    void deliver(List<NotificationDigest> digests);
+}
@@ -0,0 +1,50 @@
+package io.malicki.bankingsystem.notification;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Local stand-in for a real gateway: logs each digest, optionally after a
+// simulated round-trip latency and with a random failure rate (benchmarks,
+// error-path testing).
+@Component
+@ConditionalOnMissingBean(value = NotificationProvider.class, ignored = StubNotificationProvider.class)
+@Slf4j
+public class StubNotificationProvider implements NotificationProvider {
+
+    private final long latencyNanos;
+    private final double failureRate;
+
+    public StubNotificationProvider(
+            @Value("${banking.notification.stub.latency-ms:0}") long latencyMs,
+            @Value("${banking.notification.stub.failure-rate:0}") double failureRate
+    ) {
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMs);
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public void deliver(List<NotificationDigest> digests) {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new RuntimeException("Stub notification provider: simulated connection timeout");
+        }
+
+        for (NotificationDigest digest : digests) {
+            log.info("📨 Notifying {}: {} transfer(s) | {}",
+                    digest.getRecipient(),
+                    digest.getNotifications().size(),
+                    digest.getNotifications().stream()
+                            .map(n -> n.getType() + " " + n.getAmount() + (n.getType() == Notification.Type.DEBIT ? " → " : " ← ") + n.getCounterparty())
+                            .toList());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package io.malicki.bankingsystem.ratelimit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Per-client and per-account token buckets checked at the API edge,
+// before a transfer costs a DB row, an outbox row and three Kafka hops.
+@Component
+@Slf4j
+public class AdmissionControl {
+
+    private final boolean enabled;
+    private final double accountRate;
+    private final int accountBurst;
+    private final double clientRate;
+    private final int clientBurst;
+    private final int maxBuckets;
+    private final long idleTimeoutNanos;
+
+    private final Map<String, TokenBucket> accountBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    // Shared by the keys that find their map full
+    private final TokenBucket accountOverflow;
+    private final TokenBucket clientOverflow;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControl(
+            MeterRegistry meterRegistry,
+            @Value("${banking.admission.enabled:true}") boolean enabled,
+            @Value("${banking.admission.account.rate-per-second:50}") double accountRate,
+            @Value("${banking.admission.account.burst:100}") int accountBurst,
+            @Value("${banking.admission.client.rate-per-second:200}") double clientRate,
+            @Value("${banking.admission.client.burst:400}") int clientBurst,
+            @Value("${banking.admission.max-buckets:100000}") int maxBuckets,
+            @Value("${banking.admission.idle-timeout-ms:60000}") long idleTimeoutMs
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.accountRate = accountRate;
+        this.accountBurst = accountBurst;
+        this.clientRate = clientRate;
+        this.clientBurst = clientBurst;
+        this.maxBuckets = maxBuckets;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        this.accountOverflow = new TokenBucket(accountRate, accountBurst, System.nanoTime());
+        this.clientOverflow = new TokenBucket(clientRate, clientBurst, System.nanoTime());
+
+        Gauge.builder("banking.admission.buckets", accountBuckets, Map::size)
+            .tag("scope", "account")
+            .register(meterRegistry);
+        Gauge.builder("banking.admission.buckets", clientBuckets, Map::size)
+            .tag("scope", "client")
+            .register(meterRegistry);
+    }
+
+    public AdmissionDecision tryAdmit(String clientId, String accountNumber) {
+        if (!enabled) {
+            return AdmissionDecision.admitted();
+        }
+
+        long now = System.nanoTime();
+
+        TokenBucket clientBucket = bucket(clientBuckets, clientOverflow, "client", clientId, clientRate, clientBurst, now);
+        TokenBucket accountBucket = bucket(accountBuckets, accountOverflow, "account", accountNumber, accountRate, accountBurst, now);
+
+        AdmissionDecision decision = tryAcquire(clientBucket, "client", now);
+        if (decision.isAdmitted()) {
+            decision = tryAcquire(accountBucket, "account", now);
+            if (!decision.isAdmitted()) {
+                // Not admitted, so the request does not count against the client
+                clientBucket.refund();
+            }
+        }
+
+        if (!decision.isAdmitted()) {
+            meterRegistry.counter("banking.admission.rejected", "reason", decision.getRejectedBy()).increment();
+            log.debug("🚦 Rejected | Client: {} | Account: {} | By: {}",
+                    clientId, accountNumber, decision.getRejectedBy());
+        }
+        return decision;
+    }
+
+    // Idle buckets are only evicted by the scheduled sweep, never on the request
+    // thread. Until then a new key shares the overflow bucket with the other
+    // latecomers rather than the map growing without bound - throttled
+    // together, but not refused outright.
+    private TokenBucket bucket(Map<String, TokenBucket> buckets, TokenBucket overflow, String scope, String key,
+                               double rate, int burst, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            meterRegistry.counter("banking.admission.overflow", "scope", scope).increment();
+            return overflow;
+        }
+        return buckets.computeIfAbsent(key, k -> new TokenBucket(rate, burst, now));
+    }
+
+    private AdmissionDecision tryAcquire(TokenBucket bucket, String scope, long now) {
+        long waitNanos = bucket.tryAcquire(now);
+        return waitNanos == 0
+            ? AdmissionDecision.admitted()
+            : AdmissionDecision.rejected(scope, waitNanos);
+    }
+
+    @Scheduled(fixedDelay = 10000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        evictIdle(accountBuckets, now);
+        evictIdle(clientBuckets, now);
+    }
+
+    private void evictIdle(Map<String, TokenBucket> buckets, long now) {
+        buckets.values().removeIf(bucket -> bucket.isFullAndIdle(now, idleTimeoutNanos));
+    }
+}
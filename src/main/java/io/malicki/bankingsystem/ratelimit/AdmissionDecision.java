@@ -0,0 +1,31 @@
+package io.malicki.bankingsystem.ratelimit;
+
+import lombok.Getter;
+
+@Getter
+public class AdmissionDecision {
+
+    private static final AdmissionDecision ADMITTED = new AdmissionDecision(true, null, 0);
+
+    private final boolean admitted;
+    private final String rejectedBy;    // "client" or "account"
+    private final long retryAfterNanos;
+
+    private AdmissionDecision(boolean admitted, String rejectedBy, long retryAfterNanos) {
+        this.admitted = admitted;
+        this.rejectedBy = rejectedBy;
+        this.retryAfterNanos = retryAfterNanos;
+    }
+
+    public static AdmissionDecision admitted() {
+        return ADMITTED;
+    }
+
+    public static AdmissionDecision rejected(String rejectedBy, long retryAfterNanos) {
+        return new AdmissionDecision(false, rejectedBy, retryAfterNanos);
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+    }
+}
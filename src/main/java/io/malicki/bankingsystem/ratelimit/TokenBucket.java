@@ -0,0 +1,49 @@
+package io.malicki.bankingsystem.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket (GCRA form). The whole state is one "theoretical
+// arrival time" updated with CAS - no lock, no refill thread.
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;  // time to earn one token
+    private final long capacityNanos;          // burst * emission interval
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException(
+                "Invalid token bucket: rate=" + ratePerSecond + ", burst=" + burst);
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+        this.capacityNanos = emissionIntervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);  // starts full
+    }
+
+    // Returns 0 when a token was taken, otherwise nanos until one is available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long allowedAt = newTat - capacityNanos;
+
+            if (allowedAt - nowNanos > 0) {
+                return allowedAt - nowNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back a token taken by tryAcquire, e.g. when a later check rejected
+    // the request anyway
+    public void refund() {
+        theoreticalArrival.addAndGet(-emissionIntervalNanos);
+    }
+
+    // A full bucket is indistinguishable from a new one, so dropping it loses nothing
+    public boolean isFullAndIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival.get() > idleNanos;
+    }
+}
@@ -0,0 +1,233 @@
+package io.malicki.bankingsystem.schedule;
+
+import io.malicki.bankingsystem.domain.schedule.ScheduleStatus;
+import io.malicki.bankingsystem.domain.schedule.ScheduleTimer;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransferRepository;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransferService;
+import io.malicki.bankingsystem.domain.schedule.TransferScheduledEvent;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorClassifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs scheduled and standing-order transfers. The schedules live in
+// scheduled_transfers; only the ones due within load-horizon are in memory,
+// as (id, due) timers on a TimingWheel. The loader pulls in the next slice of
+// the table before the horizon runs out, the ticker hands the expired timers
+// to ScheduledTransferService.fire in batches.
+//
+// Nothing in memory is authoritative: after a restart the first load starts
+// from the epoch, so executions missed while down run (each one, in order of
+// due time), and a timer that fires twice - reloaded, retried, registered by
+// both the loader and a new schedule - creates one transfer (see fire).
+//
+// A batch that fails is rolled back and re-run one schedule per transaction,
+// so a schedule that keeps failing only holds up itself. After max-attempts
+// non-transient failures in a row it is SUSPENDED.
+@Component
+@Slf4j
+public class StandingOrderScheduler {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final ScheduledTransferService scheduledTransferService;
+    private final ErrorClassifier errorClassifier;
+    private final Duration loadHorizon;
+    private final int loadPageSize;
+    private final int batchSize;
+    private final int maxFiresPerTick;
+    private final long retryDelayMs;
+    private final int maxAttempts;
+    private final Counter firedCounter;
+    private final Counter skippedCounter;
+    private final Counter suspendedCounter;
+
+    // Guarded by this
+    private final TimingWheel wheel;
+    // Every schedule due before this is in the wheel or being loaded into it
+    private long loadedUntil = Long.MIN_VALUE;
+    // Schedule id -> failed runs in a row, not counting transient errors
+    private final Map<Long, Integer> failures = new HashMap<>();
+
+    public StandingOrderScheduler(
+            ScheduledTransferRepository scheduledTransferRepository,
+            ScheduledTransferService scheduledTransferService,
+            ErrorClassifier errorClassifier,
+            MeterRegistry meterRegistry,
+            @Value("${banking.schedule.tick-ms:1000}") long tickMs,
+            @Value("${banking.schedule.wheel-size:64}") int wheelSize,
+            @Value("${banking.schedule.levels:4}") int levels,
+            @Value("${banking.schedule.load-horizon-minutes:60}") long loadHorizonMinutes,
+            @Value("${banking.schedule.load-interval-ms:60000}") long loadIntervalMs,
+            @Value("${banking.schedule.load-page-size:10000}") int loadPageSize,
+            @Value("${banking.schedule.batch-size:500}") int batchSize,
+            @Value("${banking.schedule.max-fires-per-tick:10000}") int maxFiresPerTick,
+            @Value("${banking.schedule.retry-delay-ms:5000}") long retryDelayMs,
+            @Value("${banking.schedule.max-attempts:5}") int maxAttempts
+    ) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.scheduledTransferService = scheduledTransferService;
+        this.errorClassifier = errorClassifier;
+        this.loadHorizon = Duration.ofMinutes(loadHorizonMinutes);
+        this.loadPageSize = loadPageSize;
+        this.batchSize = batchSize;
+        this.maxFiresPerTick = maxFiresPerTick;
+        this.retryDelayMs = retryDelayMs;
+        this.maxAttempts = maxAttempts;
+        this.wheel = new TimingWheel(tickMs, wheelSize, levels, System.currentTimeMillis());
+
+        // Each load must land before the previous horizon runs out
+        if (loadIntervalMs >= loadHorizon.toMillis()) {
+            throw new IllegalArgumentException("banking.schedule.load-interval-ms (" + loadIntervalMs
+                    + ") must be shorter than load-horizon-minutes (" + loadHorizonMinutes + ")");
+        }
+
+        Gauge.builder("banking.schedule.timers", this, StandingOrderScheduler::timerCount)
+                .description("Schedule timers held in memory")
+                .register(meterRegistry);
+        this.firedCounter = meterRegistry.counter("banking.schedule.executions", "result", "fired");
+        this.skippedCounter = meterRegistry.counter("banking.schedule.executions", "result", "skipped");
+        this.suspendedCounter = meterRegistry.counter("banking.schedule.executions", "result", "suspended");
+    }
+
+    @Scheduled(fixedDelayString = "${banking.schedule.load-interval-ms:60000}")
+    public void loadUpcoming() {
+        long until = System.currentTimeMillis() + loadHorizon.toMillis();
+        long from;
+        synchronized (this) {
+            from = loadedUntil;
+            // Moved first: a schedule committed while the slice is read is
+            // registered directly if the query misses it
+            loadedUntil = until;
+        }
+
+        Instant afterAt = from == Long.MIN_VALUE ? Instant.EPOCH : Instant.ofEpochMilli(from);
+        long afterId = -1;
+        long loaded = 0;
+        try {
+            List<ScheduleTimer> page;
+            do {
+                page = scheduledTransferRepository.findDueBefore(ScheduleStatus.ACTIVE,
+                        Instant.ofEpochMilli(until), afterAt, afterId, Limit.of(loadPageSize));
+                synchronized (this) {
+                    page.forEach(timer -> wheel.add(timer.getId(), timer.getNextExecutionAt().toEpochMilli()));
+                }
+                if (!page.isEmpty()) {
+                    ScheduleTimer last = page.get(page.size() - 1);
+                    afterAt = last.getNextExecutionAt();
+                    afterId = last.getId();
+                }
+                loaded += page.size();
+            } while (page.size() == loadPageSize);
+        } catch (RuntimeException e) {
+            // The whole slice again next time; timers already added run once anyway
+            synchronized (this) {
+                loadedUntil = from;
+            }
+            log.error("❌ Loading schedules due before {} failed: {}", Instant.ofEpochMilli(until), e.getMessage());
+            return;
+        }
+
+        if (loaded > 0) {
+            log.info("📅 Loaded {} scheduled transfers due before {} ({} timers)",
+                    loaded, Instant.ofEpochMilli(until), timerCount());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.schedule.tick-ms:1000}")
+    public void fireDue() {
+        List<Long> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advance(System.currentTimeMillis());
+            // The rest stay ready for the next tick, so a burst (the 1st of the
+            // month) doesn't hold the scheduling thread
+            wheel.drain(maxFiresPerTick, (id, dueMillis) -> due.add(id));
+        }
+
+        for (int from = 0; from < due.size(); from += batchSize) {
+            fire(due.subList(from, Math.min(due.size(), from + batchSize)));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransferScheduled(TransferScheduledEvent event) {
+        register(event.getId(), event.getNextExecutionAt());
+    }
+
+    private void fire(List<Long> ids) {
+        try {
+            Map<Long, Instant> fired = scheduledTransferService.fire(ids, Instant.now());
+            firedCounter.increment(fired.size());
+            skippedCounter.increment(ids.size() - fired.size());
+            synchronized (this) {
+                ids.forEach(failures::remove);
+            }
+            fired.forEach(this::register);
+        } catch (RuntimeException e) {
+            // Rolled back - still due in the table
+            if (ids.size() > 1) {
+                log.warn("⚠️ Running {} scheduled transfers failed, running them one by one: {}",
+                        ids.size(), e.getMessage());
+                ids.forEach(id -> fire(List.of(id)));
+                return;
+            }
+            retryOrSuspend(ids.get(0), e);
+        }
+    }
+
+    // Transient errors (DB down, lock timeouts) are retried without limit
+    private void retryOrSuspend(Long id, RuntimeException e) {
+        boolean transientError = errorClassifier.classify(e) == ErrorCategory.TECHNICAL_TRANSIENT;
+        int attempts;
+        synchronized (this) {
+            attempts = transientError ? failures.getOrDefault(id, 0) : failures.merge(id, 1, Integer::sum);
+        }
+
+        if (attempts >= maxAttempts) {
+            try {
+                scheduledTransferService.suspend(id);
+                synchronized (this) {
+                    failures.remove(id);
+                }
+                suspendedCounter.increment();
+                log.error("🛑 Scheduled transfer {} failed {} times in a row, suspended: {}",
+                        id, attempts, e.getMessage());
+                return;
+            } catch (RuntimeException suspendFailed) {
+                log.error("❌ Suspending scheduled transfer {} failed: {}", id, suspendFailed.getMessage());
+            }
+        }
+
+        log.error("❌ Running scheduled transfer {} failed (attempt {}), retrying in {}ms: {}",
+                id, attempts, retryDelayMs, e.getMessage());
+        long retryAt = System.currentTimeMillis() + retryDelayMs;
+        synchronized (this) {
+            wheel.add(id, retryAt);
+        }
+    }
+
+    // Later ones are picked up by the loader
+    private synchronized void register(Long id, Instant nextExecutionAt) {
+        if (nextExecutionAt != null && nextExecutionAt.toEpochMilli() < loadedUntil) {
+            wheel.add(id, nextExecutionAt.toEpochMilli());
+        }
+    }
+
+    private synchronized long timerCount() {
+        return wheel.size();
+    }
+}
@@ -0,0 +1,157 @@
+package io.malicki.bankingsystem.schedule;
+
+// Hierarchical timing wheel (Varghese & Lauck, the layout of Kafka's request
+// purgatory). Level 0 has wheelSize slots of tickMillis; each slot of a level
+// above is as wide as the whole level below, so 4 levels of 64 one-second
+// slots cover 194 days. add() is O(levels), a tick O(1) plus the timers it
+// moves; a timer moves down at most levels - 1 times before it is due.
+//
+// Timers are (id, dueMillis) pairs packed into long arrays - 16 bytes each
+// plus growth slack, no object per timer. A timer never becomes ready before
+// its due time, and at most one tick after it. Not thread-safe.
+class TimingWheel {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelTick;     // slot width per level
+    private final Slot[][] slots;       // [level][slot]
+    private final Slot ready = new Slot();
+
+    private long currentTime;           // start of the current level-0 slot
+    private long size;
+
+    TimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid timing wheel: tick " + tickMillis + "ms, " + wheelSize + " slots, " + levels + " levels");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelTick = new long[levels];
+        this.slots = new Slot[levels][wheelSize];
+        for (int level = 0; level < levels; level++) {
+            levelTick[level] = level == 0 ? tickMillis : Math.multiplyExact(levelTick[level - 1], (long) wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots[level][slot] = new Slot();
+            }
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+
+    void add(long id, long dueMillis) {
+        size++;
+        place(id, dueMillis);
+    }
+
+    private void place(long id, long due) {
+        if (due < currentTime) {
+            ready.add(id, due);
+            return;
+        }
+        for (int level = 0; level < levelTick.length; level++) {
+            long tick = levelTick[level];
+            long levelStart = currentTime - currentTime % tick;
+            if (due < levelStart + tick * wheelSize) {
+                slots[level][slot(due, tick)].add(id, due);
+                return;
+            }
+        }
+        // Beyond the top level - parked in its furthest slot, placed again when that slot comes round
+        int top = levelTick.length - 1;
+        long tick = levelTick[top];
+        long levelStart = currentTime - currentTime % tick;
+        slots[top][slot(levelStart + tick * (wheelSize - 1), tick)].add(id, due);
+    }
+
+    // Moves the clock to nowMillis; timers due before it become ready
+    void advance(long nowMillis) {
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+            // The slot just left first - a cascade below may refill its index
+            slots[0][slot(currentTime - tickMillis, tickMillis)].moveTo(this::placeReady);
+            for (int level = levelTick.length - 1; level > 0; level--) {
+                long tick = levelTick[level];
+                if (currentTime % tick == 0) {
+                    slots[level][slot(currentTime, tick)].moveTo(this::place);
+                }
+            }
+        }
+    }
+
+    // Hands out up to max ready timers, oldest first; returns how many
+    int drain(int max, Timers consumer) {
+        int drained = ready.poll(max, consumer);
+        size -= drained;
+        return drained;
+    }
+
+    long size() {
+        return size;
+    }
+
+    private void placeReady(long id, long due) {
+        ready.add(id, due);
+    }
+
+    private int slot(long time, long tick) {
+        return (int) ((time / tick) % wheelSize);
+    }
+
+    interface Timers {
+        void accept(long id, long dueMillis);
+    }
+
+    private static final class Slot {
+
+        private long[] timers = EMPTY;  // id, due, id, due, ...
+        private int head;               // read position, only the ready slot is polled
+        private int end;
+
+        void add(long id, long due) {
+            if (end + 2 > timers.length) {
+                grow();
+            }
+            timers[end++] = id;
+            timers[end++] = due;
+        }
+
+        int poll(int max, Timers consumer) {
+            int polled = 0;
+            while (head < end && polled < max) {
+                consumer.accept(timers[head], timers[head + 1]);
+                head += 2;
+                polled++;
+            }
+            if (head == end) {
+                timers = EMPTY;
+                head = 0;
+                end = 0;
+            }
+            return polled;
+        }
+
+        // Detached first: the timers may be placed back into this wheel
+        void moveTo(Timers consumer) {
+            long[] moved = timers;
+            int from = head;
+            int to = end;
+            timers = EMPTY;
+            head = 0;
+            end = 0;
+            for (int i = from; i < to; i += 2) {
+                consumer.accept(moved[i], moved[i + 1]);
+            }
+        }
+
+        private void grow() {
+            int live = end - head;
+            long[] grown = live + 2 > timers.length / 2 ? new long[Math.max(16, timers.length * 2)] : timers;
+            System.arraycopy(timers, head, grown, 0, live);
+            timers = grown;
+            head = 0;
+            end = live;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package io.malicki.bankingsystem.velocity;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sent/received sums and counts for one account, bucketed into a ring of
+// fixed-width time buckets covering the longest window. Every configured
+// window keeps a running sliding total (buckets are subtracted as they age
+// out) and a running tumbling total (reset at each aligned period), so reads
+// are O(windows) no matter how many transfers the account made.
+// The ring is parallel primitive arrays - BYTES_PER_BUCKET a slot, no object
+// per bucket - as it is most of what a tracked account costs.
+// Not thread-safe - VelocityTracker only touches it inside map compute calls.
+class AccountWindows {
+
+    // slotBucket + sentCents + sentCount + receivedCents + receivedCount
+    static final int BYTES_PER_BUCKET = 8 + 8 + 4 + 8 + 4;
+
+    private final long bucketMillis;
+    private final int[] windowBuckets;     // window length in buckets, per window
+    private final int ringSize;
+
+    private final long[] slotBucket;       // absolute bucket index held by each slot
+    private final long[] slotSentCents;
+    private final int[] slotSentCount;
+    private final long[] slotReceivedCents;
+    private final int[] slotReceivedCount;
+
+    private final Totals[] sliding;
+    private final Totals[] tumbling;
+    private final long[] tumblingPeriod;
+
+    private long head = Long.MIN_VALUE;    // newest bucket advanced to
+
+    AccountWindows(long bucketMillis, int[] windowBuckets) {
+        this.bucketMillis = bucketMillis;
+        this.windowBuckets = windowBuckets;
+
+        int longest = 0;
+        for (int buckets : windowBuckets) {
+            longest = Math.max(longest, buckets);
+        }
+        this.ringSize = longest;
+
+        this.slotBucket = new long[ringSize];
+        this.slotSentCents = new long[ringSize];
+        this.slotSentCount = new int[ringSize];
+        this.slotReceivedCents = new long[ringSize];
+        this.slotReceivedCount = new int[ringSize];
+        this.sliding = newTotals(windowBuckets.length);
+        this.tumbling = newTotals(windowBuckets.length);
+        this.tumblingPeriod = new long[windowBuckets.length];
+    }
+
+    // Returns false if the event is older than the longest window
+    boolean record(long epochMillis, boolean sent, long cents) {
+        long bucket = epochMillis / bucketMillis;
+        if (head == Long.MIN_VALUE || bucket > head) {
+            advance(bucket);
+        }
+        if (bucket <= head - ringSize) {
+            return false;
+        }
+
+        // A late event can land in a slot still holding an expired bucket
+        // (e.g. after an idle reset) - that data is outside every window
+        int slot = slot(bucket);
+        if (slotBucket[slot] != bucket) {
+            clearSlot(slot);
+            slotBucket[slot] = bucket;
+        }
+        if (sent) {
+            slotSentCents[slot] += cents;
+            slotSentCount[slot]++;
+        } else {
+            slotReceivedCents[slot] += cents;
+            slotReceivedCount[slot]++;
+        }
+        for (int i = 0; i < windowBuckets.length; i++) {
+            if (bucket > head - windowBuckets[i]) {
+                sliding[i].add(sent, cents, 1);
+            }
+            if (bucket / windowBuckets[i] == tumblingPeriod[i]) {
+                tumbling[i].add(sent, cents, 1);
+            }
+        }
+        return true;
+    }
+
+    // Moves the ring forward, expiring buckets from each sliding window.
+    // Costs at most ringSize steps however long the account was idle.
+    void advance(long bucket) {
+        if (head != Long.MIN_VALUE && bucket <= head) {
+            return;
+        }
+
+        if (head == Long.MIN_VALUE || bucket - head >= ringSize) {
+            for (int s = 0; s < ringSize; s++) {
+                clearSlot(s);
+                slotBucket[s] = Long.MIN_VALUE;
+            }
+            for (Totals totals : sliding) {
+                totals.clear();
+            }
+        } else {
+            for (long b = head + 1; b <= bucket; b++) {
+                for (int i = 0; i < windowBuckets.length; i++) {
+                    long expired = b - windowBuckets[i];
+                    int slot = slot(expired);
+                    if (slotBucket[slot] == expired) {
+                        sliding[i].subtract(slotSentCents[slot], slotSentCount[slot],
+                                slotReceivedCents[slot], slotReceivedCount[slot]);
+                    }
+                }
+                clearSlot(slot(b));
+                slotBucket[slot(b)] = b;
+            }
+        }
+        slotBucket[slot(bucket)] = bucket;
+
+        for (int i = 0; i < windowBuckets.length; i++) {
+            long period = bucket / windowBuckets[i];
+            if (period != tumblingPeriod[i]) {
+                tumblingPeriod[i] = period;
+                tumbling[i].clear();
+            }
+        }
+        head = bucket;
+    }
+
+    long sentCents(int window) {
+        return sliding[window].sentCents;
+    }
+
+    long sentCount(int window) {
+        return sliding[window].sentCount;
+    }
+
+    // Nothing left in the longest window - safe to forget the account
+    boolean isIdle(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        int longest = 0;
+        for (int i = 1; i < windowBuckets.length; i++) {
+            if (windowBuckets[i] > windowBuckets[longest]) {
+                longest = i;
+            }
+        }
+        return sliding[longest].isEmpty();
+    }
+
+    List<VelocityWindow> sliding(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        List<VelocityWindow> windows = new ArrayList<>(windowBuckets.length);
+        for (int i = 0; i < windowBuckets.length; i++) {
+            long startBucket = head - windowBuckets[i] + 1;
+            windows.add(sliding[i].toWindow("sliding", duration(i), Instant.ofEpochMilli(startBucket * bucketMillis)));
+        }
+        return windows;
+    }
+
+    List<VelocityWindow> tumbling(long nowMillis) {
+        advance(nowMillis / bucketMillis);
+        List<VelocityWindow> windows = new ArrayList<>(windowBuckets.length);
+        for (int i = 0; i < windowBuckets.length; i++) {
+            long startBucket = tumblingPeriod[i] * windowBuckets[i];
+            windows.add(tumbling[i].toWindow("tumbling", duration(i), Instant.ofEpochMilli(startBucket * bucketMillis)));
+        }
+        return windows;
+    }
+
+    private Duration duration(int window) {
+        return Duration.ofMillis(windowBuckets[window] * bucketMillis);
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) ringSize);
+    }
+
+    private void clearSlot(int slot) {
+        slotSentCents[slot] = 0;
+        slotSentCount[slot] = 0;
+        slotReceivedCents[slot] = 0;
+        slotReceivedCount[slot] = 0;
+    }
+
+    private static Totals[] newTotals(int size) {
+        Totals[] totals = new Totals[size];
+        for (int i = 0; i < size; i++) {
+            totals[i] = new Totals();
+        }
+        return totals;
+    }
+
+    private static final class Totals {
+
+        private long sentCents;
+        private long sentCount;
+        private long receivedCents;
+        private long receivedCount;
+
+        void add(boolean sent, long cents, long count) {
+            if (sent) {
+                sentCents += cents;
+                sentCount += count;
+            } else {
+                receivedCents += cents;
+                receivedCount += count;
+            }
+        }
+
+        void subtract(long sentCents, long sentCount, long receivedCents, long receivedCount) {
+            this.sentCents -= sentCents;
+            this.sentCount -= sentCount;
+            this.receivedCents -= receivedCents;
+            this.receivedCount -= receivedCount;
+        }
+
+        void clear() {
+            sentCents = 0;
+            sentCount = 0;
+            receivedCents = 0;
+            receivedCount = 0;
+        }
+
+        boolean isEmpty() {
+            return sentCount == 0 && receivedCount == 0;
+        }
+
+        VelocityWindow toWindow(String type, Duration window, Instant start) {
+            return new VelocityWindow(
+                    type,
+                    window,
+                    start,
+                    BigDecimal.valueOf(sentCents, 2),
+                    sentCount,
+                    BigDecimal.valueOf(receivedCents, 2),
+                    receivedCount
+            );
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.malicki.bankingsystem.velocity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class VelocitySnapshot {
+
+    private final String accountNumber;
+    private final Instant asOf;
+    private final List<VelocityWindow> sliding;
+    private final List<VelocityWindow> tumbling;
+}
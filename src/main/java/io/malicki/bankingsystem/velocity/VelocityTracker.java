@@ -0,0 +1,246 @@
+package io.malicki.bankingsystem.velocity;
+
+import io.malicki.bankingsystem.exception.VelocityLimitExceededException;
+import io.malicki.bankingsystem.exception.VelocityStateUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-account windowed aggregates of completed transfers, fed by
+// VelocityConsumer. Velocity checks read a running total instead of
+// summing the transfers table.
+//
+// Kept per transfer-completed partition, so a partition this node stops
+// owning can be dropped whole; reads add up the partitions an account shows
+// up in. What an account sent is all in one partition (records are keyed by
+// sender), so the limit is only checked where that partition is held -
+// anywhere else the totals are unknown, not zero.
+@Component
+@Slf4j
+public class VelocityTracker {
+
+    private final long bucketMillis;
+    private final List<Duration> windows;
+    private final int[] windowBuckets;
+    private final int maxAccounts;
+
+    private final boolean limitEnabled;
+    private final int limitWindow;
+    private final long limitMaxCents;
+    private final long limitMaxCount;
+
+    private final Map<Integer, Map<String, AccountWindows>> partitions = new ConcurrentHashMap<>();
+    private final Set<Integer> held = ConcurrentHashMap.newKeySet();
+    private volatile int partitionCount;
+    private final MeterRegistry meterRegistry;
+
+    public VelocityTracker(
+            MeterRegistry meterRegistry,
+            @Value("${banking.velocity.bucket-seconds:10}") long bucketSeconds,
+            @Value("${banking.velocity.windows:1m,5m,1h}") List<Duration> windows,
+            @Value("${banking.velocity.max-accounts:20000}") int maxAccounts,
+            @Value("${banking.velocity.limit.enabled:true}") boolean limitEnabled,
+            @Value("${banking.velocity.limit.window:5m}") Duration limitWindow,
+            @Value("${banking.velocity.limit.max-amount:1000000}") BigDecimal limitMaxAmount,
+            @Value("${banking.velocity.limit.max-count:1000}") long limitMaxCount
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.bucketMillis = Duration.ofSeconds(bucketSeconds).toMillis();
+        this.windows = List.copyOf(windows);
+        this.windowBuckets = new int[windows.size()];
+        for (int i = 0; i < windows.size(); i++) {
+            long millis = windows.get(i).toMillis();
+            if (millis <= 0 || millis % bucketMillis != 0) {
+                throw new IllegalArgumentException(
+                        "Velocity window " + windows.get(i) + " is not a multiple of " + bucketSeconds + "s buckets");
+            }
+            windowBuckets[i] = (int) (millis / bucketMillis);
+        }
+        this.maxAccounts = maxAccounts;
+        long accountBytes = (long) Arrays.stream(windowBuckets).max().orElse(0) * AccountWindows.BYTES_PER_BUCKET;
+        log.info("📈 Velocity windows: ~{} KB per account, up to {} accounts (~{} MB)",
+                accountBytes / 1024, maxAccounts, accountBytes * maxAccounts / (1024 * 1024));
+
+        this.limitEnabled = limitEnabled;
+        this.limitWindow = this.windows.indexOf(limitWindow);
+        if (limitEnabled && this.limitWindow < 0) {
+            throw new IllegalArgumentException("Velocity limit window " + limitWindow + " is not one of " + windows);
+        }
+        this.limitMaxCents = toCents(limitMaxAmount);
+        this.limitMaxCount = limitMaxCount;
+
+        Gauge.builder("banking.velocity.accounts", this, VelocityTracker::trackedAccounts).register(meterRegistry);
+    }
+
+    public Duration getHorizon() {
+        return windows.stream().max(Duration::compareTo).orElse(Duration.ZERO);
+    }
+
+    public void record(int partition, String fromAccount, String toAccount, BigDecimal amount, Instant at) {
+        long cents = toCents(amount);
+        long millis = at.toEpochMilli();
+        Map<String, AccountWindows> accounts = partitions.computeIfAbsent(partition, key -> new ConcurrentHashMap<>());
+        record(accounts, fromAccount, true, cents, millis);
+        record(accounts, toAccount, false, cents, millis);
+    }
+
+    // One side of a transfer - a warm-up after a partition-count change counts a
+    // sender where it is validated now, not where its old transfers were published
+    public void recordSent(int partition, String fromAccount, BigDecimal amount, Instant at) {
+        Map<String, AccountWindows> accounts = partitions.computeIfAbsent(partition, key -> new ConcurrentHashMap<>());
+        record(accounts, fromAccount, true, toCents(amount), at.toEpochMilli());
+    }
+
+    public void recordReceived(int partition, String toAccount, BigDecimal amount, Instant at) {
+        Map<String, AccountWindows> accounts = partitions.computeIfAbsent(partition, key -> new ConcurrentHashMap<>());
+        record(accounts, toAccount, false, toCents(amount), at.toEpochMilli());
+    }
+
+    // Warmed and followed from here on - limit checks for its senders are answered
+    public void hold(int partition, int partitionCount) {
+        this.partitionCount = partitionCount;
+        held.add(partition);
+    }
+
+    // Partition no longer owned - its transfers are replayed by whoever owns it next
+    public int evictPartition(int partition) {
+        held.remove(partition);
+        Map<String, AccountWindows> accounts = partitions.remove(partition);
+        return accounts != null ? accounts.size() : 0;
+    }
+
+    // All access to an account goes through compute*, which serialises it
+    // per key (and makes eviction atomic with respect to recording)
+    private void record(Map<String, AccountWindows> accounts, String accountNumber, boolean sent, long cents, long millis) {
+        // Full - stop tracking new ones rather than grow without bound. Idle
+        // accounts are left to the scheduled sweep; a full sweep here would
+        // stall the feed thread on every new account.
+        if (!accounts.containsKey(accountNumber) && trackedAccounts() >= maxAccounts) {
+            meterRegistry.counter("banking.velocity.dropped").increment();
+            log.warn("⚠️ Velocity tracker full ({} accounts), not tracking {}", maxAccounts, accountNumber);
+            return;
+        }
+
+        accounts.compute(accountNumber, (key, account) -> {
+            AccountWindows windows = account != null ? account : new AccountWindows(bucketMillis, windowBuckets);
+            windows.record(millis, sent, cents);
+            return windows;
+        });
+    }
+
+    // O(1): one running total per window, nothing is summed on the read path
+    public void checkLimit(String accountNumber, BigDecimal amount) {
+        if (!limitEnabled) {
+            return;
+        }
+
+        int partition = partitionOf(accountNumber);
+        if (partition < 0 || !held.contains(partition)) {
+            meterRegistry.counter("banking.velocity.limit.unavailable").increment();
+            throw new VelocityStateUnavailableException(accountNumber, partition);
+        }
+
+        long[] sent = new long[2];  // cents, count
+        long bucket = System.currentTimeMillis() / bucketMillis;
+        Map<String, AccountWindows> accounts = partitions.get(partition);
+        if (accounts != null) {
+            accounts.computeIfPresent(accountNumber, (key, account) -> {
+                account.advance(bucket);
+                sent[0] = account.sentCents(limitWindow);
+                sent[1] = account.sentCount(limitWindow);
+                return account;
+            });
+        }
+
+        if (sent[0] + toCents(amount) > limitMaxCents || sent[1] + 1 > limitMaxCount) {
+            meterRegistry.counter("banking.velocity.limit.exceeded").increment();
+            throw new VelocityLimitExceededException(
+                    accountNumber, windows.get(limitWindow), BigDecimal.valueOf(sent[0], 2), sent[1]);
+        }
+    }
+
+    public Optional<VelocitySnapshot> getSnapshot(String accountNumber) {
+        long now = System.currentTimeMillis();
+        VelocitySnapshot[] snapshot = new VelocitySnapshot[1];
+        for (Map<String, AccountWindows> accounts : partitions.values()) {
+            accounts.computeIfPresent(accountNumber, (key, account) -> {
+                List<VelocityWindow> sliding = account.sliding(now);
+                List<VelocityWindow> tumbling = account.tumbling(now);
+                snapshot[0] = snapshot[0] == null
+                        ? new VelocitySnapshot(accountNumber, Instant.ofEpochMilli(now), sliding, tumbling)
+                        : new VelocitySnapshot(accountNumber, Instant.ofEpochMilli(now),
+                                add(snapshot[0].getSliding(), sliding), add(snapshot[0].getTumbling(), tumbling));
+                return account;
+            });
+        }
+        return Optional.ofNullable(snapshot[0]);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictIdleAccounts() {
+        long now = System.currentTimeMillis();
+        for (Map<String, AccountWindows> accounts : partitions.values()) {
+            for (String accountNumber : accounts.keySet()) {
+                accounts.computeIfPresent(accountNumber, (key, account) -> account.isIdle(now) ? null : account);
+            }
+        }
+    }
+
+    // -1 before any partition is held
+    private int partitionOf(String accountNumber) {
+        int count = partitionCount;
+        return count > 0 ? partitionOf(accountNumber, count) : -1;
+    }
+
+    // The producer's default partitioner on the sender key
+    public static int partitionOf(String accountNumber, int partitionCount) {
+        return Utils.toPositive(Utils.murmur2(accountNumber.getBytes(StandardCharsets.UTF_8))) % partitionCount;
+    }
+
+    private int trackedAccounts() {
+        int tracked = 0;
+        for (Map<String, AccountWindows> accounts : partitions.values()) {
+            tracked += accounts.size();
+        }
+        return tracked;
+    }
+
+    // Same windows advanced to the same instant, so they line up index by index
+    private static List<VelocityWindow> add(List<VelocityWindow> left, List<VelocityWindow> right) {
+        List<VelocityWindow> sum = new ArrayList<>(left.size());
+        for (int i = 0; i < left.size(); i++) {
+            VelocityWindow a = left.get(i);
+            VelocityWindow b = right.get(i);
+            sum.add(new VelocityWindow(
+                    a.getType(),
+                    a.getWindow(),
+                    a.getStart(),
+                    a.getSentAmount().add(b.getSentAmount()),
+                    a.getSentCount() + b.getSentCount(),
+                    a.getReceivedAmount().add(b.getReceivedAmount()),
+                    a.getReceivedCount() + b.getReceivedCount()));
+        }
+        return sum;
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
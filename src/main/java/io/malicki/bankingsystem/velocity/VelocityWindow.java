@@ -0,0 +1,23 @@
+package io.malicki.bankingsystem.velocity;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+@Getter
+@AllArgsConstructor
+public class VelocityWindow {
+
+    private final String type;  // sliding (last N) or tumbling (current aligned period)
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private final Duration window;
+    private final Instant start;
+    private final BigDecimal sentAmount;
+    private final long sentCount;
+    private final BigDecimal receivedAmount;
+    private final long receivedCount;
+}
@@ -4,4 +4,10 @@ KEY(account_number) VALUES
     (2, 'ACC002', 'Jane Smith', 5000.00, true, CURRENT_TIMESTAMP, 0),
     (3, 'ACC003', 'Bob Johnson', 15000.00, true, CURRENT_TIMESTAMP, 0),
     (4, 'ACC004', 'Alice Williams', 2000.00, true, CURRENT_TIMESTAMP, 0),
-    (5, 'ACC005', 'Charlie Brown', 500.00, true, CURRENT_TIMESTAMP, 0);
\ No newline at end of file
+    (5, 'ACC005', 'Charlie Brown', 500.00, true, CURRENT_TIMESTAMP, 0);
+
+-- Ids come from pooled-lo sequences (allocationSize 50). Tables created while ids
+-- were IDENTITY columns already hold rows, so start each sequence past them.
+ALTER SEQUENCE accounts_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM accounts);
+ALTER SEQUENCE transfers_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM transfers);
+ALTER SEQUENCE outbox_events_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM outbox_events);
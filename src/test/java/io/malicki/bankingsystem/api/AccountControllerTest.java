@@ -0,0 +1,32 @@
+package io.malicki.bankingsystem.api;
+
+import io.malicki.bankingsystem.domain.account.AccountBalance;
+import io.malicki.bankingsystem.domain.account.AccountBalanceProjection;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountControllerTest {
+
+	@Test
+	void balancesAreRefusedUntilTheProjectionIsReady() {
+		AccountBalanceProjection projection = new AccountBalanceProjection(null, null);
+		AccountController controller = new AccountController(null, projection, null);
+		// Rebuilt, but the feed has not caught up yet
+		projection.apply(new AccountBalance("ACC001", new BigDecimal("70.00"), true, 1L));
+
+		assertThat(controller.getBalance("ACC001").getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(controller.getBalances(List.of("ACC001")).getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+		projection.markReady();
+
+		assertThat(controller.getBalance("ACC001").getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(controller.getBalance("ACC001").getBody().getBalance()).isEqualByComparingTo("70.00");
+		assertThat(controller.getBalance("NOPE").getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(controller.getBalances(List.of("ACC001")).getBody()).containsOnlyKeys("ACC001");
+	}
+}
@@ -0,0 +1,247 @@
+package io.malicki.bankingsystem.api;
+
+import io.malicki.bankingsystem.api.dto.TransferRequest;
+import io.malicki.bankingsystem.api.dto.TransferResponse;
+import io.malicki.bankingsystem.domain.account.Account;
+import io.malicki.bankingsystem.domain.account.AccountRepository;
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.domain.transfer.TransferExecutor;
+import io.malicki.bankingsystem.domain.transfer.TransferRepository;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// POST /api/transfers?mode=sync against an embedded H2. The outbox is never
+// relayed here, so each test sees exactly what its request committed. A row
+// lock held from another transaction stands in for a slow lock: longer than
+// the deadline, or longer than the DB's lock timeout. A failing commit is
+// armed on the next money move through the executor below.
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.datasource.url=jdbc:h2:mem:synctest;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=3000",
+				"banking.outbox.poll-interval-ms=3600000",
+				"banking.transfer.sync.deadline-ms=1000",
+				// Answered by the node holding the sender's partition - not what these tests are about
+				"banking.velocity.limit.enabled=false",
+				"banking.audit.directory=target/sync-test/audit",
+				"banking.dlt.fingerprint-directory=target/sync-test/fingerprints"
+		})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class TransferControllerSyncTest {
+
+	static final AtomicBoolean FAIL_BEFORE_COMMIT = new AtomicBoolean();
+	static final AtomicBoolean FAIL_AFTER_COMMIT = new AtomicBoolean();
+
+	@TestConfiguration
+	static class FailingCommits {
+
+		@Bean
+		@Primary
+		TransferExecutor failingCommitTransferExecutor(AccountRepository accountRepository) {
+			return new TransferExecutor(accountRepository) {
+				@Override
+				public TransferEvent apply(TransferEvent transfer, LockedAccounts accounts) {
+					TransferEvent completed = super.apply(transfer, accounts);
+					boolean beforeCommit = FAIL_BEFORE_COMMIT.getAndSet(false);
+					boolean afterCommit = FAIL_AFTER_COMMIT.getAndSet(false);
+					if (!beforeCommit && !afterCommit) {
+						return completed;
+					}
+					TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void beforeCommit(boolean readOnly) {
+							if (beforeCommit) {
+								throw new IllegalStateException("commit failed");
+							}
+						}
+
+						// The commit went through, but the caller only sees the error
+						@Override
+						public void afterCommit() {
+							if (afterCommit) {
+								throw new IllegalStateException("connection lost during commit");
+							}
+						}
+					});
+					return completed;
+				}
+			};
+		}
+	}
+
+	@Autowired
+	TestRestTemplate restTemplate;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	TransferRepository transferRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Test
+	void completesWithinTheRequest() {
+		List<String> accounts = createAccounts();
+
+		ResponseEntity<TransferResponse> response = transfer(accounts, "30.00");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(response.getBody().getStatus()).isEqualTo(TransferStatus.COMPLETED);
+		assertThat(status(response)).isEqualTo(TransferStatus.COMPLETED);
+		assertThat(balance(accounts.get(0))).isEqualByComparingTo("70.00");
+		assertThat(balance(accounts.get(1))).isEqualByComparingTo("30.00");
+		assertThat(outboxEvents(response)).containsExactly("TransferCompleted");
+	}
+
+	@Test
+	void rejectsBusinessRuleViolationWithoutMovingMoney() {
+		List<String> accounts = createAccounts();
+
+		ResponseEntity<TransferResponse> response = transfer(accounts, "500.00");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+		assertThat(response.getBody().getFailureReason()).contains("Insufficient");
+		assertThat(status(response)).isEqualTo(TransferStatus.FAILED);
+		assertThat(balance(accounts.get(0))).isEqualByComparingTo("100.00");
+		assertThat(balance(accounts.get(1))).isEqualByComparingTo("0.00");
+		assertThat(outboxEvents(response)).isEmpty();
+	}
+
+	@Test
+	void deadlineMissedWhileLockingHandsOverToThePipeline() throws Exception {
+		List<String> accounts = createAccounts();
+
+		// Past the 1s deadline, within the 3s lock timeout
+		CompletableFuture<Void> holder = holdLock(accounts.get(0), 2000);
+		ResponseEntity<TransferResponse> response = transfer(accounts, "30.00");
+		holder.join();
+
+		assertPendingInPipeline(accounts, response);
+	}
+
+	@Test
+	void lockWaitTimeoutHandsOverToThePipeline() throws Exception {
+		List<String> accounts = createAccounts();
+
+		// Past the 3s lock timeout - the attempt fails and rolls back
+		CompletableFuture<Void> holder = holdLock(accounts.get(0), 5000);
+		ResponseEntity<TransferResponse> response = transfer(accounts, "30.00");
+		holder.join();
+
+		assertPendingInPipeline(accounts, response);
+		// Only the fallback's row - nothing of the failed attempt committed
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfers WHERE from_account_number = ?",
+				Long.class, accounts.get(0))).isEqualTo(1);
+	}
+
+	@Test
+	void commitFailureAfterTheMoneyMovedHandsOverToThePipeline() {
+		List<String> accounts = createAccounts();
+
+		FAIL_BEFORE_COMMIT.set(true);
+		ResponseEntity<TransferResponse> response = transfer(accounts, "30.00");
+
+		assertPendingInPipeline(accounts, response);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfers WHERE from_account_number = ?",
+				Long.class, accounts.get(0))).isEqualTo(1);
+	}
+
+	@Test
+	void commitThatWentThroughDespiteTheErrorIsNotRunAgain() {
+		List<String> accounts = createAccounts();
+
+		FAIL_AFTER_COMMIT.set(true);
+		ResponseEntity<TransferResponse> response = transfer(accounts, "30.00");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		assertThat(response.getBody().getStatus()).isEqualTo(TransferStatus.COMPLETED);
+		assertThat(balance(accounts.get(0))).isEqualByComparingTo("70.00");
+		assertThat(balance(accounts.get(1))).isEqualByComparingTo("30.00");
+		assertThat(outboxEvents(response)).containsExactly("TransferCompleted");
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfers WHERE from_account_number = ?",
+				Long.class, accounts.get(0))).isEqualTo(1);
+	}
+
+	private void assertPendingInPipeline(List<String> accounts, ResponseEntity<TransferResponse> response) {
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+		assertThat(response.getBody().getStatus()).isEqualTo(TransferStatus.PENDING);
+		assertThat(status(response)).isEqualTo(TransferStatus.PENDING);
+		assertThat(balance(accounts.get(0))).isEqualByComparingTo("100.00");
+		assertThat(balance(accounts.get(1))).isEqualByComparingTo("0.00");
+		assertThat(outboxEvents(response)).containsExactly("TransferCreated");
+	}
+
+	private List<String> createAccounts() {
+		String prefix = "SYNC" + ThreadLocalRandom.current().nextInt(1_000_000);
+		accountRepository.saveAll(List.of(
+				new Account(null, prefix + "A", "Sync sender", new BigDecimal("100.00"), true, null, null),
+				new Account(null, prefix + "B", "Sync receiver", BigDecimal.ZERO, true, null, null)));
+		return List.of(prefix + "A", prefix + "B");
+	}
+
+	private ResponseEntity<TransferResponse> transfer(List<String> accounts, String amount) {
+		return restTemplate.postForEntity("/api/transfers?mode=sync",
+				new TransferRequest(accounts.get(0), accounts.get(1), new BigDecimal(amount), "sync test"),
+				TransferResponse.class);
+	}
+
+	// Returns once the row is locked; the lock is released after `millis`
+	private CompletableFuture<Void> holdLock(String accountNumber, long millis) throws InterruptedException {
+		CountDownLatch locked = new CountDownLatch(1);
+		CompletableFuture<Void> holder = CompletableFuture.runAsync(() ->
+				new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+					accountRepository.findByAccountNumberWithLock(accountNumber);
+					locked.countDown();
+					try {
+						Thread.sleep(millis);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}));
+		locked.await();
+		return holder;
+	}
+
+	private TransferStatus status(ResponseEntity<TransferResponse> response) {
+		return transferRepository.findByTransferId(response.getBody().getTransferId())
+				.map(Transfer::getStatus).orElseThrow();
+	}
+
+	private BigDecimal balance(String accountNumber) {
+		return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+	}
+
+	private List<String> outboxEvents(ResponseEntity<TransferResponse> response) {
+		return jdbcTemplate.queryForList("SELECT event_type FROM outbox_events WHERE aggregate_id = ? ORDER BY id",
+				String.class, response.getBody().getTransferId());
+	}
+}
@@ -0,0 +1,56 @@
+package io.malicki.bankingsystem.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditLogTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void findsRecordsAcrossBlocksSegmentsAndRestarts() throws Exception {
+		AuditLog auditLog = open();
+		List<AuditRecord> batch = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			batch.add(record("transfer-" + (i % 1_000), Instant.ofEpochMilli(1_000L * i)));
+		}
+		auditLog.append(batch);
+
+		assertThat(auditLog.findByTransferId("transfer-42")).hasSize(20);
+		assertThat(auditLog.findByTransferId("unknown")).isEmpty();
+		auditLog.close();
+
+		AuditLog reopened = open();
+		assertThat(reopened.findByTransferId("transfer-42"))
+				.extracting(AuditRecord::getAmount)
+				.containsOnly(new BigDecimal("12.50"));
+		assertThat(reopened.findBetween(Instant.ofEpochMilli(10_000), Instant.ofEpochMilli(19_000), 100))
+				.hasSize(10);
+
+		reopened.append(List.of(record("transfer-42", Instant.now())));
+		assertThat(reopened.findByTransferId("transfer-42")).hasSize(21);
+		reopened.close();
+	}
+
+	// 1 MB segments with 100 records per block - forces rolls and many blocks
+	private AuditLog open() throws Exception {
+		AuditLog auditLog = new AuditLog(directory.toString(), 1, 100, new SimpleMeterRegistry());
+		auditLog.open();
+		return auditLog;
+	}
+
+	private AuditRecord record(String transferId, Instant timestamp) {
+		return new AuditRecord(timestamp, "transfer-validation", 0, 1L, transferId,
+				"PENDING", "ACC001", "ACC002", new BigDecimal("12.50"));
+	}
+}
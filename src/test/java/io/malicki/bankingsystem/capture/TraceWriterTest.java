@@ -0,0 +1,71 @@
+package io.malicki.bankingsystem.capture;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TraceWriterTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void roundTripsRequestsThroughTheDictionary() throws Exception {
+		Path file = directory.resolve("test.trace");
+		try (TraceWriter writer = new TraceWriter(file, 1_700_000_000_000L)) {
+			writer.write(new CapturedRequest(0, "client-a", "ACC001", "ACC002", new BigDecimal("100.50")));
+			writer.write(new CapturedRequest(1_500, null, "ACC002", "ACC001", new BigDecimal("7")));
+			// Stamped slightly out of order by the API threads
+			writer.write(new CapturedRequest(1_400, "client-a", "ACC001", "ACC003", new BigDecimal("0.01")));
+		}
+
+		try (TraceReader reader = new TraceReader(file)) {
+			assertThat(reader.getStartedAt().toEpochMilli()).isEqualTo(1_700_000_000_000L);
+
+			CapturedRequest first = reader.next();
+			assertThat(first.getClientId()).isEqualTo("client-a");
+			assertThat(first.getAmount()).isEqualTo(new BigDecimal("100.50"));
+
+			CapturedRequest second = reader.next();
+			assertThat(second.getOffsetMicros()).isEqualTo(1_500);
+			assertThat(second.getClientId()).isNull();
+			assertThat(second.getFromAccountNumber()).isEqualTo("ACC002");
+
+			CapturedRequest third = reader.next();
+			assertThat(third.getOffsetMicros()).isEqualTo(1_400);
+			assertThat(third.getToAccountNumber()).isEqualTo("ACC003");
+			assertThat(third.getAmount()).isEqualTo(new BigDecimal("0.01"));
+
+			assertThat(reader.next()).isNull();
+		}
+	}
+
+	@Test
+	void truncatedRecordEndsTheTrace() throws Exception {
+		Path file = directory.resolve("test.trace");
+		try (TraceWriter writer = new TraceWriter(file, 0)) {
+			writer.write(new CapturedRequest(0, "client-a", "ACC001", "ACC002", BigDecimal.ONE));
+			writer.write(new CapturedRequest(10, "client-b", "ACC003", "ACC004", BigDecimal.TEN));
+		}
+		byte[] bytes = Files.readAllBytes(file);
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+		try (TraceReader reader = new TraceReader(file)) {
+			assertThat(reader.next().getFromAccountNumber()).isEqualTo("ACC001");
+			assertThat(reader.next()).isNull();
+		}
+	}
+
+	@Test
+	void rejectsOtherFiles() throws Exception {
+		Path file = Files.writeString(directory.resolve("other.trace"), "not a trace at all");
+		assertThatThrownBy(() -> new TraceReader(file)).hasMessageContaining("Not a transfer trace");
+	}
+}
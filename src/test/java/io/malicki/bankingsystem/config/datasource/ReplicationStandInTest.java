@@ -0,0 +1,193 @@
+package io.malicki.bankingsystem.config.datasource;
+
+import io.malicki.bankingsystem.api.dto.ScheduledTransferRequest;
+import io.malicki.bankingsystem.domain.account.AccountRepository;
+import io.malicki.bankingsystem.domain.dlt.DltRecord;
+import io.malicki.bankingsystem.domain.dlt.DltStore;
+import io.malicki.bankingsystem.domain.schedule.ScheduleFrequency;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransfer;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransferService;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.FailedMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Primary and replica are two in-memory H2 databases. The stand-in's timer only
+// does the first pass here; the tests call replicate() themselves.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:replicatest;DB_CLOSE_DELAY=-1",
+		"banking.datasource.replica.enabled=true",
+		"banking.datasource.replica.url=jdbc:h2:mem:replicatest-replica;DB_CLOSE_DELAY=-1",
+		"banking.datasource.replica.max-lag-ms=1000",
+		"banking.datasource.replica.stand-in.interval-ms=3600000",
+		"banking.outbox.poll-interval-ms=3600000",
+		"banking.velocity.limit.enabled=false",
+		"banking.audit.directory=target/replica-test/audit",
+		"banking.dlt.fingerprint-directory=target/replica-test/fingerprints"
+})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class ReplicationStandInTest {
+
+	@Autowired
+	ReplicationStandIn standIn;
+
+	@Autowired
+	ReplicaLagTracker lagTracker;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	DltStore dltStore;
+
+	@Autowired
+	ScheduledTransferService scheduledTransferService;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	MeterRegistry meterRegistry;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	DataSource replicaDataSource;
+
+	JdbcTemplate primary;
+	JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() {
+		primary = new JdbcTemplate(primaryDataSource);
+		replica = new JdbcTemplate(replicaDataSource);
+		// The first scheduled pass creates the replica schema; the lag stays at a day until it is done
+		await().atMost(Duration.ofSeconds(30)).until(() -> lagTracker.getLag().compareTo(Duration.ofDays(1)) < 0);
+		standIn.replicate();
+		assertThat(lagTracker.isReplicaUsable()).isTrue();
+	}
+
+	@Test
+	void readOnlyWorkGoesToTheReplicaUntilItLagsTooFar() throws Exception {
+		standIn.replicate();
+		insertAccount(900_001L, "RPL900001", "100.00");
+
+		double replicaReads = reads("replica");
+		assertThat(readOnly(() -> accountRepository.findByAccountNumber("RPL900001").isPresent())).isFalse();
+		assertThat(reads("replica")).isEqualTo(replicaReads + 1);
+
+		// Past max-lag-ms without a sync
+		Thread.sleep(1_200);
+		double primaryReads = reads("primary");
+		assertThat(readOnly(() -> accountRepository.findByAccountNumber("RPL900001").isPresent())).isTrue();
+		assertThat(reads("primary")).isEqualTo(primaryReads + 1);
+
+		standIn.replicate();
+		assertThat(readOnly(() -> accountRepository.findByAccountNumber("RPL900001").isPresent())).isTrue();
+	}
+
+	@Test
+	void copiesOnlyChangedRowsAndPropagatesDeletes() {
+		insertAccount(900_002L, "RPL900002", "100.00");
+		insertAccount(900_003L, "RPL900003", "100.00");
+		insertTransfer(900_002L, "RPL900002", "RPL900003");
+		standIn.replicate();
+		assertThat(replicaCount("accounts", 900_002L)).isOne();
+		assertThat(replicaCount("transfers", 900_002L)).isOne();
+
+		// Unchanged on the primary, so a marker written straight into the replica survives
+		replica.update("UPDATE accounts SET owner_name = 'untouched' WHERE id = ?", 900_003L);
+		primary.update("UPDATE accounts SET balance = 50.00, version = version + 1 WHERE id = ?", 900_002L);
+		primary.update("DELETE FROM transfers WHERE id = ?", 900_002L);
+		standIn.replicate();
+
+		assertThat(replica.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, 900_002L))
+				.isEqualByComparingTo("50.00");
+		assertThat(replica.queryForObject("SELECT owner_name FROM accounts WHERE id = ?", String.class, 900_003L))
+				.isEqualTo("untouched");
+		assertThat(replicaCount("transfers", 900_002L)).isZero();
+
+		primary.update("DELETE FROM accounts WHERE id = ?", 900_002L);
+		standIn.replicate();
+		assertThat(replicaCount("accounts", 900_002L)).isZero();
+		assertThat(replicaCount("accounts", 900_003L)).isOne();
+	}
+
+	@Test
+	void dltReadsStayOnThePrimary() {
+		FailedMessage failed = new FailedMessage();
+		failed.setOriginalTopic("transfer-validation");
+		failed.setExceptionType("java.lang.IllegalStateException");
+		failed.setErrorCategory(ErrorCategory.UNKNOWN);
+		failed.setFailedAt(Instant.now());
+		DltRecord stored = dltStore.storeBatch(List.of(
+				new ConsumerRecord<>("transfer-validation-dlt", 0, 900_001L, "RPL900001", failed))).get(0);
+		standIn.replicate();
+
+		// The replica has the table (the schema is copied whole) but never its rows
+		double replicaReads = reads("replica");
+		assertThat(dltStore.findById(stored.getId())).isPresent();
+		assertThat(dltStore.getTotal()).isPositive();
+		assertThat(dltStore.getStats()).isNotEmpty();
+		assertThat(reads("replica")).isEqualTo(replicaReads);
+	}
+
+	@Test
+	void scheduleReadsStayOnThePrimary() {
+		ScheduledTransfer schedule = scheduledTransferService.create(new ScheduledTransferRequest(
+				"RPL900004", "RPL900005", new BigDecimal("10.00"), "replica test",
+				Instant.now().plus(Duration.ofDays(1)), ScheduleFrequency.ONCE, null));
+		standIn.replicate();
+
+		double replicaReads = reads("replica");
+		assertThat(scheduledTransferService.getSchedule(schedule.getScheduleId())).isPresent();
+		assertThat(reads("replica")).isEqualTo(replicaReads);
+	}
+
+	private <T> T readOnly(Supplier<T> work) {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.setReadOnly(true);
+		return transaction.execute(status -> work.get());
+	}
+
+	private double reads(String target) {
+		return meterRegistry.counter("banking.datasource.reads", "target", target).count();
+	}
+
+	private long replicaCount(String table, long id) {
+		return replica.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Long.class, id);
+	}
+
+	private void insertAccount(long id, String accountNumber, String balance) {
+		primary.update("INSERT INTO accounts (id, account_number, owner_name, balance, active, created_at, version) "
+				+ "VALUES (?, ?, 'Replica Test', ?, true, CURRENT_TIMESTAMP, 0)", id, accountNumber, new BigDecimal(balance));
+	}
+
+	private void insertTransfer(long id, String from, String to) {
+		primary.update("INSERT INTO transfers (id, transfer_id, from_account_number, to_account_number, amount, status, "
+				+ "created_at, version) VALUES (?, ?, ?, ?, 1.00, 'COMPLETED', CURRENT_TIMESTAMP, 0)",
+				id, "replica-test-" + id, from, to);
+	}
+}
@@ -0,0 +1,41 @@
+package io.malicki.bankingsystem.domain.account;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountBalanceProjectionTest {
+
+	@Test
+	void olderSnapshotNeverReplacesNewerOne() {
+		AccountBalanceProjection projection = new AccountBalanceProjection(null, null);
+
+		projection.apply(balance("ACC001", "70.00", 2L));
+		// A replayed completion, then a rebuild row read before the transfer
+		projection.apply(balance("ACC001", "100.00", 1L));
+		projection.apply(balance("ACC001", "100.00", 2L));
+		projection.apply(balance("ACC001", "100.00", null));
+		assertThat(projection.getBalance("ACC001").orElseThrow().getBalance()).isEqualByComparingTo("70.00");
+
+		projection.apply(balance("ACC001", "40.00", 3L));
+		assertThat(projection.getBalance("ACC001").orElseThrow().getVersion()).isEqualTo(3L);
+		assertThat(projection.getBalance("ACC001").orElseThrow().getBalance()).isEqualByComparingTo("40.00");
+	}
+
+	@Test
+	void unknownAccountsAreLeftOut() {
+		AccountBalanceProjection projection = new AccountBalanceProjection(null, null);
+		projection.apply(balance("ACC001", "70.00", 1L));
+
+		assertThat(projection.getBalances(List.of("ACC001", "NOPE")))
+				.containsOnlyKeys("ACC001");
+		assertThat(projection.getBalance("NOPE")).isEmpty();
+	}
+
+	private static AccountBalance balance(String accountNumber, String balance, Long version) {
+		return new AccountBalance(accountNumber, new BigDecimal(balance), true, version);
+	}
+}
@@ -0,0 +1,129 @@
+package io.malicki.bankingsystem.domain.dlt;
+
+import io.malicki.bankingsystem.domain.transfer.history.HistoryCursor;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.FailedMessage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not wrapped in a test transaction: each storeBatch commits on its own, as it
+// does for the DLT listener
+@DataJpaTest
+@Import(DltStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DltStoreTest {
+
+	private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+	@Autowired
+	private DltStore dltStore;
+
+	@Autowired
+	private DltRecordRepository recordRepository;
+
+	@Autowired
+	private DltStatRepository statRepository;
+
+	@BeforeEach
+	void clean() {
+		recordRepository.deleteAll();
+		statRepository.deleteAll();
+	}
+
+	@Test
+	void redeliveredBatchIsStoredAndCountedOnce() {
+		List<ConsumerRecord<String, FailedMessage>> batch = List.of(
+				record(0, 10, "transfer-validation", ErrorCategory.BUSINESS_VALIDATION, "IllegalStateException", T0),
+				record(0, 11, "transfer-validation", ErrorCategory.TECHNICAL_TRANSIENT, "SQLException", T0),
+				record(1, 10, "transfer-execution", ErrorCategory.TECHNICAL_TRANSIENT, "SQLException", T0));
+
+		assertThat(dltStore.storeBatch(batch)).hasSize(3);
+		// Same offsets again plus one new record
+		List<ConsumerRecord<String, FailedMessage>> redelivered = new ArrayList<>(batch);
+		redelivered.add(record(0, 12, "transfer-validation", ErrorCategory.UNKNOWN, "NullPointerException", T0));
+		assertThat(dltStore.storeBatch(redelivered)).hasSize(1);
+
+		assertThat(dltStore.getTotal()).isEqualTo(4);
+		Map<String, Map<String, Long>> stats = dltStore.getStats();
+		assertThat(stats.get(DltStat.TOPIC)).containsEntry("transfer-validation", 3L).containsEntry("transfer-execution", 1L);
+		assertThat(stats.get(DltStat.CATEGORY))
+				.containsEntry("TECHNICAL_TRANSIENT", 2L)
+				.containsEntry("BUSINESS_VALIDATION", 1L)
+				.containsEntry("UNKNOWN", 1L);
+		assertThat(stats.get(DltStat.EXCEPTION)).containsEntry("SQLException", 2L);
+	}
+
+	@Test
+	void pagesNewestFirstWithFilters() {
+		List<ConsumerRecord<String, FailedMessage>> batch = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			// Pairs share a failedAt, so paging has to tie-break on id
+			batch.add(record(0, i, i % 3 == 0 ? "transfer-execution" : "transfer-validation",
+					i % 2 == 0 ? ErrorCategory.TECHNICAL_TRANSIENT : ErrorCategory.BUSINESS_VALIDATION,
+					"SQLException", T0.plusSeconds(i / 2)));
+		}
+		dltStore.storeBatch(batch);
+
+		List<Long> offsets = new ArrayList<>();
+		DltCursor cursor = DltCursor.START;
+		while (true) {
+			List<DltRecord> page = dltStore.find("transfer-validation", ErrorCategory.TECHNICAL_TRANSIENT,
+					null, null, null, null, cursor, 3);
+			page.forEach(r -> offsets.add(r.getDltOffset()));
+			if (page.size() < 3) {
+				break;
+			}
+			// Through the encoded form, as the controller hands it out
+			cursor = DltCursor.decode(DltCursor.after(page.get(page.size() - 1)).encode());
+		}
+
+		// Even offsets not divisible by 3, newest first
+		assertThat(offsets).containsExactly(28L, 26L, 22L, 20L, 16L, 14L, 10L, 8L, 4L, 2L);
+
+		List<DltRecord> window = dltStore.find(null, null, null, null,
+				T0.plusSeconds(5), T0.plusSeconds(7), DltCursor.START, 50);
+		assertThat(window).extracting(DltRecord::getDltOffset).containsExactlyInAnyOrder(10L, 11L, 12L, 13L);
+		assertThat(dltStore.countFailedSince(T0.plusSeconds(13))).isEqualTo(4);
+	}
+
+	@Test
+	void rejectsCursorsThatAreNotDltCursors() {
+		assertThat(DltCursor.decode(null)).isSameAs(DltCursor.START);
+		assertThatThrownBy(() -> DltCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+		// A transfer history cursor for the same position
+		String historyCursor = new HistoryCursor(T0, 5L).encode();
+		assertThatThrownBy(() -> DltCursor.decode(historyCursor)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private ConsumerRecord<String, FailedMessage> record(
+			int partition, long offset, String originalTopic, ErrorCategory category, String exceptionType, Instant failedAt) {
+		FailedMessage failed = new FailedMessage();
+		failed.setOriginalTopic(originalTopic);
+		failed.setOriginalPartition(partition);
+		failed.setOriginalOffset(offset);
+		failed.setOriginalKey("ACC001");
+		failed.setOriginalValue("{}");
+		failed.setExceptionType(exceptionType);
+		failed.setExceptionMessage("boom");
+		failed.setStackTraceFingerprint("abcd");
+		failed.setAttemptCount(3);
+		failed.setFailedAt(failedAt);
+		failed.setErrorCategory(category);
+		failed.setRetryable(category == ErrorCategory.TECHNICAL_TRANSIENT);
+		return new ConsumerRecord<>(originalTopic + "-dlt", partition, offset, "ACC001", failed);
+	}
+}
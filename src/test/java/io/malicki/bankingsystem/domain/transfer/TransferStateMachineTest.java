@@ -0,0 +1,115 @@
+package io.malicki.bankingsystem.domain.transfer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The guarded UPDATEs against a real schema; each test runs in its own rolled-back transaction
+@DataJpaTest
+class TransferStateMachineTest {
+
+	@Autowired
+	TransferRepository transferRepository;
+
+	@Autowired
+	TestEntityManager entityManager;
+
+	@Test
+	void walksThroughEveryStateWhenRecordingIntermediateStates() {
+		TransferStateMachine stateMachine = new TransferStateMachine(transferRepository, true);
+		String transferId = pending();
+
+		assertThat(stateMachine.claimForValidation(transferId)).isTrue();
+		assertThat(status(transferId)).isEqualTo(TransferStatus.VALIDATING);
+		stateMachine.markValidated(transferId);
+		assertThat(status(transferId)).isEqualTo(TransferStatus.VALIDATED);
+
+		assertThat(stateMachine.claimForExecution(transferId)).isTrue();
+		assertThat(status(transferId)).isEqualTo(TransferStatus.EXECUTING);
+		stateMachine.markCompleted(transferId);
+		assertThat(status(transferId)).isEqualTo(TransferStatus.COMPLETED);
+		// The UPDATEs bypass the persistence context
+		entityManager.clear();
+		assertThat(transferRepository.findByTransferId(transferId).orElseThrow().getProcessedAt()).isNotNull();
+	}
+
+	@Test
+	void duplicateClaimsReturnFalse() {
+		TransferStateMachine stateMachine = new TransferStateMachine(transferRepository, true);
+		String transferId = pending();
+
+		stateMachine.claimForValidation(transferId);
+		stateMachine.markValidated(transferId);
+		// Redelivered validation event once the transfer has moved on
+		assertThat(stateMachine.claimForValidation(transferId)).isFalse();
+
+		stateMachine.claimForExecution(transferId);
+		stateMachine.markCompleted(transferId);
+		assertThat(stateMachine.claimForExecution(transferId)).isFalse();
+		assertThat(stateMachine.claimForValidation(transferId)).isFalse();
+		assertThat(stateMachine.claimForFastPath(transferId)).isFalse();
+		assertThat(status(transferId)).isEqualTo(TransferStatus.COMPLETED);
+	}
+
+	@Test
+	void claimFromAnInvalidSourceStatusThrows() {
+		TransferStateMachine stateMachine = new TransferStateMachine(transferRepository, true);
+		String failed = insert(TransferStatus.FAILED);
+		String pending = pending();
+
+		assertThatThrownBy(() -> stateMachine.claimForValidation(failed))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("FAILED");
+		// Not validated yet
+		assertThatThrownBy(() -> stateMachine.claimForExecution(pending))
+				.isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("PENDING");
+		assertThat(status(failed)).isEqualTo(TransferStatus.FAILED);
+		assertThat(status(pending)).isEqualTo(TransferStatus.PENDING);
+	}
+
+	@Test
+	void goesStraightToValidatedAndCompletedWithoutIntermediateStates() {
+		TransferStateMachine stateMachine = new TransferStateMachine(transferRepository, false);
+		String transferId = pending();
+
+		assertThat(stateMachine.claimForValidation(transferId)).isTrue();
+		assertThat(status(transferId)).isEqualTo(TransferStatus.VALIDATED);
+		stateMachine.markValidated(transferId);
+		assertThat(status(transferId)).isEqualTo(TransferStatus.VALIDATED);
+
+		assertThat(stateMachine.claimForExecution(transferId)).isTrue();
+		assertThat(status(transferId)).isEqualTo(TransferStatus.COMPLETED);
+		stateMachine.markCompleted(transferId);
+		assertThat(status(transferId)).isEqualTo(TransferStatus.COMPLETED);
+
+		assertThat(stateMachine.claimForExecution(transferId)).isFalse();
+	}
+
+	private String pending() {
+		return insert(TransferStatus.PENDING);
+	}
+
+	private String insert(TransferStatus status) {
+		Transfer transfer = new Transfer();
+		transfer.setTransferId(UUID.randomUUID().toString());
+		transfer.setFromAccountNumber("ACC001");
+		transfer.setToAccountNumber("ACC002");
+		transfer.setAmount(new BigDecimal("10.00"));
+		transfer.setStatus(status);
+		transfer.setCreatedAt(Instant.now());
+		return transferRepository.saveAndFlush(transfer).getTransferId();
+	}
+
+	private TransferStatus status(String transferId) {
+		return transferRepository.findStatusByTransferId(transferId).orElseThrow();
+	}
+}
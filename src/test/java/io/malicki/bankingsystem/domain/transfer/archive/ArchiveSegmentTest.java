@@ -0,0 +1,80 @@
+package io.malicki.bankingsystem.domain.transfer.archive;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArchiveSegmentTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void roundTripsEveryColumn() throws Exception {
+		Transfer completed = transfer(42L, "ACC001", "ACC002", new BigDecimal("1234567.89"), TransferStatus.COMPLETED,
+				Instant.parse("2025-01-01T10:00:00.123456789Z"), Instant.parse("2025-01-01T10:00:01Z"),
+				null, "Rent");
+		Transfer failed = transfer(7L, "ACC002", "ACC003", new BigDecimal("0.01"), TransferStatus.FAILED,
+				Instant.parse("2025-01-01T09:00:00Z"), Instant.parse("2025-01-01T09:00:02Z"),
+				"Insufficient funds", null);
+		Transfer unprocessed = transfer(43L, "ACC001", "ACC001", new BigDecimal("-5.5"), TransferStatus.PENDING,
+				Instant.parse("2025-01-01T11:00:00Z"), null, null, null);
+		unprocessed.setVersion(null);
+
+		ArchiveSegment written = ArchiveSegment.write(directory, List.of(completed, failed, unprocessed));
+		ArchiveSegment reopened = ArchiveSegment.open(written.getPath());
+
+		assertThat(reopened.getRowCount()).isEqualTo(3);
+		assertThat(reopened.getMinId()).isEqualTo(7L);
+		assertThat(reopened.getMaxId()).isEqualTo(43L);
+		assertThat(reopened.getMinCreatedAt()).isEqualTo(failed.getCreatedAt());
+		assertThat(reopened.getMaxCreatedAt()).isEqualTo(unprocessed.getCreatedAt());
+
+		List<Transfer> rows = reopened.readRows();
+		// Sorted by id; a null version is stored as 0
+		unprocessed.setVersion(0L);
+		assertThat(rows).usingRecursiveFieldByFieldElementComparator()
+				.containsExactly(failed, completed, unprocessed);
+	}
+
+	@Test
+	void headerIndexAnswersWithoutReadingRows() throws Exception {
+		ArchiveSegment segment = ArchiveSegment.write(directory, List.of(
+				transfer(10L, "ACC001", "ACC002", BigDecimal.TEN, TransferStatus.COMPLETED,
+						Instant.parse("2025-01-01T10:00:00Z"), Instant.parse("2025-01-01T10:00:01Z"), null, null)));
+
+		assertThat(segment.mightContainAccount("ACC001")).isTrue();
+		assertThat(segment.mightContainAccount("ACC002")).isTrue();
+		assertThat(segment.mightContainTransfer("transfer-10")).isTrue();
+		assertThat(segment.coversId(10L)).isTrue();
+		assertThat(segment.coversId(11L)).isFalse();
+
+		assertThat(segment.findByTransferId("transfer-10")).isPresent();
+		assertThat(segment.findByTransferId("transfer-11")).isEmpty();
+	}
+
+	static Transfer transfer(long id, String from, String to, BigDecimal amount, TransferStatus status,
+			Instant createdAt, Instant processedAt, String failureReason, String description) {
+		Transfer transfer = new Transfer();
+		transfer.setId(id);
+		transfer.setTransferId("transfer-" + id);
+		transfer.setFromAccountNumber(from);
+		transfer.setToAccountNumber(to);
+		transfer.setAmount(amount);
+		transfer.setStatus(status);
+		transfer.setCreatedAt(createdAt);
+		transfer.setProcessedAt(processedAt);
+		transfer.setFailureReason(failureReason);
+		transfer.setDescription(description);
+		transfer.setVersion(3L);
+		return transfer;
+	}
+}
@@ -0,0 +1,54 @@
+package io.malicki.bankingsystem.domain.transfer.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+	@Test
+	void neverGivesAFalseNegative() throws Exception {
+		BloomFilter filter = new BloomFilter(10_000);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("ACC" + i);
+			filter.add(UUID.nameUUIDFromBytes(("transfer-" + i).getBytes()).toString());
+		}
+
+		BloomFilter reread = roundTrip(filter);
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(reread.mightContain("ACC" + i)).isTrue();
+			assertThat(reread.mightContain(UUID.nameUUIDFromBytes(("transfer-" + i).getBytes()).toString())).isTrue();
+		}
+	}
+
+	@Test
+	void mostlyRejectsUnknownKeys() {
+		BloomFilter filter = new BloomFilter(10_000);
+		for (int i = 0; i < 10_000; i++) {
+			filter.add("ACC" + i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (filter.mightContain("OTHER" + i)) {
+				falsePositives++;
+			}
+		}
+		// ~1% expected, leave room for the hash quality
+		assertThat(falsePositives).isLessThan(500);
+	}
+
+	private BloomFilter roundTrip(BloomFilter filter) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			filter.writeTo(out);
+		}
+		return BloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+}
@@ -0,0 +1,112 @@
+package io.malicki.bankingsystem.domain.transfer.archive;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import io.malicki.bankingsystem.domain.transfer.history.HistoryCursor;
+import io.malicki.bankingsystem.domain.transfer.history.TransferMergeIterator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static io.malicki.bankingsystem.domain.transfer.archive.ArchiveSegmentTest.transfer;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransferArchiveTest {
+
+	private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void findByTransferIdFallsThroughToTheSegmentHoldingIt() throws Exception {
+		TransferArchive archive = new TransferArchive(directory.toString());
+		archive.append(rows(1, 10));
+		archive.append(rows(11, 20));
+		archive.append(rows(21, 30));
+
+		TransferArchive reloaded = new TransferArchive(directory.toString());
+		reloaded.loadSegments();
+
+		assertThat(reloaded.getSegmentCount()).isEqualTo(3);
+		assertThat(reloaded.findByTransferId("transfer-25")).map(Transfer::getId).contains(25L);
+		assertThat(reloaded.findByTransferId("transfer-5")).map(Transfer::getId).contains(5L);
+		assertThat(reloaded.findByTransferId("transfer-99")).isEmpty();
+	}
+
+	@Test
+	void historyMergesHotAndArchivedRowsAcrossPages() throws Exception {
+		TransferArchive archive = new TransferArchive(directory.toString());
+		archive.append(rows(1, 10));
+		archive.append(rows(11, 20));
+		List<Transfer> hot = rows(21, 25);
+
+		List<Long> pages = new ArrayList<>();
+		HistoryCursor cursor = HistoryCursor.START;
+		for (int page = 0; page < 4; page++) {
+			Transfer last = null;
+			Iterator<Transfer> history = merge(hot, cursor, archive);
+			for (int i = 0; i < 7 && history.hasNext(); i++) {
+				last = history.next();
+				pages.add(last.getId());
+			}
+			if (last == null) {
+				break;
+			}
+			cursor = HistoryCursor.after(last);
+		}
+
+		// ACC001 sends the odd ids and receives the even ones
+		assertThat(pages).containsExactlyElementsOf(LongStream.iterate(25, id -> id >= 1, id -> id - 1).boxed().toList());
+	}
+
+	@Test
+	void archiveIsNotOpenedWhileHotRowsFillThePage() throws Exception {
+		TransferArchive archive = new TransferArchive(directory.toString());
+		ArchiveSegment segment = archive.append(rows(1, 10));
+		// Reading the segment would now fail
+		Files.delete(segment.getPath());
+
+		Iterator<Transfer> history = merge(rows(11, 15), HistoryCursor.START, archive);
+		List<Long> page = new ArrayList<>();
+		for (int i = 0; i < 5 && history.hasNext(); i++) {
+			page.add(history.next().getId());
+		}
+
+		assertThat(page).containsExactly(15L, 14L, 13L, 12L, 11L);
+	}
+
+	// What TransferHistoryService does, with lists standing in for the two hot queries
+	private Iterator<Transfer> merge(List<Transfer> hot, HistoryCursor cursor, TransferArchive archive) {
+		List<Transfer> sent = hot.stream()
+				.filter(t -> t.getFromAccountNumber().equals("ACC001") && cursor.isAfter(t))
+				.sorted(TransferMergeIterator.NEWEST_FIRST)
+				.toList();
+		List<Transfer> received = hot.stream()
+				.filter(t -> t.getToAccountNumber().equals("ACC001") && cursor.isAfter(t))
+				.sorted(TransferMergeIterator.NEWEST_FIRST)
+				.toList();
+		return new TransferMergeIterator(List.of(
+				sent.iterator(), received.iterator(), archive.history("ACC001", cursor)));
+	}
+
+	// Pairs of ids share a createdAt, so the id tie-break is exercised too
+	private List<Transfer> rows(long fromId, long toId) {
+		List<Transfer> rows = new ArrayList<>();
+		for (long id = fromId; id <= toId; id++) {
+			boolean sent = id % 2 == 1;
+			rows.add(transfer(id, sent ? "ACC001" : "ACC002", sent ? "ACC002" : "ACC001",
+					BigDecimal.ONE, TransferStatus.COMPLETED,
+					T0.plusSeconds((id + 1) / 2), T0.plusSeconds(id), null, null));
+		}
+		return rows;
+	}
+}
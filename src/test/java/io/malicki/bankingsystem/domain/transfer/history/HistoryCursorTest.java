@@ -0,0 +1,49 @@
+package io.malicki.bankingsystem.domain.transfer.history;
+
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HistoryCursorTest {
+
+	private static final Instant T0 = Instant.parse("2025-01-01T10:00:00.123456789Z");
+
+	@Test
+	void roundTripsThroughItsToken() {
+		HistoryCursor cursor = HistoryCursor.decode(new HistoryCursor(T0, 42L).encode());
+
+		assertThat(cursor.getCreatedAt()).isEqualTo(T0);
+		assertThat(cursor.getId()).isEqualTo(42L);
+	}
+
+	@Test
+	void missingTokenIsTheFirstPageAndGarbageIsRejected() {
+		assertThat(HistoryCursor.decode(null)).isSameAs(HistoryCursor.START);
+		assertThat(HistoryCursor.decode(" ")).isSameAs(HistoryCursor.START);
+
+		assertThatThrownBy(() -> HistoryCursor.decode("not-a-cursor")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> HistoryCursor.decode("MjAyNXxhYmM")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void equalCreatedAtIsOrderedById() {
+		HistoryCursor cursor = new HistoryCursor(T0, 10L);
+
+		assertThat(cursor.isAfter(transfer(9L, T0))).isTrue();
+		assertThat(cursor.isAfter(transfer(10L, T0))).isFalse();
+		assertThat(cursor.isAfter(transfer(11L, T0))).isFalse();
+		assertThat(cursor.isAfter(transfer(99L, T0.minusNanos(1)))).isTrue();
+		assertThat(cursor.isAfter(transfer(1L, T0.plusNanos(1)))).isFalse();
+	}
+
+	private Transfer transfer(long id, Instant createdAt) {
+		Transfer transfer = new Transfer();
+		transfer.setId(id);
+		transfer.setCreatedAt(createdAt);
+		return transfer;
+	}
+}
@@ -0,0 +1,118 @@
+package io.malicki.bankingsystem.domain.transfer.history;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Keyset pages of an account's history, read the way GET /api/accounts/{n}/transfers
+// does. Rows are inserted with fixed ids and createdAt, far above the sequence range.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:historytest;DB_CLOSE_DELAY=-1",
+		"banking.outbox.poll-interval-ms=3600000",
+		"banking.velocity.limit.enabled=false",
+		"banking.archive.directory=target/history-test/archive",
+		"banking.audit.directory=target/history-test/audit",
+		"banking.dlt.fingerprint-directory=target/history-test/fingerprints"
+})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class TransferHistoryServiceTest {
+
+	private static final Instant T0 = Instant.parse("2025-01-01T00:00:00Z");
+
+	@Autowired
+	TransferHistoryService transferHistoryService;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Test
+	void equalCreatedAtIsBrokenByIdAcrossPageBoundaries() throws Exception {
+		// Three rows share T0+2s and two share T0+1s; pages of 2 split both groups
+		insert(800_001L, "HIST01", "OTHER", T0.plusSeconds(1));
+		insert(800_002L, "OTHER", "HIST01", T0.plusSeconds(2));
+		insert(800_003L, "HIST01", "OTHER", T0.plusSeconds(2));
+		insert(800_004L, "OTHER", "HIST01", T0.plusSeconds(1));
+		insert(800_005L, "HIST01", "OTHER", T0.plusSeconds(2));
+		insert(800_006L, "HIST01", "OTHER", T0);
+
+		assertThat(allPages("HIST01", 2)).containsExactly(
+				"hist-800005", "hist-800003", "hist-800002", "hist-800004", "hist-800001", "hist-800006");
+	}
+
+	@Test
+	void transferToItselfIsListedOnce() throws Exception {
+		insert(800_101L, "HIST02", "HIST02", T0.plusSeconds(3));
+		insert(800_102L, "HIST02", "OTHER", T0.plusSeconds(2));
+		insert(800_103L, "HIST02", "HIST02", T0.plusSeconds(1));
+		insert(800_104L, "OTHER", "HIST02", T0);
+
+		assertThat(allPages("HIST02", 2)).containsExactly(
+				"hist-800101", "hist-800102", "hist-800103", "hist-800104");
+		assertThat(allPages("HIST02", 10)).containsExactly(
+				"hist-800101", "hist-800102", "hist-800103", "hist-800104");
+	}
+
+	@Test
+	void pagesStayStableWhileNewTransfersArrive() throws Exception {
+		for (int i = 0; i < 6; i++) {
+			insert(800_201L + i, "HIST03", "OTHER", T0.plusSeconds(i));
+		}
+
+		JsonNode first = page("HIST03", HistoryCursor.START, 3);
+		// Newer than everything already listed - would shift an offset-based page by two
+		insert(800_301L, "HIST03", "OTHER", T0.plusSeconds(100));
+		insert(800_302L, "OTHER", "HIST03", T0.plusSeconds(101));
+		JsonNode second = page("HIST03", HistoryCursor.decode(first.get("nextCursor").asText()), 3);
+
+		assertThat(transferIds(first)).containsExactly("hist-800206", "hist-800205", "hist-800204");
+		assertThat(transferIds(second)).containsExactly("hist-800203", "hist-800202", "hist-800201");
+		// Exactly full, so there may be more; the next page is empty
+		assertThat(transferIds(page("HIST03", HistoryCursor.decode(second.get("nextCursor").asText()), 3))).isEmpty();
+	}
+
+	private List<String> allPages(String account, int limit) throws Exception {
+		List<String> ids = new ArrayList<>();
+		HistoryCursor cursor = HistoryCursor.START;
+		while (true) {
+			JsonNode page = page(account, cursor, limit);
+			ids.addAll(transferIds(page));
+			if (page.get("nextCursor").isNull()) {
+				return ids;
+			}
+			cursor = HistoryCursor.decode(page.get("nextCursor").asText());
+		}
+	}
+
+	private JsonNode page(String account, HistoryCursor cursor, int limit) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		transferHistoryService.writeHistoryPage(account, cursor, limit, out);
+		return objectMapper.readTree(out.toByteArray());
+	}
+
+	private List<String> transferIds(JsonNode page) {
+		List<String> ids = new ArrayList<>();
+		page.get("transfers").forEach(transfer -> ids.add(transfer.get("transferId").asText()));
+		return ids;
+	}
+
+	private void insert(long id, String from, String to, Instant createdAt) {
+		jdbcTemplate.update("INSERT INTO transfers (id, transfer_id, from_account_number, to_account_number, amount, "
+				+ "status, created_at, version) VALUES (?, ?, ?, ?, 10.00, 'COMPLETED', ?, 0)",
+				id, "hist-" + id, from, to, Timestamp.from(createdAt));
+	}
+}
@@ -0,0 +1,64 @@
+package io.malicki.bankingsystem.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecordingsTest {
+
+	@TempDir
+	Path directory;
+
+	private FlightRecordings flightRecordings;
+
+	@AfterEach
+	void tearDown() {
+		flightRecordings.stopAll();
+	}
+
+	@Test
+	void stageEventsEndUpInTheDump() throws Exception {
+		flightRecordings = new FlightRecordings(directory.toString(), "default", 0, 15, 256, 4, false);
+		flightRecordings.start("test", null, null, null, null);
+
+		TransferValidationEvent stage = new TransferValidationEvent();
+		stage.begin();
+		stage.complete(new ConsumerRecord<>("transfer-validation", 2, 41L, "ACC001", "value"), "TX-1", 1, "validated");
+
+		FlightRecordingStatus status = flightRecordings.stop("test");
+		List<RecordedEvent> events = RecordingFile.readAllEvents(Path.of(status.getLastFile())).stream()
+				.filter(event -> event.getEventType().getName().equals("banking.TransferValidation"))
+				.toList();
+
+		assertThat(events).hasSize(1);
+		assertThat(events.get(0).getString("transferId")).isEqualTo("TX-1");
+		assertThat(events.get(0).getInt("partition")).isEqualTo(2);
+		assertThat(events.get(0).getLong("offset")).isEqualTo(41L);
+		assertThat(events.get(0).getString("outcome")).isEqualTo("validated");
+		assertThat(flightRecordings.list()).isEmpty();
+	}
+
+	@Test
+	void requestedBoundsAreCappedByConfiguration() {
+		flightRecordings = new FlightRecordings(directory.toString(), "default", 0, 15, 64, 1, false);
+
+		FlightRecordingStatus status = flightRecordings.start("capped", null, Duration.ofHours(2), 1024L, null);
+
+		assertThat(status.getState()).isEqualTo("RUNNING");
+		assertThat(status.getMaxAgeSeconds()).isEqualTo(15 * 60);
+		assertThat(status.getMaxSizeMb()).isEqualTo(64);
+		assertThatThrownBy(() -> flightRecordings.start("second", null, null, null, null))
+				.isInstanceOf(InvalidEndpointRequestException.class);
+	}
+}
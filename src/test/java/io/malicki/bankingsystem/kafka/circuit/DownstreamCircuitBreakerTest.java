@@ -0,0 +1,71 @@
+package io.malicki.bankingsystem.kafka.circuit;
+
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownstreamCircuitBreakerTest {
+
+	private final List<CircuitState> transitions = new ArrayList<>();
+
+	private DownstreamCircuitBreaker breaker(int windowSize, int minCalls, int halfOpenTrials) {
+		return new DownstreamCircuitBreaker(
+				new KafkaListenerEndpointRegistry(),
+				null,
+				event -> transitions.add(((CircuitStateChangedEvent) event).getState()),
+				new SimpleMeterRegistry(),
+				true, List.of(), windowSize, minCalls, 0.5, 0, halfOpenTrials, 1000, 1, 1000);
+	}
+
+	@Test
+	void opensOnTransientFailureRateOnly() {
+		DownstreamCircuitBreaker breaker = breaker(4, 4, 2);
+
+		// Business rejections count as the downstream answering
+		breaker.onFailure(ErrorCategory.BUSINESS_VALIDATION);
+		breaker.onFailure(ErrorCategory.BUSINESS_VALIDATION);
+		breaker.onFailure(ErrorCategory.TECHNICAL_TRANSIENT);
+		assertThat(breaker.isClosed()).isTrue();
+
+		// Window slides: the two oldest successes drop out
+		breaker.onFailure(ErrorCategory.TECHNICAL_TRANSIENT);
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+	}
+
+	@Test
+	void halfOpenLetsTrialsThroughAndClosesWhenTheySucceed() {
+		DownstreamCircuitBreaker breaker = breaker(4, 1, 2);
+		breaker.onProbe(false);
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+
+		breaker.onProbe(true);
+		assertThat(breaker.getState()).isEqualTo(CircuitState.HALF_OPEN);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+		assertThat(breaker.tryAcquirePermission()).isFalse();
+
+		breaker.onSuccess();
+		breaker.onSuccess();
+		assertThat(breaker.isClosed()).isTrue();
+		assertThat(transitions).containsExactly(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.CLOSED);
+	}
+
+	@Test
+	void failedTrialReopens() {
+		DownstreamCircuitBreaker breaker = breaker(4, 1, 2);
+		breaker.onFailure(ErrorCategory.TECHNICAL_TRANSIENT);
+		breaker.onProbe(true);
+		assertThat(breaker.tryAcquirePermission()).isTrue();
+
+		breaker.onFailure(ErrorCategory.TECHNICAL_TRANSIENT);
+		assertThat(breaker.getState()).isEqualTo(CircuitState.OPEN);
+		assertThat(transitions).containsExactly(CircuitState.OPEN, CircuitState.HALF_OPEN, CircuitState.OPEN);
+	}
+}
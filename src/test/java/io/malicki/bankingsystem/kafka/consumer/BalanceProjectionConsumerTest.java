@@ -0,0 +1,154 @@
+package io.malicki.bankingsystem.kafka.consumer;
+
+import io.malicki.bankingsystem.api.dto.TransferRequest;
+import io.malicki.bankingsystem.domain.account.Account;
+import io.malicki.bankingsystem.domain.account.AccountBalance;
+import io.malicki.bankingsystem.domain.account.AccountBalanceProjection;
+import io.malicki.bankingsystem.domain.account.AccountRepository;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.domain.transfer.TransferService;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig;
+import io.malicki.bankingsystem.kafka.outbox.OutboxProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// The projection follows transfer-completed, not this node's transactions:
+// completions relayed from the outbox and ones published by another node are
+// applied alike; what rolled back never reaches the topic.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:balanceprojection;DB_CLOSE_DELAY=-1",
+		"banking.outbox.poll-interval-ms=3600000",
+		"banking.velocity.limit.enabled=false",
+		// Transfers are made sync; a loaded machine must not hand them to the pipeline
+		"banking.transfer.sync.deadline-ms=60000",
+		"banking.audit.directory=target/balance-projection-test/audit",
+		"banking.dlt.fingerprint-directory=target/balance-projection-test/fingerprints"
+})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class BalanceProjectionConsumerTest {
+
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	@Autowired
+	AccountBalanceProjection projection;
+
+	@Autowired
+	TransferService transferService;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	OutboxProcessor outboxProcessor;
+
+	@Autowired
+	KafkaTemplate<String, TransferEvent> kafkaTemplate;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void awaitReady() {
+		await().atMost(TIMEOUT).until(projection::isReady);
+	}
+
+	@Test
+	void committedTransferIsServedAtItsVersion() {
+		List<String> accounts = createAccounts();
+
+		transfer(accounts, "30.00");
+		outboxProcessor.processOutbox();
+
+		awaitVersionOf(accounts.get(0));
+		assertThat(projected(accounts.get(0)).getBalance()).isEqualByComparingTo("70.00");
+		awaitVersionOf(accounts.get(1));
+		assertThat(projected(accounts.get(1)).getBalance()).isEqualByComparingTo("30.00");
+	}
+
+	@Test
+	void rolledBackTransferStaysInvisible() {
+		List<String> accounts = createAccounts();
+
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(status -> {
+			transfer(accounts, "30.00");
+			status.setRollbackOnly();
+		});
+		transfer(accounts, "10.00");
+		outboxProcessor.processOutbox();
+
+		awaitVersionOf(accounts.get(0));
+		assertThat(projected(accounts.get(0)).getBalance()).isEqualByComparingTo("90.00");
+	}
+
+	@Test
+	void completionFromAnotherNodeIsAppliedAndOlderOnesAreNot() {
+		String prefix = "REMOTE" + ThreadLocalRandom.current().nextInt(1_000_000);
+
+		send(completed(prefix + "A", "60.00", 7L, prefix + "B", "40.00", 3L));
+		await().atMost(TIMEOUT).until(() -> projection.getBalance(prefix + "A").isPresent());
+
+		// Redelivered older completion, then a marker to know it was read
+		send(completed(prefix + "A", "80.00", 6L, prefix + "B", "20.00", 2L));
+		send(completed(prefix + "C", "1.00", 1L, prefix + "D", "1.00", 1L));
+		await().atMost(TIMEOUT).until(() -> projection.getBalance(prefix + "C").isPresent());
+
+		assertThat(projected(prefix + "A").getVersion()).isEqualTo(7L);
+		assertThat(projected(prefix + "A").getBalance()).isEqualByComparingTo("60.00");
+		assertThat(projected(prefix + "B").getBalance()).isEqualByComparingTo("40.00");
+	}
+
+	private void transfer(List<String> accounts, String amount) {
+		TransferRequest request = new TransferRequest(accounts.get(0), accounts.get(1), new BigDecimal(amount), "projection test");
+		assertThat(transferService.createTransferSync(UUID.randomUUID().toString(), request, System.nanoTime())
+				.getStatus()).isEqualTo(TransferStatus.COMPLETED);
+	}
+
+	// Same partition for both, keyed by sender like the real ones
+	private void send(TransferEvent event) {
+		kafkaTemplate.send(KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC, event.getFromAccountNumber(), event).join();
+	}
+
+	private static TransferEvent completed(String from, String fromBalance, long fromVersion,
+			String to, String toBalance, long toVersion) {
+		return new TransferEvent(UUID.randomUUID().toString(), from, to, BigDecimal.ONE, null,
+				TransferStatus.COMPLETED, Instant.now(),
+				new BigDecimal(fromBalance), fromVersion, new BigDecimal(toBalance), toVersion);
+	}
+
+	private void awaitVersionOf(String accountNumber) {
+		Long version = accountRepository.findByAccountNumber(accountNumber).orElseThrow().getVersion();
+		await().atMost(TIMEOUT).until(() -> projection.getBalance(accountNumber)
+				.map(balance -> version.equals(balance.getVersion()))
+				.orElse(false));
+	}
+
+	private AccountBalance projected(String accountNumber) {
+		return projection.getBalance(accountNumber).orElseThrow();
+	}
+
+	private List<String> createAccounts() {
+		String prefix = "PROJ" + ThreadLocalRandom.current().nextInt(1_000_000);
+		accountRepository.saveAll(List.of(
+				new Account(null, prefix + "A", "Projection sender", new BigDecimal("100.00"), true, null, null),
+				new Account(null, prefix + "B", "Projection receiver", BigDecimal.ZERO, true, null, null)));
+		return List.of(prefix + "A", prefix + "B");
+	}
+}
@@ -0,0 +1,159 @@
+package io.malicki.bankingsystem.kafka.consumer;
+
+import io.malicki.bankingsystem.domain.account.Account;
+import io.malicki.bankingsystem.domain.account.AccountRepository;
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.domain.transfer.TransferRepository;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// banking.transfer.pipeline=fast-path, records handed straight to the
+// listener method. The outbox is never relayed, so each test sees exactly
+// what its record committed.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:fastpath;DB_CLOSE_DELAY=-1",
+		"banking.transfer.pipeline=fast-path",
+		"banking.outbox.poll-interval-ms=3600000",
+		// Answered by the node holding the sender's partition - not what these tests are about
+		"banking.velocity.limit.enabled=false",
+		"banking.audit.directory=target/fast-path-test/audit",
+		"banking.dlt.fingerprint-directory=target/fast-path-test/fingerprints"
+})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class ValidationConsumerFastPathTest {
+
+	private static final AtomicLong OFFSETS = new AtomicLong(1_000_000);
+
+	@Autowired
+	ValidationConsumer validationConsumer;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	TransferRepository transferRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void validatesAndExecutesInOneStep() {
+		List<String> accounts = createAccounts();
+		TransferEvent event = pendingTransfer(accounts, "30.00");
+
+		CountingAck ack = consume(event);
+
+		assertThat(ack.acks.get()).isEqualTo(1);
+		Transfer transfer = transferRepository.findByTransferId(event.getTransferId()).orElseThrow();
+		assertThat(transfer.getStatus()).isEqualTo(TransferStatus.COMPLETED);
+		assertThat(transfer.getProcessedAt()).isNotNull();
+		assertThat(balance(accounts.get(0))).isEqualByComparingTo("70.00");
+		assertThat(balance(accounts.get(1))).isEqualByComparingTo("30.00");
+		// No transfer-execution hop
+		assertThat(outboxEvents(event)).containsExactly("TransferCompleted");
+	}
+
+	@Test
+	void ruleViolationRollsBackClaimAndBalances() {
+		List<String> accounts = createAccounts();
+		TransferEvent event = pendingTransfer(accounts, "500.00");
+
+		CountingAck ack = consume(event);
+
+		// Business rejection: dead-lettered and acked, nothing of the attempt committed
+		assertThat(ack.acks.get()).isEqualTo(1);
+		assertThat(ack.nacks.get()).isZero();
+		assertThat(status(event)).isEqualTo(TransferStatus.PENDING);
+		assertThat(balance(accounts.get(0))).isEqualByComparingTo("100.00");
+		assertThat(balance(accounts.get(1))).isEqualByComparingTo("0.00");
+		assertThat(outboxEvents(event)).isEmpty();
+	}
+
+	@Test
+	void redeliveryOfCompletedTransferMovesNothing() {
+		List<String> accounts = createAccounts();
+		TransferEvent event = pendingTransfer(accounts, "30.00");
+		consume(event);
+
+		CountingAck redelivered = consume(event);
+
+		assertThat(redelivered.acks.get()).isEqualTo(1);
+		assertThat(status(event)).isEqualTo(TransferStatus.COMPLETED);
+		assertThat(balance(accounts.get(0))).isEqualByComparingTo("70.00");
+		assertThat(balance(accounts.get(1))).isEqualByComparingTo("30.00");
+		// Duplicates take the staged route, where execution finds it COMPLETED
+		assertThat(outboxEvents(event)).containsOnlyOnce("TransferCompleted");
+	}
+
+	private List<String> createAccounts() {
+		String prefix = "FAST" + ThreadLocalRandom.current().nextInt(1_000_000);
+		accountRepository.saveAll(List.of(
+				new Account(null, prefix + "A", "Fast path sender", new BigDecimal("100.00"), true, null, null),
+				new Account(null, prefix + "B", "Fast path receiver", BigDecimal.ZERO, true, null, null)));
+		return List.of(prefix + "A", prefix + "B");
+	}
+
+	private TransferEvent pendingTransfer(List<String> accounts, String amount) {
+		Transfer transfer = new Transfer();
+		transfer.setTransferId(UUID.randomUUID().toString());
+		transfer.setFromAccountNumber(accounts.get(0));
+		transfer.setToAccountNumber(accounts.get(1));
+		transfer.setAmount(new BigDecimal(amount));
+		transfer.setStatus(TransferStatus.PENDING);
+		return TransferEvent.from(transferRepository.save(transfer));
+	}
+
+	private CountingAck consume(TransferEvent event) {
+		CountingAck ack = new CountingAck();
+		validationConsumer.consume(new ConsumerRecord<>(KafkaTopicsConfig.TRANSFER_VALIDATION_TOPIC, 0,
+				OFFSETS.incrementAndGet(), event.getFromAccountNumber(), event), ack);
+		return ack;
+	}
+
+	private TransferStatus status(TransferEvent event) {
+		return transferRepository.findStatusByTransferId(event.getTransferId()).orElseThrow();
+	}
+
+	private BigDecimal balance(String accountNumber) {
+		return accountRepository.findByAccountNumber(accountNumber).orElseThrow().getBalance();
+	}
+
+	private List<String> outboxEvents(TransferEvent event) {
+		return jdbcTemplate.queryForList("SELECT event_type FROM outbox_events WHERE aggregate_id = ? ORDER BY id",
+				String.class, event.getTransferId());
+	}
+
+	private static final class CountingAck implements Acknowledgment {
+
+		private final AtomicInteger acks = new AtomicInteger();
+		private final AtomicInteger nacks = new AtomicInteger();
+
+		@Override
+		public void acknowledge() {
+			acks.incrementAndGet();
+		}
+
+		@Override
+		public void nack(Duration sleep) {
+			nacks.incrementAndGet();
+		}
+	}
+}
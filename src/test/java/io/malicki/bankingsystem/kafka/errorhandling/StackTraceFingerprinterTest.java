@@ -0,0 +1,63 @@
+package io.malicki.bankingsystem.kafka.errorhandling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StackTraceFingerprinterTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void ignoresMessagesLineNumbersAndGeneratedNames() {
+		RuntimeException first = withFrames(new RuntimeException("Account ACC001 not found"),
+				new StackTraceElement("io.malicki.Service$$SpringCGLIB$$0", "lambda$find$0", "Service.java", 10),
+				new StackTraceElement("jdk.proxy2.$Proxy123", "findBy", null, -1));
+		RuntimeException second = withFrames(new RuntimeException("Account ACC002 not found"),
+				new StackTraceElement("io.malicki.Service$$SpringCGLIB$$1", "lambda$find$3", "Service.java", 42),
+				new StackTraceElement("jdk.proxy2.$Proxy7", "findBy", null, -1));
+
+		assertThat(StackTraceFingerprinter.compute(first)).isEqualTo(StackTraceFingerprinter.compute(second));
+	}
+
+	@Test
+	void distinguishesExceptionTypesFramesAndCauses() {
+		StackTraceElement frame = new StackTraceElement("io.malicki.Service", "find", "Service.java", 10);
+		String base = StackTraceFingerprinter.compute(withFrames(new RuntimeException(), frame));
+
+		assertThat(StackTraceFingerprinter.compute(withFrames(new IllegalStateException(), frame))).isNotEqualTo(base);
+		assertThat(StackTraceFingerprinter.compute(withFrames(new RuntimeException(),
+				new StackTraceElement("io.malicki.Service", "save", "Service.java", 10)))).isNotEqualTo(base);
+		assertThat(StackTraceFingerprinter.compute(withFrames(new RuntimeException(new IllegalStateException()), frame)))
+				.isNotEqualTo(base);
+	}
+
+	@Test
+	void storesEachTraceOnceAndReloadsTheDictionary() throws Exception {
+		StackTraceFingerprinter fingerprinter = new StackTraceFingerprinter(directory.toString(), new SimpleMeterRegistry());
+		fingerprinter.open();
+
+		RuntimeException exception = new RuntimeException("boom");
+		String fingerprint = fingerprinter.fingerprint(exception);
+		assertThat(fingerprinter.fingerprint(exception)).isEqualTo(fingerprint);
+		assertThat(directory.toFile().list()).hasSize(1);
+
+		StackTraceFingerprinter reopened = new StackTraceFingerprinter(directory.toString(), new SimpleMeterRegistry());
+		reopened.open();
+		assertThat(reopened.findTrace(fingerprint)).hasValueSatisfying(trace -> assertThat(trace).contains("boom"));
+		assertThat(reopened.findTrace("../../etc/passwd")).isEmpty();
+	}
+
+	private static RuntimeException withFrames(RuntimeException exception, StackTraceElement... frames) {
+		exception.setStackTrace(frames);
+		if (exception.getCause() != null) {
+			exception.getCause().setStackTrace(frames);
+		}
+		return exception;
+	}
+}
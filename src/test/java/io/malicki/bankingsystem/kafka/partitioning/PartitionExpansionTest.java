@@ -0,0 +1,163 @@
+package io.malicki.bankingsystem.kafka.partitioning;
+
+import io.malicki.bankingsystem.api.dto.TransferRequest;
+import io.malicki.bankingsystem.domain.account.Account;
+import io.malicki.bankingsystem.domain.account.AccountRepository;
+import io.malicki.bankingsystem.domain.transfer.Transfer;
+import io.malicki.bankingsystem.domain.transfer.TransferRepository;
+import io.malicki.bankingsystem.domain.transfer.TransferService;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig;
+import io.malicki.bankingsystem.velocity.VelocityTracker;
+import io.malicki.bankingsystem.velocity.VelocityWindow;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:expansion;DB_CLOSE_DELAY=-1",
+		"banking.outbox.poll-interval-ms=50",
+		// Two of the test's 10.00 transfers fit in the 5m window, a third does not
+		"banking.velocity.limit.max-amount=25",
+		"banking.transfer.sync.deadline-ms=60000",
+		"banking.audit.directory=target/expansion-test/audit",
+		"banking.dlt.fingerprint-directory=target/expansion-test/fingerprints"
+})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class PartitionExpansionTest {
+
+	@Autowired
+	PartitionExpansion partitionExpansion;
+
+	@Autowired
+	TransferService transferService;
+
+	@Autowired
+	TransferRepository transferRepository;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	VelocityTracker velocityTracker;
+
+	@Autowired
+	KafkaAdmin kafkaAdmin;
+
+	@Autowired
+	KafkaListenerEndpointRegistry registry;
+
+	@Autowired
+	EmbeddedKafkaBroker broker;
+
+	@Test
+	void growsTopicsAndMovesAccountsToTheirNewPartition() throws Exception {
+		// A sender whose key lands on a partition that only exists after the expansion
+		String sender = IntStream.range(0, 1000).mapToObj(i -> String.format("EXP%03d", i))
+				.filter(key -> partition(key, 6) >= 3)
+				.findFirst().orElseThrow();
+		accountRepository.saveAll(List.of(
+				new Account(null, sender, "Expansion sender", new BigDecimal("1000.00"), true, null, null),
+				new Account(null, "EXPRCV", "Expansion receiver", BigDecimal.ZERO, true, null, null)));
+
+		String before = transfer(sender);
+
+		partitionExpansion.start(6);
+		await().atMost(Duration.ofSeconds(120)).until(() -> partitionExpansion.getStatus().getPhase(),
+				phase -> phase == ExpansionPhase.COMPLETED || phase == ExpansionPhase.FAILED);
+		assertThat(partitionExpansion.getStatus().getError()).isNull();
+		assertThat(partitionExpansion.getStatus().getPhase()).isEqualTo(ExpansionPhase.COMPLETED);
+
+		try (Admin admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+			Map<String, TopicDescription> topics = admin.describeTopics(PartitionExpansion.TOPICS).allTopicNames().get();
+			assertThat(topics.values()).allSatisfy(topic -> assertThat(topic.partitions()).hasSize(6));
+		}
+		assertThat(((ConcurrentMessageListenerContainer<?, ?>) registry.getListenerContainer("validation")).getConcurrency())
+				.isEqualTo(6);
+
+		String after = transfer(sender);
+
+		Map<String, Integer> partitions = validationPartitions(List.of(before, after));
+		assertThat(partitions.get(before)).isEqualTo(partition(sender, 3));
+		assertThat(partitions.get(after)).isEqualTo(partition(sender, 6));
+
+		// The transfer sent before the move still counts against the limit on the new partition
+		await().atMost(Duration.ofSeconds(30)).until(() -> sentInFiveMinutes(sender) == 2);
+		Transfer over = transferService.createTransferSync(UUID.randomUUID().toString(),
+				new TransferRequest(sender, "EXPRCV", new BigDecimal("10.00"), "expansion"), System.nanoTime());
+		assertThat(over.getStatus()).isEqualTo(TransferStatus.FAILED);
+		assertThat(over.getFailureReason()).contains("Velocity limit exceeded");
+	}
+
+	// Relayed by the outbox and taken all the way through the pipeline
+	private String transfer(String sender) {
+		String transferId = transferService.createTransfer(
+				new TransferRequest(sender, "EXPRCV", new BigDecimal("10.00"), "expansion")).getTransferId();
+		await().atMost(Duration.ofSeconds(60)).until(() ->
+				transferRepository.findByTransferId(transferId).orElseThrow().getStatus() == TransferStatus.COMPLETED);
+		return transferId;
+	}
+
+	private long sentInFiveMinutes(String sender) {
+		return velocityTracker.getSnapshot(sender).stream()
+				.flatMap(snapshot -> snapshot.getSliding().stream())
+				.filter(window -> window.getWindow().equals(Duration.ofMinutes(5)))
+				.mapToLong(VelocityWindow::getSentCount)
+				.sum();
+	}
+
+	// The default partitioner for keyed records
+	private static int partition(String key, int partitions) {
+		return Utils.toPositive(Utils.murmur2(key.getBytes(StandardCharsets.UTF_8))) % partitions;
+	}
+
+	private Map<String, Integer> validationPartitions(List<String> transferIds) {
+		Map<String, Object> props = KafkaTestUtils.consumerProps("expansion-test", "false", broker);
+		props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+		props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+
+		Map<String, Integer> partitions = new HashMap<>();
+		try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+			List<TopicPartition> assignment = IntStream.range(0, 6)
+					.mapToObj(p -> new TopicPartition(KafkaTopicsConfig.TRANSFER_VALIDATION_TOPIC, p))
+					.toList();
+			consumer.assign(assignment);
+			consumer.seekToBeginning(assignment);
+			await().atMost(Duration.ofSeconds(30)).until(() -> {
+				for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(200))) {
+					transferIds.stream().filter(record.value()::contains)
+							.forEach(transferId -> partitions.put(transferId, record.partition()));
+				}
+				return partitions.size() == transferIds.size();
+			});
+		}
+		return partitions;
+	}
+}
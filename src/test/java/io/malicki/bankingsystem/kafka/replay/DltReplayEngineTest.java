@@ -0,0 +1,277 @@
+package io.malicki.bankingsystem.kafka.replay;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import io.malicki.bankingsystem.kafka.circuit.CircuitState;
+import io.malicki.bankingsystem.kafka.circuit.CircuitStateChangedEvent;
+import io.malicki.bankingsystem.kafka.circuit.DownstreamCircuitBreaker;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.FailedMessage;
+import io.malicki.bankingsystem.kafka.partitioning.ProducerFence;
+import io.malicki.bankingsystem.kafka.partitioning.ProducerFenceChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.SendResult;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The engine against an in-memory container, template and fence: what is
+// sent, what is acked (= the committed checkpoint) and when the container is
+// paused or restarted.
+class DltReplayEngineTest {
+
+	private static final String TOPIC = "transfer-validation";
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	private final FakeContainer container = new FakeContainer();
+	private final List<ProducerRecord<String, TransferEvent>> sent = new ArrayList<>();
+	private final List<CompletableFuture<SendResult<String, TransferEvent>>> sends = new ArrayList<>();
+
+	private boolean circuitClosed = true;
+	private boolean fenced;
+
+	private final DltReplayEngine engine = new DltReplayEngine(
+			new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(Map.of())) {
+				@Override
+				public CompletableFuture<SendResult<String, TransferEvent>> send(ProducerRecord<String, TransferEvent> record) {
+					CompletableFuture<SendResult<String, TransferEvent>> send = new CompletableFuture<>();
+					sent.add(record);
+					sends.add(send);
+					return send;
+				}
+			},
+			new KafkaListenerEndpointRegistry() {
+				@Override
+				public MessageListenerContainer getListenerContainer(String id) {
+					return container;
+				}
+			},
+			objectMapper,
+			new DownstreamCircuitBreaker(new KafkaListenerEndpointRegistry(), null, event -> { },
+					new SimpleMeterRegistry(), true, List.of(), 4, 4, 0.5, 0, 1, 1000, 1, 1000) {
+				@Override
+				public boolean isClosed() {
+					return circuitClosed;
+				}
+			},
+			new ProducerFence(event -> { }) {
+				@Override
+				public boolean tryEnter() {
+					return !fenced;
+				}
+
+				@Override
+				public void exit() {
+				}
+			},
+			new SimpleMeterRegistry(),
+			1000, 1000, 10, 2, 60000, 0.5, 2);
+
+	@Test
+	void skipsWhatIsNotWorthReplaying() {
+		Ack nonRetryable = replay(failed(0, false));
+		Ack unreadable = new Ack();
+		engine.replay(new ConsumerRecord<>(TOPIC + "-dlt", 0, 1, "ACC001", null), unreadable);
+		Ack exhausted = replay(failed(2, true));
+
+		assertThat(sent).isEmpty();
+		assertThat(nonRetryable.acked).isTrue();
+		assertThat(unreadable.acked).isTrue();
+		assertThat(exhausted.acked).isTrue();
+		assertThat(engine.getStatus().getSkipped()).isEqualTo(2);
+		assertThat(engine.getStatus().getExhausted()).isEqualTo(1);
+	}
+
+	@Test
+	void replayIsAckedOnlyOnceTheSendIsConfirmed() {
+		Ack ack = replay(failed(1, true));
+
+		assertThat(sent).singleElement().satisfies(record -> {
+			assertThat(record.topic()).isEqualTo(TOPIC);
+			assertThat(new String(record.headers().lastHeader(DltReplayEngine.REPLAY_COUNT_HEADER).value())).isEqualTo("2");
+		});
+		assertThat(ack.acked).isFalse();
+
+		sends.get(0).complete(null);
+		assertThat(ack.acked).isTrue();
+	}
+
+	@Test
+	void failedSendPausesAndTheRestOfTheBatchIsLeftForTheRestart() {
+		Ack first = replay(failed(0, true));
+		sends.get(0).completeExceptionally(new IllegalStateException("broker down"));
+
+		Ack second = replay(failed(0, true));
+
+		assertThat(sent).hasSize(1);
+		assertThat(first.acked).isFalse();
+		assertThat(second.acked).isFalse();
+		assertThat(container.paused).isTrue();
+		assertThat(engine.getStatus().getPauseReason()).contains("broker down");
+
+		// Resume restarts the container: it re-reads from the committed offset, before `first`
+		engine.start();
+		assertThat(container.stops).isEqualTo(1);
+		assertThat(container.running).isTrue();
+		assertThat(container.paused).isFalse();
+
+		Ack again = replay(failed(0, true));
+		sends.get(1).complete(null);
+		assertThat(again.acked).isTrue();
+	}
+
+	@Test
+	void pausesWhenReplayedMessagesKeepFailing() {
+		replay(failed(0, true));
+		replay(failed(0, true));
+		sends.forEach(send -> send.complete(null));
+
+		// 2 of 2 failed again - over the 0.5 error rate once min-samples (2) is reached
+		engine.onReplayedMessageFailed();
+		assertThat(container.paused).isFalse();
+		engine.onReplayedMessageFailed();
+		assertThat(container.paused).isTrue();
+		assertThat(engine.getStatus().getPauseReason()).isEqualTo("2 of 2 replayed messages failed again");
+
+		Ack ack = replay(failed(0, true));
+		assertThat(sent).hasSize(2);
+		assertThat(ack.acked).isFalse();
+	}
+
+	@Test
+	void followsTheCircuitBreaker() {
+		circuitClosed = false;
+		engine.onCircuitStateChanged(new CircuitStateChangedEvent(CircuitState.OPEN, "test"));
+		assertThat(container.paused).isTrue();
+
+		Ack ack = replay(failed(0, true));
+		assertThat(sent).isEmpty();
+		assertThat(ack.acked).isFalse();
+
+		circuitClosed = true;
+		engine.onCircuitStateChanged(new CircuitStateChangedEvent(CircuitState.CLOSED, "test"));
+		assertThat(container.paused).isFalse();
+		assertThat(container.stops).isEqualTo(1);
+		assertThat(engine.getStatus().getPauseReason()).isNull();
+
+		// A pause for another reason is not lifted by the circuit closing
+		engine.pause("by hand");
+		engine.onCircuitStateChanged(new CircuitStateChangedEvent(CircuitState.CLOSED, "test"));
+		assertThat(container.paused).isTrue();
+	}
+
+	@Test
+	void followsTheProducerFence() {
+		fenced = true;
+		Ack ack = replay(failed(0, true));
+		assertThat(sent).isEmpty();
+		assertThat(ack.acked).isFalse();
+		assertThat(container.paused).isTrue();
+
+		fenced = false;
+		engine.onProducerFenceChanged(new ProducerFenceChangedEvent(false));
+		assertThat(container.paused).isFalse();
+		assertThat(container.stops).isEqualTo(1);
+
+		Ack again = replay(failed(0, true));
+		sends.get(0).complete(null);
+		assertThat(again.acked).isTrue();
+	}
+
+	private Ack replay(FailedMessage failed) {
+		Ack ack = new Ack();
+		engine.replay(new ConsumerRecord<>(TOPIC + "-dlt", 0, 0, failed.getOriginalKey(), failed), ack);
+		return ack;
+	}
+
+	private FailedMessage failed(int replays, boolean retryable) {
+		TransferEvent event = new TransferEvent("T-1", "ACC001", "ACC002", new BigDecimal("10.00"), "replay",
+				TransferStatus.PENDING, Instant.now());
+		Map<String, String> headers = new HashMap<>();
+		if (replays > 0) {
+			headers.put(DltReplayEngine.REPLAY_COUNT_HEADER, String.valueOf(replays));
+		}
+		try {
+			return new FailedMessage(TOPIC, 0, 0L, "ACC001", objectMapper.writeValueAsString(event),
+					"java.sql.SQLException", "timeout", null, 1, Instant.now(), "banking-system", headers,
+					ErrorCategory.TECHNICAL_TRANSIENT, retryable);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class Ack implements Acknowledgment {
+
+		private boolean acked;
+
+		@Override
+		public void acknowledge() {
+			acked = true;
+		}
+	}
+
+	private static class FakeContainer implements MessageListenerContainer {
+
+		private boolean running = true;
+		private boolean paused;
+		private int stops;
+
+		@Override
+		public void start() {
+			running = true;
+		}
+
+		@Override
+		public void stop() {
+			running = false;
+			stops++;
+		}
+
+		@Override
+		public boolean isRunning() {
+			return running;
+		}
+
+		@Override
+		public void pause() {
+			paused = true;
+		}
+
+		@Override
+		public void resume() {
+			paused = false;
+		}
+
+		@Override
+		public boolean isPauseRequested() {
+			return paused;
+		}
+
+		@Override
+		public void setupMessageListener(Object messageListener) {
+		}
+
+		@Override
+		public Map<String, Map<MetricName, ? extends Metric>> metrics() {
+			return Map.of();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package io.malicki.bankingsystem.load;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Closed loop: load.concurrency requests are kept in flight at all times until
+// load.requests have been sent. Meant to be run twice, on Java 21, to compare
+// Tomcat's platform thread pool with a virtual thread per request:
+//
+//   JAVA_HOME=<jdk21> ./mvnw -Pload-test test -Dtest=ConcurrencyLoadTest
+//   JAVA_HOME=<jdk21> ./mvnw -Pload-test test -Dtest=ConcurrencyLoadTest -Dspring.profiles.active=virtual-threads
+//
+// With a low concurrency it doubles as the insert-rate benchmark for the id
+// generators (README, "Insert rate"); -Dspring.jpa.properties.hibernate.generate_statistics=true
+// adds the JDBC statement counts to the report.
+//
+// Client and server share the JVM, so each in-flight request holds two sockets.
+// Admission control is off, it would turn most of the burst into 429s. Requests
+// that cannot even connect (-Dload.connect-timeout-s) are part of the result:
+// they are reported as errors rather than failing the run.
+@TestPropertySource(properties = {
+		"banking.admission.enabled=false",
+		"server.tomcat.max-connections=20000",
+		"server.tomcat.accept-count=1000"
+})
+class ConcurrencyLoadTest extends PipelineLoadTestSupport {
+
+	private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 10_000);
+	private static final int REQUESTS = Integer.getInteger("load.requests", 50_000);
+	private static final int ACCOUNTS = Integer.getInteger("load.accounts", 1_000);
+
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+
+	ConcurrencyLoadTest() {
+		super("CONC");
+	}
+
+	@Test
+	void sustainsConcurrentRequestsAndConservesMoney() throws Exception {
+		List<String> accounts = createAccounts(ACCOUNTS);
+		BigDecimal totalBefore = totalBalance();
+		TransferClient client = new TransferClient(port, MODE, objectMapper);
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP)
+				.toList();
+		threads.resetPeakThreadCount();
+		heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+		long gcCountBefore = gcCount();
+		long gcMillisBefore = gcMillis();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		try (StageTimings timings = new StageTimings(broker, objectMapper)) {
+			long started = System.nanoTime();
+			generateLoad(client, accounts);
+			client.awaitResponses();
+			long responded = System.nanoTime() - started;
+
+			// Sampled before the drain, which only exercises the consumers
+			int peakThreads = threads.getPeakThreadCount();
+			long peakHeap = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+			long gcs = gcCount() - gcCountBefore;
+			long gcMillis = gcMillis() - gcMillisBefore;
+
+			awaitDrained(client, timings);
+
+			List<String> header = new ArrayList<>(List.of(
+					String.format("concurrency=%d requests=%d accounts=%d java=%s profiles=%s",
+							CONCURRENCY, REQUESTS, ACCOUNTS, Runtime.version().feature(),
+							System.getProperty("spring.profiles.active", "default")),
+					String.format("responses: %.1f/s over %.1fs | peak platform threads: %d | peak heap used: %d MB | gc: %d collections, %d ms",
+							REQUESTS / (responded / 1e9), responded / 1e9, peakThreads, peakHeap / (1024 * 1024), gcs, gcMillis)));
+			if (statistics.isStatisticsEnabled()) {
+				// Whole run, drain included
+				header.add(String.format("jdbc: %d statements prepared | %d entity inserts | %d entity updates | %d transactions",
+						statistics.getPrepareStatementCount(), statistics.getEntityInsertCount(),
+						statistics.getEntityUpdateCount(), statistics.getTransactionCount()));
+			}
+			writeReport("concurrency", header, client, timings, System.nanoTime() - started);
+		}
+
+		assertThat(client.accepted.get() + client.errors.get()).isEqualTo(REQUESTS);
+		assertMoneyConserved(totalBefore);
+	}
+
+	// Each request is sent as soon as one of the in-flight ones has its response;
+	// latency is measured from that point
+	private void generateLoad(TransferClient client, List<String> accounts) throws InterruptedException {
+		Random random = new Random(42);
+		Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+		for (int i = 0; i < REQUESTS; i++) {
+			inFlight.acquire();
+			int from = random.nextInt(accounts.size());
+			int to = (from + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+			client.send(accounts.get(from), accounts.get(to), BigDecimal.valueOf(100 + random.nextInt(9901), 2),
+							System.nanoTime())
+					.whenComplete((ignored, e) -> inFlight.release());
+		}
+	}
+
+	private static long gcCount() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream()
+				.mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+	}
+
+	private static long gcMillis() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream()
+				.mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+	}
+}
@@ -0,0 +1,189 @@
+package io.malicki.bankingsystem.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.malicki.bankingsystem.domain.account.Account;
+import io.malicki.bankingsystem.domain.account.AccountRepository;
+import io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// The whole app on embedded Kafka and in-memory H2, for tests that drive it
+// over HTTP (TransferLoadTest, TraceReplayTest). Each run works on its own
+// freshly created accounts, so runs sharing the cached context don't interfere.
+//
+// Any banking.* property can be overridden with -D, e.g.
+// -Dbanking.admission.enabled=false. Reports go to target/load-test/.
+@Slf4j
+@Tag("load")
+@SpringBootTest(
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+				"spring.jpa.show-sql=false",
+				"banking.outbox.poll-interval-ms=20",
+				"banking.audit.directory=target/load-test/audit",
+				"banking.dlt.fingerprint-directory=target/load-test/fingerprints",
+				"logging.level.io.malicki.bankingsystem=WARN"
+		})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+abstract class PipelineLoadTestSupport {
+
+	static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.00");
+	static final int DRAIN_TIMEOUT_S = Integer.getInteger("load.drain-timeout-s", 120);
+	// async (201 once PENDING is written) or sync (POST /api/transfers?mode=sync)
+	static final String MODE = System.getProperty("load.mode", "async");
+
+	@LocalServerPort
+	int port;
+
+	@Autowired
+	AccountRepository accountRepository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	EmbeddedKafkaBroker broker;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	// Account numbers of this run: <kind><run><index>
+	final String accountPrefix;
+
+	PipelineLoadTestSupport(String kind) {
+		this.accountPrefix = kind + Integer.toString(ThreadLocalRandom.current().nextInt(36 * 36 * 36 * 36), 36).toUpperCase();
+	}
+
+	String accountNumber(int index) {
+		return String.format("%s%06d", accountPrefix, index);
+	}
+
+	List<String> createAccounts(int count) {
+		List<String> numbers = new ArrayList<>(count);
+		List<Account> accounts = new ArrayList<>(count);
+		for (int i = 1; i <= count; i++) {
+			String number = accountNumber(i);
+			numbers.add(number);
+			accounts.add(new Account(null, number, "Load " + i, OPENING_BALANCE, true, null, null));
+		}
+		accountRepository.saveAll(accounts);
+		return numbers;
+	}
+
+	BigDecimal totalBalance() {
+		return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(balance), 0) FROM accounts WHERE account_number LIKE ?",
+				BigDecimal.class, accountPrefix + "%");
+	}
+
+	long countByStatus(String status) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfers WHERE from_account_number LIKE ? AND status = ?",
+				Long.class, accountPrefix + "%", status);
+	}
+
+	// Every accepted transfer is either on transfer-completed or dead-lettered
+	// (business rejections go to the DLT), and the DB agrees on the completed ones
+	void awaitDrained(TransferClient client, StageTimings timings) {
+		Map<String, Long> completed = timings.seenOn(KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC);
+		await().atMost(Duration.ofSeconds(DRAIN_TIMEOUT_S)).pollInterval(Duration.ofMillis(500)).untilAsserted(() -> {
+			assertThat(client.sentAt.keySet().stream()
+					.filter(transferId -> completed.containsKey(transferId) || timings.deadLettered(transferId))
+					.count()).isEqualTo(client.accepted.get());
+			assertThat(client.sentAt.keySet().stream().filter(completed::containsKey).count())
+					.isEqualTo(countByStatus("COMPLETED"));
+		});
+	}
+
+	void assertMoneyConserved(BigDecimal totalBefore) {
+		assertThat(totalBalance()).isEqualByComparingTo(totalBefore);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts WHERE account_number LIKE ? AND balance < 0",
+				Long.class, accountPrefix + "%")).isZero();
+	}
+
+	// Per-stage latency and throughput; each stage only counts transfers that reached its end
+	void writeReport(String name, List<String> header, TransferClient client, StageTimings timings, long elapsedNanos)
+			throws Exception {
+		Map<String, Long> validation = timings.seenOn(KafkaTopicsConfig.TRANSFER_VALIDATION_TOPIC);
+		Map<String, Long> execution = timings.seenOn(KafkaTopicsConfig.TRANSFER_EXECUTION_TOPIC);
+		Map<String, Long> completed = timings.seenOn(KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC);
+
+		Map<String, Histogram> stages = new LinkedHashMap<>();
+		stages.put("sync".equals(MODE) ? "sync response" : "accept (HTTP 201)",
+				stage(client.sentAt, client.sentAt, client.acceptedAt));
+		stages.put("outbox -> " + KafkaTopicsConfig.TRANSFER_VALIDATION_TOPIC, stage(client.sentAt, client.acceptedAt, validation));
+		if (execution.isEmpty()) {
+			// banking.transfer.pipeline=fast-path: no transfer-execution hop
+			stages.put("validation -> " + KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC, stage(client.sentAt, validation, completed));
+		} else {
+			stages.put("validation -> " + KafkaTopicsConfig.TRANSFER_EXECUTION_TOPIC, stage(client.sentAt, validation, execution));
+			stages.put("execution -> " + KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC, stage(client.sentAt, execution, completed));
+		}
+		Histogram endToEnd = stage(client.sentAt, client.sentAt, completed);
+		stages.put("end to end", endToEnd);
+
+		double seconds = elapsedNanos / 1e9;
+		Path directory = Files.createDirectories(Path.of("target", "load-test"));
+		try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name + "-report.txt")))) {
+			header.forEach(out::println);
+			out.printf("mode=%s accepted=%d deferred=%d rejected=%d errors=%d completed=%d dead-lettered=%d in %.1fs%n",
+					MODE, client.accepted.get(), client.deferred.get(), client.rejected.get(), client.errors.get(),
+					countByStatus("COMPLETED"),
+					client.sentAt.keySet().stream().filter(timings::deadLettered).count(), seconds);
+			out.println();
+			out.printf("%-36s %8s %8s %9s %9s %9s %9s %9s%n", "stage (ms)", "count", "per sec", "p50", "p90", "p99", "p99.9", "max");
+			stages.forEach((stage, histogram) -> out.printf("%-36s %8d %8.1f %9s %9s %9s %9s %9s%n",
+					stage, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+					millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+					millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+					millis(histogram.getMaxValue())));
+			out.println();
+			out.println("End to end latency distribution (ms, from intended send):");
+			endToEnd.outputPercentileDistribution(out, 1000.0);
+		}
+
+		log.warn("📈 {} | Accepted: {} | Rejected: {} | Completed: {} | p50: {}ms | p99: {}ms | max: {}ms",
+				name, client.accepted.get(), client.rejected.get(), endToEnd.getTotalCount(),
+				millis(endToEnd.getValueAtPercentile(50)), millis(endToEnd.getValueAtPercentile(99)),
+				millis(endToEnd.getMaxValue()));
+	}
+
+	// Microseconds from reaching `from` to reaching `to`, for this run's transfers
+	private static Histogram stage(Map<String, Long> transfers, Map<String, Long> from, Map<String, Long> to) {
+		Histogram histogram = new Histogram(3);
+		for (String transferId : transfers.keySet()) {
+			Long start = from.get(transferId);
+			Long end = to.get(transferId);
+			if (start != null && end != null) {
+				histogram.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(end - start)));
+			}
+		}
+		return histogram;
+	}
+
+	private static BigDecimal millis(long micros) {
+		return BigDecimal.valueOf(micros).divide(BigDecimal.valueOf(1000), 1, RoundingMode.HALF_UP);
+	}
+}
@@ -0,0 +1,86 @@
+package io.malicki.bankingsystem.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.malicki.bankingsystem.kafka.config.KafkaTopicsConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Watches the pipeline topics from a separate consumer group and records when
+// each transfer first shows up on each of them (System.nanoTime()). The gaps
+// between topics are the outbox, validation and execution stages; a transfer
+// on a DLT topic has left the pipeline.
+@Slf4j
+class StageTimings implements AutoCloseable {
+
+	static final List<String> TOPICS = List.of(
+			KafkaTopicsConfig.TRANSFER_VALIDATION_TOPIC,
+			KafkaTopicsConfig.TRANSFER_EXECUTION_TOPIC,
+			KafkaTopicsConfig.TRANSFER_COMPLETED_TOPIC,
+			KafkaTopicsConfig.TRANSFER_VALIDATION_DLT_TOPIC,
+			KafkaTopicsConfig.TRANSFER_EXECUTION_DLT_TOPIC);
+
+	private final Map<String, Map<String, Long>> seen = new ConcurrentHashMap<>();
+	private final Thread consumerThread;
+	private final ObjectMapper objectMapper;
+	private volatile boolean running = true;
+
+	StageTimings(EmbeddedKafkaBroker broker, ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+		TOPICS.forEach(topic -> seen.put(topic, new ConcurrentHashMap<>()));
+
+		Map<String, Object> props = KafkaTestUtils.consumerProps("stage-timings-" + UUID.randomUUID(), "true", broker);
+		props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+		props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+		consumerThread = new Thread(() -> consume(props), "stage-timings");
+		consumerThread.start();
+	}
+
+	Map<String, Long> seenOn(String topic) {
+		return seen.get(topic);
+	}
+
+	boolean deadLettered(String transferId) {
+		return seen.get(KafkaTopicsConfig.TRANSFER_VALIDATION_DLT_TOPIC).containsKey(transferId)
+				|| seen.get(KafkaTopicsConfig.TRANSFER_EXECUTION_DLT_TOPIC).containsKey(transferId);
+	}
+
+	private void consume(Map<String, Object> props) {
+		try (KafkaConsumer<String, String> consumer = new KafkaConsumer<>(props)) {
+			consumer.subscribe(TOPICS);
+			while (running) {
+				for (ConsumerRecord<String, String> record : consumer.poll(Duration.ofMillis(100))) {
+					long now = System.nanoTime();
+					try {
+						JsonNode value = objectMapper.readTree(record.value());
+						// DLT records wrap the original event (FailedMessage.originalValue)
+						if (value.has("originalValue")) {
+							value = objectMapper.readTree(value.get("originalValue").asText());
+						}
+						String transferId = value.get("transferId").asText();
+						seen.get(record.topic()).putIfAbsent(transferId, now);
+					} catch (Exception e) {
+						log.error("❌ Unreadable {} record: {}", record.topic(), e.getMessage());
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void close() throws InterruptedException {
+		running = false;
+		consumerThread.join();
+	}
+}
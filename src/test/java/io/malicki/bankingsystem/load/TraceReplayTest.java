@@ -0,0 +1,95 @@
+package io.malicki.bankingsystem.load;
+
+import io.malicki.bankingsystem.capture.CapturedRequest;
+import io.malicki.bankingsystem.capture.TraceReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Re-injects a trace recorded by TrafficCapture (POST /api/capture/start) with
+// the original timing and account skew. Accounts are remapped to fresh ones
+// (opened with a large balance), so the trace can be replayed against any
+// instance, any number of times. Every request comes from this JVM's address,
+// so admission sees a single client.
+//
+//   ./mvnw -Pload-test test -Dtest=TraceReplayTest -Dreplay.trace=data/capture/transfers-20260101-120000.trace -Dreplay.speed=2
+//
+// replay.speed: 1 = recorded timing, N = N times faster, max = as fast as possible
+class TraceReplayTest extends PipelineLoadTestSupport {
+
+	private static final String TRACE = System.getProperty("replay.trace");
+	private static final String SPEED = System.getProperty("replay.speed", "1");
+
+	TraceReplayTest() {
+		super("RPL");
+	}
+
+	@Test
+	void replaysTraceAndConservesMoney() throws Exception {
+		assumeTrue(TRACE != null, "no -Dreplay.trace given");
+		Path trace = Path.of(TRACE);
+
+		Map<String, String> accounts = remapAccounts(trace);
+		createAccounts(accounts.size());
+		BigDecimal totalBefore = totalBalance();
+		TransferClient client = new TransferClient(port, MODE, objectMapper);
+
+		int replayed;
+		try (StageTimings timings = new StageTimings(broker, objectMapper)) {
+			long started = System.nanoTime();
+			replayed = replay(trace, accounts, client);
+			client.awaitResponses();
+			awaitDrained(client, timings);
+
+			writeReport("replay", List.of(String.format("trace=%s speed=%s requests=%d accounts=%d",
+					trace, SPEED, replayed, accounts.size())), client, timings, System.nanoTime() - started);
+		}
+
+		assertThat(client.accepted.get() + client.rejected.get() + client.errors.get()).isEqualTo(replayed);
+		assertThat(client.errors.get()).isZero();
+		assertMoneyConserved(totalBefore);
+	}
+
+	// Original account number -> this run's account, in order of first appearance
+	private Map<String, String> remapAccounts(Path trace) throws IOException {
+		Map<String, String> accounts = new LinkedHashMap<>();
+		try (TraceReader reader = new TraceReader(trace)) {
+			for (CapturedRequest request = reader.next(); request != null; request = reader.next()) {
+				accounts.computeIfAbsent(request.getFromAccountNumber(), original -> accountNumber(accounts.size() + 1));
+				accounts.computeIfAbsent(request.getToAccountNumber(), original -> accountNumber(accounts.size() + 1));
+			}
+		}
+		return accounts;
+	}
+
+	private int replay(Path trace, Map<String, String> accounts, TransferClient client) throws IOException {
+		boolean max = "max".equalsIgnoreCase(SPEED);
+		double speed = max ? 0 : Double.parseDouble(SPEED);
+
+		int replayed = 0;
+		long start = System.nanoTime();
+		try (TraceReader reader = new TraceReader(trace)) {
+			for (CapturedRequest request = reader.next(); request != null; request = reader.next()) {
+				long intended = max ? System.nanoTime() : start + (long) (request.getOffsetMicros() * 1000 / speed);
+				long wait = intended - System.nanoTime();
+				if (wait > 0) {
+					LockSupport.parkNanos(wait);
+				}
+
+				client.send(accounts.get(request.getFromAccountNumber()), accounts.get(request.getToAccountNumber()),
+						request.getAmount(), intended);
+				replayed++;
+			}
+		}
+		return replayed;
+	}
+}
@@ -0,0 +1,103 @@
+package io.malicki.bankingsystem.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fires POST /api/transfers without waiting for the response and remembers,
+// per accepted transferId, when it was meant to be sent and when the 201 came back.
+// With mode=sync a 201 is already the outcome, and a 202 is a transfer that
+// missed the sync deadline and went on through the pipeline (deferred).
+// A 422 (sync business rejection) counts as rejected.
+@Slf4j
+class TransferClient {
+
+	private static final int CONNECT_TIMEOUT_S = Integer.getInteger("load.connect-timeout-s", 5);
+
+	// Responses are handled on a few daemon threads, so the client does not add
+	// a platform thread per in-flight request to the JVM under test
+	private final HttpClient http = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofSeconds(CONNECT_TIMEOUT_S))
+			.executor(Executors.newFixedThreadPool(4, runnable -> {
+				Thread thread = new Thread(runnable, "load-client");
+				thread.setDaemon(true);
+				return thread;
+			}))
+			.build();
+	private final URI uri;
+	private final ObjectMapper objectMapper;
+	private final List<CompletableFuture<?>> inFlight = new ArrayList<>();
+
+	// transferId -> System.nanoTime()
+	final Map<String, Long> sentAt = new ConcurrentHashMap<>();
+	final Map<String, Long> acceptedAt = new ConcurrentHashMap<>();
+
+	final AtomicInteger accepted = new AtomicInteger();
+	final AtomicInteger deferred = new AtomicInteger();
+	final AtomicInteger rejected = new AtomicInteger();
+	final AtomicInteger errors = new AtomicInteger();
+
+	TransferClient(int port, String mode, ObjectMapper objectMapper) {
+		this.uri = URI.create("http://localhost:" + port + "/api/transfers?mode=" + mode);
+		this.objectMapper = objectMapper;
+	}
+
+	// intendedNanos is the scheduled send time - latency is measured from it, so
+	// a generator that falls behind does not hide the delay. Completes once the
+	// response has been recorded.
+	CompletableFuture<Void> send(String from, String to, BigDecimal amount, long intendedNanos) {
+		HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(String.format(
+						"{\"fromAccountNumber\":\"%s\",\"toAccountNumber\":\"%s\",\"amount\":%s}",
+						from, to, amount.toPlainString())));
+		CompletableFuture<Void> response = http.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString())
+				.thenAccept(r -> onResponse(r, intendedNanos))
+				.exceptionally(e -> {
+					errors.incrementAndGet();
+					log.error("❌ Request failed: {}", e.getMessage());
+					return null;
+				});
+		inFlight.add(response);
+		return response;
+	}
+
+	void awaitResponses() {
+		CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+	}
+
+	private void onResponse(HttpResponse<String> response, long intendedNanos) {
+		long now = System.nanoTime();
+		if (response.statusCode() == 201 || response.statusCode() == 202) {
+			try {
+				String transferId = objectMapper.readTree(response.body()).get("transferId").asText();
+				sentAt.put(transferId, intendedNanos);
+				acceptedAt.put(transferId, now);
+				accepted.incrementAndGet();
+				if (response.statusCode() == 202) {
+					deferred.incrementAndGet();
+				}
+			} catch (Exception e) {
+				errors.incrementAndGet();
+			}
+		} else if (response.statusCode() == 429 || response.statusCode() == 422) {
+			rejected.incrementAndGet();
+		} else {
+			errors.incrementAndGet();
+			log.error("❌ Unexpected status {}: {}", response.statusCode(), response.body());
+		}
+	}
+}
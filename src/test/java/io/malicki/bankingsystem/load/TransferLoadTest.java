@@ -0,0 +1,105 @@
+package io.malicki.bankingsystem.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Synthetic load at an open-loop (Poisson) arrival rate, senders and receivers
+// drawn from a Zipf distribution. Latency is measured from the intended send
+// time, so a stalled pipeline shows up in the tail instead of slowing the
+// generator.
+//
+//   ./mvnw -Pload-test test -Dtest=TransferLoadTest -Dload.rate=200 -Dload.duration-s=60 -Dload.zipf-s=1.2
+class TransferLoadTest extends PipelineLoadTestSupport {
+
+	private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "100"));
+	private static final int DURATION_S = Integer.getInteger("load.duration-s", 30);
+	private static final int ACCOUNTS = Integer.getInteger("load.accounts", 100);
+	private static final double ZIPF_S = Double.parseDouble(System.getProperty("load.zipf-s", "1.0"));
+
+	TransferLoadTest() {
+		super("LOAD");
+	}
+
+	@Test
+	void sustainsArrivalRateAndConservesMoney() throws Exception {
+		List<String> accounts = createAccounts(ACCOUNTS);
+		BigDecimal totalBefore = totalBalance();
+		TransferClient client = new TransferClient(port, MODE, objectMapper);
+
+		try (StageTimings timings = new StageTimings(broker, objectMapper)) {
+			long started = System.nanoTime();
+			generateLoad(client, accounts);
+			client.awaitResponses();
+			awaitDrained(client, timings);
+
+			writeReport("load", List.of(String.format("rate=%.1f/s duration=%ds accounts=%d zipf-s=%.2f",
+					RATE, DURATION_S, ACCOUNTS, ZIPF_S)), client, timings, System.nanoTime() - started);
+		}
+
+		assertThat(client.errors.get()).isZero();
+		assertMoneyConserved(totalBefore);
+	}
+
+	// Open loop: the schedule is fixed up front by the arrival process; a slow
+	// response never delays the next request
+	private void generateLoad(TransferClient client, List<String> accounts) {
+		Random random = new Random(42);
+		ZipfSampler zipf = new ZipfSampler(accounts.size(), ZIPF_S);
+
+		long start = System.nanoTime();
+		long end = start + TimeUnit.SECONDS.toNanos(DURATION_S);
+		long next = start;
+
+		while (true) {
+			next += (long) (-Math.log(1 - random.nextDouble()) / RATE * 1_000_000_000L);
+			if (next >= end) {
+				break;
+			}
+			long wait = next - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+
+			int from = zipf.sample(random);
+			int to;
+			do {
+				to = zipf.sample(random);
+			} while (to == from);
+			BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(9901), 2);
+
+			client.send(accounts.get(from), accounts.get(to), amount, next);
+		}
+	}
+
+	// Rank k (0-based) is drawn with probability proportional to 1 / (k + 1)^s;
+	// s = 0 is uniform, larger s concentrates traffic on the first accounts
+	static final class ZipfSampler {
+
+		private final double[] cumulative;
+
+		ZipfSampler(int n, double s) {
+			cumulative = new double[n];
+			double sum = 0;
+			for (int k = 0; k < n; k++) {
+				sum += 1 / Math.pow(k + 1, s);
+				cumulative[k] = sum;
+			}
+			for (int k = 0; k < n; k++) {
+				cumulative[k] /= sum;
+			}
+		}
+
+		int sample(Random random) {
+			int index = Arrays.binarySearch(cumulative, random.nextDouble());
+			return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+		}
+	}
+}
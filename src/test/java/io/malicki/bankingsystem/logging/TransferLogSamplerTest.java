@@ -0,0 +1,61 @@
+package io.malicki.bankingsystem.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransferLogSamplerTest {
+
+	private final Logger logger = new LoggerContext().getLogger("test");
+	private final TransferLogSampler sampler = new TransferLogSampler(1);
+
+	@AfterEach
+	void clearMdc() {
+		MDC.clear();
+	}
+
+	@Test
+	void keepsEverythingAtRateOne() {
+		MDC.put(TransferLogSampler.MDC_KEY, UUID.randomUUID().toString());
+		assertThat(decide(Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+		assertThat(sampler.getDropped()).isZero();
+	}
+
+	@Test
+	void samplesRoughlyOneInNTransfersAndKeepsWarnings() {
+		sampler.setSampleRate(10);
+
+		int kept = 0;
+		for (int i = 0; i < 10_000; i++) {
+			MDC.put(TransferLogSampler.MDC_KEY, UUID.randomUUID().toString());
+			boolean info = decide(Level.INFO) == FilterReply.NEUTRAL;
+			// Same transfer, same decision
+			assertThat(decide(Level.DEBUG) == FilterReply.NEUTRAL).isEqualTo(info);
+			assertThat(decide(Level.WARN)).isEqualTo(FilterReply.NEUTRAL);
+			assertThat(decide(Level.ERROR)).isEqualTo(FilterReply.NEUTRAL);
+			if (info) {
+				kept++;
+			}
+		}
+		assertThat(kept).isBetween(800, 1200);
+		assertThat(sampler.getDropped()).isEqualTo(2L * (10_000 - kept));
+	}
+
+	@Test
+	void keepsLinesWithoutTransferId() {
+		sampler.setSampleRate(1_000_000);
+		assertThat(decide(Level.INFO)).isEqualTo(FilterReply.NEUTRAL);
+	}
+
+	private FilterReply decide(Level level) {
+		return sampler.decide(null, logger, level, "message {}", new Object[]{"arg"}, null);
+	}
+}
@@ -0,0 +1,100 @@
+package io.malicki.bankingsystem.notification;
+
+import io.malicki.bankingsystem.domain.transfer.TransferEvent;
+import io.malicki.bankingsystem.domain.transfer.TransferStatus;
+import io.malicki.bankingsystem.kafka.errorhandling.DeadLetterTopicService;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorCategory;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorClassifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.groups.Tuple.tuple;
+
+class NotificationDispatcherTest {
+
+	@Test
+	void coalescesPerRecipientAndAcksOnceDelivered() throws Exception {
+		List<List<NotificationDigest>> calls = new CopyOnWriteArrayList<>();
+		NotificationDispatcher dispatcher = new NotificationDispatcher(
+				calls::add, null, new ErrorClassifier(), new SimpleMeterRegistry(), 100, 100, 2, 100);
+		dispatcher.start();
+
+		CountDownLatch acked = new CountDownLatch(3);
+		AtomicInteger ackCount = new AtomicInteger();
+		for (int offset = 0; offset < 3; offset++) {
+			dispatcher.dispatch(record(offset), () -> {
+				ackCount.incrementAndGet();
+				acked.countDown();
+			});
+		}
+
+		assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+		dispatcher.stop();
+
+		assertThat(ackCount).hasValue(3);
+		assertThat(calls).hasSize(1);
+		assertThat(calls.get(0))
+				.extracting(NotificationDigest::getRecipient, digest -> digest.getNotifications().size())
+				.containsExactly(
+						tuple("ACC001", 3),
+						tuple("ACC002", 3));
+	}
+
+	@Test
+	void providerFailureSendsEachRecordToTheDltOnceAndReleasesPermits() throws Exception {
+		List<ConsumerRecord<?, ?>> deadLettered = new CopyOnWriteArrayList<>();
+		DeadLetterTopicService dltService = new DeadLetterTopicService(null, null, null, null) {
+			@Override
+			public void sendToDeadLetterTopic(ConsumerRecord<?, ?> record, Exception exception,
+					String consumerGroupId, int attemptCount, ErrorCategory category) {
+				assertThat(exception).hasMessage("provider down");
+				deadLettered.add(record);
+			}
+		};
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		// Room for exactly two records' notifications
+		NotificationDispatcher dispatcher = new NotificationDispatcher(
+				digests -> {
+					throw new IllegalStateException("provider down");
+				},
+				dltService, new ErrorClassifier(), meterRegistry, 50, 100, 2, 4);
+		dispatcher.start();
+
+		CountDownLatch acked = new CountDownLatch(4);
+		List<AtomicInteger> ackCounts = new ArrayList<>();
+		for (int offset = 0; offset < 4; offset++) {
+			// The last two only get permits once the first two have failed
+			AtomicInteger ackCount = new AtomicInteger();
+			ackCounts.add(ackCount);
+			dispatcher.dispatch(record(offset), () -> {
+				ackCount.incrementAndGet();
+				acked.countDown();
+			});
+		}
+
+		assertThat(acked.await(5, TimeUnit.SECONDS)).isTrue();
+		dispatcher.stop();
+
+		assertThat(ackCounts).allSatisfy(ackCount -> assertThat(ackCount).hasValue(1));
+		assertThat(deadLettered).extracting(ConsumerRecord::offset).containsExactlyInAnyOrder(0L, 1L, 2L, 3L);
+		assertThat(meterRegistry.get("banking.notification.pending").gauge().value()).isZero();
+		assertThat(meterRegistry.get("banking.notification.failed").counter().count()).isEqualTo(8);
+	}
+
+	private static ConsumerRecord<String, TransferEvent> record(long offset) {
+		TransferEvent event = new TransferEvent("transfer-" + offset, "ACC001", "ACC002",
+				BigDecimal.TEN, null, TransferStatus.COMPLETED, Instant.now());
+		return new ConsumerRecord<>("transfer-completed", 0, offset, "ACC001", event);
+	}
+}
@@ -0,0 +1,50 @@
+package io.malicki.bankingsystem.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+
+	@Test
+	void accountRejectionDoesNotCostTheClientAToken() {
+		// Client burst 3, account burst 1
+		AdmissionControl admission = admissionControl(1, 3, 1, 100);
+
+		assertThat(admission.tryAdmit("client", "ACC001").isAdmitted()).isTrue();
+		for (int i = 0; i < 10; i++) {
+			assertThat(admission.tryAdmit("client", "ACC001").getRejectedBy()).isEqualTo("account");
+		}
+
+		assertThat(admission.tryAdmit("client", "ACC002").isAdmitted()).isTrue();
+		assertThat(admission.tryAdmit("client", "ACC003").isAdmitted()).isTrue();
+		assertThat(admission.tryAdmit("client", "ACC004").getRejectedBy()).isEqualTo("client");
+	}
+
+	@Test
+	void newKeysShareAnOverflowBucketWhenFullUntilTheSweepEvicts() throws Exception {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		// 20/s refills a burst of 1 in 50 ms
+		AdmissionControl admission = new AdmissionControl(meterRegistry, true, 20, 1, 20, 100, 2, 10);
+
+		assertThat(admission.tryAdmit("client", "ACC001").isAdmitted()).isTrue();
+		assertThat(admission.tryAdmit("client", "ACC002").isAdmitted()).isTrue();
+
+		// Map full: the next accounts share one bucket, not one each
+		assertThat(admission.tryAdmit("client", "ACC003").isAdmitted()).isTrue();
+		assertThat(admission.tryAdmit("client", "ACC004").getRejectedBy()).isEqualTo("account");
+		assertThat(meterRegistry.counter("banking.admission.overflow", "scope", "account").count()).isEqualTo(2);
+
+		Thread.sleep(100);
+		admission.evictIdleBuckets();
+		assertThat(admission.tryAdmit("client", "ACC004").isAdmitted()).isTrue();
+		assertThat(admission.tryAdmit("client", "ACC005").isAdmitted()).isTrue();
+		assertThat(meterRegistry.counter("banking.admission.overflow", "scope", "account").count()).isEqualTo(2);
+	}
+
+	// Same rate for clients and accounts, 10 ms idle timeout
+	private AdmissionControl admissionControl(double rate, int clientBurst, int accountBurst, int maxBuckets) {
+		return new AdmissionControl(new SimpleMeterRegistry(), true, rate, accountBurst, rate, clientBurst, maxBuckets, 10);
+	}
+}
@@ -0,0 +1,48 @@
+package io.malicki.bankingsystem.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void allowsBurstThenRejectsUntilRefilled() {
+		TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+		assertThat(bucket.tryAcquire(0)).isZero();
+		assertThat(bucket.tryAcquire(0)).isZero();
+		assertThat(bucket.tryAcquire(0)).isZero();
+
+		long wait = bucket.tryAcquire(0);
+		assertThat(wait).isEqualTo(SECOND / 10);
+
+		assertThat(bucket.tryAcquire(wait)).isZero();
+		assertThat(bucket.tryAcquire(wait)).isPositive();
+	}
+
+	@Test
+	void refundGivesBackOneToken() {
+		TokenBucket bucket = new TokenBucket(10, 2, 0);
+		bucket.tryAcquire(0);
+		bucket.tryAcquire(0);
+		assertThat(bucket.tryAcquire(0)).isPositive();
+
+		bucket.refund();
+
+		assertThat(bucket.tryAcquire(0)).isZero();
+		assertThat(bucket.tryAcquire(0)).isPositive();
+	}
+
+	@Test
+	void reportsIdleOnlyOnceFull() {
+		TokenBucket bucket = new TokenBucket(10, 2, 0);
+		bucket.tryAcquire(0);
+		bucket.tryAcquire(0);
+
+		assertThat(bucket.isFullAndIdle(SECOND / 10, SECOND)).isFalse();
+		assertThat(bucket.isFullAndIdle(2 * SECOND, SECOND)).isTrue();
+	}
+}
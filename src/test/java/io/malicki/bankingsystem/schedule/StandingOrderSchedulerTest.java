@@ -0,0 +1,138 @@
+package io.malicki.bankingsystem.schedule;
+
+import io.malicki.bankingsystem.api.dto.ScheduledTransferRequest;
+import io.malicki.bankingsystem.domain.schedule.ScheduleFrequency;
+import io.malicki.bankingsystem.domain.schedule.ScheduleStatus;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransfer;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransferRepository;
+import io.malicki.bankingsystem.domain.schedule.ScheduledTransferService;
+import io.malicki.bankingsystem.kafka.errorhandling.ErrorClassifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Schedulers are created by the test and driven by hand; the application's own
+// one ticks once an hour so it stays out of the way.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:scheduletest;DB_CLOSE_DELAY=-1",
+		"banking.outbox.poll-interval-ms=3600000",
+		"banking.velocity.limit.enabled=false",
+		"banking.schedule.tick-ms=3600000",
+		"banking.audit.directory=target/schedule-test/audit",
+		"banking.dlt.fingerprint-directory=target/schedule-test/fingerprints"
+})
+@EmbeddedKafka(partitions = 3, bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class StandingOrderSchedulerTest {
+
+	@Autowired
+	ScheduledTransferService scheduledTransferService;
+
+	@Autowired
+	ScheduledTransferRepository scheduledTransferRepository;
+
+	@Autowired
+	ErrorClassifier errorClassifier;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void dropPoisonCheck() {
+		jdbcTemplate.execute("ALTER TABLE transfers DROP CONSTRAINT IF EXISTS no_poison");
+	}
+
+	@Test
+	void executionRunsOnceWhateverFiresIt() {
+		String description = "once-" + UUID.randomUUID();
+		ScheduledTransfer schedule = schedule("SCHED01", description, ScheduleFrequency.DAILY, 3);
+		Instant due = schedule.getNextExecutionAt();
+
+		// Another instance holding a timer for the same execution
+		MeterRegistry otherMetrics = new SimpleMeterRegistry();
+		StandingOrderScheduler other = scheduler(otherMetrics, 5);
+		other.loadUpcoming();
+
+		assertThat(scheduledTransferService.fire(List.of(schedule.getId()), Instant.now()))
+				.containsOnlyKeys(schedule.getId());
+		assertThat(scheduledTransferService.fire(List.of(schedule.getId()), Instant.now())).isEmpty();
+
+		other.fireDue();
+		assertThat(otherMetrics.counter("banking.schedule.executions", "result", "skipped").count()).isEqualTo(1);
+
+		// A restart after the fire loads from the epoch again
+		MeterRegistry restartedMetrics = new SimpleMeterRegistry();
+		StandingOrderScheduler restarted = scheduler(restartedMetrics, 5);
+		restarted.loadUpcoming();
+		restarted.fireDue();
+		assertThat(restartedMetrics.counter("banking.schedule.executions", "result", "fired").count()).isZero();
+
+		assertThat(transfersWithDescription(description)).isEqualTo(1);
+		ScheduledTransfer after = scheduledTransferRepository.findById(schedule.getId()).orElseThrow();
+		assertThat(after.getExecutionCount()).isEqualTo(1);
+		assertThat(after.getNextExecutionAt()).isEqualTo(due.plus(Duration.ofDays(1)));
+		assertThat(after.getStatus()).isEqualTo(ScheduleStatus.ACTIVE);
+	}
+
+	@Test
+	void failingScheduleIsSuspendedWithoutHoldingUpTheRest() throws Exception {
+		// Every transfer from POISON is refused by the database
+		jdbcTemplate.execute("ALTER TABLE transfers ADD CONSTRAINT no_poison CHECK (from_account_number <> 'POISON')");
+		String goodDescription = "good-" + UUID.randomUUID();
+		ScheduledTransfer poison = schedule("POISON", "poison-" + UUID.randomUUID(), ScheduleFrequency.ONCE, null);
+		ScheduledTransfer good = schedule("SCHED02", goodDescription, ScheduleFrequency.ONCE, null);
+
+		MeterRegistry metrics = new SimpleMeterRegistry();
+		StandingOrderScheduler scheduler = scheduler(metrics, 3);
+		scheduler.loadUpcoming();
+		// Both in one batch: it fails, then each runs on its own
+		for (int tick = 0; tick < 100 && status(poison) != ScheduleStatus.SUSPENDED; tick++) {
+			scheduler.fireDue();
+			Thread.sleep(20);
+		}
+
+		assertThat(status(poison)).isEqualTo(ScheduleStatus.SUSPENDED);
+		assertThat(status(good)).isEqualTo(ScheduleStatus.COMPLETED);
+		assertThat(transfersWithDescription(goodDescription)).isEqualTo(1);
+		assertThat(metrics.counter("banking.schedule.executions", "result", "suspended").count()).isEqualTo(1);
+
+		// Suspended schedules aren't loaded again
+		StandingOrderScheduler restarted = scheduler(new SimpleMeterRegistry(), 3);
+		restarted.loadUpcoming();
+		restarted.fireDue();
+		assertThat(status(poison)).isEqualTo(ScheduleStatus.SUSPENDED);
+	}
+
+	private ScheduledTransfer schedule(String from, String description, ScheduleFrequency frequency, Integer maxExecutions) {
+		return scheduledTransferService.create(new ScheduledTransferRequest(
+				from, "SCHED99", new BigDecimal("10.00"), description,
+				Instant.now().minusSeconds(1), frequency, maxExecutions));
+	}
+
+	// 10ms ticks, retried right away
+	private StandingOrderScheduler scheduler(MeterRegistry meterRegistry, int maxAttempts) {
+		return new StandingOrderScheduler(scheduledTransferRepository, scheduledTransferService, errorClassifier,
+				meterRegistry, 10, 64, 4, 60, 60_000, 10_000, 500, 10_000, 0, maxAttempts);
+	}
+
+	private ScheduleStatus status(ScheduledTransfer schedule) {
+		return scheduledTransferRepository.findById(schedule.getId()).orElseThrow().getStatus();
+	}
+
+	private int transfersWithDescription(String description) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM transfers WHERE description = ?", Integer.class, description);
+	}
+}
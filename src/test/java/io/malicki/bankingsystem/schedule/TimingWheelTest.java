@@ -0,0 +1,76 @@
+package io.malicki.bankingsystem.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+	private static final long TICK = 10;
+
+	@Test
+	void firesEveryTimerOnceNeverEarlyAndAtMostATickLate() {
+		// 3 levels of 8 x 10ms cover 5.12s; later timers wait in the top level
+		TimingWheel wheel = new TimingWheel(TICK, 8, 3, 0);
+		Random random = new Random(42);
+		Map<Long, Long> due = new HashMap<>();
+		for (long id = 0; id < 20_000; id++) {
+			long at = random.nextInt(60_000);
+			due.put(id, at);
+			wheel.add(id, at);
+		}
+		assertThat(wheel.size()).isEqualTo(20_000);
+
+		Map<Long, Long> fired = new HashMap<>();
+		for (long now = 0; now <= 61_000; now += 1 + random.nextInt(25)) {
+			long clock = now;
+			wheel.advance(clock);
+			wheel.drain(Integer.MAX_VALUE, (id, dueMillis) -> {
+				assertThat(dueMillis).isEqualTo(due.get(id));
+				assertThat(dueMillis).isLessThanOrEqualTo(clock);
+				assertThat(fired.put(id, clock)).isNull();
+			});
+		}
+
+		assertThat(fired).hasSize(due.size());
+		assertThat(wheel.size()).isZero();
+		// Drained right after each advance, so late by less than a tick plus one step
+		fired.forEach((id, at) -> assertThat(at - due.get(id)).isLessThan(TICK + 25));
+	}
+
+	@Test
+	void overdueTimersAreReadyWithoutATick() {
+		TimingWheel wheel = new TimingWheel(TICK, 8, 3, 1_000);
+		wheel.add(1, 0);
+		wheel.add(2, 999);
+		wheel.add(3, 1_000);
+
+		Map<Long, Long> ready = new HashMap<>();
+		wheel.drain(10, ready::put);
+
+		assertThat(ready).containsOnlyKeys(1L, 2L);
+		assertThat(wheel.size()).isEqualTo(1);
+	}
+
+	@Test
+	void drainHandsOutAtMostMaxAndKeepsTheRest() {
+		TimingWheel wheel = new TimingWheel(TICK, 8, 3, 0);
+		for (long id = 0; id < 100; id++) {
+			wheel.add(id, 5);
+		}
+		wheel.advance(20);
+
+		Map<Long, Long> ready = new HashMap<>();
+		assertThat(wheel.drain(30, ready::put)).isEqualTo(30);
+		assertThat(wheel.size()).isEqualTo(70);
+		// Added while others wait - still ready, after them
+		wheel.add(100, 0);
+		assertThat(wheel.drain(1_000, ready::put)).isEqualTo(71);
+		assertThat(ready).hasSize(101);
+		assertThat(wheel.size()).isZero();
+	}
+}
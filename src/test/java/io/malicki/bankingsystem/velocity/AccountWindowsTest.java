@@ -0,0 +1,60 @@
+package io.malicki.bankingsystem.velocity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountWindowsTest {
+
+	private static final long SECOND = 1000L;
+
+	// 10s buckets; windows of 1 minute (6 buckets) and 5 minutes (30 buckets)
+	private final AccountWindows windows = new AccountWindows(10 * SECOND, new int[] {6, 30});
+
+	@Test
+	void slidingWindowsExpireOldBuckets() {
+		windows.record(0, true, 1_000);
+		windows.record(30 * SECOND, true, 2_000);
+		windows.record(30 * SECOND, false, 500);
+
+		windows.advance(5);
+		assertThat(windows.sentCents(0)).isEqualTo(3_000);
+		assertThat(windows.sentCount(0)).isEqualTo(2);
+
+		windows.advance(6);  // bucket 0 left the minute window
+		assertThat(windows.sentCents(0)).isEqualTo(2_000);
+		assertThat(windows.sentCents(1)).isEqualTo(3_000);
+
+		windows.advance(100);  // idle far beyond the ring
+		assertThat(windows.sentCents(1)).isZero();
+		assertThat(windows.isIdle(100 * 10 * SECOND)).isTrue();
+	}
+
+	@Test
+	void tumblingWindowsResetAtPeriodBoundary() {
+		windows.record(50 * SECOND, true, 1_000);
+		windows.record(59 * SECOND, true, 1_000);
+
+		assertThat(windows.tumbling(59 * SECOND).get(0).getSentAmount()).isEqualByComparingTo(new BigDecimal("20.00"));
+
+		VelocityWindow nextMinute = windows.tumbling(61 * SECOND).get(0);
+		assertThat(nextMinute.getSentCount()).isZero();
+		assertThat(nextMinute.getStart().toEpochMilli()).isEqualTo(60 * SECOND);
+		assertThat(windows.sliding(61 * SECOND).get(0).getSentCount()).isEqualTo(2);
+	}
+
+	@Test
+	void lateEventsCountOnlyInWindowsThatStillCoverThem() {
+		windows.advance(10);
+		assertThat(windows.record(40 * SECOND, true, 700)).isTrue();  // bucket 4: outside the minute, inside 5 minutes
+		assertThat(windows.record(-1_000 * SECOND, true, 700)).isFalse();
+
+		assertThat(windows.sentCents(0)).isZero();
+		assertThat(windows.sentCents(1)).isEqualTo(700);
+
+		windows.advance(34);
+		assertThat(windows.sentCents(1)).isZero();
+	}
+}
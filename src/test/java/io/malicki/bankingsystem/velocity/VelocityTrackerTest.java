@@ -0,0 +1,96 @@
+package io.malicki.bankingsystem.velocity;
+
+import io.malicki.bankingsystem.exception.VelocityLimitExceededException;
+import io.malicki.bankingsystem.exception.VelocityStateUnavailableException;
+import org.apache.kafka.common.utils.Utils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VelocityTrackerTest {
+
+	// Limit: 100.00 within 5 minutes
+	private final VelocityTracker tracker = new VelocityTracker(new SimpleMeterRegistry(), 10,
+			List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)), 1000,
+			true, Duration.ofMinutes(5), new BigDecimal("100.00"), 1000);
+
+	@Test
+	void readsAddUpPartitions() {
+		Instant now = Instant.now();
+		tracker.record(0, "ACC001", "ACC002", new BigDecimal("30.00"), now);
+		tracker.record(1, "ACC003", "ACC002", new BigDecimal("20.00"), now);
+
+		VelocitySnapshot snapshot = tracker.getSnapshot("ACC002").orElseThrow();
+		assertThat(snapshot.getSliding().get(0).getReceivedAmount()).isEqualByComparingTo("50.00");
+		assertThat(snapshot.getSliding().get(0).getReceivedCount()).isEqualTo(2);
+	}
+
+	@Test
+	void limitIsCheckedOnTheSendersPartition() {
+		int partition = partitionOf("ACC001");
+		tracker.hold(partition, 3);
+		tracker.record(partition, "ACC001", "ACC002", new BigDecimal("90.00"), Instant.now());
+
+		assertThatThrownBy(() -> tracker.checkLimit("ACC001", new BigDecimal("20.00")))
+				.isInstanceOf(VelocityLimitExceededException.class);
+		tracker.checkLimit("ACC001", new BigDecimal("10.00"));
+	}
+
+	@Test
+	void refusesWhenTheSendersPartitionIsNotHeld() {
+		// Nothing held yet
+		assertThatThrownBy(() -> tracker.checkLimit("ACC001", BigDecimal.ONE))
+				.isInstanceOf(VelocityStateUnavailableException.class);
+
+		int partition = partitionOf("ACC001");
+		tracker.hold((partition + 1) % 3, 3);
+		assertThatThrownBy(() -> tracker.checkLimit("ACC001", BigDecimal.ONE))
+				.isInstanceOf(VelocityStateUnavailableException.class);
+	}
+
+	@Test
+	void evictedPartitionIsNoLongerAnswered() {
+		int partition = partitionOf("ACC001");
+		tracker.hold(partition, 3);
+		tracker.record(partition, "ACC001", "ACC002", new BigDecimal("90.00"), Instant.now());
+
+		assertThat(tracker.evictPartition(partition)).isEqualTo(2);
+
+		// Unknown, not zero - the next owner has the sender's history
+		assertThatThrownBy(() -> tracker.checkLimit("ACC001", new BigDecimal("20.00")))
+				.isInstanceOf(VelocityStateUnavailableException.class);
+		assertThat(tracker.getSnapshot("ACC002")).isEmpty();
+	}
+
+	@Test
+	void fullTrackerDropsNewAccountsUntilTheSweep() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		VelocityTracker small = new VelocityTracker(meterRegistry, 10,
+				List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)), 2,
+				true, Duration.ofMinutes(5), new BigDecimal("100.00"), 1000);
+		Instant now = Instant.now();
+		// Outside every window, so idle from the start
+		small.record(0, "ACC001", "ACC002", BigDecimal.TEN, now.minus(Duration.ofMinutes(10)));
+
+		small.record(0, "ACC003", "ACC004", BigDecimal.TEN, now);
+		assertThat(small.getSnapshot("ACC003")).isEmpty();
+		assertThat(meterRegistry.counter("banking.velocity.dropped").count()).isEqualTo(2);
+
+		small.evictIdleAccounts();
+		small.record(0, "ACC003", "ACC004", BigDecimal.TEN, now);
+		assertThat(small.getSnapshot("ACC003").orElseThrow().getSliding().get(0).getSentCount()).isEqualTo(1);
+	}
+
+	// Same as the producer's default partitioner on the sender key
+	private static int partitionOf(String accountNumber) {
+		return Utils.toPositive(Utils.murmur2(accountNumber.getBytes(StandardCharsets.UTF_8))) % 3;
+	}
+}